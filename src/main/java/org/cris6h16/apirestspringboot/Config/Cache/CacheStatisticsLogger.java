@@ -0,0 +1,42 @@
+package org.cris6h16.apirestspringboot.Config.Cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Cache.STATISTICS_LOG_CRON;
+
+/**
+ * Logs the hit ratio of each region of the Hibernate second-level cache
+ * ( requires {@code hibernate.generate_statistics} )
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class CacheStatisticsLogger {
+    private final Statistics statistics;
+
+    public CacheStatisticsLogger(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Scheduled(cron = STATISTICS_LOG_CRON)
+    public void logHitRatios() {
+        if (!statistics.isStatisticsEnabled()) return;
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics r = statistics.getDomainDataRegionStatistics(region);
+            long hits = r.getHitCount();
+            long misses = r.getMissCount();
+            double ratio = (hits + misses == 0) ? 0 : (double) hits / (hits + misses);
+            log.info("L2 cache region {}: hits={}, misses={}, puts={}, hit ratio={}",
+                    region, hits, misses, r.getPutCount(), String.format("%.2f", ratio));
+        }
+    }
+}
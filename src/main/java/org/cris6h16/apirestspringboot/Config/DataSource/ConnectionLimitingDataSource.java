@@ -0,0 +1,133 @@
+package org.cris6h16.apirestspringboot.Config.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link DataSource} that hands out at most as many connections as its pool has.<br>
+ * With a thread per request there are never more waiting threads than the ones of the server,
+ * but with virtual threads thousands of requests can ask for a connection at once; here they
+ * wait in a fair {@link Semaphore} ( a parked virtual thread is cheap ) instead of in the pool,
+ * then the pool only sees requests that it can serve right away.<br>
+ * The permit is released when the connection is closed ( returned to the pool ).
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final long timeoutMillis;
+
+    /**
+     * @param target         the pool
+     * @param maxConnections the max size of the pool
+     * @param timeoutMillis  max wait for a connection, as the {@code connectionTimeout} of the pool
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public ConnectionLimitingDataSource(DataSource target, int maxConnections, long timeoutMillis) {
+        super(target);
+        if (maxConnections <= 0) throw new IllegalArgumentException("The max of connections must be positive");
+        this.permits = new Semaphore(maxConnections, true); // FIFO, a request isn't overtaken by the next ones
+        this.maxConnections = maxConnections;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the connections that can be handed out right now
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public int getAvailableConnections() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * @return the requests waiting for a connection, approximated
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public int getPendingRequests() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Close the pool, this bean replaces it then Spring calls this method on shutdown
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) pool.close();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Connection not available, all the " + maxConnections + " connections are in use after waiting " + timeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Wrap the connection to release its permit on {@link Connection#close()}, only once
+     */
+    private Connection limited(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) permits.release();
+                        }
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+}
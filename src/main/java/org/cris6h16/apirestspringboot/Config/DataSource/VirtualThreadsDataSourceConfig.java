@@ -0,0 +1,48 @@
+package org.cris6h16.apirestspringboot.Config.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * When the requests run on virtual threads ( {@code spring.threads.virtual.enabled=true} ) the
+ * Hikari pool is wrapped in a {@link ConnectionLimitingDataSource} with as many permits as connections.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadsDataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor() { // static, it's created before the other beans
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) return bean;
+                HikariDataSource hikari = hikari(dataSource); // maybe wrapped already, e.g. by QueryCountConfig
+                if (hikari == null) return bean;
+
+                log.info("Limiting the connections of '{}' to its {} pooled connections for the virtual threads", beanName, hikari.getMaximumPoolSize());
+                return new ConnectionLimitingDataSource(dataSource, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+            }
+        };
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.cris6h16.apirestspringboot.Config.Metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Metrics.HANDLER_KEY;
+
+/**
+ * Adds the controller method ( e.g. {@code NoteController#getPage} ) to the {@code http.server.requests} timers,
+ * then an endpoint with several methods by its headers is measured per method
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Component
+public class HandlerMethodObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    protected KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod m) {
+            return KeyValue.of(HANDLER_KEY, m.getBeanType().getSimpleName() + "#" + m.getMethod().getName());
+        }
+        return KeyValue.of(HANDLER_KEY, "none"); // not found, security, static resources
+    }
+}
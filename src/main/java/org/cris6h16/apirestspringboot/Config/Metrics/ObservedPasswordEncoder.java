@@ -0,0 +1,59 @@
+package org.cris6h16.apirestspringboot.Config.Metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Metrics.PASSWORD_ENCODE;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Metrics.PASSWORD_VERIFY;
+
+/**
+ * {@link PasswordEncoder} that observes the time of each hash ( BCrypt ), the verification of each
+ * request with basic auth and the encoding of each created user or changed password
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class ObservedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+    private volatile ObservationRegistry registry; // resolved on the first hash, the encoder is created before it
+
+    public ObservedPasswordEncoder(PasswordEncoder delegate, ObjectProvider<ObservationRegistry> registryProvider) {
+        this.delegate = delegate;
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return Observation.createNotStarted(PASSWORD_ENCODE, registry())
+                .observe(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Observation observation = Observation.createNotStarted(PASSWORD_VERIFY, registry()).start();
+        try {
+            boolean matched = delegate.matches(rawPassword, encodedPassword);
+            observation.lowCardinalityKeyValue("matched", String.valueOf(matched));
+            return matched;
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private ObservationRegistry registry() {
+        ObservationRegistry r = registry;
+        if (r == null) registry = r = registryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+        return r;
+    }
+}
@@ -0,0 +1,31 @@
+package org.cris6h16.apirestspringboot.Config.Metrics;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the {@link PasswordEncoder} bean in an {@link ObservedPasswordEncoder}, then the authentication,
+ * the services and {@code ParallelPasswordHasher} are observed without changes
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Component
+public class PasswordEncoderObservationPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<ObservationRegistry> registryProvider;
+
+    public PasswordEncoderObservationPostProcessor(ObjectProvider<ObservationRegistry> registryProvider) {
+        this.registryProvider = registryProvider; // not the registry, a post processor is created before the other beans
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof PasswordEncoder encoder && !(bean instanceof ObservedPasswordEncoder)) {
+            return new ObservedPasswordEncoder(encoder, registryProvider);
+        }
+        return bean;
+    }
+}
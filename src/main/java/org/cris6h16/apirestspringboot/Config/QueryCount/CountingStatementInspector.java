@@ -0,0 +1,20 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Adds each statement prepared by Hibernate to the {@link QueryCount} of the current thread, the SQL is kept as is.<br>
+ * The lazy loads, the cascades and the collections of the entities are prepared here too, then an N+1
+ * shows up as statements that grow with the rows.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCount.recordStatement();
+        return sql;
+    }
+}
@@ -0,0 +1,92 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+/**
+ * The statements, rows and database time of a unit of work on the current thread, e.g. a request
+ * ( {@link QueryCountFilter} ) or a call to a service in a test.<br>
+ * The statements are counted by {@link CountingStatementInspector} ( one per statement prepared by Hibernate,
+ * a JDBC batch is one ), the rows ( read or written ) and the time of the executions by {@link QueryCountingDataSource}.<br>
+ * A count can be started inside another one, then the work is added to both.
+ *
+ * <pre>{@code
+ * try (QueryCount count = QueryCount.start()) {
+ *     noteService.getByIdAndUserId(noteId, userId);
+ *     log.debug("{}", count);
+ * }
+ * }</pre>
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class QueryCount implements AutoCloseable {
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private final QueryCount enclosing;
+    private long statements;
+    private long rows;
+    private long nanos;
+
+    private QueryCount(QueryCount enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /**
+     * @return a count of the work done on the current thread until it's closed
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static QueryCount start() {
+        QueryCount count = new QueryCount(CURRENT.get());
+        CURRENT.set(count);
+        return count;
+    }
+
+    static void recordStatement() {
+        for (QueryCount c = CURRENT.get(); c != null; c = c.enclosing) c.statements++;
+    }
+
+    static void recordRows(long rows) {
+        if (rows <= 0) return; // SUCCESS_NO_INFO of a batch
+        for (QueryCount c = CURRENT.get(); c != null; c = c.enclosing) c.rows += rows;
+    }
+
+    static void recordNanos(long nanos) {
+        for (QueryCount c = CURRENT.get(); c != null; c = c.enclosing) c.nanos += nanos;
+    }
+
+    /**
+     * @return {@code true} if there's a count on the current thread, otherwise the JDBC calls aren't measured
+     */
+    static boolean isCounting() {
+        return CURRENT.get() != null;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Stop counting, the enclosing count ( if any ) goes on
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) return; // already closed
+        if (enclosing == null) CURRENT.remove();
+        else CURRENT.set(enclosing);
+    }
+
+    /**
+     * @return e.g. {@code statements=3, rows=12, time=1.25ms}, the value of the {@link org.cris6h16.apirestspringboot.Constants.Cons.QueryCount#HEADER}
+     */
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", rows=" + rows + ", time=" + String.format("%.2f", nanos / 1_000_000.0) + "ms";
+    }
+}
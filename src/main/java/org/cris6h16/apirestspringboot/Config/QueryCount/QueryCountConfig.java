@@ -0,0 +1,58 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.QueryCount.DEFAULT_STATEMENT_BUDGET;
+
+/**
+ * The per-request count of statements, rows and database time ( {@link QueryCount} ):<br>
+ * - the statements from Hibernate, with {@link CountingStatementInspector}<br>
+ * - the rows and the time from the {@link DataSource}, wrapped in a {@link QueryCountingDataSource}<br>
+ * - the requests through {@link QueryCountFilter}, its budget is {@code query-count.statement-budget}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Configuration
+@Slf4j
+public class QueryCountConfig {
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor() { // static, it's created before the other beans
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof QueryCountingDataSource) return bean;
+
+                log.debug("Counting the rows and the time of the statements of '{}'", beanName);
+                return new QueryCountingDataSource(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer countingStatementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+
+    @Bean
+    QueryCountFilter queryCountFilter(@Value("${query-count.statement-budget:" + DEFAULT_STATEMENT_BUDGET + "}") int statementBudget) {
+        return new QueryCountFilter(statementBudget);
+    }
+
+    @Bean
+    FilterRegistrationBean<QueryCountFilter> queryCountFilterRegistration(QueryCountFilter queryCountFilter) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(queryCountFilter);
+        registration.setEnabled(false); // added to the security filter chain instead ( SecurityConfig ), it needs the authentication
+        return registration;
+    }
+}
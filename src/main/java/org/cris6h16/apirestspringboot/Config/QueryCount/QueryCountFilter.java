@@ -0,0 +1,71 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.QueryCount.HEADER;
+
+/**
+ * Counts the statements, rows and database time of each request ( {@link QueryCount} ), the authentication included:<br>
+ * - the admins get them in the {@link org.cris6h16.apirestspringboot.Constants.Cons.QueryCount#HEADER} of the response<br>
+ * - a request with more statements than the budget is logged as a warning, usually an N+1 ( a lazy load or a cascade per row )<br>
+ * It's added to the security filter chain right after the security context is loaded, then the authentication
+ * is still there when the response is committed.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final int statementBudget;
+
+    /**
+     * @param statementBudget statements of a request before its warning
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public QueryCountFilter(int statementBudget) {
+        if (statementBudget <= 0) throw new IllegalArgumentException("The statement budget must be positive");
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try (QueryCount count = QueryCount.start()) {
+            try {
+                filterChain.doFilter(request, new OnCommittedResponseWrapper(response) { // the headers can't be added after the commit
+                    @Override
+                    protected void onResponseCommitted() {
+                        writeHeader(response, count);
+                    }
+                });
+            } finally {
+                if (!response.isCommitted()) writeHeader(response, count); // without body
+                if (count.getStatements() > statementBudget) {
+                    log.warn("{} {} executed {} statements, over the budget of {} ( {} )",
+                            request.getMethod(), request.getRequestURI(), count.getStatements(), statementBudget, count);
+                }
+            }
+        }
+    }
+
+    private void writeHeader(HttpServletResponse response, QueryCount count) {
+        if (isAdmin()) response.setHeader(HEADER, count.toString());
+    }
+
+    private boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() && auth.getAuthorities().stream()
+                .anyMatch(a -> ERole.ROLE_ADMIN.toString().equals(a.getAuthority()));
+    }
+}
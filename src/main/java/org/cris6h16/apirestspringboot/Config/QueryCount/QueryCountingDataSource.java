@@ -0,0 +1,134 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * A {@link DataSource} that adds the rows and the time of each execution to the {@link QueryCount} of the current thread:
+ * the rows read ( {@link ResultSet#next()} ) and the rows written ( update counts ).<br>
+ * Without a count on the thread the calls go straight to the driver.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class QueryCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    /**
+     * @param target the pool
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counted(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counted(super.getConnection(username, password));
+    }
+
+    /**
+     * Close the pool ( or the embedded database of the tests ), this bean replaces it then Spring calls this method on shutdown
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) pool.close();
+        else if (getTargetDataSource() instanceof EmbeddedDatabase database) database.shutdown();
+    }
+
+    private Connection counted(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, (Connection) proxy);
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (Connection) proxy);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (Connection) proxy);
+                default -> result;
+            };
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, Statement target, Connection connection) {
+        return proxy(type, target, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("getConnection")) return connection;
+            if (!name.startsWith("execute") || !QueryCount.isCounting()) {
+                Object result = invoke(target, method, args);
+                return name.equals("getResultSet") ? wrapResultSet(result, (Statement) proxy) : result;
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } finally {
+                QueryCount.recordNanos(System.nanoTime() - start);
+            }
+            switch (result) {
+                case Integer updated -> QueryCount.recordRows(updated);
+                case Long updated -> QueryCount.recordRows(updated);
+                case int[] batch -> {
+                    for (int updated : batch) QueryCount.recordRows(updated);
+                }
+                case long[] batch -> {
+                    for (long updated : batch) QueryCount.recordRows(updated);
+                }
+                case null, default -> {
+                }
+            }
+            return wrapResultSet(result, (Statement) proxy);
+        });
+    }
+
+    /**
+     * The result sets of {@code executeQuery} and {@code getResultSet} count their rows
+     */
+    private Object wrapResultSet(Object result, Statement statement) {
+        if (!(result instanceof ResultSet target)) return result;
+        return proxy(ResultSet.class, target, (proxy, method, args) -> switch (method.getName()) {
+            case "next" -> {
+                boolean next = (boolean) invoke(target, method, args);
+                if (next) QueryCount.recordRows(1);
+                yield next;
+            }
+            case "getStatement" -> statement;
+            default -> invoke(target, method, args);
+        });
+    }
+
+    /**
+     * A proxy of {@code type}, the {@code equals}/{@code hashCode} by identity of the proxy as the ones of the pool
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(
+                QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "unwrap", "isWrapperFor" -> invoke(target, method, args); // the objects of the driver
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
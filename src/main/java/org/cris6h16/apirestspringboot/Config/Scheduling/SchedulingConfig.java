@@ -0,0 +1,15 @@
+package org.cris6h16.apirestspringboot.Config.Scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the {@code @Scheduled} background jobs ( e.g. purge of the note tombstones )
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
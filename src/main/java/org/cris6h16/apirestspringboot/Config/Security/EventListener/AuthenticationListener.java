@@ -1,7 +1,10 @@
 package org.cris6h16.apirestspringboot.Config.Security.EventListener;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Utils.FilesUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
@@ -11,6 +14,7 @@ import org.springframework.stereotype.Component;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Listener for authentication events.
@@ -21,18 +25,20 @@ import java.util.Vector;
 @Component
 public class AuthenticationListener {
     private final FilesUtils filesUtils;
+    private final ObjectProvider<ObservationRegistry> observationRegistry; // the login counters, with the metrics profile
     protected volatile long lastSuccessFlushed;
     protected volatile long lastFailureFlushed;
     protected final List<SuccessData> successData;
     protected final List<FailureData> failureData;
-    private final Object successLock = new Object();
-    private final Object failureLock = new Object();
+    private final ReentrantLock successLock = new ReentrantLock(); // not synchronized, a virtual thread writing the file would pin its carrier
+    private final ReentrantLock failureLock = new ReentrantLock();
     private final long flushInterval = 10 * 60 * 1000; // 10 minutes
 
-    public AuthenticationListener(FilesUtils filesUtils) {
+    public AuthenticationListener(FilesUtils filesUtils, ObjectProvider<ObservationRegistry> observationRegistry) {
         this.lastSuccessFlushed = 0L;
         this.lastFailureFlushed = 0L;
         this.filesUtils = filesUtils;
+        this.observationRegistry = observationRegistry;
         this.successData = new Vector<>(10);
         this.failureData = new Vector<>(10);
     }
@@ -46,12 +52,16 @@ public class AuthenticationListener {
      */
     @EventListener
     public void onSuccess(AuthenticationSuccessEvent success) {
-        synchronized (successLock) {
+        successLock.lock();
+        try {
             successData.add(new SuccessData(
                     success.getAuthentication(),
                     System.currentTimeMillis()
             ));
+        } finally {
+            successLock.unlock();
         }
+        observeLogin("success", "none");
         flushSuccessInFile();
     }
 
@@ -64,16 +74,38 @@ public class AuthenticationListener {
      */
     @EventListener
     public void onFailure(AbstractAuthenticationFailureEvent failure) {
-        synchronized (failureLock) {
+        failureLock.lock();
+        try {
             failureData.add(new FailureData(
                     failure.getAuthentication(),
                     failure.getException(),
                     System.currentTimeMillis()
             ));
+        } finally {
+            failureLock.unlock();
         }
+        observeLogin("failure", failure.getException() == null ? "none" : failure.getException().getClass().getSimpleName());
         flushFailureInFile();
     }
 
+    /**
+     * Counts the login in {@link Cons.Metrics#LOGIN}, by result and by the exception of a failure
+     * ( e.g. {@code BadCredentialsException} )
+     *
+     * @param result  {@code success} or {@code failure}
+     * @param reason  the simple name of the exception, {@code none} for a success
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    protected void observeLogin(String result, String reason) {
+        ObservationRegistry registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        Observation.createNotStarted(Cons.Metrics.LOGIN, registry)
+                .lowCardinalityKeyValue("result", result)
+                .lowCardinalityKeyValue("reason", reason)
+                .start()
+                .stop();
+    }
+
     /**
      * Flushes the successful authentication events in the file.
      *
@@ -83,7 +115,8 @@ public class AuthenticationListener {
     protected void flushSuccessInFile() {
         if (System.currentTimeMillis() - lastSuccessFlushed < flushInterval) return;
 
-        synchronized (successLock) {
+        successLock.lock();
+        try {
             if (System.currentTimeMillis() - lastSuccessFlushed < flushInterval) return;
 
             StringBuilder content = new StringBuilder();
@@ -98,6 +131,8 @@ public class AuthenticationListener {
 
             this.successData.clear();
             lastSuccessFlushed = System.currentTimeMillis();
+        } finally {
+            successLock.unlock();
         }
     }
 
@@ -110,7 +145,8 @@ public class AuthenticationListener {
     void flushFailureInFile() {
         if (System.currentTimeMillis() - lastFailureFlushed < flushInterval) return;
 
-        synchronized (failureLock) {
+        failureLock.lock();
+        try {
             if (System.currentTimeMillis() - lastFailureFlushed < flushInterval) return;
 
             StringBuilder content = new StringBuilder();
@@ -125,6 +161,8 @@ public class AuthenticationListener {
 
             this.failureData.clear();
             lastFailureFlushed = System.currentTimeMillis();
+        } finally {
+            failureLock.unlock();
         }
     }
 
@@ -0,0 +1,83 @@
+package org.cris6h16.apirestspringboot.Config.Security.PasswordHashing;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes many passwords in parallel with the {@link PasswordEncoder} of the app.<br>
+ * The pool has a thread per core, a slow hash ( e.g. BCrypt ) is CPU bound, then more threads
+ * won't be faster; the passwords are split into a slice per thread, so the queue only holds a
+ * few tasks per request. It isn't exposed as an {@link Executor} bean to keep the executor
+ * auto-configured by Spring Boot.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Component
+public class ParallelPasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService pool;
+    private final int threads;
+
+    public ParallelPasswordHasher(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+        this.threads = Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()); // back-pressure if many bulks arrive at once
+    }
+
+    /**
+     * @param rawPasswords to encode
+     * @return the encoded passwords, in the same order
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int size = rawPasswords.size();
+        if (size <= 1) return rawPasswords.stream().map(passwordEncoder::encode).toList();
+
+        String[] encoded = new String[size];
+        int slices = Math.min(threads, size);
+        int sliceSize = (size + slices - 1) / slices;
+
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < size; from += sliceSize) {
+            int start = from;
+            int end = Math.min(from + sliceSize, size);
+            futures.add(pool.submit(() -> {
+                for (int i = start; i < end; i++) encoded[i] = passwordEncoder.encode(rawPasswords.get(i));
+            }));
+        }
+
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing the passwords", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fail hashing the passwords", e.getCause());
+            }
+        }
+        return List.of(encoded);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
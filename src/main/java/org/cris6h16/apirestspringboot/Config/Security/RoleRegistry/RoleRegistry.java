@@ -0,0 +1,69 @@
+package org.cris6h16.apirestspringboot.Config.Security.RoleRegistry;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Entities.RoleEntity;
+import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of the {@link RoleEntity} of each {@link ERole}.<br>
+ * The roles are loaded once at startup, the missing ones are created, then
+ * the signup doesn't query the roles and can't insert a duplicated role.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Component
+@Slf4j
+public class RoleRegistry {
+    private final RoleRepository roleRepository;
+    private Map<ERole, RoleEntity> roles;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Load the roles from the database, creating the missing ones
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @PostConstruct
+    public void load() {
+        Map<ERole, RoleEntity> loaded = new EnumMap<>(ERole.class);
+        for (RoleEntity role : roleRepository.findAll()) loaded.putIfAbsent(role.getName(), role);
+
+        for (ERole name : ERole.values()) {
+            if (!loaded.containsKey(name)) loaded.put(name, create(name));
+        }
+
+        this.roles = Collections.unmodifiableMap(loaded);
+        log.info("Role registry loaded: {}", roles.keySet());
+    }
+
+    /**
+     * @param name of the role
+     * @return the {@link RoleEntity} of the role, it's detached ( only for read its {@code id} and {@code name} )
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public RoleEntity get(ERole name) {
+        return roles.get(name);
+    }
+
+    private RoleEntity create(ERole name) {
+        try {
+            return roleRepository.saveAndFlush(RoleEntity.builder().name(name).build());
+        } catch (DataIntegrityViolationException e) { // other instance created it at the same time
+            return roleRepository.findByName(name).orElseThrow(() -> e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.cris6h16.apirestspringboot.Config.Security;
 
 import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.Config.QueryCount.QueryCountFilter;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
 import org.cris6h16.apirestspringboot.Config.Security.UserDetailsService.UserDetailsServiceImpl;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
 import org.springframework.context.annotation.Bean;
@@ -18,6 +20,7 @@ import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.expression.WebExpressionAuthorizationManager;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -25,7 +28,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.Controller.Path.DELETIONS_PATH;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Metrics.ACTUATOR_PATH;
 import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Controller.Path.NOTE_PATH;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Availability.COMPLEMENT_AVAILABILITY;
 import static org.cris6h16.apirestspringboot.Constants.Cons.User.Controller.Path.*;
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -48,22 +54,27 @@ public class SecurityConfig {
     }
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, QueryCountFilter queryCountFilter) throws Exception {
 
         http
+                .addFilterAfter(queryCountFilter, SecurityContextHolderFilter.class) // the authentication is counted too
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(withDefaults()) // use a bean known as corsConfigurationSource
                 .httpBasic(withDefaults())
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(HttpMethod.GET, USER_PATH).hasRole("ADMIN")// page of users
                         .requestMatchers(HttpMethod.POST, USER_PATH).permitAll()                       // create a user
+                        .requestMatchers(HttpMethod.GET, USER_PATH + COMPLEMENT_AVAILABILITY).permitAll() // availability of a username/email for the signup, rate limited per client
+                        .requestMatchers(HttpMethod.POST, USER_PATH + COMPLEMENT_BULK).hasRole("ADMIN") // create many users
                         .requestMatchers(NOTE_PATH + "/**").hasAnyRole("ADMIN", "USER")       // all note endpoints
+                        .requestMatchers(DELETIONS_PATH + "/**").hasRole("ADMIN")             // progress of the bulk deletions
                         .requestMatchers(getAllUserPathsThatCanOperateJustTheOwners()).access((authentication, request) -> {
                             String userId = request.getVariables().get("id");
                             boolean granted = webSecurity.checkIfIsAdminOrUserAndHasThisIdAsPrincipalId(authentication, userId);
                             return new AuthorizationDecision(granted);
                         })
                         .requestMatchers("/docs/**").permitAll()
+                        .requestMatchers(ACTUATOR_PATH + "/**").hasRole("ADMIN")                  // metrics ( prometheus )
                         .anyRequest().access(new WebExpressionAuthorizationManager("hasRole('ADMIN')"))
                 )
 //                .sessionManagement(
@@ -92,8 +103,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    UserDetailsService userDetailsService(UserRepository ur, PasswordEncoder pe) {
-        return new UserDetailsServiceImpl(ur, pe);
+    UserDetailsService userDetailsService(UserRepository ur, PasswordEncoder pe, RoleRegistry rr) {
+        return new UserDetailsServiceImpl(ur, pe, rr);
     }
 
     @Bean
@@ -101,7 +112,8 @@ public class SecurityConfig {
         CorsConfiguration conf = new CorsConfiguration();
         conf.setAllowedOrigins(Arrays.asList("https://example.com:8080"));
         conf.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE"));
-        conf.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        conf.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-Match"));
+        conf.setExposedHeaders(List.of("ETag"));
 //        conf.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", conf);
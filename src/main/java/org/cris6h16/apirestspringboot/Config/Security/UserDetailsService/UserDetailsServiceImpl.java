@@ -1,9 +1,9 @@
 package org.cris6h16.apirestspringboot.Config.Security.UserDetailsService;
 
 import org.cris6h16.apirestspringboot.Config.Security.CustomUser.UserWithId;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Entities.ERole;
-import org.cris6h16.apirestspringboot.Entities.RoleEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
@@ -28,11 +28,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     UserRepository userRepository;
     PasswordEncoder passwordEncoder;
+    RoleRegistry roleRegistry;
 
 
-    public UserDetailsServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserDetailsServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRegistry roleRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.roleRegistry = roleRegistry;
     }
 
     /**
@@ -55,7 +57,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         // If the user hasn't roles assigned, assign a role that is considered as "invited"
         if (user.getRoles() == null || user.getRoles().isEmpty() ) {
             user.setRoles(new HashSet<>(Collections.singleton(
-                    RoleEntity.builder().name(ERole.ROLE_USER).build()
+                    roleRegistry.get(ERole.ROLE_USER)
             )));
         }
 
@@ -64,9 +66,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority(role.getName().name())) // role.name is `@NotBlank`
                 .collect(Collectors.toList());
 
-        // Is enabled?
-//        boolean enabled = user.getById().getDeletedAt() == null;
-        boolean enabled = true;
+        // Is enabled? a deleted user is rejected from the next request on, before being purged
+        boolean enabled = user.getDeletedAt() == null;
         boolean accountNonExpired = true;
         boolean credentialsNonExpired = true;
         boolean accountNonLocked = true;
@@ -20,6 +20,7 @@ public class Cons {
                 public static final String COMPLEMENT_PATCH_USERNAME = "/patch/username";
                 public static final String COMPLEMENT_PATCH_EMAIL = "/patch/email";
                 public static final String COMPLEMENT_PATCH_PASSWORD = "/patch/password";
+                public static final String COMPLEMENT_BULK = "/bulk";
             }
         }
 
@@ -51,6 +52,7 @@ public class Cons {
 
         public static class Fails {
             public static final String NOT_FOUND = "User not found";
+            public static final String VERSION_MISMATCH = "User was modified by another request, reload it and try again";
         }
 
         public static class DTO {
@@ -66,6 +68,42 @@ public class Cons {
             public static final byte DEFAULT_SIZE = 10;
             public static final String DEFAULT_SORT = "id";
         }
+
+        /**
+         * Bulk provisioning of users by the admins
+         */
+        public static class Bulk {
+            public static final int MAX_USERS = 10_000;
+            public static final int CHUNK_SIZE = 1000; // users per transaction and per existence query
+            public static final String SIZE_FAIL_MSG = "Bulk must contain between 1 and " + MAX_USERS + " users";
+        }
+
+        /**
+         * Availability of the usernames and emails for the signup forms, answered by Bloom filters
+         */
+        public static class Availability {
+            public static final String COMPLEMENT_AVAILABILITY = "/availability";
+            public static final double FALSE_POSITIVE_PROBABILITY = 0.01; // of a query to the database for an available one
+            public static final long MIN_EXPECTED_INSERTIONS = 100_000; // room for the signups until the next rebuild
+            public static final String REBUILD_CRON = "0 30 4 * * *"; // every day at 04:30, after the purge of the deleted users
+            public static final int MAX_CHECKS_PER_CLIENT = 20; // per window, enough for a signup form, not for an enumeration
+            public static final long RATE_LIMIT_WINDOW_MILLIS = 60_000;
+            public static final int MAX_TRACKED_CLIENTS = 10_000; // before dropping the expired windows
+            public static final String TOO_MANY_CHECKS_MSG = "Too many availability checks, try again later";
+        }
+
+        /**
+         * Deleted users are only marked, their rows are removed later by a purge
+         */
+        public static class SoftDelete {
+            public static final String PURGE_CRON = "0 0 4 * * *"; // every day at 04:00, off-peak
+        }
+    }
+
+    public class Role {
+        public class Constrains {
+            public static final String NAME_UNIQUE_NAME = "role_name_unique";
+        }
     }
 
     public class Note {
@@ -73,6 +111,8 @@ public class Cons {
             public class Path {
                 public static final String NOTE_PATH = "/api/v1/notes";
             }
+
+            public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json"; // RFC 7396
         }
 
         public class Validations {
@@ -82,6 +122,7 @@ public class Cons {
 
         public class Fails {
             public static final String NOT_FOUND = "Note not found";
+            public static final String VERSION_MISMATCH = "Note was modified by another request, reload it and try again";
         }
 
         /**
@@ -95,13 +136,111 @@ public class Cons {
             public static final byte DEFAULT_PAGE = 0;
             public static final byte DEFAULT_SIZE = 10;
             public static final String DEFAULT_SORT = "id";
+            public static final short MAX_PREVIEW = 1000; // characters of the content in a preview
+            public static final String FIELDS_INVALID_MSG = "Invalid fields, expected a comma separated list of id, title, content, updatedAt, version " +
+                    "and a preview between 1 and " + MAX_PREVIEW + " characters";
+        }
+
+        /**
+         * Delta sync of the notes ( changes since a token )
+         */
+        public static class Sync {
+            public static final String COMPLEMENT_CHANGES = "/changes";
+            public static final String NOTE_CHANGE_UNIQUE_NAME = "note_change_unique";
+            public static final short DEFAULT_LIMIT = 100;
+            public static final short MAX_LIMIT = 1000;
+            public static final int TOMBSTONE_RETENTION_DAYS = 30;
+            public static final String TOMBSTONES_PURGE_CRON = "0 0 3 * * *"; // every day at 03:00
+            public static final String SYNC_TOKEN_EXPIRED_MSG = "Sync token expired, a full resync is required";
+            public static final String SYNC_TOKEN_INVALID_MSG = "Invalid sync token";
+        }
+
+        /**
+         * Edit operations over the content of a note
+         */
+        public static class Edit {
+            public static final String COMPLEMENT_EDITS = "/edits";
+            public static final String OP_INSERT = "insert";
+            public static final String OP_DELETE = "delete";
+            public static final short MAX_OPERATIONS = 1000;
+            public static final String INVALID_EDIT_MSG = "Invalid edit, expected the base version and up to " + MAX_OPERATIONS + " insert/delete operations inside the content";
+        }
+
+        /**
+         * Raw content of a note, readable by ranges
+         */
+        public static class Content {
+            public static final String COMPLEMENT_CONTENT = "/content";
+            public static final String RANGE_UNIT = "chars"; // the slices are cut by the database, in characters
+            public static final String TEXT_PLAIN_UTF8_VALUE = "text/plain;charset=UTF-8";
+            public static final String RANGE_NOT_SATISFIABLE_MSG = "Range not satisfiable, it must start inside the content";
+        }
+
+        /**
+         * Per-user counter of notes, read by the pages instead of a {@code count(*)}
+         */
+        public static class Counter {
+            public static final String RECONCILE_CRON = "0 30 3 * * *"; // every day at 03:30
+        }
+
+        public static class Digest {
+            public static final String COMPLEMENT_DIGEST = "/digest";
+            public static final String NOTE_DIGEST_UNIQUE_NAME = "note_digest_unique";
+            public static final int FANOUT = 16; // a hex digit per level
+            public static final int DEPTH = 3;
+            public static final int LEAVES = 4096; // FANOUT ^ DEPTH
+            public static final String DIGEST_PATH_INVALID_MSG = "Invalid digest path, expected up to " + DEPTH + " hex digits";
         }
 
     }
 
 
+    /**
+     * Background deletion of all the rows of a table, in chunks
+     */
+    public static class BulkDeletion {
+        public static class Controller {
+            public static class Path {
+                public static final String DELETIONS_PATH = "/api/v1/deletions";
+            }
+        }
+
+        public static final int CHUNK_SIZE = 1000; // rows per transaction
+        public static final int LATEST_JOBS = 20;
+        public static final String NOT_FOUND = "Deletion job not found";
+        public static final String RUNNING_TARGET_UNIQUE_NAME = "bulk_deletion_running_target_unique";
+    }
+
+
+    /**
+     * Hibernate second-level cache
+     */
+    public static class Cache {
+        public static final String STATISTICS_LOG_CRON = "0 0 * * * *"; // every hour
+    }
+
+
+    /**
+     * Names of the observations, they are meters with the {@code metrics} profile ( Actuator )
+     */
+    public static class Metrics {
+        public static final String ACTUATOR_PATH = "/actuator";
+        public static final String LOGIN = "auth.login"; // tag result: success | failure
+        public static final String PASSWORD_VERIFY = "auth.password.verify"; // tag matched: true | false
+        public static final String PASSWORD_ENCODE = "auth.password.encode";
+        public static final String HANDLER_KEY = "handler"; // Controller#method of http.server.requests
+    }
+
+    public static class QueryCount {
+        public static final String HEADER = "X-Query-Count"; // statements, rows and database time of the request, only for the admins
+        public static final int DEFAULT_STATEMENT_BUDGET = 20; // statements of a request before its warning
+    }
+
+
     public class CommonInEntity {
         public static final String ID_INVALID = "Invalid id";
+        public static final String IF_MATCH_INVALID = "Invalid If-Match header, expected the ETag of the resource";
+        public static final String IF_MATCH_WEAK = "A weak ETag never matches in If-Match, send the ETag of the resource as is";
     }
 
 
@@ -109,6 +248,15 @@ public class Cons {
         public static class ForClient {
             public static final String GENERIC_ERROR = "An error occurred, please try again later or contact the us for support";
         }
+
+        /**
+         * Compact representations of the pages, negotiated by {@code Accept}
+         */
+        public static class Encoding {
+            public static final String SLIM_PAGE_JSON_VALUE = "application/vnd.cris6h16.page+json"; // JSON, only with the slim envelope
+            public static final String CBOR_VALUE = "application/cbor"; // RFC 8949, with jackson-dataformat-cbor
+            public static final String SMILE_VALUE = "application/x-jackson-smile"; // with jackson-dataformat-smile
+        }
     }
 
 
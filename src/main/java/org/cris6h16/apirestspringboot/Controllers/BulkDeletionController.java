@@ -0,0 +1,142 @@
+package org.cris6h16.apirestspringboot.Controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.cris6h16.apirestspringboot.Controllers.ExceptionHandler.ErrorResponse;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
+import org.cris6h16.apirestspringboot.Services.BulkDeletionServiceImpl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.Controller.Path.DELETIONS_PATH;
+
+/**
+ * Controller of the admin endpoints to follow the progress of the
+ * background deletions of {@link BulkDeletionServiceImpl}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@RestController
+@RequestMapping(DELETIONS_PATH)
+public class BulkDeletionController {
+
+    BulkDeletionServiceImpl bulkDeletionService;
+
+    public BulkDeletionController(BulkDeletionServiceImpl bulkDeletionService) {
+        this.bulkDeletionService = bulkDeletionService;
+    }
+
+    @Operation(
+            tags = {"Admin Deletion Endpoints"},
+            operationId = "getDeletionJob",
+            summary = "get a deletion job",
+            description = "Get the progress of a background deletion, its rows are deleted in chunks ordered by id",
+            method = "GET",
+            parameters = {
+                    @Parameter(name = "jobId", description = "id of the deletion job", required = true, in = ParameterIn.PATH)
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Progress of the job",
+                            content = @Content(
+                                    schema = @Schema(implementation = PublicBulkDeletionJobDTO.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Running job",
+                                                    value = """
+                                                            {
+                                                                "id": 3,
+                                                                "target": "NOTES",
+                                                                "status": "RUNNING",
+                                                                "deleted": 42000,
+                                                                "total": 100000,
+                                                                "startedAt": "2024-07-22T10:15:30.000+00:00",
+                                                                "updatedAt": "2024-07-22T10:15:41.000+00:00",
+                                                                "finishedAt": null
+                                                            }
+                                                            """,
+                                                    summary = "Running job",
+                                                    description = "A deletion of all the notes, 42% done"
+                                            )
+                                    }
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Deletion job not found",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( is not ADMIN, database error, etc. )",
+                            content = @Content
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PublicBulkDeletionJobDTO> getById(@PathVariable(required = true) Long jobId) {
+        return ResponseEntity.ok(bulkDeletionService.getById(jobId));
+    }
+
+    @Operation(
+            tags = {"Admin Deletion Endpoints"},
+            operationId = "getLatestDeletionJobs",
+            summary = "get the latest deletion jobs",
+            description = "Get the latest background deletions, newest first",
+            method = "GET",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Latest jobs",
+                            content = @Content(
+                                    array = @ArraySchema(schema = @Schema(implementation = PublicBulkDeletionJobDTO.class)),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( is not ADMIN, database error, etc. )",
+                            content = @Content
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<PublicBulkDeletionJobDTO>> getLatest() {
+        return ResponseEntity.ok(bulkDeletionService.getLatest());
+    }
+}
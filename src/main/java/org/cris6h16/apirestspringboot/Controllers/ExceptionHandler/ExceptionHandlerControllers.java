@@ -4,7 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.cris6h16.apirestspringboot.Config.Security.CustomUser.UserWithId;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.RangeNotSatisfiableException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.cris6h16.apirestspringboot.Utils.ContentRangeUtils;
 import org.cris6h16.apirestspringboot.Utils.FilesUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -19,6 +21,7 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Handling of exception in the controllers
@@ -30,7 +33,7 @@ import java.util.*;
 @Slf4j
 public class ExceptionHandlerControllers {
 
-    private final Object lock = new Object();
+    private final ReentrantLock lock = new ReentrantLock(); // not synchronized, a virtual thread writing the file would pin its carrier
     private final FilesUtils filesSyncUtils;
     protected static volatile long lastSavedToFile; // concurrent changed
     protected static final long MILLIS_EACH_SAVE = 10 * 60 * 1000; // 10 minutes
@@ -57,6 +60,25 @@ public class ExceptionHandlerControllers {
     }
 
 
+    /**
+     * Handles an unsatisfiable {@code Range}, also sending the length of the content
+     * in the {@code Content-Range} header ( RFC 9110 )
+     *
+     * @param e the exception
+     * @return a {@link ResponseEntity} with the status {@link HttpStatus#REQUESTED_RANGE_NOT_SATISFIABLE}
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<String> handleRangeNotSatisfiableException(RangeNotSatisfiableException e) {
+        logHandledDebug(e);
+        ResponseEntity<String> res = buildAFailResponse(e.getStatus(), e.getReason());
+        return ResponseEntity.status(res.getStatusCode())
+                .headers(res.getHeaders())
+                .header(HttpHeaders.CONTENT_RANGE, ContentRangeUtils.toUnsatisfiedContentRange(e.getLength()))
+                .body(res.getBody());
+    }
+
     /**
      * Handling of generic exceptions
      *
@@ -226,7 +248,8 @@ public class ExceptionHandlerControllers {
      * @since 1.0
      */
     private void saveHiddenExceptionForTheUserEveryDefinedMins(Exception e) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             StringBuilder line = new StringBuilder()
                     .append(new Date().toString())
                     .append("::")
@@ -239,11 +262,14 @@ public class ExceptionHandlerControllers {
                                     )
                     );
             hiddenExceptionsLines.add(line.toString());
+        } finally {
+            lock.unlock();
         }
 
         if (System.currentTimeMillis() - lastSavedToFile < MILLIS_EACH_SAVE) return;
 
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (System.currentTimeMillis() - lastSavedToFile < MILLIS_EACH_SAVE) return;
 
             StringBuilder content = new StringBuilder();
@@ -257,6 +283,8 @@ public class ExceptionHandlerControllers {
                     Path.of(Cons.Logs.HIDEN_EXCEPTION_OF_USERS),
                     content.toString()
             );
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -11,14 +11,27 @@ import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Controllers.ExceptionHandler.ErrorResponse;
 import org.cris6h16.apirestspringboot.Controllers.MetaAnnotations.MyId;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditNoteContentDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteChangesDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDigestDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicPageDTO;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.cris6h16.apirestspringboot.Services.NoteDigestServiceImpl;
 import org.cris6h16.apirestspringboot.Services.NoteServiceImpl;
+import org.cris6h16.apirestspringboot.Services.NoteSyncServiceImpl;
+import org.cris6h16.apirestspringboot.Utils.CompactEncodingUtils;
+import org.cris6h16.apirestspringboot.Utils.ContentRangeUtils;
+import org.cris6h16.apirestspringboot.Utils.ETagUtils;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -36,9 +49,15 @@ import java.net.URI;
 public class NoteController {
     public static final String path = Cons.Note.Controller.Path.NOTE_PATH;
     private final NoteServiceImpl noteService;
+    private final NoteSyncServiceImpl noteSyncService;
+    private final NoteDigestServiceImpl noteDigestService;
 
-    public NoteController(NoteServiceImpl noteService) {
+    public NoteController(NoteServiceImpl noteService,
+                          NoteSyncServiceImpl noteSyncService,
+                          NoteDigestServiceImpl noteDigestService) {
         this.noteService = noteService;
+        this.noteSyncService = noteSyncService;
+        this.noteDigestService = noteDigestService;
     }
 
 
@@ -113,7 +132,10 @@ public class NoteController {
             tags = {"Note Endpoints"},
             operationId = "getNotesPage",
             summary = "get notes page",
-            description = "Get a page of notes",
+            description = "Get a page of notes. A client that prefers " + Cons.Response.Encoding.SLIM_PAGE_JSON_VALUE + ", " +
+                    Cons.Response.Encoding.CBOR_VALUE + " or " + Cons.Response.Encoding.SMILE_VALUE + " in Accept receives the slim envelope " +
+                    "( content, page, size, totalElements ) in that encoding; the binary ones only in a build with their converters ( -Pbinary-encodings ). " +
+                    "fields and preview select only some attributes and the first characters of the content, for the list views",
             method = "GET",
             responses = {
                     @ApiResponse(
@@ -174,6 +196,14 @@ public class NoteController {
                                     }
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unknown field in fields or preview out of range",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
                     @ApiResponse(
                             responseCode = "401",
                             description = "User not authenticated",
@@ -189,22 +219,182 @@ public class NoteController {
                     @SecurityRequirement(name = "basicAuth")
             }
     )
-    @GetMapping(
-            produces = MediaType.APPLICATION_JSON_VALUE
-    )
-    public ResponseEntity<Page<PublicNoteDTO>> getPage(
+    @GetMapping // without produces: the types of the registered converters ( JSON, the slim one as +json, CBOR and Smile if on the classpath )
+    public ResponseEntity<?> getPage(
             @PageableDefault(
                     size = Cons.Note.Page.DEFAULT_SIZE,
                     page = Cons.Note.Page.DEFAULT_PAGE,
                     sort = Cons.Note.Page.DEFAULT_SORT,
                     direction = Sort.Direction.ASC
             ) @ParameterObject  Pageable pageable,
-            @MyId @Parameter(hidden = true) Long principalId) {
-        Page<PublicNoteDTO> list = noteService.getPage(pageable, principalId);
+            @MyId @Parameter(hidden = true) Long principalId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) @Parameter(hidden = true) String accept,
+            @RequestParam(required = false) @Parameter(description = "comma separated attributes to return, the id is always returned", example = "title,updatedAt") String fields,
+            @RequestParam(required = false) @Parameter(description = "return only the first characters of the content, up to " + Cons.Note.Page.MAX_PREVIEW, example = "80") Integer preview) {
+        Page<PublicNoteDTO> list = (fields == null && preview == null) ?
+                noteService.getPage(pageable, principalId) :
+                noteService.getPage(pageable, principalId, fields, preview); // the columns and the preview are selected by the database
+        if (CompactEncodingUtils.isCompactPreferred(accept)) return ResponseEntity.ok(PublicPageDTO.of(list));
         return ResponseEntity.ok(list);
     }
 
 
+    @Operation(
+            tags = {"Note Endpoints"},
+            operationId = "getNoteChanges",
+            summary = "get note changes",
+            description = "Get the created/updated notes and the tombstones of the deleted ones since a sync token, in change order. " +
+                    "Pass the returned syncToken as since in the next request, since=0 makes a full sync",
+            method = "GET",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Changes found, then returned",
+                            content = @Content(
+                                    schema = @Schema(implementation = PublicNoteChangesDTO.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Changes",
+                                            summary = "Changes",
+                                            description = "A note updated and another deleted since the token 5",
+                                            value = """
+                                                    {
+                                                        "changes": [
+                                                            {
+                                                                "seq": 6,
+                                                                "noteId": 1,
+                                                                "deleted": false,
+                                                                "note": {
+                                                                    "id": 1,
+                                                                    "title": "Mi primera nota",
+                                                                    "content": "Contenido de mi primera nota",
+                                                                    "updatedAt": "2024-07-22",
+                                                                    "version": 2
+                                                                }
+                                                            },
+                                                            {
+                                                                "seq": 7,
+                                                                "noteId": 2,
+                                                                "deleted": true,
+                                                                "note": null
+                                                            }
+                                                        ],
+                                                        "syncToken": 7,
+                                                        "hasMore": false
+                                                    }
+                                                    """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The sync token is negative",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( since passed is not a number, database error, etc. )",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "410",
+                            description = "The sync token is older than the purged tombstones, a full sync ( since=0 ) is required",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @GetMapping(value = Cons.Note.Sync.COMPLEMENT_CHANGES) // without produces as getPage, the binary ones for the bulk syncs
+    public ResponseEntity<PublicNoteChangesDTO> getChangesSince(@RequestParam(required = false, defaultValue = "0") Long since,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @MyId @Parameter(hidden = true) Long principalId) {
+        PublicNoteChangesDTO changes = noteSyncService.getChangesSince(principalId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+
+    @Operation(
+            tags = {"Note Endpoints"},
+            operationId = "getNoteDigest",
+            summary = "get notes digest",
+            description = "Get a node of the digest tree of the notes, to verify a local copy without downloading it. " +
+                    "A note is in the leaf id mod 4096 ( 3 hex digits ) and hashed as the first 8 bytes of SHA-256(\"<id>:<version>\"), " +
+                    "the hash of a node is the XOR of the notes below it. Compare the root ( empty path ) and descend only into the mismatched children",
+            method = "GET",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Node returned, with the hashes of its 16 children or the notes if it is a leaf",
+                            content = @Content(
+                                    schema = @Schema(implementation = PublicNoteDigestDTO.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Leaf",
+                                            summary = "Leaf",
+                                            description = "The leaf 0a3 with a note",
+                                            value = """
+                                                    {
+                                                        "path": "0a3",
+                                                        "hash": "5e1b7c0d2f9a4c11",
+                                                        "children": null,
+                                                        "notes": [
+                                                            {
+                                                                "id": 163,
+                                                                "version": 2
+                                                            }
+                                                        ]
+                                                    }
+                                                    """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The path has more than 3 digits or isn't hex",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( database error, etc. )",
+                            content = @Content
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @GetMapping(
+            value = Cons.Note.Digest.COMPLEMENT_DIGEST,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<PublicNoteDigestDTO> getDigest(@RequestParam(required = false, defaultValue = "") String path,
+                                                         @MyId @Parameter(hidden = true) Long principalId) {
+        PublicNoteDigestDTO digest = noteDigestService.getDigest(principalId, path);
+        return ResponseEntity.ok(digest);
+    }
+
+
     @Operation(
             tags = {"Note Endpoints"},
             operationId = "getNoteById",
@@ -215,6 +405,14 @@ public class NoteController {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Note found, then returned",
+                            headers = {
+                                    @io.swagger.v3.oas.annotations.headers.Header(
+                                            name = HttpHeaders.ETAG,
+                                            description = "The version of the note, send it back as If-Match to make a conditional PUT",
+                                            schema = @io.swagger.v3.oas.annotations.media.Schema(type = "string"),
+                                            example = "\"0\""
+                                    )
+                            },
                             content = @Content(
                                     schema = @Schema(implementation = PublicNoteDTO.class),
                                     mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -277,7 +475,122 @@ public class NoteController {
     public ResponseEntity<PublicNoteDTO> getByIdAndUserId(@PathVariable(required = true) Long noteId,
                                                           @MyId @Parameter(hidden = true) Long principalId) {
         PublicNoteDTO en = noteService.getByIdAndUserId(noteId, principalId);
-        return ResponseEntity.ok(en);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(en.getVersion()))
+                .body(en);
+    }
+
+
+    @Operation(
+            tags = {"Note Endpoints"},
+            operationId = "getNoteContentById",
+            summary = "get note content",
+            description = "Get the raw content of a note as plain text. A single range in characters can be requested " +
+                    "( Range: chars=0-65535, chars=65536- or chars=-100 ) to load a large note progressively; any other range is ignored. " +
+                    "Send the ETag back in If-Range, then the range is only served if the note wasn't modified",
+            method = "GET",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "The whole content",
+                            headers = {
+                                    @io.swagger.v3.oas.annotations.headers.Header(
+                                            name = HttpHeaders.ETAG,
+                                            description = "The version of the note",
+                                            schema = @io.swagger.v3.oas.annotations.media.Schema(type = "string"),
+                                            example = "\"0\""
+                                    ),
+                                    @io.swagger.v3.oas.annotations.headers.Header(
+                                            name = HttpHeaders.ACCEPT_RANGES,
+                                            schema = @io.swagger.v3.oas.annotations.media.Schema(type = "string"),
+                                            example = Cons.Note.Content.RANGE_UNIT
+                                    )
+                            },
+                            content = @Content(mediaType = Cons.Note.Content.TEXT_PLAIN_UTF8_VALUE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "206",
+                            description = "The requested range of the content",
+                            headers = {
+                                    @io.swagger.v3.oas.annotations.headers.Header(
+                                            name = HttpHeaders.CONTENT_RANGE,
+                                            description = "The served range and the length of the whole content, in characters",
+                                            schema = @io.swagger.v3.oas.annotations.media.Schema(type = "string"),
+                                            example = "chars 0-65535/1048576"
+                                    )
+                            },
+                            content = @Content(mediaType = Cons.Note.Content.TEXT_PLAIN_UTF8_VALUE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "The note was modified while it was being read, request it again",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "416",
+                            description = "The range starts outside the content, its length is in the Content-Range header ( chars */<length> )",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Note not found",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( /{noteId} passed is not a number, database error, etc. )",
+                            content = @Content
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @GetMapping(
+            value = "/{noteId}" + Cons.Note.Content.COMPLEMENT_CONTENT,
+            produces = Cons.Note.Content.TEXT_PLAIN_UTF8_VALUE
+    )
+    public ResponseEntity<String> getContentByIdAndUserId(@PathVariable(required = true) Long noteId,
+                                                          @MyId @Parameter(hidden = true) Long principalId,
+                                                          @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                          @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+        PublicNoteContentInfoDTO info = noteService.getContentInfoByIdAndUserId(noteId, principalId);
+        String eTag = ETagUtils.toETag(info.getVersion());
+        long length = info.getLength();
+
+        // a range of an old version is ignored, the whole content is sent instead
+        ContentRangeUtils.CharRange r = (ifRange == null || ifRange.trim().equals(eTag)) ?
+                ContentRangeUtils.parse(range, length) :
+                null;
+        long start = (r == null) ? 0 : r.start();
+        long end = (r == null) ? length - 1 : r.end();
+
+        // cut by the database on the version read above, in the request ( a concurrent write is a 412 before anything is sent )
+        String body = (end < start) ? "" : noteService.getContentSliceByIdAndUserId(noteId, principalId, info.getVersion(), start, (int) (end - start + 1));
+
+        ResponseEntity.BodyBuilder res = (r == null) ?
+                ResponseEntity.ok() :
+                ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, ContentRangeUtils.toContentRange(r, length));
+        return res
+                .eTag(eTag)
+                .header(HttpHeaders.ACCEPT_RANGES, Cons.Note.Content.RANGE_UNIT)
+                .contentType(MediaType.parseMediaType(Cons.Note.Content.TEXT_PLAIN_UTF8_VALUE))
+                .body(body);
     }
 
 
@@ -322,6 +635,34 @@ public class NoteController {
                             responseCode = "403",
                             description = "Any unexpected error occurred while processing the request ( /{noteId} passed is not a number, database error, etc. )",
                             content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Note not found, it isn't created by a PUT",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "The If-Match version doesn't match the current version of the note, or it's a weak ETag",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Version mismatch",
+                                            summary = "Version mismatch",
+                                            description = "The note was modified by another request after the client read it",
+                                            value = """
+                                                    {
+                                                        "message": "Note was modified by another request, reload it and try again",
+                                                        "status": "412 PRECONDITION_FAILED",
+                                                        "instant": "2024-07-21T22:32:54.466134778Z"
+                                                    }
+                                                    """
+                                    )
+                            )
                     )
             },
             security = {
@@ -334,9 +675,162 @@ public class NoteController {
     )
     public ResponseEntity<Void> putByIdAndUserId(@PathVariable(required = true) Long noteId,
                                                  @MyId @Parameter(hidden = true) Long principalId,
-                                                 @RequestBody(required = true) CreateNoteDTO note) {
-        noteService.putByIdAndUserId(noteId, principalId, note);
-        return ResponseEntity.noContent().build();
+                                                 @RequestBody(required = true) CreateNoteDTO note,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = ETagUtils.parseVersion(ifMatch);
+        if (version == null) {
+            noteService.putByIdAndUserId(noteId, principalId, note);
+            return ResponseEntity.noContent().build();
+        }
+
+        Long newVersion = noteService.putByIdAndUserId(noteId, principalId, note, version);
+        return ResponseEntity.noContent()
+                .eTag(ETagUtils.toETag(newVersion))
+                .build();
+    }
+
+
+    @Operation(
+            tags = {"Note Endpoints"},
+            operationId = "patchNoteById",
+            summary = "Patch note",
+            description = "Update only the sent attributes of a note ( JSON Merge Patch, RFC 7396 ), an absent attribute is left untouched and a null one is blanked",
+            method = "PATCH",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Note was patched, the new version is in the ETag header",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Any bad request ( title too long, invalid If-Match, etc. )",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Title too long",
+                                            summary = "Title too long",
+                                            description = "The title is too long, the maximum length is " + Cons.Note.Validations.MAX_TITLE_LENGTH,
+                                            value = """
+                                                    {
+                                                        "message": "Title must be less than 255 characters",
+                                                        "status": "400 BAD_REQUEST",
+                                                        "instant": "2024-07-21T22:32:54.466134778Z"
+                                                    }
+                                                    """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( /{noteId} passed is not a number, database error, etc. )",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Note not found",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "The If-Match version doesn't match the current version of the note, or it's a weak ETag",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @PatchMapping(
+            value = "/{noteId}",
+            consumes = {Cons.Note.Controller.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    public ResponseEntity<Void> patchByIdAndUserId(@PathVariable(required = true) Long noteId,
+                                                   @MyId @Parameter(hidden = true) Long principalId,
+                                                   @RequestBody(required = true) PatchNoteDTO patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long newVersion = noteService.patchByIdAndUserId(noteId, principalId, patch, ETagUtils.parseVersion(ifMatch));
+        return ResponseEntity.noContent()
+                .eTag(ETagUtils.toETag(newVersion))
+                .build();
+    }
+
+
+    @Operation(
+            tags = {"Note Endpoints"},
+            operationId = "editNoteContentById",
+            summary = "Edit note content",
+            description = "Apply insert/delete operations, in order, over the content of a note in the given version. " +
+                    "Offsets are in UTF-16 code units over the content as left by the previous operation",
+            method = "POST",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Edits applied, the new version is in the ETag header",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The version is missing, or an operation is malformed or outside the content",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( /{noteId} passed is not a number, database error, etc. )",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Note not found",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "The base version is stale, reload the note and rebase the edits",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    )
+            },
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @PostMapping(
+            value = "/{noteId}" + Cons.Note.Edit.COMPLEMENT_EDITS,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<Void> editContentByIdAndUserId(@PathVariable(required = true) Long noteId,
+                                                         @MyId @Parameter(hidden = true) Long principalId,
+                                                         @RequestBody(required = true) EditNoteContentDTO edit) {
+        Long newVersion = noteService.editContentByIdAndUserId(noteId, principalId, edit);
+        return ResponseEntity.noContent()
+                .eTag(ETagUtils.toETag(newVersion))
+                .build();
     }
 
 
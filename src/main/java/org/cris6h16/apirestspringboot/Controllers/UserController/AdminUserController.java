@@ -11,15 +11,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Controllers.ExceptionHandler.ErrorResponse;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUsersDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicPageDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
 import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Services.UserProvisioningServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
+import org.cris6h16.apirestspringboot.Utils.CompactEncodingUtils;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -41,16 +47,18 @@ import static org.cris6h16.apirestspringboot.Constants.Cons.User.Controller.Path
 public class AdminUserController {
 
     UserServiceImpl userService;
+    UserProvisioningServiceImpl userProvisioningService;
 
-    public AdminUserController(UserServiceImpl userService) {
+    public AdminUserController(UserServiceImpl userService, UserProvisioningServiceImpl userProvisioningService) {
         this.userService = userService;
+        this.userProvisioningService = userProvisioningService;
     }
 
     @Operation(
             tags = {"Admin User Endpoints"},
             operationId = "getUsersPage",
             summary = "get users page",
-            description = "Get a page of users",
+            description = "Get a page of users, the slim envelope is negotiated by Accept as in the page of notes",
             method = "GET",
             responses = {
                     @ApiResponse(
@@ -154,15 +162,101 @@ public class AdminUserController {
             }
     )
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<PublicUserDTO>> getPage(
+    @GetMapping // without produces, see NoteController#getPage
+    public ResponseEntity<?> getPage(
             @PageableDefault(
                     size = Cons.User.Page.DEFAULT_SIZE,
                     page = Cons.User.Page.DEFAULT_PAGE,
                     sort = Cons.User.Page.DEFAULT_SORT,
                     direction = Sort.Direction.ASC
-            ) @ParameterObject Pageable pageable) {
+            ) @ParameterObject Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) @Parameter(hidden = true) String accept) {
         Page<PublicUserDTO> p = userService.getPage(pageable);
+        if (CompactEncodingUtils.isCompactPreferred(accept)) return ResponseEntity.ok(PublicPageDTO.of(p));
         return ResponseEntity.ok(p);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            tags = {"Admin User Endpoints"},
+            operationId = "createUsersBulk",
+            summary = "create many users at once",
+            description = "Create up to " + Cons.User.Bulk.MAX_USERS + " users with the role USER. Each user is validated like in the single creation; " +
+                    "a user that fails ( invalid, username or email already exists ) is reported in its result without aborting the others",
+            method = "POST",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Bulk processed, a result per user in request order",
+                            content = @Content(
+                                    schema = @Schema(implementation = PublicBulkUsersDTO.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = {
+                                            @ExampleObject(
+                                                    name = "Bulk with a conflict",
+                                                    value = """
+                                                            {
+                                                                "created": 1,
+                                                                "failed": 1,
+                                                                "results": [
+                                                                    {
+                                                                        "index": 0,
+                                                                        "id": 21,
+                                                                        "status": 201,
+                                                                        "message": null
+                                                                    },
+                                                                    {
+                                                                        "index": 1,
+                                                                        "id": null,
+                                                                        "status": 409,
+                                                                        "message": "Email already exists"
+                                                                    }
+                                                                ]
+                                                            }
+                                                            """,
+                                                    summary = "Bulk with a conflict",
+                                                    description = "The second user has an email that already exists"
+                                            )
+                                    }
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The bulk is empty or has more than " + Cons.User.Bulk.MAX_USERS + " users",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "User not authenticated",
+                            content = @Content
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Any unexpected error occurred while processing the request ( is not ADMIN, database error, etc. )",
+                            content = @Content
+                    )
+            },
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Users to create",
+                    required = true,
+                    content = @Content(
+                            array = @ArraySchema(schema = @Schema(implementation = CreateUserDTO.class)),
+                            mediaType = MediaType.APPLICATION_JSON_VALUE
+                    )
+            ),
+            security = {
+                    @SecurityRequirement(name = "basicAuth")
+            }
+    )
+    @PostMapping(
+            value = Cons.User.Controller.Path.COMPLEMENT_BULK,
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<PublicBulkUsersDTO> createBulk(@RequestBody(required = true) List<CreateUserDTO> users) {
+        PublicBulkUsersDTO result = userProvisioningService.createAll(users, ERole.ROLE_USER);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -16,6 +16,8 @@ import org.cris6h16.apirestspringboot.DTOs.Patch.PatchPasswordUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchUsernameUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
+import org.cris6h16.apirestspringboot.Utils.ETagUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -71,7 +73,9 @@ public class AuthenticatedUserController {
     )
     public ResponseEntity<PublicUserDTO> getById(@PathVariable(required = true) Long id) {
         PublicUserDTO u = userService.getById(id);
-        return ResponseEntity.ok(u);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.toETag(u.getVersion()))
+                .body(u);
     }
 
 
@@ -160,8 +164,11 @@ public class AuthenticatedUserController {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     public ResponseEntity<Void> patchUsernameById(@PathVariable(required = true) Long id,
-                                                  @RequestBody(required = true) PatchUsernameUserDTO dto) {
-        userService.patchUsernameById(id, dto);
+                                                  @RequestBody(required = true) PatchUsernameUserDTO dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = ETagUtils.parseVersion(ifMatch);
+        if (version == null) userService.patchUsernameById(id, dto);
+        else userService.patchUsernameById(id, dto, version);
         return ResponseEntity.noContent().build();
     }
 
@@ -251,8 +258,11 @@ public class AuthenticatedUserController {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     public ResponseEntity<Void> patchEmailById(@PathVariable(required = true) Long id,
-                                               @RequestBody(required = true) PatchEmailUserDTO dto) {
-        userService.patchEmailById(id, dto);
+                                               @RequestBody(required = true) PatchEmailUserDTO dto,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = ETagUtils.parseVersion(ifMatch);
+        if (version == null) userService.patchEmailById(id, dto);
+        else userService.patchEmailById(id, dto, version);
         return ResponseEntity.noContent().build();
     }
 
@@ -318,8 +328,11 @@ public class AuthenticatedUserController {
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
     public ResponseEntity<Void> patchPasswordById(@PathVariable(required = true) Long id,
-                                                  @RequestBody(required = true) PatchPasswordUserDTO dto) {
-        userService.patchPasswordById(id, dto);
+                                                  @RequestBody(required = true) PatchPasswordUserDTO dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long version = ETagUtils.parseVersion(ifMatch);
+        if (version == null) userService.patchPasswordById(id, dto);
+        else userService.patchPasswordById(id, dto, version);
         return ResponseEntity.noContent().build();
     }
 
@@ -9,21 +9,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Controllers.ExceptionHandler.ErrorResponse;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserAvailabilityDTO;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Services.Interfaces.UserService;
+import org.cris6h16.apirestspringboot.Services.UserAvailabilityServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.net.URI;
@@ -42,9 +47,11 @@ public class PublicUserController {
 
 
     UserServiceImpl userService;
+    UserAvailabilityServiceImpl userAvailabilityService;
 
-    public PublicUserController(UserServiceImpl userService) {
+    public PublicUserController(UserServiceImpl userService, UserAvailabilityServiceImpl userAvailabilityService) {
         this.userService = userService;
+        this.userAvailabilityService = userAvailabilityService;
     }
 
     @Operation(
@@ -172,4 +179,78 @@ public class PublicUserController {
         URI uri = URI.create(path + "/" + id);
         return ResponseEntity.created(uri).build();
     }
+
+    @Operation(
+            tags = {"Public User Endpoints"},
+            operationId = "getAvailability",
+            summary = "check if a username and/or an email are available",
+            description = "For the signup forms, each value is trimmed and lowercased as in the creation. " +
+                    "Answered from the memory of the instance, only a probably taken value is checked against the database; " +
+                    "an available answer is only a hint ( a value taken through another instance may not be seen yet ), " +
+                    "the creation can still fail with 409. " +
+                    "Each client ( by its address ) has a few checks per minute, the next ones are answered with 429",
+            method = "GET",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Availability of the given values, null for the ones that weren't passed",
+                            content = @Content(
+                                    schema = @Schema(implementation = PublicUserAvailabilityDTO.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Username taken, email available",
+                                            value = """
+                                                    {
+                                                        "usernameAvailable": false,
+                                                        "emailAvailable": true
+                                                    }
+                                                    """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The username length or the email is invalid",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Username length fail",
+                                            value = """
+                                                    {
+                                                        "message": "Username must be between 4 and 20 characters",
+                                                        "status": "400 BAD_REQUEST",
+                                                        "instant": "2024-07-18T01:43:06.792938867Z"
+                                                    }
+                                                    """
+                                    )
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "The client has no checks left in the current minute",
+                            content = @Content(
+                                    schema = @Schema(implementation = ErrorResponse.class),
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    examples = @ExampleObject(
+                                            name = "Too many checks",
+                                            value = """
+                                                    {
+                                                        "message": "Too many availability checks, try again later",
+                                                        "status": "429 TOO_MANY_REQUESTS",
+                                                        "instant": "2024-07-18T01:43:06.792938867Z"
+                                                    }
+                                                    """
+                                    )
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = Cons.User.Availability.COMPLEMENT_AVAILABILITY, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PublicUserAvailabilityDTO> getAvailability(
+            @RequestParam(required = false) @Parameter(description = "username to check", example = "cris6h16") String username,
+            @RequestParam(required = false) @Parameter(description = "email to check", example = "cristianmherrera21@gmail.com") String email,
+            HttpServletRequest request) {
+        return ResponseEntity.ok(userAvailabilityService.getAvailability(username, email, request.getRemoteAddr()));
+    }
 }
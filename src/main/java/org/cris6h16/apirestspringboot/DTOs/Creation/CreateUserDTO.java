@@ -2,8 +2,6 @@ package org.cris6h16.apirestspringboot.DTOs.Creation;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesToLowerConverter;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTrimmer;
 
 
 /**
@@ -22,7 +20,7 @@ import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTri
  * THEN: @JsonFormat  ->  indicate how your DTO is serialized and deserialized.
  */
 @JsonFormat
-public class CreateUserDTO implements NotNullAttributesTrimmer, NotNullAttributesToLowerConverter {
+public class CreateUserDTO {
     //    Verifications were centralized in the service layer(therefore theirs fail messages), and verified manually to avoid increase the testing complexity(I don't use the validator bean)
 //    @NotBlank(message = USERNAME_LENGTH_FAIL_MSG)
 //    @NotBlank(message = PASSWORD_LENGTH_FAIL_MSG)
@@ -30,18 +28,4 @@ public class CreateUserDTO implements NotNullAttributesTrimmer, NotNullAttribute
     private String username;
     private String password;
     private String email;
-
-    @Override
-    public void trimNotNullAttributes() {
-        if (username != null) username = username.trim();
-        if (password != null) password = password.trim();
-        if (email != null) email = email.trim();
-    }
-
-    @Override
-    public void toLowerCaseNotNullAttributes() {
-        if (username != null) username = username.toLowerCase();
-        if (email != null) email = email.toLowerCase();
-//        if (password != null) password = password.toLowerCase(); // password should not be lowercased
-    }
 }
@@ -1,5 +0,0 @@
-package org.cris6h16.apirestspringboot.DTOs.Interfaces.Users;
-
-public interface NotNullAttributesToLowerConverter {
-    void toLowerCaseNotNullAttributes();
-}
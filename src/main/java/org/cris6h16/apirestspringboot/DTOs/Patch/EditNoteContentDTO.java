@@ -0,0 +1,22 @@
+package org.cris6h16.apirestspringboot.DTOs.Patch;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO with the edit operations to apply, in order, over the content of a note
+ * in the {@code version} that the client has seen.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EditNoteContentDTO {
+    private Long version;
+    private List<EditOperationDTO> operations;
+}
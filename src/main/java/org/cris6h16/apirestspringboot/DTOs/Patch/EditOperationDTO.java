@@ -0,0 +1,24 @@
+package org.cris6h16.apirestspringboot.DTOs.Patch;
+
+import lombok.*;
+
+/**
+ * DTO for an edit operation over the content of a note.<br>
+ * {@code insert} puts {@code text} at {@code offset}; {@code delete} removes
+ * {@code length} characters from {@code offset}. Offsets are in UTF-16 code units
+ * over the content as left by the previous operation.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EditOperationDTO {
+    private String op;
+    private Integer offset;
+    private Integer length;
+    private String text;
+}
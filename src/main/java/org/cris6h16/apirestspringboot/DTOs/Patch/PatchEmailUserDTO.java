@@ -1,8 +1,6 @@
 package org.cris6h16.apirestspringboot.DTOs.Patch;
 
 import lombok.*;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesToLowerConverter;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTrimmer;
 
 
 /**
@@ -16,18 +14,8 @@ import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTri
 @Getter
 @Setter
 @Builder
-public class PatchEmailUserDTO implements NotNullAttributesTrimmer, NotNullAttributesToLowerConverter {
+public class PatchEmailUserDTO {
 //    Verification was centralized in the service layer( and its message), and verified manually to avoid increase the testing complexity(I don't use the validator bean)
 //    @NotBlank(message = EMAIL_IS_INVALID_MDG)
     private String email;
-
-    @Override
-    public void trimNotNullAttributes() {
-        if (email != null) email = email.trim();
-    }
-
-    @Override
-    public void toLowerCaseNotNullAttributes() {
-        if (email != null) email = email.toLowerCase();
-    }
 }
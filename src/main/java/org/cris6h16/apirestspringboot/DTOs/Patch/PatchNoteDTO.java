@@ -0,0 +1,41 @@
+package org.cris6h16.apirestspringboot.DTOs.Patch;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a JSON Merge Patch ( RFC 7396 ) of a note.<br>
+ * A member absent in the patch is left untouched, then the setters ( called by Jackson
+ * only for the present members ) remember which ones were sent; a member sent as
+ * {@code null} is blanked like in {@link org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO}.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@NoArgsConstructor
+@Getter
+public class PatchNoteDTO {
+    private String title;
+    private String content;
+
+    @JsonIgnore
+    private boolean titlePresent;
+    @JsonIgnore
+    private boolean contentPresent;
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titlePresent = true;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+        this.contentPresent = true;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !titlePresent && !contentPresent;
+    }
+}
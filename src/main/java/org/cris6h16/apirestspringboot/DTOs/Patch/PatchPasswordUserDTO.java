@@ -1,7 +1,6 @@
 package org.cris6h16.apirestspringboot.DTOs.Patch;
 
 import lombok.*;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTrimmer;
 
 /**
  * DTO to update the password of a user
@@ -14,14 +13,8 @@ import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTri
 @Getter
 @Setter
 @Builder
-public class PatchPasswordUserDTO implements NotNullAttributesTrimmer {
+public class PatchPasswordUserDTO {
 //    Verification was centralized in the service layer( and its message), and verified manually to avoid increase the testing complexity(I don't use the validator bean)
 //    @NotBlank(message = Cons.User.Validations.PASSWORD_LENGTH_FAIL_MSG)
     private String password;
-
-    @Override
-    public void trimNotNullAttributes() {
-        if (password != null) password = password.trim();
-    }
-
 }
@@ -0,0 +1,31 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+import org.cris6h16.apirestspringboot.Entities.BulkDeletionJobEntity;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionStatus;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+
+import java.util.Date;
+
+/**
+ * DTO for {@link BulkDeletionJobEntity}, the progress of a bulk deletion
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicBulkDeletionJobDTO {
+    private Long id;
+    private EBulkDeletionTarget target;
+    private EBulkDeletionStatus status;
+    private Long deleted;
+    private Long total;
+    private Date startedAt;
+    private Date updatedAt;
+    private Date finishedAt;
+}
@@ -0,0 +1,25 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+/**
+ * DTO with the result of a user of a bulk creation.<br>
+ * {@code index} is the position of the user in the request, {@code status} is the
+ * status that the single creation would have responded ( {@code 201}, {@code 400} or {@code 409} )
+ * and {@code message} its fail message, {@code id} is only present if it was created.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicBulkUserResultDTO {
+    private int index;
+    private Long id;
+    private int status;
+    private String message;
+}
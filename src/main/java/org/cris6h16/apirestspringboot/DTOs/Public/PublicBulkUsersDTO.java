@@ -0,0 +1,23 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO with the results of a bulk creation of users, one per user in request order
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicBulkUsersDTO {
+    private int created;
+    private int failed;
+    private List<PublicBulkUserResultDTO> results;
+}
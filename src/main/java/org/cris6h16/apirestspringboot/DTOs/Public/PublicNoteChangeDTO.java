@@ -0,0 +1,24 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+import org.cris6h16.apirestspringboot.Entities.NoteChangeEntity;
+
+/**
+ * DTO for {@link NoteChangeEntity}, a created/updated note or a tombstone
+ * ( {@code deleted == true} and {@code note == null} ) of a deleted note.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicNoteChangeDTO {
+    private Long seq;
+    private Long noteId;
+    private boolean deleted;
+    private PublicNoteDTO note;
+}
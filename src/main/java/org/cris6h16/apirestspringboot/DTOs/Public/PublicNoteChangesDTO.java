@@ -0,0 +1,25 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO with the changes of the notes since a sync token, in change order.<br>
+ * {@code syncToken} should be passed as {@code since} in the next request,
+ * if {@code hasMore} then there are more changes to retrieve right now.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicNoteChangesDTO {
+    private List<PublicNoteChangeDTO> changes;
+    private Long syncToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+/**
+ * DTO with the version and the length ( in characters ) of the content of a note,
+ * required to answer a range request before reading the content
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor // used by the JPQL constructor expression
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicNoteContentInfoDTO {
+    private Long version;
+    private Integer length;
+}
@@ -1,5 +1,6 @@
 package org.cris6h16.apirestspringboot.DTOs.Public;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
 
@@ -7,7 +8,8 @@ import java.util.Date;
 
 /**
  * DTO for {@link NoteEntity} with relevant information for public access.<br>
- * comparing with the entity, this DTO hides the {@code user} field.
+ * comparing with the entity, this DTO hides the {@code user} field.<br>
+ * The attributes left out of a sparse fieldset are {@code null}, then they aren't serialized.
  *
  * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
  * @since 1.0
@@ -18,9 +20,11 @@ import java.util.Date;
 @Builder
 @EqualsAndHashCode
 @ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PublicNoteDTO {
     private Long id;
     private String title;
     private String content;
     private Date updatedAt;
+    private Long version;
 }
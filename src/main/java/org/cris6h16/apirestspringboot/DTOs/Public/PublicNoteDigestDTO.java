@@ -0,0 +1,26 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for a node of the digest tree of the notes.<br>
+ * An inner node has the hashes of its 16 {@code children} ( the path of the child {@code i}
+ * is {@code path} plus the hex digit {@code i} ); a leaf has the {@code notes} in it instead.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicNoteDigestDTO {
+    private String path;
+    private String hash;
+    private List<String> children;
+    private List<PublicNoteVersionDTO> notes;
+}
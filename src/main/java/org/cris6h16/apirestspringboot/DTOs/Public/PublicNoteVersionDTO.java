@@ -0,0 +1,20 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+/**
+ * DTO with the id and version of a note, the input of its digest hash
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor // used by the JPQL constructor expression
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicNoteVersionDTO {
+    private Long id;
+    private Long version;
+}
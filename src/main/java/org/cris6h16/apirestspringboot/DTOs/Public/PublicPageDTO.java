@@ -0,0 +1,39 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Slim envelope of a page, sent instead of the {@link Page} when a compact
+ * encoding is negotiated.<br>
+ * The serialized {@link Page} repeats its {@code pageable} and {@code sort} on each response,
+ * here there are only the numbers that a client can't derive ( {@code totalPages},
+ * {@code first}, {@code last}, ... are computed from them ).
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicPageDTO<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+
+    /**
+     * @param page the page to slim
+     * @return the envelope with the same content and numbers
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static <T> PublicPageDTO<T> of(Page<T> page) {
+        return new PublicPageDTO<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+}
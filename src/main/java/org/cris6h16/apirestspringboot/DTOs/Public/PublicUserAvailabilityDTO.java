@@ -0,0 +1,21 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+/**
+ * DTO with the availability of a username and/or an email for a signup,
+ * {@code null} for the one that wasn't asked
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor
+@NoArgsConstructor // required for Jackson
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicUserAvailabilityDTO {
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
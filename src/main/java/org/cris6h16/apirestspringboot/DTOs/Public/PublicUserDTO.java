@@ -27,4 +27,6 @@ public class PublicUserDTO {
     private Date updatedAt;
     private Set<PublicRoleDTO> roles;
     private Set<PublicNoteDTO> notes;
+    private Long noteCount; // only filled in the page of users of the admins
+    private Long version;
 }
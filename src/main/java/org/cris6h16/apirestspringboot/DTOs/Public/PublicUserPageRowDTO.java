@@ -0,0 +1,29 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Projection of a row of the page of users of the admins, read by a single query with its
+ * note counter and the total of live users ( a window function ) instead of loading the entities
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor // used by the JPQL constructor expression
+@NoArgsConstructor
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicUserPageRowDTO {
+    private Long id;
+    private String username;
+    private String email;
+    private Date createdAt;
+    private Date updatedAt;
+    private Long version;
+    private Long noteCount;
+    private Long total; // of all the pages
+}
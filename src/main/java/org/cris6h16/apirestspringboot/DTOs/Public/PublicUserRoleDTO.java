@@ -0,0 +1,21 @@
+package org.cris6h16.apirestspringboot.DTOs.Public;
+
+import lombok.*;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+
+/**
+ * A role of a user, the roles of a page of users are read at once by their ids
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@AllArgsConstructor // used by the JPQL constructor expression
+@NoArgsConstructor
+@Getter
+@Builder
+@EqualsAndHashCode
+@ToString
+public class PublicUserRoleDTO {
+    private Long userId;
+    private ERole role;
+}
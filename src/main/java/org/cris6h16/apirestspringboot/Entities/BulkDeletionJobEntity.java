@@ -0,0 +1,78 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.RUNNING_TARGET_UNIQUE_NAME;
+
+/**
+ * Entity to represent the {@code bulk_deletion_jobs}, a deletion of all the rows of a table
+ * made in chunks ordered by id.<br>
+ * {@code lastId} is committed with each chunk, then a job interrupted by a restart is resumed from it.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Entity
+@Table(name = "bulk_deletion_jobs",
+        uniqueConstraints = {
+                @UniqueConstraint(name = RUNNING_TARGET_UNIQUE_NAME, columnNames = {"running_target"})
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class BulkDeletionJobEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "default")
+    @SequenceGenerator(name = "default", sequenceName = "id_bulk_deletion_job_seq", allocationSize = 1, initialValue = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target", nullable = false, length = 20)
+    private EBulkDeletionTarget target;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EBulkDeletionStatus status;
+
+    /**
+     * the {@code target} while the job is {@link EBulkDeletionStatus#RUNNING}, {@code null} once finished.<br>
+     * Unique, then a second running job of the same target can't be created ( a partial unique index
+     * on {@code target} where running, in any database: the nulls aren't compared )
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "running_target", length = 20)
+    private EBulkDeletionTarget runningTarget;
+
+    /**
+     * the greatest id already deleted, the next chunk starts after it
+     */
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "deleted", nullable = false)
+    private Long deleted;
+
+    /**
+     * rows when the job started, the rows created meanwhile are deleted too
+     */
+    @Column(name = "total", nullable = false)
+    private Long total;
+
+    @Column(name = "started_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+
+    @Column(name = "finished_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date finishedAt;
+}
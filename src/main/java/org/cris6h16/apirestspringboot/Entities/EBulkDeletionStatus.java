@@ -0,0 +1,13 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+/**
+ * Enum class that represents the state of a bulk deletion job.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public enum EBulkDeletionStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+/**
+ * Enum class that represents what a bulk deletion job deletes.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public enum EBulkDeletionTarget {
+    NOTES, // all the notes
+    USERS  // all the users, with their roles and notes
+}
@@ -0,0 +1,25 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+import lombok.Getter;
+
+/**
+ * Enum class that represents the attributes of a {@link NoteEntity} that a
+ * page of notes can select ( the {@code fields} of a sparse fieldset )
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Getter
+public enum ENoteField {
+    ID("id"),
+    TITLE("title"),
+    CONTENT("content"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    private final String attribute; // the name in the entity and in PublicNoteDTO
+
+    ENoteField(String attribute) {
+        this.attribute = attribute;
+    }
+}
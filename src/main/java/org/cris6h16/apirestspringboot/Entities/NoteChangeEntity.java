@@ -0,0 +1,67 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.Date;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Sync.NOTE_CHANGE_UNIQUE_NAME;
+
+/**
+ * Entity to represent the {@code note_changes}.<br>
+ * Keeps only the <strong>last</strong> change of each note of a user, then the table
+ * is self-compacting: an updated note just moves its row to a newer {@code seq}.<br>
+ * A {@code deleted} row is a tombstone, purged after a retention window.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Entity
+@Table(name = "note_changes",
+        uniqueConstraints = {
+                @UniqueConstraint(name = NOTE_CHANGE_UNIQUE_NAME, columnNames = {"user_id", "note_id"})
+        },
+        indexes = {
+                @Index(name = "idx_note_changes_user_id_seq", columnList = "user_id, seq")
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class NoteChangeEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "default")
+    @SequenceGenerator(name = "default", sequenceName = "id_note_change_seq", allocationSize = 50, initialValue = 1)
+    private Long id;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    /**
+     * value of {@link NoteSyncStateEntity#getChangeSeq()} when the change was made
+     */
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date changedAt;
+
+    @ManyToOne(
+            fetch = FetchType.LAZY,
+            optional = false,
+            targetEntity = UserEntity.class
+    )
+    @JoinColumn(name = "user_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "fk_note_changes_user_id"))
+    @OnDelete(action = OnDeleteAction.CASCADE) // removed by the DB with its user, never loaded
+    private UserEntity user;
+}
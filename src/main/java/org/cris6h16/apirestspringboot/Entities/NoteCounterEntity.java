@@ -0,0 +1,37 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Entity to represent the {@code note_counters}, the number of notes of a user.<br>
+ * Maintained in the same transaction as each create/delete of a note, then the
+ * pages of notes don't need a {@code count(*)} over all the notes of the user.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Entity
+@Table(name = "note_counters")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class NoteCounterEntity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id",
+            foreignKey = @ForeignKey(name = "fk_note_counters_user_id"))
+    @OnDelete(action = OnDeleteAction.CASCADE) // removed by the DB with its user, never loaded
+    private UserEntity user;
+
+    @Column(name = "note_count", nullable = false)
+    private Long noteCount;
+}
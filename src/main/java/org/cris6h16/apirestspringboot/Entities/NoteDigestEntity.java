@@ -0,0 +1,54 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Digest.NOTE_DIGEST_UNIQUE_NAME;
+
+/**
+ * Entity to represent the {@code note_digests}, the leaves of the
+ * digest tree of the notes of a user ( see {@link org.cris6h16.apirestspringboot.Utils.NoteDigestUtils} ).<br>
+ * Only the non-empty leaves have a row, the inner nodes are computed from them.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Entity
+@Table(name = "note_digests",
+        uniqueConstraints = {
+                @UniqueConstraint(name = NOTE_DIGEST_UNIQUE_NAME, columnNames = {"user_id", "bucket"})
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class NoteDigestEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "default")
+    @SequenceGenerator(name = "default", sequenceName = "id_note_digest_seq", allocationSize = 50, initialValue = 1)
+    private Long id;
+
+    @Column(name = "bucket", nullable = false)
+    private Integer bucket;
+
+    /**
+     * {@code XOR} of the hashes of the notes in the bucket
+     */
+    @Column(name = "hash", nullable = false)
+    private Long hash;
+
+    @ManyToOne(
+            fetch = FetchType.LAZY,
+            optional = false,
+            targetEntity = UserEntity.class
+    )
+    @JoinColumn(name = "user_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "fk_note_digests_user_id"))
+    @OnDelete(action = OnDeleteAction.CASCADE) // removed by the DB with its user, never loaded
+    private UserEntity user;
+}
@@ -5,20 +5,32 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.validator.constraints.Length;
 
 import java.util.Date;
 
+import static org.cris6h16.apirestspringboot.Utils.NoteDigestUtils.bucketOf;
 import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Validations.*;
 
 /**
- * Entity to represent the {@code notes}
+ * Entity to represent the {@code notes}<br>
+ * The updates only carry the changed columns ( {@link DynamicUpdate} ), e.g. a patch of the title doesn't rewrite the content<br>
+ * The leaf of the note in the digest tree is stored and indexed with its user ( {@link #getBucket()} ),
+ * a leaf is read by an index range instead of computing {@code id mod 4096} for each note of the user
  *
  * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
  * @since 1.0
  */
 @Entity
-@Table(name = "notes")
+@Table(name = "notes",
+        indexes = @Index(name = "idx_notes_user_id_bucket", columnList = "user_id, bucket") // the leaves of the digest tree
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -52,6 +64,13 @@ public class NoteEntity {
     @Temporal(TemporalType.DATE)
     private Date updatedAt;
 
+    @Version
+    @Column(
+            name = "version",
+            nullable = false
+    )
+    private Long version;
+
     @ManyToOne(
             fetch = FetchType.LAZY,
             cascade = {},
@@ -59,4 +78,25 @@ public class NoteEntity {
             targetEntity = UserEntity.class
     )
     private UserEntity user;
+
+    /**
+     * Leaf of the note in the digest tree, derived from the id: read by Hibernate once the id
+     * is assigned ( property access ), then never updated as the id doesn't change.
+     *
+     * @return the leaf, {@code null} while the id isn't assigned
+     * @see org.cris6h16.apirestspringboot.Utils.NoteDigestUtils#bucketOf(long)
+     */
+    @Access(AccessType.PROPERTY)
+    @Column(
+            name = "bucket",
+            nullable = false,
+            updatable = false
+    )
+    public Integer getBucket() {
+        return (id == null) ? null : bucketOf(id);
+    }
+
+    protected void setBucket(Integer bucket) {
+        // derived from the id
+    }
 }
@@ -0,0 +1,46 @@
+package org.cris6h16.apirestspringboot.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Entity to represent the {@code note_sync_states}, the delta sync counters of a user.<br>
+ * Kept apart from {@code users} because they are changed by bulk updates on each note
+ * write, which would evict the whole {@link UserEntity} region of the second-level cache.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Entity
+@Table(name = "note_sync_states")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class NoteSyncStateEntity {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id",
+            foreignKey = @ForeignKey(name = "fk_note_sync_states_user_id"))
+    @OnDelete(action = OnDeleteAction.CASCADE) // removed by the DB with its user, never loaded
+    private UserEntity user;
+
+    /**
+     * last change sequence of the user's notes, incremented by each note mutation
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    /**
+     * highest {@code seq} of the note tombstones already purged, older sync tokens can't be served
+     */
+    @Column(name = "purged_seq", nullable = false)
+    private Long purgedSeq;
+}
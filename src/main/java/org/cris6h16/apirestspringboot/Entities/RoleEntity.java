@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Role.Constrains.NAME_UNIQUE_NAME;
+
 /**
  * Entity to represent the {@code roles}
  *
@@ -11,7 +16,11 @@ import org.cris6h16.apirestspringboot.Constants.Cons;
  * @since 1.0
  */
 @Entity
-@Table(name = "roles")
+@Table(name = "roles",
+        uniqueConstraints = @UniqueConstraint(name = NAME_UNIQUE_NAME, columnNames = "name")
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE) // roles are never updated, READ_ONLY rejects reloading a role inserted in the same transaction
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
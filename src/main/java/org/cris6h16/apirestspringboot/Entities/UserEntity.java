@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Date;
 import java.util.HashSet;
@@ -14,7 +17,10 @@ import static org.cris6h16.apirestspringboot.Constants.Cons.User.Constrains.USER
 import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.*;
 
 /**
- * Entity to represent the {@code users}
+ * Entity to represent the {@code users}<br>
+ * The {@code username} and the {@code email} are unique among the live users: the unique constraints
+ * include {@link #deletionKey}, then the names of a deleted user can be taken again<br>
+ * The updates only carry the changed columns ( {@link DynamicUpdate} )
  *
  * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
  * @since 1.0
@@ -22,14 +28,14 @@ import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.*;
 @Entity
 @Table(name = "users",
         uniqueConstraints = {
-                @UniqueConstraint(name = USERNAME_UNIQUE_NAME, columnNames = "username"),
-                @UniqueConstraint(name = EMAIL_UNIQUE_NAME, columnNames = "email")
+                @UniqueConstraint(name = USERNAME_UNIQUE_NAME, columnNames = {"username", "deletion_key"}),
+                @UniqueConstraint(name = EMAIL_UNIQUE_NAME, columnNames = {"email", "deletion_key"})
         },
-        indexes = {
-                @Index(name = "idx_" + USERNAME_UNIQUE_NAME, columnList = "username", unique = true),
-                @Index(name = "idx_" + EMAIL_UNIQUE_NAME, columnList = "email", unique = true)
-        }
+        indexes = @Index(name = "idx_users_deleted_at", columnList = "deleted_at") // the live users of the pages, the deleted ones of the purge
 )
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -47,7 +53,7 @@ public class UserEntity {
             name = "username",
             nullable = false,
             columnDefinition = "VARCHAR(" + MAX_USERNAME_LENGTH + ") CHECK (LENGTH(username) >= " + MIN_USERNAME_LENGTH + ")"
-            // unique = true ==> I can't put a custom name for the unique constraint
+            // unique = true ==> I can't put a custom name for the unique constraint, see @Table
     )
     private String username;
 
@@ -78,6 +84,35 @@ public class UserEntity {
     @Temporal(TemporalType.DATE)
     private Date updatedAt;
 
+    /**
+     * When the user was deleted, {@code null} while it's live. A deleted user can't authenticate
+     * and is purged later ( see {@code BulkDeletionService#purgeDeletedUsers()} )
+     */
+    @Column(name = "deleted_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date deletedAt;
+
+    /**
+     * {@code 0} while the user is live, its {@code id} once deleted ( {@code UserServiceImpl#deleteById} ).<br>
+     * Part of the unique constraints: a live user collides with the live ones only, a deleted one with nobody.
+     * Portable, unlike a partial unique index ( {@code WHERE deleted_at IS NULL} isn't supported by {@code H2} )
+     */
+    @Column(
+            name = "deletion_key",
+            nullable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL"
+    )
+    @Builder.Default
+    private Long deletionKey = 0L;
+
+    @Version
+    @Column(
+            name = "version",
+            nullable = false
+    )
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // the role ids, the roles come from their own region
     @ManyToMany(fetch = FetchType.EAGER,
             cascade = {CascadeType.PERSIST},
             targetEntity = RoleEntity.class)
@@ -90,9 +125,8 @@ public class UserEntity {
     private Set<RoleEntity> roles = new HashSet<>();
 
     @OneToMany(fetch = FetchType.LAZY,
-            cascade = CascadeType.ALL,
-            targetEntity = NoteEntity.class,
-            orphanRemoval = true)
+            cascade = {CascadeType.PERSIST, CascadeType.MERGE}, // never removed through here, it would load all the notes ( see BulkDeletionServiceImpl#deleteUser )
+            targetEntity = NoteEntity.class)
     @JoinColumn(name = "user_id",
             foreignKey = @ForeignKey(name = "fk_notes_user_id"),
             referencedColumnName = "id")
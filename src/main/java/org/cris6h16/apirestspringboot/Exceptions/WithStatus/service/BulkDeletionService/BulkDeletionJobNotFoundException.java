@@ -0,0 +1,17 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.BulkDeletionService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when the requested bulk deletion job is not found.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class BulkDeletionJobNotFoundException extends ProperExceptionForTheUser {
+    public BulkDeletionJobNotFoundException() {
+        super(HttpStatus.NOT_FOUND, Cons.BulkDeletion.NOT_FOUND);
+    }
+}
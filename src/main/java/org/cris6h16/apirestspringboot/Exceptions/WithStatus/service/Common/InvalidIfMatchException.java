@@ -0,0 +1,17 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when the {@code If-Match} header can't be parsed as a version
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class InvalidIfMatchException extends ProperExceptionForTheUser {
+    public InvalidIfMatchException() {
+        super(HttpStatus.BAD_REQUEST, Cons.CommonInEntity.IF_MATCH_INVALID);
+    }
+}
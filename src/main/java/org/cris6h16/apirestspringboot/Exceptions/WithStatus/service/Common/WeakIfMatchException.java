@@ -0,0 +1,18 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when the {@code If-Match} header is a weak {@code ETag} ( {@code W/"3"} ),
+ * {@code If-Match} uses the strong comparison then a weak tag never matches ( RFC 9110 )
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class WeakIfMatchException extends ProperExceptionForTheUser {
+    public WeakIfMatchException() {
+        super(HttpStatus.PRECONDITION_FAILED, Cons.CommonInEntity.IF_MATCH_WEAK);
+    }
+}
@@ -0,0 +1,17 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when a path of the notes digest tree isn't valid
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class InvalidDigestPathException extends ProperExceptionForTheUser {
+    public InvalidDigestPathException() {
+        super(HttpStatus.BAD_REQUEST, Cons.Note.Digest.DIGEST_PATH_INVALID_MSG);
+    }
+}
@@ -0,0 +1,18 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when the edit operations of a note content
+ * are malformed or fall outside the content
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class InvalidEditException extends ProperExceptionForTheUser {
+    public InvalidEditException() {
+        super(HttpStatus.BAD_REQUEST, Cons.Note.Edit.INVALID_EDIT_MSG);
+    }
+}
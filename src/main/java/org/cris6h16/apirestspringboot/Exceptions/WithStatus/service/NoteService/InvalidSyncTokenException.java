@@ -0,0 +1,17 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when a sync token is negative
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class InvalidSyncTokenException extends ProperExceptionForTheUser {
+    public InvalidSyncTokenException() {
+        super(HttpStatus.BAD_REQUEST, Cons.Note.Sync.SYNC_TOKEN_INVALID_MSG);
+    }
+}
@@ -0,0 +1,22 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService;
+
+import lombok.Getter;
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when a {@code Range} starts outside the content of a note
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Getter
+public class RangeNotSatisfiableException extends ProperExceptionForTheUser {
+    private final long length; // of the content, for the `Content-Range: chars */<length>` header
+
+    public RangeNotSatisfiableException(long length) {
+        super(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, Cons.Note.Content.RANGE_NOT_SATISFIABLE_MSG);
+        this.length = length;
+    }
+}
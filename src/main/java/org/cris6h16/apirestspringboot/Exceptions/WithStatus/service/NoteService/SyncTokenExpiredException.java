@@ -0,0 +1,18 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when a sync token is older than the purged tombstones,
+ * then the client should resync from {@code 0}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class SyncTokenExpiredException extends ProperExceptionForTheUser {
+    public SyncTokenExpiredException() {
+        super(HttpStatus.GONE, Cons.Note.Sync.SYNC_TOKEN_EXPIRED_MSG);
+    }
+}
@@ -0,0 +1,17 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when a client checked too many usernames/emails in the current window
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class AvailabilityRateLimitException extends ProperExceptionForTheUser {
+    public AvailabilityRateLimitException() {
+        super(HttpStatus.TOO_MANY_REQUESTS, Cons.User.Availability.TOO_MANY_CHECKS_MSG);
+    }
+}
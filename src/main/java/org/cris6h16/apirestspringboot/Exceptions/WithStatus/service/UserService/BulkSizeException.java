@@ -0,0 +1,17 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when a bulk of users is empty or too large
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class BulkSizeException extends ProperExceptionForTheUser {
+    public BulkSizeException() {
+        super(HttpStatus.BAD_REQUEST, Cons.User.Bulk.SIZE_FAIL_MSG);
+    }
+}
@@ -0,0 +1,18 @@
+package org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Custom exception thrown when the {@code If-Match} version doesn't match
+ * the current version of the user.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class UserVersionMismatchException extends ProperExceptionForTheUser {
+    public UserVersionMismatchException() {
+        super(HttpStatus.PRECONDITION_FAILED, Cons.User.Fails.VERSION_MISMATCH);
+    }
+}
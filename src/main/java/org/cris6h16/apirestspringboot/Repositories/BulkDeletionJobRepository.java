@@ -0,0 +1,48 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.BulkDeletionJobEntity;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionStatus;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for {@link BulkDeletionJobEntity}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface BulkDeletionJobRepository extends JpaRepository<BulkDeletionJobEntity, Long> {
+
+    Optional<BulkDeletionJobEntity> findFirstByTargetAndStatus(EBulkDeletionTarget target, EBulkDeletionStatus status);
+
+    @Query("SELECT j.id FROM BulkDeletionJobEntity j WHERE j.status = :status ORDER BY j.id")
+    List<Long> findIdsByStatus(EBulkDeletionStatus status);
+
+    List<BulkDeletionJobEntity> findByOrderByIdDesc(Limit limit);
+
+    /**
+     * Lock the job for a chunk, then two workers of the same job ( e.g. two instances resuming it ) can't interleave.
+     * Native to get a plain {@code FOR UPDATE} in any database.
+     *
+     * @return the {@code lastId} of the job, empty if it isn't running anymore
+     */
+    @Query(value = "SELECT last_id FROM bulk_deletion_jobs WHERE id = :jobId AND status = 'RUNNING' FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockLastIdIfRunning(Long jobId);
+
+    @Modifying
+    @Query("UPDATE BulkDeletionJobEntity j SET j.lastId = :lastId, j.deleted = j.deleted + :deleted, j.updatedAt = :now " +
+            "WHERE j.id = :jobId")
+    int advance(Long jobId, Long lastId, long deleted, Date now);
+
+    @Modifying
+    @Query("UPDATE BulkDeletionJobEntity j SET j.status = :status, j.runningTarget = NULL, j.updatedAt = :now, j.finishedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = org.cris6h16.apirestspringboot.Entities.EBulkDeletionStatus.RUNNING")
+    int finish(Long jobId, EBulkDeletionStatus status, Date now);
+}
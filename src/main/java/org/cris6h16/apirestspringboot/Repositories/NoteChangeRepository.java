@@ -0,0 +1,71 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import jakarta.persistence.QueryHint;
+import org.cris6h16.apirestspringboot.Entities.NoteChangeEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository for {@link NoteChangeEntity}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteChangeRepository extends JpaRepository<NoteChangeEntity, Long> {
+
+    List<NoteChangeEntity> findByUserIdAndSeqGreaterThanOrderBySeqAsc(Long userId, Long seq, Limit limit);
+
+    /**
+     * Move the change row of a note to a newer {@code seq}
+     *
+     * @return the number of updated rows, {@code 0} if the note hasn't a change row yet
+     */
+    @Modifying
+    @Query("UPDATE NoteChangeEntity c SET c.seq = :seq, c.deleted = :deleted, c.changedAt = :changedAt " +
+            "WHERE c.user.id = :userId AND c.noteId = :noteId")
+    int updateByUserIdAndNoteId(Long userId, Long noteId, Long seq, boolean deleted, Date changedAt);
+
+    /**
+     * Turn into tombstones the change rows of many notes ( not deleted yet ), each note takes the next
+     * {@code seq} after the state of its user, in id order. Set-based: the state isn't advanced here,
+     * see {@link NoteSyncStateRepository#advanceChangeSeqByNoteIdIn(Collection)}
+     *
+     * @return the number of updated rows, the notes without a change row aren't counted
+     */
+    @Modifying
+    @Query("UPDATE NoteChangeEntity c SET c.deleted = true, c.changedAt = :changedAt, c.seq = " +
+            "(SELECT s.changeSeq FROM NoteSyncStateEntity s WHERE s.userId = c.user.id) + " +
+            "(SELECT COUNT(n) FROM NoteEntity n WHERE n.user.id = c.user.id AND n.id IN :noteIds AND n.id <= c.noteId) " +
+            "WHERE c.noteId IN :noteIds")
+    int tombstoneByNoteIdIn(Collection<Long> noteIds, Date changedAt);
+
+    /**
+     * The tombstones of the notes ( not deleted yet ) without a change row, with the {@code seq} of
+     * {@link #tombstoneByNoteIdIn(Collection, Date)}.<br>
+     * Native: Hibernate runs an {@code INSERT ... SELECT} of an entity with a pooled sequence through
+     * a temporary table, which rejects the list parameter; the hint declares the table it writes
+     * ( see {@link UserRepository#deleteRolesByUserIdIn(Collection)} )
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "note_changes"))
+    @Query(value = "INSERT INTO note_changes (id, note_id, seq, deleted, changed_at, user_id) " +
+            "SELECT nextval('id_note_change_seq'), n.id, s.change_seq + " +
+            "(SELECT COUNT(*) FROM notes m WHERE m.user_id = n.user_id AND m.id IN :noteIds AND m.id <= n.id), " +
+            "true, :changedAt, n.user_id " +
+            "FROM notes n JOIN note_sync_states s ON s.user_id = n.user_id " +
+            "WHERE n.id IN :noteIds AND NOT EXISTS (SELECT 1 FROM note_changes c WHERE c.note_id = n.id)",
+            nativeQuery = true)
+    int insertTombstonesByNoteIdIn(Collection<Long> noteIds, Date changedAt);
+
+    @Modifying
+    @Query("DELETE FROM NoteChangeEntity c WHERE c.deleted = true AND c.changedAt < :before")
+    int deleteTombstonesChangedBefore(Date before);
+}
@@ -0,0 +1,68 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.NoteCounterEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for {@link NoteCounterEntity}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteCounterRepository extends JpaRepository<NoteCounterEntity, Long> {
+
+    /**
+     * @return the number of updated rows, {@code 0} if the user hasn't a counter yet
+     */
+    @Modifying
+    @Query("UPDATE NoteCounterEntity c SET c.noteCount = c.noteCount + :delta WHERE c.userId = :userId")
+    int addByUserId(Long userId, long delta);
+
+    /**
+     * Subtract many notes ( not deleted yet ) from the counters of their owners
+     *
+     * @return the number of updated counters, the owners without a counter aren't counted
+     */
+    @Modifying
+    @Query("UPDATE NoteCounterEntity c SET c.noteCount = c.noteCount - " +
+            "(SELECT COUNT(n) FROM NoteEntity n WHERE n.user.id = c.userId AND n.id IN :noteIds) " +
+            "WHERE c.userId IN (SELECT n.user.id FROM NoteEntity n WHERE n.id IN :noteIds)")
+    int subtractByNoteIdIn(Collection<Long> noteIds);
+
+    /**
+     * The counters of the owners of many notes ( not deleted yet ) that don't have one, counting their other notes
+     */
+    @Modifying
+    @Query("INSERT INTO NoteCounterEntity (userId, noteCount) " +
+            "SELECT n.user.id, SUM(CASE WHEN n.id IN :noteIds THEN 0L ELSE 1L END) FROM NoteEntity n " +
+            "WHERE n.user.id IN (SELECT m.user.id FROM NoteEntity m WHERE m.id IN :noteIds) " +
+            "AND NOT EXISTS (SELECT c.userId FROM NoteCounterEntity c WHERE c.userId = n.user.id) " +
+            "GROUP BY n.user.id")
+    int insertMissingWithoutNoteIdIn(Collection<Long> noteIds);
+
+    @Modifying
+    @Query("UPDATE NoteCounterEntity c SET c.noteCount = :noteCount WHERE c.userId = :userId")
+    int setByUserId(Long userId, long noteCount);
+
+    @Query("SELECT c.noteCount FROM NoteCounterEntity c WHERE c.userId = :userId")
+    Optional<Long> findNoteCountByUserId(Long userId);
+
+    List<NoteCounterEntity> findByUserIdIn(Collection<Long> userIds);
+
+    /**
+     * Users whose counter doesn't match their notes, or that have notes but not a counter
+     */
+    @Query(value = "SELECT c.user_id FROM note_counters c " +
+            "WHERE c.note_count <> (SELECT COUNT(*) FROM notes n WHERE n.user_id = c.user_id) " +
+            "UNION " +
+            "SELECT DISTINCT n.user_id FROM notes n " +
+            "WHERE n.user_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM note_counters c WHERE c.user_id = n.user_id)",
+            nativeQuery = true)
+    List<Long> findDriftedUserIds();
+}
@@ -0,0 +1,26 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.NoteDigestEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for {@link NoteDigestEntity}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteDigestRepository extends JpaRepository<NoteDigestEntity, Long> {
+
+    Optional<NoteDigestEntity> findByUserIdAndBucket(Long userId, Integer bucket);
+
+    List<NoteDigestEntity> findByUserIdAndBucketBetween(Long userId, Integer from, Integer to);
+
+    /**
+     * The leaves of any of the users in any of the buckets, a superset of the pairs that the caller needs
+     */
+    List<NoteDigestEntity> findByUserIdInAndBucketIn(Collection<Long> userIds, Collection<Integer> buckets);
+}
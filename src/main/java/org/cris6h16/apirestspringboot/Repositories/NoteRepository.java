@@ -1,11 +1,18 @@
 package org.cris6h16.apirestspringboot.Repositories;
 
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteVersionDTO;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,15 +23,93 @@ import java.util.Optional;
  */
 public interface NoteRepository extends
         JpaRepository<NoteEntity, Long>,
-        PagingAndSortingRepository<NoteEntity, Long> {
+        PagingAndSortingRepository<NoteEntity, Long>,
+        NoteRepositoryCustom {
 
     Optional<NoteEntity> findByIdAndUserId(Long noteId, Long userId);
 
+    /**
+     * Lock the row of the note until the end of the transaction, for the writes without a precondition
+     * ( the last writer wins ) that are flushed through the entity afterward. Native to get a plain
+     * {@code FOR UPDATE} in any database, as {@link UserRepository#lockById(Long)}
+     *
+     * @return the id, or empty if the user doesn't have that note
+     */
+    @Query(value = "SELECT id FROM notes WHERE id = :noteId AND user_id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockByIdAndUserId(Long noteId, Long userId);
+
     boolean existsByIdAndUserId(Long noteId, Long userId);
 
     void deleteByIdAndUserId(Long noteId, Long userId);
 
     <S extends NoteEntity> Page<S> findByUserId(Long userId, Pageable pageable);
 
-}
+    List<NoteEntity> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * A page of notes without the {@code count(*)} query of {@link #findByUserId(Long, Pageable)},
+     * the total is read from {@link NoteCounterRepository}
+     */
+    List<NoteEntity> findPageByUserId(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    /**
+     * Lock the next chunk of a deletion ordered by id, then its versions can't change until it's deleted.
+     * Native to get a plain {@code FOR UPDATE} in any database, as {@link #lockByIdAndUserId(Long, Long)}
+     */
+    @Query(value = "SELECT id FROM notes WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsAfter(Long afterId, int limit);
+
+    /**
+     * Owner and version of each note, what its tombstone and its digest need on a deletion
+     */
+    @Query("SELECT n.id AS id, n.user.id AS userId, n.version AS version FROM NoteEntity n WHERE n.id IN :ids ORDER BY n.id")
+    List<NoteOwnerVersion> findOwnerVersionsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT n.id FROM NoteEntity n WHERE n.user.id IN :userIds AND n.id > :afterId ORDER BY n.id")
+    List<Long> findIdsByUserIdInAfter(Collection<Long> userIds, Long afterId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM NoteEntity n WHERE n.user.id IN :userIds")
+    int deleteByUserIdIn(Collection<Long> userIds);
 
+    @Query("SELECT n.version FROM NoteEntity n WHERE n.id = :noteId AND n.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(Long noteId, Long userId);
+
+    @Query("SELECT new org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO(n.version, LENGTH(n.content)) FROM NoteEntity n " +
+            "WHERE n.id = :noteId AND n.user.id = :userId")
+    Optional<PublicNoteContentInfoDTO> findContentInfoByIdAndUserId(Long noteId, Long userId);
+
+    /**
+     * A slice of the content cut by the database, then only the slice is transferred
+     *
+     * @param start  1-based, in characters
+     * @param length in characters
+     * @return the slice, empty if the note doesn't exist or isn't in that version anymore
+     */
+    @Query("SELECT SUBSTRING(n.content, :start, :length) FROM NoteEntity n " +
+            "WHERE n.id = :noteId AND n.user.id = :userId AND n.version = :version")
+    Optional<String> findContentSliceByIdAndUserIdAndVersion(Long noteId, Long userId, Long version, int start, int length);
+
+    /**
+     * Id and version of the notes of a user in a leaf of the digest tree,
+     * a range of the index on {@code ( user_id, bucket )}
+     *
+     * @param bucket the leaf
+     */
+    @Query("SELECT new org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteVersionDTO(n.id, n.version) FROM NoteEntity n " +
+            "WHERE n.user.id = :userId AND n.bucket = :bucket ORDER BY n.id")
+    List<PublicNoteVersionDTO> findVersionsByUserIdAndBucket(Long userId, int bucket);
+
+    /**
+     * Projection of {@link #findOwnerVersionsByIdIn(Collection)}
+     */
+    interface NoteOwnerVersion {
+        Long getId();
+
+        Long getUserId();
+
+        Long getVersion();
+    }
+}
@@ -0,0 +1,32 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.ENoteField;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Custom fragment of {@link NoteRepository} for the queries that
+ * can't be expressed as a static {@code JPQL}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteRepositoryCustom {
+
+    /**
+     * A page of notes that selects only the given columns, the {@code content} cut by the database
+     * if a preview is asked; the total is read from {@link NoteCounterRepository}
+     *
+     * @param userId   user id that owns the notes
+     * @param pageable the page request, it can sort by a non-selected column
+     * @param fields   the columns to select, not empty
+     * @param preview  max characters of the {@code content}, {@code null} for all of them
+     * @return the notes with {@code null} in the non-selected attributes
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    List<PublicNoteDTO> findPageByUserId(Long userId, Pageable pageable, Set<ENoteField> fields, Integer preview);
+}
@@ -0,0 +1,68 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.ENoteField;
+import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link NoteRepositoryCustom}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PublicNoteDTO> findPageByUserId(Long userId, Pageable pageable, Set<ENoteField> fields, Integer preview) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<NoteEntity> n = query.from(NoteEntity.class);
+
+        // only the asked columns are in the SELECT clause, a preview is cut by the database
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ENoteField field : fields) {
+            Expression<?> column = n.get(field.getAttribute());
+            if (field == ENoteField.CONTENT && preview != null) column = cb.substring(n.get("content"), 1, preview);
+            selections.add(column.alias(field.getAttribute()));
+        }
+        query.multiselect(selections)
+                .where(cb.equal(n.get("user").get("id"), userId))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), n, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(tuple -> toPublicNoteDTO(tuple, fields))
+                .toList();
+    }
+
+    private PublicNoteDTO toPublicNoteDTO(Tuple tuple, Set<ENoteField> fields) {
+        PublicNoteDTO.PublicNoteDTOBuilder note = PublicNoteDTO.builder();
+        for (ENoteField field : fields) {
+            Object value = tuple.get(field.getAttribute());
+            switch (field) {
+                case ID -> note.id((Long) value);
+                case TITLE -> note.title((String) value);
+                case CONTENT -> note.content(value == null ? "" : (String) value);
+                case UPDATED_AT -> note.updatedAt((Date) value);
+                case VERSION -> note.version((Long) value);
+            }
+        }
+        return note.build();
+    }
+}
@@ -0,0 +1,60 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.NoteSyncStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Repository for {@link NoteSyncStateEntity}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteSyncStateRepository extends JpaRepository<NoteSyncStateEntity, Long> {
+
+    /**
+     * @return the number of updated rows, {@code 0} if the user hasn't a state yet
+     */
+    @Modifying
+    @Query("UPDATE NoteSyncStateEntity s SET s.changeSeq = s.changeSeq + 1 WHERE s.userId = :userId")
+    int incrementChangeSeqByUserId(Long userId);
+
+    /**
+     * The states of the owners of many notes that don't have one yet
+     */
+    @Modifying
+    @Query("INSERT INTO NoteSyncStateEntity (userId, changeSeq, purgedSeq) " +
+            "SELECT DISTINCT n.user.id, 0L, 0L FROM NoteEntity n " +
+            "WHERE n.id IN :noteIds AND NOT EXISTS (SELECT s.userId FROM NoteSyncStateEntity s WHERE s.userId = n.user.id)")
+    int insertMissingByNoteIdIn(Collection<Long> noteIds);
+
+    /**
+     * Advance the sequence of the owner of each note by its number of notes in {@code noteIds}
+     */
+    @Modifying
+    @Query("UPDATE NoteSyncStateEntity s SET s.changeSeq = s.changeSeq + " +
+            "(SELECT COUNT(n) FROM NoteEntity n WHERE n.user.id = s.userId AND n.id IN :noteIds) " +
+            "WHERE s.userId IN (SELECT n.user.id FROM NoteEntity n WHERE n.id IN :noteIds)")
+    int advanceChangeSeqByNoteIdIn(Collection<Long> noteIds);
+
+    @Query("SELECT s.changeSeq FROM NoteSyncStateEntity s WHERE s.userId = :userId")
+    Long findChangeSeqByUserId(Long userId);
+
+    @Query("SELECT s.purgedSeq FROM NoteSyncStateEntity s WHERE s.userId = :userId")
+    Optional<Long> findPurgedSeqByUserId(Long userId);
+
+    /**
+     * Remember, per user, the highest {@code seq} of the tombstones that
+     * {@link NoteChangeRepository#deleteTombstonesChangedBefore(Date)} will purge
+     */
+    @Modifying
+    @Query("UPDATE NoteSyncStateEntity s SET s.purgedSeq = " +
+            "(SELECT MAX(c.seq) FROM NoteChangeEntity c WHERE c.user.id = s.userId AND c.deleted = true AND c.changedAt < :before) " +
+            "WHERE EXISTS (SELECT c.id FROM NoteChangeEntity c WHERE c.user.id = s.userId AND c.deleted = true AND c.changedAt < :before)")
+    int updatePurgedSeqForTombstonesChangedBefore(Date before);
+}
@@ -1,12 +1,23 @@
 package org.cris6h16.apirestspringboot.Repositories;
 
+import jakarta.persistence.QueryHint;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserPageRowDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserRoleDTO;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Repository for {@link UserEntity}
@@ -18,21 +29,104 @@ public interface UserRepository extends
         JpaRepository<UserEntity, Long>,
         PagingAndSortingRepository<UserEntity, Long> {
 
+    /**
+     * The live user with the {@code username}, or the last deleted one if there isn't, then the
+     * authentication can tell apart a deleted account from an unknown one ( live first with a {@code CASE},
+     * the dialect omits {@code NULLS FIRST} and each database sorts the nulls in its own way )
+     */
+    @Query("SELECT u FROM UserEntity u WHERE u.username = :username ORDER BY CASE WHEN u.deletedAt IS NULL THEN 0 ELSE 1 END, u.deletedAt DESC LIMIT 1")
     Optional<UserEntity> findByUsername(String username);
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE UserEntity u SET u.email = :newEmail, u.updatedAt = CURRENT DATE WHERE u.id = :userId")
-    void updateEmailById(String newEmail, Long userId);
+    /**
+     * Only the live users, the deleted ones are waiting to be purged
+     */
+    long countByDeletedAtIsNull();
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE UserEntity u SET u.username = :newUsername, u.updatedAt = CURRENT DATE WHERE u.id = :userId")
-    void updateUsernameById(String newUsername, Long userId);
+    /**
+     * A page of live users as rows, with their note counter and the total of live users in the same
+     * statement: no entity is loaded then neither their {@code EAGER} roles nor a {@code count(*)} query follow
+     *
+     * @param pageable the page and the sort, over the properties of {@link UserEntity}
+     * @return the rows, empty if the page is out of range ( then the total is unknown )
+     */
+    @Query("SELECT new org.cris6h16.apirestspringboot.DTOs.Public.PublicUserPageRowDTO(" +
+            "u.id, u.username, u.email, u.createdAt, u.updatedAt, u.version, COALESCE(c.noteCount, 0), COUNT(*) OVER ()) " +
+            "FROM UserEntity u LEFT JOIN NoteCounterEntity c ON c.userId = u.id " +
+            "WHERE u.deletedAt IS NULL")
+    List<PublicUserPageRowDTO> findPageRows(Pageable pageable);
 
-    @Modifying(clearAutomatically = true) // clearAutomatically = true, to avoid the `EntityManager` to be out of sync
-    @Query("UPDATE UserEntity u SET u.password = :newPassword, u.updatedAt = CURRENT DATE WHERE u.id = :id")
-    void updatePasswordById(String newPassword, Long id);
+    /**
+     * The roles of many users in a single statement
+     */
+    @Query("SELECT new org.cris6h16.apirestspringboot.DTOs.Public.PublicUserRoleDTO(u.id, r.name) " +
+            "FROM UserEntity u JOIN u.roles r WHERE u.id IN :userIds")
+    List<PublicUserRoleDTO> findRolesByUserIdIn(Collection<Long> userIds);
 
+    /**
+     * Lock the row of the user until the end of the transaction without touching it, then the note
+     * writes of a user are serialized without evicting it from the second-level cache ( a bulk
+     * {@code UPDATE} would evict the whole region ), and so are the writes of the user itself.
+     * Native to get a plain {@code FOR UPDATE} in any database.
+     *
+     * @return the id, or empty if the user doesn't exist
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long userId);
+
+    /**
+     * Lock the rows of many users in id order ( the order of any other locker of many users ), as {@link #lockById(Long)}
+     *
+     * @return the ids of the users that exist
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN :userIds ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(Collection<Long> userIds);
+
+    /**
+     * The existence checks below only see the live users, as the unique indexes
+     */
+    @Query("SELECT COUNT(u) > 0 FROM UserEntity u WHERE u.username = :username AND u.deletedAt IS NULL")
     boolean existsByUsername(String username);
 
+    @Query("SELECT COUNT(u) > 0 FROM UserEntity u WHERE u.email = :email AND u.deletedAt IS NULL")
     boolean existsByEmail(String email);
+
+    /**
+     * All the live usernames/emails, read in batches of {@code fetch_size} rows to build the Bloom filters
+     * of the availability ( must be consumed and closed inside a transaction )
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username FROM UserEntity u WHERE u.deletedAt IS NULL")
+    Stream<String> streamLiveUsernames();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM UserEntity u WHERE u.deletedAt IS NULL")
+    Stream<String> streamLiveEmails();
+
+    @Query("SELECT u.username FROM UserEntity u WHERE u.username IN :usernames AND u.deletedAt IS NULL")
+    Set<String> findUsernamesIn(Collection<String> usernames);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.email IN :emails AND u.deletedAt IS NULL")
+    Set<String> findEmailsIn(Collection<String> emails);
+
+    /**
+     * Next chunk of a deletion ordered by id
+     */
+    @Query("SELECT u.id FROM UserEntity u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(Long afterId, Limit limit);
+
+    /**
+     * Next chunk of the soft-deleted users to purge, ordered by id
+     */
+    @Query("SELECT u.id FROM UserEntity u WHERE u.deletedAt IS NOT NULL AND u.id > :afterId ORDER BY u.id")
+    List<Long> findDeletedIdsAfter(Long afterId, Limit limit);
+
+    /**
+     * Set-based removal of the roles of many users, {@code users_roles} isn't an entity.<br>
+     * The hint declares the table it writes, without it Hibernate evicts every region of the second-level cache
+     * after a native statement; with it only the cached roles of the users ( {@code UserEntity.roles} )
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users_roles"))
+    @Query(value = "DELETE FROM users_roles WHERE user_id IN :userIds", nativeQuery = true)
+    int deleteRolesByUserIdIn(Collection<Long> userIds);
 }
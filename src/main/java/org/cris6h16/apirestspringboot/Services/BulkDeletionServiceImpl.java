@@ -0,0 +1,317 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
+import org.cris6h16.apirestspringboot.Entities.BulkDeletionJobEntity;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionStatus;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.BulkDeletionService.BulkDeletionJobNotFoundException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIdException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.BulkDeletionJobRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository.NoteOwnerVersion;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.BulkDeletionService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteCounterService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteDigestService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteSyncService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.CHUNK_SIZE;
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.LATEST_JOBS;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.SoftDelete.PURGE_CRON;
+
+/**
+ * An implementation of {@link BulkDeletionService} interface.<br>
+ * Each chunk is read by id after the {@code lastId} of the job and deleted with set-based
+ * statements in its own transaction, which also advances the job; then the locks are held
+ * only for a chunk, nothing is loaded in the persistence context and a restart resumes
+ * from the last committed chunk.<br>
+ * A chunk of notes records the tombstones, digests and counters of its notes in its transaction,
+ * as {@link NoteServiceImpl#deleteByIdAndUserId(Long, Long)} does for one but with a few statements
+ * for the whole chunk; a chunk of users is deleted as {@link #deleteUser(Long)} deletes one,
+ * then the notes of its users are chunked too.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class BulkDeletionServiceImpl implements BulkDeletionService {
+    private final BulkDeletionJobRepository bulkDeletionJobRepository;
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final NoteDigestService noteDigestService;
+    private final NoteCounterService noteCounterService;
+    private final NoteSyncService noteSyncService;
+    private final TaskExecutor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkDeletionServiceImpl(BulkDeletionJobRepository bulkDeletionJobRepository,
+                                   NoteRepository noteRepository,
+                                   UserRepository userRepository,
+                                   NoteDigestService noteDigestService,
+                                   NoteCounterService noteCounterService,
+                                   NoteSyncService noteSyncService,
+                                   @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor taskExecutor,
+                                   PlatformTransactionManager transactionManager) {
+        this.bulkDeletionJobRepository = bulkDeletionJobRepository;
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.noteDigestService = noteDigestService;
+        this.noteCounterService = noteCounterService;
+        this.noteSyncService = noteSyncService;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public PublicBulkDeletionJobDTO start(EBulkDeletionTarget target) {
+        BulkDeletionJobEntity job = findOrCreate(target);
+        taskExecutor.execute(() -> process(job.getId(), target));
+        return createPublicBulkDeletionJobDTO(job);
+    }
+
+    @Override
+    public PublicBulkDeletionJobDTO run(EBulkDeletionTarget target) {
+        BulkDeletionJobEntity job = findOrCreate(target);
+        process(job.getId(), target);
+        return getById(job.getId());
+    }
+
+    @Override
+    public void deleteUser(Long userId) {
+        if (deleteUsers(List.of(userId)) == 0) throw new UserNotFoundException();
+    }
+
+    @Override
+    @Scheduled(cron = PURGE_CRON)
+    public int purgeDeletedUsers() {
+        int purged = 0;
+        List<Long> ids = userRepository.findDeletedIdsAfter(0L, Limit.of(CHUNK_SIZE));
+        while (!ids.isEmpty()) {
+            purged += deleteUsers(ids); // the ones already purged by another instance aren't counted
+            ids = userRepository.findDeletedIdsAfter(ids.get(ids.size() - 1), Limit.of(CHUNK_SIZE));
+        }
+
+        log.info("Purged {} deleted users", purged);
+        return purged;
+    }
+
+    @Override
+    public PublicBulkDeletionJobDTO getById(Long jobId) {
+        if (jobId == null || jobId <= 0) throw new InvalidIdException();
+        return bulkDeletionJobRepository.findById(jobId)
+                .map(this::createPublicBulkDeletionJobDTO)
+                .orElseThrow(BulkDeletionJobNotFoundException::new);
+    }
+
+    @Override
+    public List<PublicBulkDeletionJobDTO> getLatest() {
+        return bulkDeletionJobRepository.findByOrderByIdDesc(Limit.of(LATEST_JOBS)).stream()
+                .map(this::createPublicBulkDeletionJobDTO)
+                .toList();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public int resumeRunning() {
+        List<Long> running = bulkDeletionJobRepository.findIdsByStatus(EBulkDeletionStatus.RUNNING);
+        for (Long jobId : running) {
+            BulkDeletionJobEntity job = bulkDeletionJobRepository.findById(jobId).orElseThrow();
+            log.info("Resuming the deletion job {} of {} after the id {}", jobId, job.getTarget(), job.getLastId());
+            taskExecutor.execute(() -> process(jobId, job.getTarget()));
+        }
+        return running.size();
+    }
+
+    /**
+     * Join the running job of the target or create it.<br>
+     * Two concurrent starts can both miss the running job, the unique {@code runningTarget}
+     * rejects the second creation, which joins the job of the first one.
+     *
+     * @param target what the job deletes
+     * @return the running job of the target
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private BulkDeletionJobEntity findOrCreate(EBulkDeletionTarget target) {
+        try {
+            return transactionTemplate.execute(status -> bulkDeletionJobRepository
+                    .findFirstByTargetAndStatus(target, EBulkDeletionStatus.RUNNING)
+                    .orElseGet(() -> {
+                        Date now = new Date();
+                        long total = (target == EBulkDeletionTarget.NOTES) ? noteRepository.count() : userRepository.count();
+                        return bulkDeletionJobRepository.saveAndFlush(BulkDeletionJobEntity.builder()
+                                .target(target)
+                                .status(EBulkDeletionStatus.RUNNING)
+                                .runningTarget(target)
+                                .lastId(0L)
+                                .deleted(0L)
+                                .total(total)
+                                .startedAt(now)
+                                .updatedAt(now)
+                                .build());
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("The deletion job of {} was created by a concurrent start", target);
+            return transactionTemplate.execute(status -> bulkDeletionJobRepository
+                    .findFirstByTargetAndStatus(target, EBulkDeletionStatus.RUNNING)
+                    .orElseThrow(() -> e)); // already finished, very unlikely
+        }
+    }
+
+    /**
+     * Delete chunk after chunk until the job finishes, a failure leaves the job
+     * {@link EBulkDeletionStatus#FAILED} with the chunks already deleted committed
+     *
+     * @param jobId  id of the job
+     * @param target what the job deletes
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private void process(Long jobId, EBulkDeletionTarget target) {
+        try {
+            boolean more = true;
+            while (more) more = (target == EBulkDeletionTarget.NOTES) ?
+                    Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteNotesChunk(jobId))) :
+                    deleteUsersChunk(jobId);
+        } catch (Exception e) {
+            log.error("Deletion job {} of {} failed", jobId, target, e);
+            transactionTemplate.executeWithoutResult(status ->
+                    bulkDeletionJobRepository.finish(jobId, EBulkDeletionStatus.FAILED, new Date()));
+        }
+    }
+
+    /**
+     * Delete the next chunk of notes of the job, in the transaction of the caller.<br>
+     * The notes are locked first ( as a writer of a note, before its user ), then the versions
+     * of their digests can't change until they're deleted; then their users in id order, which
+     * serializes the set-based statements with the writes of a single note of those users.
+     *
+     * @return {@code true} if there may be more chunks
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private boolean deleteNotesChunk(Long jobId) {
+        Long lastId = bulkDeletionJobRepository.lockLastIdIfRunning(jobId).orElse(null);
+        if (lastId == null) return false; // finished by another worker
+
+        Date now = new Date();
+        List<Long> ids = noteRepository.lockIdsAfter(lastId, CHUNK_SIZE);
+        if (ids.isEmpty()) {
+            finish(jobId, EBulkDeletionTarget.NOTES, now);
+            return false;
+        }
+
+        List<NoteOwnerVersion> notes = noteRepository.findOwnerVersionsByIdIn(ids);
+        userRepository.lockByIdIn(notes.stream().map(NoteOwnerVersion::getUserId).collect(Collectors.toCollection(TreeSet::new)));
+        noteSyncService.recordDeletes(ids); // before the deletion, they read the notes
+        noteCounterService.subtractNotes(ids);
+        noteDigestService.recordDeletes(notes);
+        noteRepository.deleteAllByIdInBatch(ids);
+
+        bulkDeletionJobRepository.advance(jobId, ids.get(ids.size() - 1), ids.size(), now);
+        return true;
+    }
+
+    /**
+     * Delete the next chunk of users of the job as {@link #deleteUsers(List)} ( its own
+     * transactions ), then advance the job.<br>
+     * The job isn't locked while its users are deleted, a chunk deleted by two workers
+     * is advanced once.
+     *
+     * @return {@code true} if there may be more chunks
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private boolean deleteUsersChunk(Long jobId) {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            Long lastId = bulkDeletionJobRepository.lockLastIdIfRunning(jobId).orElse(null);
+            if (lastId == null) return List.of(); // finished by another worker
+
+            List<Long> chunk = userRepository.findIdsAfter(lastId, Limit.of(CHUNK_SIZE));
+            if (chunk.isEmpty()) finish(jobId, EBulkDeletionTarget.USERS, new Date());
+            return chunk;
+        });
+        if (ids == null || ids.isEmpty()) return false;
+
+        long count = deleteUsers(ids); // the ones already deleted by another worker or its owner aren't counted
+        Long last = ids.get(ids.size() - 1);
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Long lastId = bulkDeletionJobRepository.lockLastIdIfRunning(jobId).orElse(null);
+            if (lastId == null) return false;
+            if (lastId < last) bulkDeletionJobRepository.advance(jobId, last, count, new Date());
+            return true;
+        }));
+    }
+
+    /**
+     * Delete the notes of the users in chunks ( a transaction per chunk ), then the users
+     * with a statement per table in a last transaction.
+     *
+     * @param userIds ids of the users to delete
+     * @return the number of deleted users, the ones that didn't exist aren't counted
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private int deleteUsers(List<Long> userIds) {
+        Long lastId = 0L;
+        while (lastId != null) {
+            Long after = lastId;
+            lastId = transactionTemplate.execute(status -> {
+                List<Long> ids = noteRepository.findIdsByUserIdInAfter(userIds, after, Limit.of(CHUNK_SIZE));
+                if (ids.isEmpty()) return null;
+                noteRepository.deleteAllByIdInBatch(ids);
+                return ids.get(ids.size() - 1);
+            });
+        }
+
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Long> locked = userRepository.lockByIdIn(userIds); // the note writers take these locks too
+            if (locked.isEmpty()) return 0;
+            noteRepository.deleteByUserIdIn(locked); // created while the chunks were deleted, usually none
+            userRepository.deleteRolesByUserIdIn(locked);
+            userRepository.deleteAllByIdInBatch(locked); // the other rows of the users are removed by the database ( ON DELETE CASCADE )
+            return locked.size();
+        });
+        return (deleted == null) ? 0 : deleted;
+    }
+
+    private void finish(Long jobId, EBulkDeletionTarget target, Date now) {
+        bulkDeletionJobRepository.finish(jobId, EBulkDeletionStatus.COMPLETED, now);
+        log.info("Deletion job {} of {} completed", jobId, target);
+    }
+
+    private PublicBulkDeletionJobDTO createPublicBulkDeletionJobDTO(BulkDeletionJobEntity job) {
+        return PublicBulkDeletionJobDTO.builder()
+                .id(job.getId())
+                .target(job.getTarget())
+                .status(job.getStatus())
+                .deleted(job.getDeleted())
+                .total(job.getTotal())
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package org.cris6h16.apirestspringboot.Services.Interfaces;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+
+import java.util.List;
+
+/**
+ * Service layer for the deletion of all the rows of a table, as a background job
+ * made of short transactions that can be resumed after a restart
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface BulkDeletionService {
+
+    /**
+     * Start a deletion in the background, or join the running one of the same target
+     *
+     * @param target what to delete
+     * @return the job as it was when started
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicBulkDeletionJobDTO start(EBulkDeletionTarget target);
+
+    /**
+     * Same as {@link #start(EBulkDeletionTarget)} but the chunks are deleted in the caller thread
+     *
+     * @param target what to delete
+     * @return the job when finished
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicBulkDeletionJobDTO run(EBulkDeletionTarget target);
+
+    /**
+     * Delete a user without loading its notes: the notes are deleted by id in chunks of short
+     * transactions, then the notes created meanwhile, its roles and the user in a last one
+     *
+     * @param userId id of the user
+     * @throws org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException if the user doesn't exist
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void deleteUser(Long userId);
+
+    /**
+     * Delete the soft-deleted users and their notes, a user at a time as in {@link #deleteUser(Long)}
+     *
+     * @return the number of purged users
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    int purgeDeletedUsers();
+
+    /**
+     * @param jobId id of the job
+     * @return the progress of the job
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicBulkDeletionJobDTO getById(Long jobId);
+
+    /**
+     * @return the latest jobs, newest first
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    List<PublicBulkDeletionJobDTO> getLatest();
+
+    /**
+     * Resume in the background the jobs interrupted by a restart
+     *
+     * @return the number of resumed jobs
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    int resumeRunning();
+}
@@ -0,0 +1,63 @@
+package org.cris6h16.apirestspringboot.Services.Interfaces;
+
+import org.cris6h16.apirestspringboot.Repositories.NoteCounterRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service layer for {@link NoteCounterRepository}, the number of notes of each user
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteCounterService {
+
+    /**
+     * Add {@code delta} to the counter of a user, must be called in the
+     * same transaction as the creation/deletion of the notes
+     *
+     * @param userId user id that owns the notes
+     * @param delta  {@code 1} for a created note, {@code -1} for a deleted one
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void add(Long userId, long delta);
+
+    /**
+     * Subtract many notes from the counters of their users with set-based statements, must be called in the
+     * same transaction as their deletion and <strong>before</strong> it ( the statements read the notes ),
+     * holding the locks of their users
+     *
+     * @param noteIds note ids of the notes to delete
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void subtractNotes(Collection<Long> noteIds);
+
+    /**
+     * @param userId user id that owns the notes
+     * @return the number of notes of the user, empty if the user hasn't a counter yet
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    Optional<Long> getCount(Long userId);
+
+    /**
+     * @param userIds user ids that own the notes
+     * @return the number of notes of each user in a single query, {@code 0} if the user hasn't a counter yet
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    Map<Long, Long> getCounts(Collection<Long> userIds);
+
+    /**
+     * Repair the counters that drifted from the notes, each one in its own transaction
+     *
+     * @return the number of repaired counters
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    int reconcile();
+}
@@ -0,0 +1,63 @@
+package org.cris6h16.apirestspringboot.Services.Interfaces;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDigestDTO;
+import org.cris6h16.apirestspringboot.Repositories.NoteDigestRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository.NoteOwnerVersion;
+
+import java.util.Collection;
+
+/**
+ * Service layer for {@link NoteDigestRepository}, the digest tree used by the
+ * clients to find the notes that differ from its local copy.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteDigestService {
+
+    /**
+     * Update the digest after a note was created or updated, must be called in the
+     * same transaction as the mutation of the note
+     *
+     * @param userId     user id that owns the note
+     * @param noteId     note id of the created/updated note
+     * @param oldVersion version before the mutation, {@code null} if the note was created
+     * @param newVersion version after the mutation
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void recordUpsert(Long userId, Long noteId, Long oldVersion, Long newVersion);
+
+    /**
+     * Update the digest after a note was deleted, must be called in the
+     * same transaction as the deletion of the note
+     *
+     * @param userId  user id that owned the note
+     * @param noteId  note id of the deleted note
+     * @param version version of the deleted note
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void recordDelete(Long userId, Long noteId, Long version);
+
+    /**
+     * Update the digest after many notes were deleted, reading and writing each changed leaf once,
+     * must be called in the same transaction as their deletion holding the locks of their users
+     *
+     * @param notes owner, id and version of the deleted notes
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void recordDeletes(Collection<NoteOwnerVersion> notes);
+
+    /**
+     * Get a node of the digest tree of the notes of a user
+     *
+     * @param userId user id that owns the notes
+     * @param path   hex digits from the root to the node, {@code null} or empty for the root
+     * @return a {@link PublicNoteDigestDTO} with the hashes of the children, or the notes if it is a leaf
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicNoteDigestDTO getDigest(Long userId, String path);
+}
@@ -1,7 +1,12 @@
 package org.cris6h16.apirestspringboot.Services.Interfaces;
 
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditNoteContentDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidNoteFieldsException;
 import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,16 +43,86 @@ public interface NoteService {
 
     /**
      * PUT a note.<br>
-     * If exists, update the note where {@code (note.id == noteId) && (note.user.id == userId)}
+     * Update the note where {@code (note.id == noteId) && (note.user.id == userId)}, a missing note isn't created
      *
      * @param noteId note id
      * @param userId user id that owns the note
      * @param note   the note data to be PUT
+     * @throws org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.NoteNotFoundException if the user doesn't have it
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
     void putByIdAndUserId(Long noteId, Long userId, CreateNoteDTO note);
 
+    /**
+     * Conditional PUT of a note.<br>
+     * Update the note where {@code (note.id == noteId) && (note.user.id == userId) && (note.version == version)}
+     * in a single statement, if {@code version == null} behaves as {@link #putByIdAndUserId(Long, Long, CreateNoteDTO)}
+     *
+     * @param noteId  note id
+     * @param userId  user id that owns the note
+     * @param note    the note data to be PUT
+     * @param version the version that the client has seen ( {@code If-Match} )
+     * @return the new version of the note, {@code null} if {@code version == null}
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    Long putByIdAndUserId(Long noteId, Long userId, CreateNoteDTO note, Long version);
+
+    /**
+     * JSON Merge Patch of a note.<br>
+     * Update only the sent attributes of the note where {@code (note.id == noteId) && (note.user.id == userId)}
+     * in a single statement, and {@code (note.version == version)} if {@code version != null}
+     *
+     * @param noteId  note id
+     * @param userId  user id that owns the note
+     * @param patch   the attributes to update
+     * @param version the version that the client has seen ( {@code If-Match} ), can be {@code null}
+     * @return the new version of the note
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    Long patchByIdAndUserId(Long noteId, Long userId, PatchNoteDTO patch, Long version);
+
+    /**
+     * Apply edit operations over the content of a note in the version that the client has seen,
+     * then the client sends bytes proportional to the edit instead of the whole content
+     *
+     * @param noteId note id
+     * @param userId user id that owns the note
+     * @param edit   the base version and the operations
+     * @return the new version of the note
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    Long editContentByIdAndUserId(Long noteId, Long userId, EditNoteContentDTO edit);
+
+    /**
+     * Get the version and the length of the content of a note, without reading the content
+     *
+     * @param noteId note id
+     * @param userId user id that owns the note
+     * @return the version and the length in characters
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicNoteContentInfoDTO getContentInfoByIdAndUserId(Long noteId, Long userId);
+
+    /**
+     * Get a slice of the content of a note, only if the note is still in the given version
+     * ( then the slice is cut from the content whose length was read )
+     *
+     * @param noteId  note id
+     * @param userId  user id that owns the note
+     * @param version the version whose content is being read
+     * @param start   0-based, in characters
+     * @param length  in characters
+     * @return the slice
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    String getContentSliceByIdAndUserId(Long noteId, Long userId, Long version, long start, int length);
+
     /**
      * DELETE a note.<br>
      * where {@code (note.id == noteId) && (note.user.id == userId)}
@@ -71,11 +146,28 @@ public interface NoteService {
     Page<PublicNoteDTO> getPage(Pageable pageable, Long userId);
 
     /**
-     * Delete all notes
+     * Get a page of notes owned by a user, with only some of their attributes
+     * ( a sparse fieldset ) and/or a preview of their content.<br>
+     * The {@code id} is always included, a preview implies the {@code content}.
+     *
+     * @param pageable the page request
+     * @param userId   the id of the user that owns the notes
+     * @param fields   comma separated attributes of {@link PublicNoteDTO}, {@code null} for all of them
+     * @param preview  max characters of the {@code content}, {@code null} for all of them
+     * @return a list of {@link PublicNoteDTO} with {@code null} in the non-selected attributes
+     * @throws InvalidNoteFieldsException if a field is unknown or the preview is out of {@code [1, MAX_PREVIEW]}
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    Page<PublicNoteDTO> getPage(Pageable pageable, Long userId, String fields, Integer preview);
+
+    /**
+     * Delete all notes in the background, in chunks of short transactions
      *
+     * @return the deletion job, its progress can be followed by its id
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
-    void deleteAll();
+    PublicBulkDeletionJobDTO deleteAll();
 
 }
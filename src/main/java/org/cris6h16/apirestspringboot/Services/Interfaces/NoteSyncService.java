@@ -0,0 +1,69 @@
+package org.cris6h16.apirestspringboot.Services.Interfaces;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteChangesDTO;
+import org.cris6h16.apirestspringboot.Repositories.NoteChangeRepository;
+
+import java.util.Collection;
+
+/**
+ * Service layer for {@link NoteChangeRepository}, the delta sync of the notes
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface NoteSyncService {
+
+    /**
+     * Record that a note was created or updated, must be called in the
+     * same transaction as the mutation of the note
+     *
+     * @param userId user id that owns the note
+     * @param noteId note id of the created/updated note
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void recordUpsert(Long userId, Long noteId);
+
+    /**
+     * Record that a note was deleted ( a tombstone ), must be called in the
+     * same transaction as the deletion of the note
+     *
+     * @param userId user id that owned the note
+     * @param noteId note id of the deleted note
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void recordDelete(Long userId, Long noteId);
+
+    /**
+     * Record that many notes are being deleted with set-based statements, must be called in the same
+     * transaction as their deletion and <strong>before</strong> it ( the statements read the notes ),
+     * holding the locks of their users
+     *
+     * @param noteIds note ids of the notes to delete
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void recordDeletes(Collection<Long> noteIds);
+
+    /**
+     * Get the changes of the notes of a user since a sync token, in change order
+     *
+     * @param userId user id that owns the notes
+     * @param since  the {@code syncToken} of the last response, {@code 0} or {@code null} for a full sync
+     * @param limit  max number of changes to return
+     * @return a {@link PublicNoteChangesDTO} with the changes and the next sync token
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicNoteChangesDTO getChangesSince(Long userId, Long since, Integer limit);
+
+    /**
+     * Purge the tombstones older than the retention window
+     *
+     * @return the number of purged tombstones
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    int purgeTombstones();
+}
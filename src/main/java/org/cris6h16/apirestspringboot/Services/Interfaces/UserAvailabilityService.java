@@ -0,0 +1,65 @@
+package org.cris6h16.apirestspringboot.Services.Interfaces;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserAvailabilityDTO;
+
+/**
+ * Service layer for the availability of the usernames and emails.<br>
+ * Answered by in-memory Bloom filters of the taken ones, only a probable hit is checked
+ * against the database; then most of the available ones are answered without a query.<br>
+ * The filters are per instance, an available answer is a hint: the unique indexes decide the writes.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface UserAvailabilityService {
+
+    /**
+     * Availability for a signup form, the values are trimmed, lowercased and validated as in the creation.
+     * Each client has a limited number of checks per window
+     *
+     * @param username to check, {@code null} to skip it
+     * @param email    to check, {@code null} to skip it
+     * @param client   who checks, e.g. its address
+     * @return the availability of the given ones
+     * @throws org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.AvailabilityRateLimitException if the client has no checks left in the current window
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicUserAvailabilityDTO getAvailability(String username, String email, String client);
+
+    /**
+     * @param username already trimmed and lowercased
+     * @return {@code true} if no live user has it, as far as this instance knows
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    boolean isUsernameAvailable(String username);
+
+    /**
+     * @param email already trimmed and lowercased
+     * @return {@code true} if no live user has it, as far as this instance knows
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    boolean isEmailAvailable(String email);
+
+    /**
+     * Add a username and/or an email to the filters, called when a user is created or patched.
+     * Called before the commit: a rollback only leaves a false positive
+     *
+     * @param username taken, {@code null} if unchanged
+     * @param email    taken, {@code null} if unchanged
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void registerTaken(String username, String email);
+
+    /**
+     * Build the filters again from the live users, at startup and daily to drop the names
+     * released by the deleted users and to resize them to the current number of users
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void rebuild();
+}
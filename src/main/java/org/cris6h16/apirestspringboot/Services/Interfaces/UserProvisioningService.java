@@ -0,0 +1,27 @@
+package org.cris6h16.apirestspringboot.Services.Interfaces;
+
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUsersDTO;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+
+import java.util.List;
+
+/**
+ * Service layer for the bulk provisioning of users
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public interface UserProvisioningService {
+    /**
+     * Create many users at once, a user that fails ( invalid, username or email
+     * already exists ) is reported in its result without aborting the others
+     *
+     * @param dtos  the data of the new users
+     * @param roles the roles of all the new users
+     * @return a result per user, in the same order
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    PublicBulkUsersDTO createAll(List<CreateUserDTO> dtos, ERole... roles);
+}
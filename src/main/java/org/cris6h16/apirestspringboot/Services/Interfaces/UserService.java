@@ -4,6 +4,7 @@ import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchEmailUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchPasswordUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchUsernameUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
@@ -40,7 +41,8 @@ public interface UserService {
 
 
     /**
-     * Delete a user by id
+     * Delete a user by id, it's only marked as deleted: it can't authenticate anymore and
+     * its rows are purged later with its notes
      *
      * @param id of the user to delete
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
@@ -68,6 +70,17 @@ public interface UserService {
      */
     void patchUsernameById(Long id, PatchUsernameUserDTO dto);
 
+    /**
+     * Patch the username of a user by id, only if the user is still in the given version
+     *
+     * @param id      of the user to patch
+     * @param dto     with the new username
+     * @param version the version that the client has seen ( {@code If-Match} ), {@code null} for an unconditional patch
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void patchUsernameById(Long id, PatchUsernameUserDTO dto, Long version);
+
     /**
      * Patch the email of a user by id
      *
@@ -78,6 +91,17 @@ public interface UserService {
      */
     void patchEmailById(Long id, PatchEmailUserDTO dto);
 
+    /**
+     * Patch the email of a user by id, only if the user is still in the given version
+     *
+     * @param id      of the user to patch
+     * @param dto     with the new email
+     * @param version the version that the client has seen ( {@code If-Match} ), {@code null} for an unconditional patch
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void patchEmailById(Long id, PatchEmailUserDTO dto, Long version);
+
     /**
      * Patch the password of a user by id
      *
@@ -89,11 +113,23 @@ public interface UserService {
     void patchPasswordById(Long id, PatchPasswordUserDTO dto);
 
     /**
-     * Delete all users
+     * Patch the password of a user by id, only if the user is still in the given version
+     *
+     * @param id      of the user to patch
+     * @param dto     with the new password
+     * @param version the version that the client has seen ( {@code If-Match} ), {@code null} for an unconditional patch
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    void patchPasswordById(Long id, PatchPasswordUserDTO dto, Long version);
+
+    /**
+     * Delete all users, with their roles and notes in the background, in chunks of short transactions
      *
+     * @return the deletion job, its progress can be followed by its id
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
-    void deleteAll();
+    PublicBulkDeletionJobDTO deleteAll();
 
 }
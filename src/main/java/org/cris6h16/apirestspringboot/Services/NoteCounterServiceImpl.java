@@ -0,0 +1,128 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.Entities.NoteCounterEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.NoteCounterRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteCounterService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Counter.RECONCILE_CRON;
+
+/**
+ * An implementation of {@link NoteCounterService} interface.<br>
+ * The counter of a user is always written holding the lock on its user row, the same
+ * lock taken by {@link NoteSyncServiceImpl} on each note write, then a repair can't
+ * interleave with a create/delete of the same user.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class NoteCounterServiceImpl implements NoteCounterService {
+    private final NoteCounterRepository noteCounterRepository;
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public NoteCounterServiceImpl(NoteCounterRepository noteCounterRepository,
+                                  NoteRepository noteRepository,
+                                  UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.noteCounterRepository = noteCounterRepository;
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void add(Long userId, long delta) {
+        if (userRepository.lockById(userId).isEmpty()) throw new UserNotFoundException();
+        if (noteCounterRepository.addByUserId(userId, delta) > 0) return;
+
+        // first counted write of the user, counted from the notes ( already flushed ) then notes created before the counter are included
+        noteCounterRepository.save(NoteCounterEntity.builder()
+                .user(userRepository.getReferenceById(userId))
+                .noteCount(noteRepository.countByUserId(userId))
+                .build());
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void subtractNotes(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) return;
+        noteCounterRepository.subtractByNoteIdIn(noteIds);
+        noteCounterRepository.insertMissingWithoutNoteIdIn(noteIds); // after, the new ones are already without the notes
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class, readOnly = true)
+    public Optional<Long> getCount(Long userId) {
+        return noteCounterRepository.findNoteCountByUserId(userId);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class, readOnly = true)
+    public Map<Long, Long> getCounts(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return Map.of();
+
+        Map<Long, Long> counts = noteCounterRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(NoteCounterEntity::getUserId, NoteCounterEntity::getNoteCount));
+        Map<Long, Long> all = new HashMap<>(userIds.size() * 2);
+        for (Long id : userIds) all.put(id, counts.getOrDefault(id, 0L));
+        return all;
+    }
+
+    @Override
+    @Scheduled(cron = RECONCILE_CRON)
+    public int reconcile() {
+        List<Long> drifted = noteCounterRepository.findDriftedUserIds(); // candidates, a write in flight can look like a drift
+        int repaired = 0;
+
+        for (Long userId : drifted) {
+            Boolean fixed = transactionTemplate.execute(status -> repair(userId));
+            if (Boolean.TRUE.equals(fixed)) repaired++;
+        }
+
+        if (repaired > 0) log.warn("Repaired {} note counters that drifted from the notes", repaired);
+        return repaired;
+    }
+
+    /**
+     * Recount the notes of a user, holding its lock
+     *
+     * @param userId user id that owns the notes
+     * @return {@code true} if the counter was wrong
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private boolean repair(Long userId) {
+        if (userRepository.lockById(userId).isEmpty()) return false; // deleted meanwhile, its counter too
+
+        long actual = noteRepository.countByUserId(userId);
+        Optional<Long> counted = noteCounterRepository.findNoteCountByUserId(userId);
+        if (counted.isPresent() && counted.get() == actual) return false;
+
+        if (counted.isPresent()) noteCounterRepository.setByUserId(userId, actual);
+        else noteCounterRepository.save(NoteCounterEntity.builder()
+                .user(userRepository.getReferenceById(userId))
+                .noteCount(actual)
+                .build());
+        return true;
+    }
+}
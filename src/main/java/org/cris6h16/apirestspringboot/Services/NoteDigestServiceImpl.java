@@ -0,0 +1,161 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDigestDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteVersionDTO;
+import org.cris6h16.apirestspringboot.Entities.NoteDigestEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIdException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.NoteDigestRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository.NoteOwnerVersion;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteDigestService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Digest.*;
+import static org.cris6h16.apirestspringboot.Utils.NoteDigestUtils.*;
+
+/**
+ * An implementation of {@link NoteDigestService} interface
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Service
+public class NoteDigestServiceImpl implements NoteDigestService {
+    private final NoteDigestRepository noteDigestRepository;
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+
+    public NoteDigestServiceImpl(NoteDigestRepository noteDigestRepository,
+                                 NoteRepository noteRepository,
+                                 UserRepository userRepository) {
+        this.noteDigestRepository = noteDigestRepository;
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void recordUpsert(Long userId, Long noteId, Long oldVersion, Long newVersion) {
+        long delta = noteHash(noteId, newVersion);
+        if (oldVersion != null) delta ^= noteHash(noteId, oldVersion); // XOR removes the old hash
+        apply(userId, noteId, delta);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void recordDelete(Long userId, Long noteId, Long version) {
+        apply(userId, noteId, noteHash(noteId, version));
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void recordDeletes(Collection<NoteOwnerVersion> notes) {
+        if (notes.isEmpty()) return;
+
+        // the hashes are computed here ( SHA-256 ), then the deltas of each leaf are combined before touching it
+        Map<Long, Map<Integer, Long>> deltas = new HashMap<>();
+        Set<Integer> buckets = new HashSet<>();
+        for (NoteOwnerVersion note : notes) {
+            int bucket = bucketOf(note.getId());
+            buckets.add(bucket);
+            deltas.computeIfAbsent(note.getUserId(), k -> new HashMap<>())
+                    .merge(bucket, noteHash(note.getId(), note.getVersion()), (a, b) -> a ^ b);
+        }
+
+        for (NoteDigestEntity leaf : noteDigestRepository.findByUserIdInAndBucketIn(deltas.keySet(), buckets)) {
+            Long delta = deltas.get(leaf.getUser().getId()).remove(leaf.getBucket());
+            if (delta != null) leaf.setHash(leaf.getHash() ^ delta); // flushed on commit, batched
+        }
+
+        List<NoteDigestEntity> created = new ArrayList<>();
+        deltas.forEach((userId, leaves) -> leaves.forEach((bucket, delta) -> created.add(NoteDigestEntity.builder()
+                .bucket(bucket)
+                .hash(delta)
+                .user(userRepository.getReferenceById(userId))
+                .build())));
+        noteDigestRepository.saveAll(created);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class, readOnly = true)
+    public PublicNoteDigestDTO getDigest(Long userId, String path) {
+        verifyId(userId);
+        path = (path == null) ? "" : path.toLowerCase();
+        int node = parsePath(path);
+        if (!userRepository.existsById(userId)) throw new UserNotFoundException();
+
+        if (path.length() == DEPTH) { // a leaf
+            long hash = noteDigestRepository.findByUserIdAndBucketBetween(userId, node, node).stream()
+                    .mapToLong(NoteDigestEntity::getHash)
+                    .reduce(0L, (a, b) -> a ^ b);
+            List<PublicNoteVersionDTO> notes = noteRepository.findVersionsByUserIdAndBucket(userId, node);
+            return PublicNoteDigestDTO.builder()
+                    .path(path)
+                    .hash(toHex(hash))
+                    .notes(notes)
+                    .build();
+        }
+
+        // the leaves below the node are contiguous, one query for all of them
+        int childSpan = LEAVES / (int) Math.pow(FANOUT, path.length() + 1);
+        int from = node * childSpan * FANOUT;
+        int to = from + childSpan * FANOUT - 1;
+
+        long[] children = new long[FANOUT];
+        for (NoteDigestEntity leaf : noteDigestRepository.findByUserIdAndBucketBetween(userId, from, to)) {
+            children[(leaf.getBucket() - from) / childSpan] ^= leaf.getHash();
+        }
+
+        long hash = 0L;
+        List<String> childrenHex = new ArrayList<>(FANOUT);
+        for (long child : children) {
+            hash ^= child;
+            childrenHex.add(toHex(child));
+        }
+
+        return PublicNoteDigestDTO.builder()
+                .path(path)
+                .hash(toHex(hash))
+                .children(childrenHex)
+                .build();
+    }
+
+    /**
+     * {@code XOR} the delta into the leaf of the note, creating it if doesn't exist.<br>
+     * The read-modify-write of the leaf is serialized by the lock on the user row, taken here
+     * ( already held if {@link NoteSyncServiceImpl} recorded the change in the same transaction ).
+     *
+     * @param userId user id that owns the note
+     * @param noteId note id of the changed note
+     * @param delta  hash to {@code XOR} into the leaf
+     * @throws UserNotFoundException if the user doesn't exist
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private void apply(Long userId, Long noteId, long delta) {
+        if (userRepository.lockById(userId).isEmpty()) throw new UserNotFoundException();
+        int bucket = bucketOf(noteId);
+        Optional<NoteDigestEntity> leaf = noteDigestRepository.findByUserIdAndBucket(userId, bucket);
+
+        if (leaf.isPresent()) {
+            leaf.get().setHash(leaf.get().getHash() ^ delta); // flushed on commit
+            return;
+        }
+
+        noteDigestRepository.save(NoteDigestEntity.builder()
+                .bucket(bucket)
+                .hash(delta)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+    }
+
+    private void verifyId(Long id) {
+        if (id == null || id <= 0) throw new InvalidIdException();
+    }
+}
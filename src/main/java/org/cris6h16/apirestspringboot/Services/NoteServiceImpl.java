@@ -1,30 +1,45 @@
 package org.cris6h16.apirestspringboot.Services;
 
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Notes.NullAttributesBlanker;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditNoteContentDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditOperationDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.cris6h16.apirestspringboot.Entities.ENoteField;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIdException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.AnyNoteDTOIsNullException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidEditException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidNoteFieldsException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.NoteNotFoundException;
-import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.TitleMaxLengthFailException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.NoteVersionMismatchException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
 import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.BulkDeletionService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteCounterService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteDigestService;
 import org.cris6h16.apirestspringboot.Services.Interfaces.NoteService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteSyncService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
-import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Validations.MAX_TITLE_LENGTH;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Edit.*;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Page.MAX_PREVIEW;
+import static org.cris6h16.apirestspringboot.Utils.AttributeNormalizer.normalizeContent;
+import static org.cris6h16.apirestspringboot.Utils.AttributeNormalizer.normalizeTitle;
 
 /**
  * An implementation of {@link NoteService} interface
@@ -35,11 +50,23 @@ import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Validations.MAX
 public class NoteServiceImpl implements NoteService {
     private final NoteRepository noteRepository;
     private final UserRepository userRepository;
+    private final NoteSyncService noteSyncService;
+    private final NoteDigestService noteDigestService;
+    private final NoteCounterService noteCounterService;
+    private final BulkDeletionService bulkDeletionService;
 
     public NoteServiceImpl(NoteRepository noteRepository,
-                           UserRepository userRepository) {
+                           UserRepository userRepository,
+                           NoteSyncService noteSyncService,
+                           NoteDigestService noteDigestService,
+                           NoteCounterService noteCounterService,
+                           BulkDeletionService bulkDeletionService) {
         this.noteRepository = noteRepository;
         this.userRepository = userRepository;
+        this.noteSyncService = noteSyncService;
+        this.noteDigestService = noteDigestService;
+        this.noteCounterService = noteCounterService;
+        this.bulkDeletionService = bulkDeletionService;
     }
 
     @Override
@@ -56,6 +83,9 @@ public class NoteServiceImpl implements NoteService {
                 .user(user)
                 .build();
         noteEntity = noteRepository.saveAndFlush(noteEntity);
+        noteSyncService.recordUpsert(userId, noteEntity.getId());
+        noteDigestService.recordUpsert(userId, noteEntity.getId(), null, noteEntity.getVersion());
+        noteCounterService.add(userId, 1);
 
         return noteEntity.getId();
     }
@@ -76,16 +106,118 @@ public class NoteServiceImpl implements NoteService {
     public void putByIdAndUserId(Long noteId, Long userId, CreateNoteDTO dto) {
         prepareAndVerifyDTOAndIds(dto, userId, noteId);
 
-        UserEntity user = getUserById(userId);
+        getUserById(userId);
 
+        // not created: the ids come from the sequence, a client id could be taken by a later create ( or by another user )
         NoteEntity noteEntity = noteRepository.findByIdAndUserId(noteId, userId)
-                .orElse(NoteEntity.builder().id(noteId).user(user).build());
+                .orElseThrow(NoteNotFoundException::new);
+
+        Long oldVersion = noteEntity.getVersion();
+        noteEntity.setTitle(dto.getTitle());
+        noteEntity.setContent(dto.getContent());
+        noteEntity.setUpdatedAt(new Date());
+
+        noteEntity = noteRepository.saveAndFlush(noteEntity);
+        noteSyncService.recordUpsert(userId, noteId);
+        noteDigestService.recordUpsert(userId, noteId, oldVersion, noteEntity.getVersion());
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public Long putByIdAndUserId(Long noteId, Long userId, CreateNoteDTO dto, Long version) {
+        if (version == null) {
+            putByIdAndUserId(noteId, userId, dto);
+            return null;
+        }
+        prepareAndVerifyDTOAndIds(dto, userId, noteId);
 
+        NoteEntity noteEntity = findNote(noteId, userId).orElseThrow(NoteNotFoundException::new); // not created with a precondition
+        if (!version.equals(noteEntity.getVersion())) throw new NoteVersionMismatchException();
         noteEntity.setTitle(dto.getTitle());
         noteEntity.setContent(dto.getContent());
         noteEntity.setUpdatedAt(new Date());
 
-        noteRepository.saveAndFlush(noteEntity);
+        Long newVersion = saveIfUnchanged(noteEntity).getVersion();
+        noteSyncService.recordUpsert(userId, noteId);
+        noteDigestService.recordUpsert(userId, noteId, version, newVersion);
+
+        return newVersion;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public Long patchByIdAndUserId(Long noteId, Long userId, PatchNoteDTO patch, Long version) {
+        verifyId(userId, noteId);
+        _dtoNotNull(patch);
+        if (patch.isTitlePresent()) patch.setTitle(normalizeTitle(patch.getTitle())); // a member sent as null is blanked
+        if (patch.isContentPresent()) patch.setContent(normalizeContent(patch.getContent()));
+
+        if (patch.isEmpty()) { // nothing to write, but the note and the precondition are still checked
+            Long current = noteRepository.findVersionByIdAndUserId(noteId, userId)
+                    .orElseThrow(NoteNotFoundException::new);
+            if (version != null && !version.equals(current)) throw new NoteVersionMismatchException();
+            return current;
+        }
+
+        if (version == null && noteRepository.lockByIdAndUserId(noteId, userId).isEmpty()) throw new NoteNotFoundException(); // the last writer wins
+        NoteEntity noteEntity = findNote(noteId, userId).orElseThrow(NoteNotFoundException::new);
+        if (version != null && !version.equals(noteEntity.getVersion())) throw new NoteVersionMismatchException();
+        Long oldVersion = noteEntity.getVersion();
+        if (patch.isTitlePresent()) noteEntity.setTitle(patch.getTitle()); // only the sent columns are in the SET clause ( @DynamicUpdate )
+        if (patch.isContentPresent()) noteEntity.setContent(patch.getContent());
+        noteEntity.setUpdatedAt(new Date());
+
+        Long newVersion = saveIfUnchanged(noteEntity).getVersion();
+        noteSyncService.recordUpsert(userId, noteId);
+        noteDigestService.recordUpsert(userId, noteId, oldVersion, newVersion);
+
+        return newVersion;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public Long editContentByIdAndUserId(Long noteId, Long userId, EditNoteContentDTO edit) {
+        verifyId(userId, noteId);
+        _dtoNotNull(edit);
+        Long version = edit.getVersion();
+        List<EditOperationDTO> operations = edit.getOperations();
+        if (version == null || operations == null || operations.size() > MAX_OPERATIONS) throw new InvalidEditException();
+
+        NoteEntity noteEntity = findNote(noteId, userId).orElseThrow(NoteNotFoundException::new);
+        if (!version.equals(noteEntity.getVersion())) throw new NoteVersionMismatchException();
+        String content = noteEntity.getContent();
+        noteEntity.setContent(normalizeContent(_applyEdits(content == null ? "" : content, operations)));
+        noteEntity.setUpdatedAt(new Date());
+
+        // conditional on the base version, a concurrent writer between the read and this one fails the precondition
+        Long newVersion = saveIfUnchanged(noteEntity).getVersion();
+        noteSyncService.recordUpsert(userId, noteId);
+        noteDigestService.recordUpsert(userId, noteId, version, newVersion);
+
+        return newVersion;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class, readOnly = true)
+    public PublicNoteContentInfoDTO getContentInfoByIdAndUserId(Long noteId, Long userId) {
+        verifyId(userId, noteId);
+        PublicNoteContentInfoDTO info = noteRepository.findContentInfoByIdAndUserId(noteId, userId)
+                .orElseThrow(NoteNotFoundException::new);
+        if (info.getLength() == null) info = new PublicNoteContentInfoDTO(info.getVersion(), 0);
+        return info;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class, readOnly = true)
+    public String getContentSliceByIdAndUserId(Long noteId, Long userId, Long version, long start, int length) {
+        verifyId(userId, noteId);
+        if (version == null || start < 0 || start >= Integer.MAX_VALUE || length <= 0) {
+            throw new IllegalArgumentException("Invalid slice"); // implementation fail, the controller computes it from the content length
+        }
+
+        String slice = noteRepository.findContentSliceByIdAndUserIdAndVersion(noteId, userId, version, (int) start + 1, length)
+                .orElseThrow(NoteVersionMismatchException::new); // modified or deleted while it was being read
+        return slice == null ? "" : slice;
     }
 
 
@@ -94,9 +226,13 @@ public class NoteServiceImpl implements NoteService {
     public void deleteByIdAndUserId(Long noteId, Long userId) {
         verifyId(userId, noteId); // never reached if it comes from the controller ( userId injected  ||  noteId parsed by spring(else MethodArgumentTypeMismatchException which lead to 403 status) also is required = true  )
         if (!userRepository.existsById(userId)) throw new UserNotFoundException(); // reached if our app is stateful and is multi-session ( is not the case )
-        if (!noteRepository.existsByIdAndUserId(noteId, userId)) throw new NoteNotFoundException();
+        Long version = noteRepository.findVersionByIdAndUserId(noteId, userId)
+                .orElseThrow(NoteNotFoundException::new);
 
         noteRepository.deleteByIdAndUserId(noteId, userId);
+        noteSyncService.recordDelete(userId, noteId);
+        noteDigestService.recordDelete(userId, noteId, version);
+        noteCounterService.add(userId, -1);
     }
 
     @Override
@@ -104,22 +240,96 @@ public class NoteServiceImpl implements NoteService {
     public Page<PublicNoteDTO> getPage(Pageable pageable, Long userId) {
         if (pageable == null) throw new IllegalArgumentException("Pageable can't be null");
         verifyId(userId);
-        if (!userRepository.existsById(userId)) throw new UserNotFoundException();
 
+        long total = countNotes(userId);
+        Pageable pageRequest = PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSort()
+        );
+
+        List<PublicNoteDTO> content = noteRepository.findPageByUserId(userId, pageRequest).stream()
+                .map(this::createPublicNoteDTO)
+                .toList();
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public Page<PublicNoteDTO> getPage(Pageable pageable, Long userId, String fields, Integer preview) {
+        if (fields == null && preview == null) return getPage(pageable, userId);
+        if (pageable == null) throw new IllegalArgumentException("Pageable can't be null");
+        verifyId(userId);
+        if (preview != null && (preview < 1 || preview > MAX_PREVIEW)) throw new InvalidNoteFieldsException();
+
+        Set<ENoteField> selected = _parseFields(fields);
+        if (preview != null) selected.add(ENoteField.CONTENT);
+
+        long total = countNotes(userId);
         Pageable pageRequest = PageRequest.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
                 pageable.getSort()
         );
 
-        return noteRepository.findByUserId(userId, pageRequest)
-                .map(this::createPublicNoteDTO);
+        List<PublicNoteDTO> content = noteRepository.findPageByUserId(userId, pageRequest, selected, preview);
+        return new PageImpl<>(content, pageRequest, total);
     }
 
     @Override
-    @Transactional(isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class)
-    public void deleteAll() {
-        noteRepository.deleteAll();
+    public PublicBulkDeletionJobDTO deleteAll() {
+        return bulkDeletionService.start(EBulkDeletionTarget.NOTES);
+    }
+
+    /**
+     * the counter exists only if the user exists, then the usual case doesn't need another query
+     */
+    private long countNotes(Long userId) {
+        return noteCounterService.getCount(userId).orElseGet(() -> {
+            if (!userRepository.existsById(userId)) throw new UserNotFoundException();
+            return noteRepository.countByUserId(userId); // never counted, 0 unless it has notes from before the counters
+        });
+    }
+
+    /**
+     * @param fields comma separated attributes, {@code null} for all of them
+     * @return the fields in the order of {@link ENoteField}, always with the id
+     */
+    private Set<ENoteField> _parseFields(String fields) {
+        if (fields == null) return EnumSet.allOf(ENoteField.class);
+
+        Set<ENoteField> selected = EnumSet.of(ENoteField.ID); // a listed note without id can't be opened
+        for (String name : fields.split(",", -1)) {
+            String attribute = name.trim();
+            ENoteField field = Arrays.stream(ENoteField.values())
+                    .filter(f -> f.getAttribute().equals(attribute))
+                    .findFirst()
+                    .orElseThrow(InvalidNoteFieldsException::new);
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * The note as a managed entity, from the second-level cache if it's there. Its changes are flushed with
+     * {@code WHERE version = ?} ( {@link jakarta.persistence.Version} ) and update only its own cache entry
+     */
+    private Optional<NoteEntity> findNote(Long noteId, Long userId) {
+        return noteRepository.findById(noteId)
+                .filter(note -> note.getUser() != null && userId.equals(note.getUser().getId())); // the id of the proxy, not loaded
+    }
+
+    /**
+     * Flush the changes of a note read without a lock
+     *
+     * @throws NoteVersionMismatchException if it was written by another transaction since it was read
+     */
+    private NoteEntity saveIfUnchanged(NoteEntity noteEntity) {
+        try {
+            return noteRepository.saveAndFlush(noteEntity);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new NoteVersionMismatchException();
+        }
     }
 
     private UserEntity getUserById(Long userId) {
@@ -134,16 +344,15 @@ public class NoteServiceImpl implements NoteService {
                 .content(Optional.ofNullable(noteEntity.getContent()).orElse(""))
                 .id(Optional.ofNullable(noteEntity.getId()).orElse(-1L))
                 .updatedAt(noteEntity.getUpdatedAt())
+                .version(noteEntity.getVersion())
                 .build();
     }
 
     private void prepareAndVerifyDTOAndIds(CreateNoteDTO dto, Long... ids) {
         verifyId(ids); // always correct if come from the controller (principal.id injected)
         _dtoNotNull(dto); // always not-null if come from the controller (required = true)
-        _prepareAttributes(dto);
-
-        _verifyTitle(dto.getTitle());
-        _verifyContent(dto.getContent());
+        dto.setTitle(normalizeTitle(dto.getTitle()));
+        dto.setContent(normalizeContent(dto.getContent()));
     }
 
     private void verifyId(Long... ids) {
@@ -154,21 +363,27 @@ public class NoteServiceImpl implements NoteService {
         }
     }
 
-    private void _verifyContent(String content) {
-        // at the moment we don't have any validation for content
-    }
-
-    private void _verifyTitle(String title) {
-        if (title.trim().length() > MAX_TITLE_LENGTH) {
-            throw new TitleMaxLengthFailException();
+    private String _applyEdits(String content, List<EditOperationDTO> operations) {
+        StringBuilder sb = new StringBuilder(content);
+        for (EditOperationDTO op : operations) {
+            if (op == null || op.getOffset() == null || op.getOffset() < 0 || op.getOffset() > sb.length()) {
+                throw new InvalidEditException();
+            }
+            int offset = op.getOffset();
+
+            if (OP_INSERT.equals(op.getOp()) && op.getText() != null) {
+                sb.insert(offset, op.getText());
+            } else if (OP_DELETE.equals(op.getOp()) && op.getLength() != null
+                    && op.getLength() >= 0 && op.getLength() <= sb.length() - offset) {
+                sb.delete(offset, offset + op.getLength());
+            } else {
+                throw new InvalidEditException();
+            }
         }
+        return sb.toString();
     }
 
     private <T> void _dtoNotNull(T dto) {
         if (dto == null) throw new AnyNoteDTOIsNullException();
     }
-
-    private <T extends NullAttributesBlanker> void _prepareAttributes(T dto) {
-        dto.toBlankNullAttributes();
-    }
 }
@@ -0,0 +1,190 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteChangeDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteChangesDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.NoteChangeEntity;
+import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.cris6h16.apirestspringboot.Entities.NoteSyncStateEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIdException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidSyncTokenException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.SyncTokenExpiredException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.NoteChangeRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteSyncStateRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteSyncService;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Sync.*;
+
+/**
+ * An implementation of {@link NoteSyncService} interface
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class NoteSyncServiceImpl implements NoteSyncService {
+    private final NoteChangeRepository noteChangeRepository;
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final NoteSyncStateRepository noteSyncStateRepository;
+
+    public NoteSyncServiceImpl(NoteChangeRepository noteChangeRepository,
+                               NoteRepository noteRepository,
+                               UserRepository userRepository,
+                               NoteSyncStateRepository noteSyncStateRepository) {
+        this.noteChangeRepository = noteChangeRepository;
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.noteSyncStateRepository = noteSyncStateRepository;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void recordUpsert(Long userId, Long noteId) {
+        record(userId, noteId, false);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void recordDelete(Long userId, Long noteId) {
+        record(userId, noteId, true);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public void recordDeletes(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) return;
+        Date now = new Date();
+
+        // the tombstones take the seqs after the current ones of the states, then the states are advanced past them
+        noteSyncStateRepository.insertMissingByNoteIdIn(noteIds);
+        noteChangeRepository.tombstoneByNoteIdIn(noteIds, now);
+        noteChangeRepository.insertTombstonesByNoteIdIn(noteIds, now);
+        noteSyncStateRepository.advanceChangeSeqByNoteIdIn(noteIds);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class, readOnly = true)
+    public PublicNoteChangesDTO getChangesSince(Long userId, Long since, Integer limit) {
+        verifyId(userId);
+        since = (since == null) ? 0L : since;
+        if (since < 0) throw new InvalidSyncTokenException();
+        limit = (limit == null) ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        Long purgedSeq = noteSyncStateRepository.findPurgedSeqByUserId(userId)
+                .orElse(null); // null if the user never wrote a note
+        if (purgedSeq == null) {
+            if (!userRepository.existsById(userId)) throw new UserNotFoundException();
+            purgedSeq = 0L;
+        }
+        if (since != 0 && since < purgedSeq) throw new SyncTokenExpiredException(); // a tombstone that the client hasn't seen was purged
+
+        List<NoteChangeEntity> changes = noteChangeRepository
+                .findByUserIdAndSeqGreaterThanOrderBySeqAsc(userId, since, Limit.of(limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) changes = changes.subList(0, limit);
+
+        // one query for all the notes of the page
+        Set<Long> upsertedIds = changes.stream()
+                .filter(c -> !c.isDeleted())
+                .map(NoteChangeEntity::getNoteId)
+                .collect(Collectors.toSet());
+        Map<Long, NoteEntity> notes = upsertedIds.isEmpty() ? Map.of() :
+                noteRepository.findByUserIdAndIdIn(userId, upsertedIds).stream()
+                        .collect(Collectors.toMap(NoteEntity::getId, Function.identity()));
+
+        List<PublicNoteChangeDTO> dtos = new ArrayList<>(changes.size());
+        for (NoteChangeEntity c : changes) {
+            NoteEntity note = notes.get(c.getNoteId()); // null if deleted after the change was read, its tombstone comes with a greater seq
+            dtos.add(PublicNoteChangeDTO.builder()
+                    .seq(c.getSeq())
+                    .noteId(c.getNoteId())
+                    .deleted(note == null)
+                    .note(note == null ? null : createPublicNoteDTO(note))
+                    .build());
+        }
+
+        return PublicNoteChangesDTO.builder()
+                .changes(dtos)
+                .syncToken(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Override
+    @Scheduled(cron = TOMBSTONES_PURGE_CRON)
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class)
+    public int purgeTombstones() {
+        Date before = new Date(System.currentTimeMillis() - TOMBSTONE_RETENTION_DAYS * 24L * 60 * 60 * 1000);
+
+        noteSyncStateRepository.updatePurgedSeqForTombstonesChangedBefore(before);
+        int purged = noteChangeRepository.deleteTombstonesChangedBefore(before);
+
+        log.info("Purged {} note tombstones older than {}", purged, before);
+        return purged;
+    }
+
+    /**
+     * Increment the change sequence of the user and move the change row of the note to it,
+     * or insert it if is its first change.<br>
+     * The user row is locked first, then the changes of a user are committed in {@code seq} order
+     * and the first insert of its state can't race.
+     *
+     * @param userId  user id that owns the note
+     * @param noteId  note id of the changed note
+     * @param deleted if the change is a tombstone
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    private void record(Long userId, Long noteId, boolean deleted) {
+        if (userRepository.lockById(userId).isEmpty()) throw new UserNotFoundException();
+        if (noteSyncStateRepository.incrementChangeSeqByUserId(userId) == 0) {
+            noteSyncStateRepository.save(NoteSyncStateEntity.builder()
+                    .user(userRepository.getReferenceById(userId))
+                    .changeSeq(1L)
+                    .purgedSeq(0L)
+                    .build());
+        }
+        Long seq = noteSyncStateRepository.findChangeSeqByUserId(userId);
+        Date now = new Date();
+
+        int updated = noteChangeRepository.updateByUserIdAndNoteId(userId, noteId, seq, deleted, now);
+        if (updated > 0) return;
+
+        noteChangeRepository.save(NoteChangeEntity.builder()
+                .noteId(noteId)
+                .seq(seq)
+                .deleted(deleted)
+                .changedAt(now)
+                .user(userRepository.getReferenceById(userId))
+                .build());
+    }
+
+    private void verifyId(Long id) {
+        if (id == null || id <= 0) throw new InvalidIdException();
+    }
+
+    private PublicNoteDTO createPublicNoteDTO(NoteEntity noteEntity) {
+        return PublicNoteDTO.builder()
+                .title(Optional.ofNullable(noteEntity.getTitle()).orElse(""))
+                .content(Optional.ofNullable(noteEntity.getContent()).orElse(""))
+                .id(Optional.ofNullable(noteEntity.getId()).orElse(-1L))
+                .updatedAt(noteEntity.getUpdatedAt())
+                .version(noteEntity.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserAvailabilityDTO;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.AvailabilityRateLimitException;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserAvailabilityService;
+import org.cris6h16.apirestspringboot.Utils.BloomFilter;
+import org.cris6h16.apirestspringboot.Utils.FixedWindowRateLimiter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Availability.*;
+import static org.cris6h16.apirestspringboot.Utils.AttributeNormalizer.normalizeEmail;
+import static org.cris6h16.apirestspringboot.Utils.AttributeNormalizer.normalizeUsername;
+
+/**
+ * An implementation of {@link UserAvailabilityService} interface.<br>
+ * While the filters are rebuilt the taken names go to the current and to the new ones,
+ * then the swap doesn't lose the names taken meanwhile. Until the first build every
+ * check goes to the database.<br>
+ * The filters are local to this instance: a name taken through another one isn't in them until
+ * the next rebuild, then an available answer is only a hint. The writes don't rely on it, a taken
+ * name that passes the check is rejected by the unique indexes ( {@link org.cris6h16.apirestspringboot.Utils.UserConstraintUtils} ).<br>
+ * The checks are public, then each client has a few per window ( {@link FixedWindowRateLimiter} ) to don't
+ * let it enumerate the taken names; the limits are per instance too.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class UserAvailabilityServiceImpl implements UserAvailabilityService {
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final FixedWindowRateLimiter rateLimiter = new FixedWindowRateLimiter(MAX_CHECKS_PER_CLIENT, RATE_LIMIT_WINDOW_MILLIS, MAX_TRACKED_CLIENTS);
+    private final ReentrantLock rebuildLock = new ReentrantLock(); // one rebuild at once, not synchronized to don't pin a virtual thread while streaming
+
+    private volatile Filters current; // null until built
+    private volatile Filters building; // not null while rebuilding
+
+    /**
+     * The filters of the usernames and the emails
+     */
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+        static Filters sizedFor(long users) {
+            long expected = Math.max(MIN_EXPECTED_INSERTIONS, users * 2);
+            return new Filters(new BloomFilter(expected, FALSE_POSITIVE_PROBABILITY), new BloomFilter(expected, FALSE_POSITIVE_PROBABILITY));
+        }
+
+        void put(String username, String email) {
+            if (username != null) usernames.put(username);
+            if (email != null) emails.put(email);
+        }
+    }
+
+    public UserAvailabilityServiceImpl(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    @Override
+    public PublicUserAvailabilityDTO getAvailability(String username, String email, String client) {
+        if (!rateLimiter.tryAcquire(client)) throw new AvailabilityRateLimitException(); // before the validation, the invalid ones count too
+
+        Boolean usernameAvailable = null;
+        Boolean emailAvailable = null;
+
+        if (username != null) {
+            username = normalizeUsername(username);
+            usernameAvailable = isUsernameAvailable(username);
+        }
+        if (email != null) {
+            email = normalizeEmail(email);
+            emailAvailable = isEmailAvailable(email);
+        }
+
+        return PublicUserAvailabilityDTO.builder()
+                .usernameAvailable(usernameAvailable)
+                .emailAvailable(emailAvailable)
+                .build();
+    }
+
+    @Override
+    public boolean isUsernameAvailable(String username) {
+        Filters filters = current;
+        if (filters != null && !filters.usernames().mightContain(username)) return true; // never taken since the last build
+        return !userRepository.existsByUsername(username);
+    }
+
+    @Override
+    public boolean isEmailAvailable(String email) {
+        Filters filters = current;
+        if (filters != null && !filters.emails().mightContain(email)) return true;
+        return !userRepository.existsByEmail(email);
+    }
+
+    @Override
+    public void registerTaken(String username, String email) {
+        Filters filters = current;
+        if (filters != null) filters.put(username, email);
+        filters = building;
+        if (filters != null) filters.put(username, email);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = REBUILD_CRON)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            build();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void build() {
+        long started = System.currentTimeMillis();
+        Filters filters = Filters.sizedFor(userRepository.countByDeletedAtIsNull());
+        building = filters; // from here on the taken names also go to the new ones
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamLiveUsernames()) {
+                    usernames.forEach(filters.usernames()::put);
+                }
+                try (Stream<String> emails = userRepository.streamLiveEmails()) {
+                    emails.forEach(filters.emails()::put);
+                }
+            });
+            current = filters;
+        } finally {
+            building = null;
+        }
+        log.info("Availability filters rebuilt in {} ms", System.currentTimeMillis() - started);
+    }
+}
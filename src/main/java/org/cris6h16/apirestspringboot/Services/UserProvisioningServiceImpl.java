@@ -0,0 +1,209 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.Config.Security.PasswordHashing.ParallelPasswordHasher;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUserResultDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUsersDTO;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Entities.RoleEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.*;
+import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserAvailabilityService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserProvisioningService;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Bulk.CHUNK_SIZE;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Bulk.MAX_USERS;
+import static org.cris6h16.apirestspringboot.Utils.AttributeNormalizer.*;
+import static org.cris6h16.apirestspringboot.Utils.UserConstraintUtils.conflictOf;
+
+/**
+ * An implementation of {@link UserProvisioningService} interface.<br>
+ * The users are validated up front, checked against the existing ones with a query per chunk,
+ * their passwords are hashed in parallel and each chunk is inserted in its own transaction
+ * with the JDBC batching of Hibernate ( {@code hibernate.jdbc.batch_size} ). If a chunk
+ * hits a unique constraint ( a user created after the check ) it's retried user by user.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Service
+@Slf4j
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final ParallelPasswordHasher passwordHasher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserAvailabilityService userAvailabilityService;
+
+    public UserProvisioningServiceImpl(UserRepository userRepository,
+                                       RoleRepository roleRepository,
+                                       RoleRegistry roleRegistry,
+                                       ParallelPasswordHasher passwordHasher,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager,
+                                       UserAvailabilityService userAvailabilityService) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
+        this.passwordHasher = passwordHasher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.userAvailabilityService = userAvailabilityService;
+    }
+
+    @Override
+    public PublicBulkUsersDTO createAll(List<CreateUserDTO> dtos, ERole... roles) {
+        if (roles == null || roles.length == 0) {
+            throw new IllegalArgumentException("Roles can't be empty"); // implementation fail, we don't show the message to the user
+        }
+        if (dtos == null || dtos.isEmpty() || dtos.size() > MAX_USERS) throw new BulkSizeException();
+
+        PublicBulkUserResultDTO[] results = new PublicBulkUserResultDTO[dtos.size()];
+        List<Integer> valid = validateAll(dtos, results);
+
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            createChunk(dtos, valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size())), results, roles);
+        }
+
+        int created = (int) Arrays.stream(results).filter(r -> r.getId() != null).count();
+        log.info("Bulk of {} users: {} created, {} failed", results.length, created, results.length - created);
+        return PublicBulkUsersDTO.builder()
+                .created(created)
+                .failed(results.length - created)
+                .results(List.of(results))
+                .build();
+    }
+
+    /**
+     * Prepare and validate each user, also a username or email repeated in the request is a conflict
+     *
+     * @return the indexes of the valid users, the results of the invalid ones are set
+     */
+    private List<Integer> validateAll(List<CreateUserDTO> dtos, PublicBulkUserResultDTO[] results) {
+        List<Integer> valid = new ArrayList<>(dtos.size());
+        Set<String> usernames = new HashSet<>(dtos.size());
+        Set<String> emails = new HashSet<>(dtos.size());
+
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateUserDTO dto = dtos.get(i);
+            try {
+                if (dto == null) throw new AnyUserDTOIsNullException();
+                dto.setUsername(normalizeUsername(dto.getUsername()));
+                dto.setEmail(normalizeEmail(dto.getEmail()));
+                dto.setPassword(normalizePassword(dto.getPassword()));
+
+                if (usernames.contains(dto.getUsername())) throw new UsernameAlreadyExistsException();
+                if (emails.contains(dto.getEmail())) throw new EmailAlreadyExistException();
+            } catch (ProperExceptionForTheUser e) {
+                results[i] = failed(i, e);
+                continue;
+            }
+            usernames.add(dto.getUsername());
+            emails.add(dto.getEmail());
+            valid.add(i);
+        }
+        return valid;
+    }
+
+    private void createChunk(List<CreateUserDTO> dtos, List<Integer> chunk, PublicBulkUserResultDTO[] results, ERole[] roles) {
+        // one query per attribute for the whole chunk
+        Set<String> takenUsernames = userRepository.findUsernamesIn(chunk.stream().map(i -> dtos.get(i).getUsername()).toList());
+        Set<String> takenEmails = userRepository.findEmailsIn(chunk.stream().map(i -> dtos.get(i).getEmail()).toList());
+
+        List<Integer> toCreate = new ArrayList<>(chunk.size());
+        for (Integer i : chunk) {
+            CreateUserDTO dto = dtos.get(i);
+            if (takenUsernames.contains(dto.getUsername())) results[i] = failed(i, new UsernameAlreadyExistsException());
+            else if (takenEmails.contains(dto.getEmail())) results[i] = failed(i, new EmailAlreadyExistException());
+            else toCreate.add(i);
+        }
+        if (toCreate.isEmpty()) return;
+
+        List<String> encoded = passwordHasher.encodeAll(toCreate.stream().map(i -> dtos.get(i).getPassword()).toList());
+        Date now = new Date();
+
+        try {
+            List<Long> ids = transactionTemplate.execute(s -> insert(dtos, toCreate, encoded, now, roles));
+            for (int j = 0; j < toCreate.size(); j++) results[toCreate.get(j)] = created(toCreate.get(j), ids.get(j));
+
+        } catch (DataIntegrityViolationException e) { // created by another request after the check
+            log.debug("Bulk chunk hit a unique constraint, retrying it user by user: {}", e.toString());
+            for (int j = 0; j < toCreate.size(); j++) {
+                int i = toCreate.get(j);
+                List<String> password = encoded.subList(j, j + 1);
+                try {
+                    List<Long> id = transactionTemplate.execute(s -> insert(dtos, List.of(i), password, now, roles));
+                    results[i] = created(i, id.get(0));
+                } catch (DataIntegrityViolationException ex) {
+                    results[i] = failed(i, conflictOf(ex));
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert the users, must be called inside a transaction
+     *
+     * @return the ids of the new users, in the same order
+     */
+    private List<Long> insert(List<CreateUserDTO> dtos, List<Integer> indexes, List<String> encoded, Date now, ERole[] roles) {
+        // the new users aren't put in the second-level cache, it would evict the users that are being read
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+
+        List<UserEntity> users = new ArrayList<>(indexes.size());
+        for (int j = 0; j < indexes.size(); j++) {
+            CreateUserDTO dto = dtos.get(indexes.get(j));
+            Set<RoleEntity> rolesEntities = new HashSet<>(roles.length);
+            for (ERole role : roles) rolesEntities.add(roleRepository.getReferenceById(roleRegistry.get(role).getId()));
+
+            users.add(UserEntity.builder()
+                    .username(dto.getUsername())
+                    .password(encoded.get(j))
+                    .email(dto.getEmail())
+                    .roles(rolesEntities)
+                    .createdAt(now)
+                    .build());
+        }
+
+        users = userRepository.saveAll(users);
+        userRepository.flush();
+        entityManager.clear();
+        users.forEach(u -> userAvailabilityService.registerTaken(u.getUsername(), u.getEmail()));
+        return users.stream().map(UserEntity::getId).toList();
+    }
+
+    private PublicBulkUserResultDTO created(int index, Long id) {
+        return PublicBulkUserResultDTO.builder()
+                .index(index)
+                .id(id)
+                .status(HttpStatus.CREATED.value())
+                .build();
+    }
+
+    private PublicBulkUserResultDTO failed(int index, ProperExceptionForTheUser e) {
+        return PublicBulkUserResultDTO.builder()
+                .index(index)
+                .status(e.getStatus().value())
+                .message(e.getReason())
+                .build();
+    }
+}
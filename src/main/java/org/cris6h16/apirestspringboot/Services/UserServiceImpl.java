@@ -1,14 +1,17 @@
 package org.cris6h16.apirestspringboot.Services;
 
 import lombok.extern.slf4j.Slf4j;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesToLowerConverter;
-import org.cris6h16.apirestspringboot.DTOs.Interfaces.Users.NotNullAttributesTrimmer;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchEmailUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchPasswordUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchUsernameUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicRoleDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserPageRowDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserRoleDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Entities.RoleEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
@@ -16,10 +19,15 @@ import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.Inval
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.*;
 import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.BulkDeletionService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserAvailabilityService;
 import org.cris6h16.apirestspringboot.Services.Interfaces.UserService;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -28,7 +36,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.*;
+import static org.cris6h16.apirestspringboot.Utils.AttributeNormalizer.*;
+import static org.cris6h16.apirestspringboot.Utils.UserConstraintUtils.conflictOf;
 
 
 /**
@@ -42,14 +51,23 @@ import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.*;
 public class UserServiceImpl implements UserService {
     UserRepository userRepository;
     RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
     PasswordEncoder passwordEncoder;
+    BulkDeletionService bulkDeletionService;
+    UserAvailabilityService userAvailabilityService;
 
     public UserServiceImpl(UserRepository userRepository,
                            RoleRepository roleRepository,
-                           PasswordEncoder passwordEncoder) {
+                           RoleRegistry roleRegistry,
+                           PasswordEncoder passwordEncoder,
+                           BulkDeletionService bulkDeletionService,
+                           UserAvailabilityService userAvailabilityService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.passwordEncoder = passwordEncoder;
+        this.bulkDeletionService = bulkDeletionService;
+        this.userAvailabilityService = userAvailabilityService;
     }
 
     @Override
@@ -62,20 +80,15 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Roles can't be empty"); // implementation fail, we don't show the message to the user
         }
         dtoNotNull(dto);
-        prepareAttributes(dto);
-
-        validateUsername(dto.getUsername());
-        validateEmail(dto.getEmail());
-        validatePassword(dto.getPassword());
+        dto.setUsername(normalizeUsername(dto.getUsername()));
+        dto.setEmail(normalizeEmail(dto.getEmail()));
+        dto.setPassword(normalizePassword(dto.getPassword()));
 
         UserEntity user;
         Set<RoleEntity> rolesEntities = new HashSet<>(roles.length);
 
-        for (ERole role : roles) {
-            RoleEntity roleDB = roleRepository
-                    .findByName(role)
-                    .orElse(RoleEntity.builder().name(role).build());
-            rolesEntities.add(roleDB);
+        for (ERole role : roles) { // a reference of the preloaded role, without query
+            rolesEntities.add(roleRepository.getReferenceById(roleRegistry.get(role).getId()));
         }
 
         user = UserEntity.builder()
@@ -85,7 +98,12 @@ public class UserServiceImpl implements UserService {
                 .roles(rolesEntities)
                 .createdAt(new Date())
                 .build();
-        user = userRepository.saveAndFlush(user); // reassigned for testing purposes
+        try {
+            user = userRepository.saveAndFlush(user); // reassigned for testing purposes
+        } catch (DataIntegrityViolationException e) { // the unique indexes have the last word
+            throw conflictOf(e);
+        }
+        userAvailabilityService.registerTaken(user.getUsername(), user.getEmail());
 
         return user.getId();
     }
@@ -98,7 +116,8 @@ public class UserServiceImpl implements UserService {
     public PublicUserDTO getById(Long id) {
         verifyId(id); // coming from controller is never reached ( if is logged in then the principal.id is valid, and if try pass an invalid id then the security in the controller endpoint will deny the access (principal.id == idRequested ? grantAccess : denyAccess) )
 
-        Optional<UserEntity> userO = userRepository.findById(id); // coming from controller is never reached ( controllers has the verification as principal.id == idRequested ? grantAccess : denyAccess )
+        Optional<UserEntity> userO = userRepository.findById(id) // coming from controller is never reached ( controllers has the verification as principal.id == idRequested ? grantAccess : denyAccess )
+                .filter(user -> user.getDeletedAt() == null); // waiting to be purged
         if (userO.isEmpty())
             throw new UserNotFoundException(); // if our app is not stateless && is multi-session, we may have that exception
 
@@ -111,10 +130,12 @@ public class UserServiceImpl implements UserService {
             isolation = Isolation.READ_COMMITTED,
             rollbackFor = Exception.class
     )
-    public void deleteById(Long id) {
+    public void deleteById(Long id) { // soft deletion, the notes and the user are purged later ( BulkDeletionService#purgeDeletedUsers )
         verifyId(id); // never reached coming from controller
-        if (!userRepository.existsById(id)) throw new UserNotFoundException(); // never reached coming from controller
-        userRepository.deleteById(id);
+        UserEntity user = getForUpdate(id, null);
+        user.setDeletedAt(new Date());
+        user.setDeletionKey(user.getId()); // its names can be taken again ( see UserEntity#deletionKey )
+        saveIfUnchanged(user);
     }
 
     @Override
@@ -132,8 +153,31 @@ public class UserServiceImpl implements UserService {
                 pageable.getSort()
         );
 
-        return userRepository.findAll(pag)
-                .map(this::createPublicUserDTO);
+        List<PublicUserPageRowDTO> rows = userRepository.findPageRows(pag); // with the note counters and the total
+        if (rows.isEmpty()) {
+            long total = (pag.getOffset() == 0) ? 0 : userRepository.countByDeletedAtIsNull(); // out of range, the rows don't carry it
+            return new PageImpl<>(List.of(), pag, total);
+        }
+
+        Map<Long, Set<PublicRoleDTO>> roles = new HashMap<>(rows.size());
+        for (PublicUserRoleDTO r : userRepository.findRolesByUserIdIn(rows.stream().map(PublicUserPageRowDTO::getId).toList())) {
+            roles.computeIfAbsent(r.getUserId(), id -> new HashSet<>(2)).add(new PublicRoleDTO(r.getRole()));
+        }
+
+        List<PublicUserDTO> users = rows.stream()
+                .map(row -> PublicUserDTO.builder()
+                        .id(row.getId())
+                        .username(row.getUsername())
+                        .email(row.getEmail())
+                        .createdAt(row.getCreatedAt())
+                        .updatedAt(row.getUpdatedAt())
+                        .roles(roles.getOrDefault(row.getId(), Set.of()))
+                        .notes(Set.of()) // never listed here, shared instead of allocated per user
+                        .noteCount(row.getNoteCount())
+                        .version(row.getVersion())
+                        .build())
+                .toList();
+        return new PageImpl<>(users, pag, rows.get(0).getTotal());
     }
 
     @Override
@@ -142,16 +186,58 @@ public class UserServiceImpl implements UserService {
             rollbackFor = Exception.class
     )
     public void patchUsernameById(Long id, PatchUsernameUserDTO dto) { // @Valid doesn't work here
+        patchUsernameById(id, dto, null);
+    }
+
+    @Override
+    @Transactional(
+            isolation = Isolation.READ_COMMITTED,
+            rollbackFor = Exception.class
+    )
+    public void patchUsernameById(Long id, PatchUsernameUserDTO dto, Long version) {
         verifyId(id); // never reached coming from controller
         dtoNotNull(dto); // never reached coming from controller (required = true)
-        prepareAttributes(dto);
+        dto.setUsername(normalizeUsername(dto.getUsername()));
+
+        UserEntity user = getForUpdate(id, version); // not found never reached if is stateless and single-session
+        if (!userAvailabilityService.isUsernameAvailable(dto.getUsername())) throw new UsernameAlreadyExistsException(); // a query only on a probable hit
+        user.setUsername(dto.getUsername());
+        user.setUpdatedAt(new Date());
+        saveIfUnchanged(user);
+        userAvailabilityService.registerTaken(dto.getUsername(), null);
+    }
 
-        validateUsername(dto.getUsername());
+    /**
+     * The user to write as a managed entity, its changes are flushed through the entity and update only its own
+     * entry of the second-level cache ( a bulk {@code UPDATE} would evict the whole region ).<br>
+     * Without a {@code version} its row is locked first ( the last writer wins ), with it the flush is
+     * conditional on that version ( {@code WHERE version = ?} )
+     *
+     * @throws UserNotFoundException        if it doesn't exist or is deleted ( waiting to be purged ), as the reads
+     * @throws UserVersionMismatchException if it isn't in the {@code version}
+     */
+    private UserEntity getForUpdate(Long id, Long version) {
+        if (version == null && userRepository.lockById(id).isEmpty()) throw new UserNotFoundException();
+        UserEntity user = userRepository.findById(id)
+                .filter(u -> u.getDeletedAt() == null)
+                .orElseThrow(UserNotFoundException::new);
+        if (version != null && !version.equals(user.getVersion())) throw new UserVersionMismatchException();
+        return user;
+    }
 
-        if (!userRepository.existsById(id))
-            throw new UserNotFoundException(); // never reached if is stateless and single-session
-        if (userRepository.existsByUsername(dto.getUsername())) throw new UsernameAlreadyExistsException();
-        userRepository.updateUsernameById(dto.getUsername(), id);
+    /**
+     * @throws UserVersionMismatchException if it was written by another transaction since it was read
+     * @throws UsernameAlreadyExistsException if its username was taken meanwhile ( or by another instance, its filters only see their own writes )
+     * @throws EmailAlreadyExistException     if its email was taken meanwhile
+     */
+    private void saveIfUnchanged(UserEntity user) {
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new UserVersionMismatchException();
+        } catch (DataIntegrityViolationException e) {
+            throw conflictOf(e);
+        }
     }
 
     private void verifyId(Long id) {
@@ -164,16 +250,7 @@ public class UserServiceImpl implements UserService {
             rollbackFor = Exception.class
     )
     public void patchEmailById(Long id, PatchEmailUserDTO dto) {
-        verifyId(id); // never reached coming from controller
-        dtoNotNull(dto); // never reached coming from controller
-        prepareAttributes(dto);
-
-        validateEmail(dto.getEmail());
-
-        if (!userRepository.existsById(id))
-            throw new UserNotFoundException(); // never reached if is stateless and single-session
-        if (userRepository.existsByEmail(dto.getEmail())) throw new EmailAlreadyExistException();
-        userRepository.updateEmailById(dto.getEmail(), id);
+        patchEmailById(id, dto, null);
     }
 
     @Override
@@ -181,58 +258,49 @@ public class UserServiceImpl implements UserService {
             isolation = Isolation.READ_COMMITTED,
             rollbackFor = Exception.class
     )
-    public void patchPasswordById(Long id, PatchPasswordUserDTO dto) {
+    public void patchEmailById(Long id, PatchEmailUserDTO dto, Long version) {
         verifyId(id); // never reached coming from controller
         dtoNotNull(dto); // never reached coming from controller
-        prepareAttributes(dto);
-
-        validatePassword(dto.getPassword());
-
-        if (!userRepository.existsById(id))
-            throw new UserNotFoundException(); // never reached if is stateless and single-session
-        userRepository.updatePasswordById(passwordEncoder.encode(dto.getPassword()), id);
+        dto.setEmail(normalizeEmail(dto.getEmail()));
+
+        UserEntity user = getForUpdate(id, version); // not found never reached if is stateless and single-session
+        if (!userAvailabilityService.isEmailAvailable(dto.getEmail())) throw new EmailAlreadyExistException(); // a query only on a probable hit
+        user.setEmail(dto.getEmail());
+        user.setUpdatedAt(new Date());
+        saveIfUnchanged(user);
+        userAvailabilityService.registerTaken(null, dto.getEmail());
     }
 
     @Override
     @Transactional(
-            isolation = Isolation.SERIALIZABLE,
+            isolation = Isolation.READ_COMMITTED,
             rollbackFor = Exception.class
     )
-    public void deleteAll() {
-        userRepository.deleteAll(); // n + 1
+    public void patchPasswordById(Long id, PatchPasswordUserDTO dto) {
+        patchPasswordById(id, dto, null);
     }
 
+    @Override
+    @Transactional(
+            isolation = Isolation.READ_COMMITTED,
+            rollbackFor = Exception.class
+    )
+    public void patchPasswordById(Long id, PatchPasswordUserDTO dto, Long version) {
+        verifyId(id); // never reached coming from controller
+        dtoNotNull(dto); // never reached coming from controller
+        dto.setPassword(normalizePassword(dto.getPassword()));
 
-    private void validatePassword(String password) {
-        if (password == null) throw new PlainPasswordLengthException();
-
-        boolean isTooShort = password.trim().length() < MIN_PASSWORD_LENGTH;
-        boolean isTooLong = password.trim().length() > MAX_PASSWORD_LENGTH_PLAIN;
-
-        boolean lengthFail = isTooShort || isTooLong;
-        if (lengthFail) throw new PlainPasswordLengthException();
+        UserEntity user = getForUpdate(id, version); // not found never reached if is stateless and single-session
+        user.setPassword(passwordEncoder.encode(dto.getPassword()));
+        user.setUpdatedAt(new Date());
+        saveIfUnchanged(user);
     }
 
-    private void validateUsername(String username) {
-        if (username == null) throw new UsernameLengthException();
-
-        boolean isTooShort = username.trim().length() < MIN_USERNAME_LENGTH;
-        boolean isTooLong = username.trim().length() > MAX_USERNAME_LENGTH;
-
-        boolean lengthFail = isTooShort || isTooLong;
-        if (lengthFail) throw new UsernameLengthException();
+    @Override
+    public PublicBulkDeletionJobDTO deleteAll() {
+        return bulkDeletionService.start(EBulkDeletionTarget.USERS);
     }
 
-    private void validateEmail(String email) {
-        if (email == null) throw new EmailIsInvalidException();
-
-        boolean isTooShort = email.trim().length() < MIN_EMAIL_LENGTH;
-        boolean isTooLong = email.trim().length() > MAX_EMAIL_LENGTH;
-        boolean isEmail = email.trim().matches("^\\S+@\\S+\\.\\S+$"); //--> ^ = start of the string, \S = any non-whitespace character, + = one or more, @ = @, \S = any non-whitespace character, + = one or more, \. = ., \S = any non-whitespace character, + = one or more, $ = end of the string
-
-        boolean emailInvalid = isTooShort || isTooLong || !isEmail;
-        if (emailInvalid) throw new EmailIsInvalidException();
-    }
 
     /**
      * Create a {@link PublicUserDTO} from a {@link UserEntity}<br>
@@ -262,6 +330,7 @@ public class UserServiceImpl implements UserService {
                 .updatedAt(user.getUpdatedAt())
                 .roles(roles)
                 .notes(new HashSet<>(0))
+                .version(user.getVersion())
                 .build();
     }
 
@@ -269,10 +338,4 @@ public class UserServiceImpl implements UserService {
         if (dto == null) throw new AnyUserDTOIsNullException();
     }
 
-    private <T> void prepareAttributes(T dto) {
-//       instanceof NullAttributesBlanker // not implemented in the DTOs used here ( due that these attributes has e.g. Dates, and I can't set a Date to "" )
-        if (dto instanceof NotNullAttributesTrimmer obj) obj.trimNotNullAttributes();
-        if (dto instanceof NotNullAttributesToLowerConverter obj) obj.toLowerCaseNotNullAttributes();
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.TitleMaxLengthFailException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.EmailIsInvalidException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.PlainPasswordLengthException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UsernameLengthException;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Validations.MAX_TITLE_LENGTH;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.*;
+
+/**
+ * Normalization and validation of the attributes received by the services, shared by the
+ * single and the bulk creation of users, the patches and the notes.<br>
+ * Each attribute is trimmed, lower-cased ( {@link Locale#ROOT}, then the same in any default locale )
+ * and validated; {@link String#trim()} and {@link String#toLowerCase(Locale)} return the same
+ * instance when there is nothing to change, then a normalized attribute isn't copied.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class AttributeNormalizer {
+    private static final Pattern EMAIL = Pattern.compile("^\\S+@\\S+\\.\\S+$"); // compiled once, not per call
+
+    private AttributeNormalizer() {
+    }
+
+    /**
+     * @param username as received
+     * @return the username trimmed and in lower case
+     * @throws UsernameLengthException if it's {@code null} or its trimmed length is out of bounds
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String normalizeUsername(String username) {
+        if (username == null) throw new UsernameLengthException();
+
+        String trimmed = username.trim();
+        if (trimmed.length() < MIN_USERNAME_LENGTH || trimmed.length() > MAX_USERNAME_LENGTH) throw new UsernameLengthException();
+
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param email as received
+     * @return the email trimmed and in lower case
+     * @throws EmailIsInvalidException if it's {@code null}, its trimmed length is out of bounds or isn't an email
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) throw new EmailIsInvalidException();
+
+        String trimmed = email.trim();
+        if (trimmed.length() < MIN_EMAIL_LENGTH || trimmed.length() > MAX_EMAIL_LENGTH) throw new EmailIsInvalidException();
+        if (!EMAIL.matcher(trimmed).matches()) throw new EmailIsInvalidException();
+
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param password as received
+     * @return the password trimmed, its case is kept
+     * @throws PlainPasswordLengthException if it's {@code null} or its trimmed length is out of bounds
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String normalizePassword(String password) {
+        if (password == null) throw new PlainPasswordLengthException();
+
+        String trimmed = password.trim();
+        if (trimmed.length() < MIN_PASSWORD_LENGTH || trimmed.length() > MAX_PASSWORD_LENGTH_PLAIN) throw new PlainPasswordLengthException();
+
+        return trimmed;
+    }
+
+    /**
+     * @param title as received, {@code null} is blanked
+     * @return the title, it isn't trimmed ( only its trimmed length is validated )
+     * @throws TitleMaxLengthFailException if its trimmed length is greater than the max
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String normalizeTitle(String title) {
+        if (title == null) return "";
+        if (title.trim().length() > MAX_TITLE_LENGTH) throw new TitleMaxLengthFailException();
+
+        return title;
+    }
+
+    /**
+     * @param content as received, {@code null} is blanked
+     * @return the content, at the moment we don't have any validation for it
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String normalizeContent(String content) {
+        return (content == null) ? "" : content;
+    }
+}
@@ -0,0 +1,76 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of strings, safe to be read and written by many threads without locks.<br>
+ * {@link #mightContain(String)} never returns {@code false} for a string that was {@link #put(String)},
+ * and returns {@code true} for one that wasn't with a probability close to the one it was sized for.
+ * The {@code k} positions of a string come from a single 64-bit hash split in two halves
+ * ( {@code h1 + i * h2}, Kirsch-Mitzenmacher ).
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions number of strings that will be put
+     * @param fpp                false positive probability expected after the {@code expectedInsertions}, in {@code (0, 1)}
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) throw new IllegalArgumentException("Expected insertions must be positive");
+        if (fpp <= 0 || fpp >= 1) throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))); // m = -n ln(p) / ln(2)^2
+        int wordCount = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2))); // k = m/n ln(2)
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) words.getAndUpdate(word, w -> w | mask);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the chars, then the finalizer of MurmurHash3 to spread the bits over both halves
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
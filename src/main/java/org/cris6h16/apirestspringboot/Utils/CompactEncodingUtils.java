@@ -0,0 +1,77 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Response.Encoding.*;
+
+/**
+ * Utility class for the content negotiation of the compact encodings of the pages.<br>
+ * {@code application/json} ( and no {@code Accept} ) keeps the serialized {@code Page}, a client
+ * that prefers {@link org.cris6h16.apirestspringboot.Constants.Cons.Response.Encoding#SLIM_PAGE_JSON_VALUE},
+ * CBOR or Smile receives the slim envelope in that encoding.<br>
+ * CBOR and Smile count only if their Jackson module is on the classpath ( {@code -Pbinary-encodings} ),
+ * the same condition of spring to register their converters; without it they aren't producible
+ * and the client receives its next acceptable type, then the envelope follows that one.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class CompactEncodingUtils {
+    private static final List<MediaType> COMPACT = compactTypes(
+            ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", CompactEncodingUtils.class.getClassLoader()),
+            ClassUtils.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", CompactEncodingUtils.class.getClassLoader())
+    );
+
+    private CompactEncodingUtils() {
+    }
+
+    static List<MediaType> compactTypes(boolean cbor, boolean smile) {
+        List<MediaType> types = new ArrayList<>(3);
+        types.add(MediaType.parseMediaType(SLIM_PAGE_JSON_VALUE));
+        if (cbor) types.add(MediaType.parseMediaType(CBOR_VALUE));
+        if (smile) types.add(MediaType.parseMediaType(SMILE_VALUE));
+        return List.copyOf(types);
+    }
+
+    /**
+     * Check if the client prefers a compact encoding, by the quality of the types
+     * and then by their order in the header; a wildcard counts as JSON
+     *
+     * @param accept the {@code Accept} header, can be {@code null}
+     * @return {@code true} if the most preferred known type is a compact one
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static boolean isCompactPreferred(String accept) {
+        return isCompactPreferred(accept, COMPACT);
+    }
+
+    static boolean isCompactPreferred(String accept, List<MediaType> compactTypes) {
+        if (accept == null || accept.isBlank()) return false;
+
+        List<MediaType> types;
+        try {
+            types = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false; // then the negotiation of spring fails as usual
+        }
+
+        List<MediaType> byQuality = types.stream()
+                .filter(t -> t.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed()) // stable, the order of the header on ties
+                .toList();
+        for (MediaType type : byQuality) {
+            for (MediaType compact : compactTypes) {
+                if (compact.equalsTypeAndSubtype(type)) return true;
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) return false;
+        }
+        return false;
+    }
+}
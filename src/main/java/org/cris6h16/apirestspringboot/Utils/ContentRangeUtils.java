@@ -0,0 +1,89 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.RangeNotSatisfiableException;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Content.RANGE_UNIT;
+
+/**
+ * Utility class for the {@code Range} header over the content of a note.<br>
+ * Only a single range in the {@code chars} unit is supported ( {@code chars=0-99},
+ * {@code chars=100-} or {@code chars=-100} ); as RFC 9110 allows, any other unit,
+ * a list of ranges or a malformed range is ignored and the whole content is served.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class ContentRangeUtils {
+
+    private ContentRangeUtils() {
+    }
+
+    /**
+     * A range of characters, both ends inclusive
+     */
+    public record CharRange(long start, long end) {
+        public long length() {
+            return end - start + 1;
+        }
+    }
+
+    /**
+     * Parse the {@code Range} header against a content
+     *
+     * @param range  the header value, can be {@code null}
+     * @param length of the content, in characters
+     * @return the range clamped to the content, or {@code null} if the whole content must be served
+     * @throws RangeNotSatisfiableException if the range starts outside the content
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static CharRange parse(String range, long length) {
+        if (range == null) return null;
+        String prefix = RANGE_UNIT + "=";
+        range = range.trim();
+        if (!range.regionMatches(true, 0, prefix, 0, prefix.length())) return null;
+
+        String spec = range.substring(prefix.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) return null;
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            if (first.isEmpty()) { // suffix: the last N characters
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) return null;
+                if (suffix == 0 || length == 0) throw new RangeNotSatisfiableException(length);
+                return new CharRange(Math.max(0, length - suffix), length - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) return null;
+            if (start >= length) throw new RangeNotSatisfiableException(length);
+            return new CharRange(start, Math.min(end, length - 1));
+
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the {@code Content-Range} header of a partial response
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String toContentRange(CharRange range, long length) {
+        return RANGE_UNIT + " " + range.start() + "-" + range.end() + "/" + length;
+    }
+
+    /**
+     * @return the {@code Content-Range} header of an unsatisfiable range
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String toUnsatisfiedContentRange(long length) {
+        return RANGE_UNIT + " */" + length;
+    }
+}
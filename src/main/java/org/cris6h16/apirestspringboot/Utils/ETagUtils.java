@@ -0,0 +1,59 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIfMatchException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.WeakIfMatchException;
+
+/**
+ * Utility class for the {@code ETag}/{@code If-Match} headers.<br>
+ * The {@code ETag} of a resource is its {@code version} column, then a
+ * client can send it back in {@code If-Match} for a conditional update.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class ETagUtils {
+
+    private ETagUtils() {
+    }
+
+    /**
+     * Build the {@code ETag} of a resource by its version
+     *
+     * @param version of the resource
+     * @return the quoted version ( {@code "3"} ), or {@code null} if the version is {@code null}
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String toETag(Long version) {
+        return (version == null) ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * Parse the version from an {@code If-Match} header.<br>
+     * Accepts {@code "3"} and {@code 3}.
+     *
+     * @param ifMatch the header value, can be {@code null}
+     * @return the version, or {@code null} if the header wasn't sent
+     * @throws InvalidIfMatchException if the header isn't a single version ( {@code *} or a list of tags are not supported )
+     * @throws WeakIfMatchException     if the tag is weak, it never matches the strong {@code ETag} of the resource
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null) return null;
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) throw new WeakIfMatchException();
+        if (tag.length() >= 2 && tag.charAt(0) == '"' && tag.charAt(tag.length() - 1) == '"') {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+
+        try {
+            long version = Long.parseLong(tag);
+            if (version < 0) throw new InvalidIfMatchException();
+            return version;
+        } catch (NumberFormatException e) {
+            throw new InvalidIfMatchException();
+        }
+    }
+}
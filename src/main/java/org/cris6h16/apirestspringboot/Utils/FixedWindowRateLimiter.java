@@ -0,0 +1,62 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A per-key fixed window rate limiter, safe to be used by many threads.<br>
+ * Each key has up to {@code permits} acquisitions per window of {@code windowMillis}, counted from its
+ * first acquisition. The windows of the keys are dropped once they expire and more than
+ * {@code maxTrackedKeys} are kept, then the memory is bounded by the keys seen in a single window.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class FixedWindowRateLimiter {
+    private final int permits;
+    private final long windowMillis;
+    private final int maxTrackedKeys;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private record Window(long start, int used) {
+    }
+
+    /**
+     * @param permits        acquisitions allowed per key and window, positive
+     * @param windowMillis   length of the window, positive
+     * @param maxTrackedKeys keys kept before dropping the expired ones, positive
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public FixedWindowRateLimiter(int permits, long windowMillis, int maxTrackedKeys) {
+        if (permits <= 0) throw new IllegalArgumentException("Permits must be positive");
+        if (windowMillis <= 0) throw new IllegalArgumentException("Window must be positive");
+        if (maxTrackedKeys <= 0) throw new IllegalArgumentException("Max tracked keys must be positive");
+
+        this.permits = permits;
+        this.windowMillis = windowMillis;
+        this.maxTrackedKeys = maxTrackedKeys;
+    }
+
+    /**
+     * @param key of the caller, e.g. its address
+     * @return {@code true} if the key still has a permit in its current window
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    boolean tryAcquire(String key, long now) {
+        if (windows.size() > maxTrackedKeys) windows.values().removeIf(w -> now - w.start() >= windowMillis);
+
+        Window window = windows.compute(key, (k, old) -> (old == null || now - old.start() >= windowMillis)
+                ? new Window(now, 1)
+                : new Window(old.start(), Math.min(old.used() + 1, permits + 1))); // capped, the rejected ones don't overflow it
+        return window.used() <= permits;
+    }
+
+    int trackedKeys() {
+        return windows.size();
+    }
+}
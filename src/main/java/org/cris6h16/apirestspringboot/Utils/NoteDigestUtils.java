@@ -0,0 +1,86 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidDigestPathException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Digest.DEPTH;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Digest.LEAVES;
+
+/**
+ * Utility class for the notes digest tree.<br>
+ * A note is placed in the leaf {@code id mod 4096} and hashed as the first 8 bytes
+ * ( big-endian ) of {@code SHA-256("<id>:<version>")}; the hash of any node is the
+ * {@code XOR} of the hashes of all the notes below it, so a client can compute the
+ * same tree from its local copy and a write only touches its leaf.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class NoteDigestUtils {
+
+    private NoteDigestUtils() {
+    }
+
+    /**
+     * @param noteId of the note
+     * @return the leaf of the note, in {@code [0, 4096)}
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static int bucketOf(long noteId) {
+        return (int) Math.floorMod(noteId, (long) LEAVES);
+    }
+
+    /**
+     * @param noteId  of the note
+     * @param version of the note
+     * @return the hash of the note
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static long noteHash(long noteId, long version) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256")
+                    .digest((noteId + ":" + version).getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(sha, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM must support SHA-256
+        }
+    }
+
+    /**
+     * @param hash of a node
+     * @return the hash as 16 lowercase hex digits
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static String toHex(long hash) {
+        return String.format("%016x", hash);
+    }
+
+    /**
+     * Parse the path of a node, each hex digit selects a child from the root.
+     *
+     * @param path up to {@link org.cris6h16.apirestspringboot.Constants.Cons.Note.Digest#DEPTH} hex digits, {@code null} or empty for the root
+     * @return the index of the node in its level
+     * @throws InvalidDigestPathException if the path is too long or isn't hex
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static int parsePath(String path) {
+        if (path == null || path.isEmpty()) return 0;
+        if (path.length() > DEPTH) throw new InvalidDigestPathException();
+
+        int node = 0;
+        for (char c : path.toCharArray()) {
+            int digit = Character.digit(c, 16);
+            if (digit < 0) throw new InvalidDigestPathException();
+            node = node * 16 + digit;
+        }
+        return node;
+    }
+}
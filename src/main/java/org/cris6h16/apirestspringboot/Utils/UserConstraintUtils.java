@@ -0,0 +1,39 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.EmailAlreadyExistException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UsernameAlreadyExistsException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Constrains.EMAIL_UNIQUE_NAME;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Constrains.USERNAME_UNIQUE_NAME;
+
+/**
+ * Utility class for the unique constraints of the {@code users}.<br>
+ * The checks before a write ( e.g. the availability filters ) are answered by each instance,
+ * the unique indexes are the only ones that see every write; their violations are mapped here.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class UserConstraintUtils {
+
+    private UserConstraintUtils() {
+    }
+
+    /**
+     * Map the violation of the unique username or email to its conflict
+     *
+     * @param e the violation, thrown by the flush
+     * @return the conflict to send to the user
+     * @throws DataIntegrityViolationException {@code e} itself if it isn't a conflict of the user
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    public static ProperExceptionForTheUser conflictOf(DataIntegrityViolationException e) {
+        String msg = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (msg.contains(USERNAME_UNIQUE_NAME)) return new UsernameAlreadyExistsException();
+        if (msg.contains(EMAIL_UNIQUE_NAME)) return new EmailAlreadyExistException();
+        throw e; // not a conflict of the user
+    }
+}
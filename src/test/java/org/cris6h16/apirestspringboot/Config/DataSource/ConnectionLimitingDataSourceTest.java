@@ -0,0 +1,105 @@
+package org.cris6h16.apirestspringboot.Config.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link ConnectionLimitingDataSource}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Tag("UnitTest")
+class ConnectionLimitingDataSourceTest {
+
+    @Test
+    void getConnection_AllInUse_WaitsThenTimeout() throws SQLException {
+        // Arrange
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(i -> mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 2, 50);
+
+        // Act
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Assert
+        assertThat(dataSource.getAvailableConnections()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(pool, times(2)).getConnection(); // the pool doesn't see the third one
+
+        first.close();
+        first.close(); // released only once
+        assertThat(dataSource.getAvailableConnections()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void getConnection_PoolFails_PermitReleased() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLException("down"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, 1, 50);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("down");
+
+        assertThat(dataSource.getAvailableConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_ManyVirtualThreads_NeverMoreThanThePool() throws Exception {
+        // Arrange
+        int poolSize = 4;
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(i -> {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            Connection connection = mock(Connection.class);
+            doAnswer(c -> open.decrementAndGet()).when(connection).close();
+            return connection;
+        });
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(pool, poolSize, 30_000);
+
+        // Act
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection c = dataSource.getConnection()) {
+                        Thread.sleep(1);
+                    }
+                    return null;
+                }));
+            }
+            for (var f : futures) f.get();
+        }
+
+        // Assert
+        assertThat(maxOpen.get()).isLessThanOrEqualTo(poolSize);
+        assertThat(dataSource.getAvailableConnections()).isEqualTo(poolSize);
+        verify(pool, times(1000)).getConnection();
+    }
+
+    @Test
+    void close_ClosesThePool() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ConnectionLimitingDataSource(pool, 1, 50).close();
+
+        verify((AutoCloseable) pool).close();
+    }
+}
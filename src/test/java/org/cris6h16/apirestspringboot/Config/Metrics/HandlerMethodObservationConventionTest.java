@@ -0,0 +1,56 @@
+package org.cris6h16.apirestspringboot.Config.Metrics;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Controllers.NoteController;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit test for {@link HandlerMethodObservationConvention}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Tag("UnitTest")
+class HandlerMethodObservationConventionTest {
+
+    private final HandlerMethodObservationConvention convention = new HandlerMethodObservationConvention();
+
+    @Test
+    void getLowCardinalityKeyValues_handlerMethod_thenControllerAndMethod() {
+        Method getPage = Arrays.stream(NoteController.class.getMethods())
+                .filter(m -> m.getName().equals("getPage"))
+                .findFirst().orElseThrow();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", Cons.Note.Controller.Path.NOTE_PATH);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new HandlerMethod(mock(NoteController.class), getPage));
+
+        ServerRequestObservationContext context = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+
+        assertThat(convention.getLowCardinalityKeyValues(context).stream()
+                .filter(kv -> kv.getKey().equals(Cons.Metrics.HANDLER_KEY))
+                .findFirst().orElseThrow().getValue())
+                .startsWith("NoteController").endsWith("#getPage");
+    }
+
+    @Test
+    void getLowCardinalityKeyValues_noHandler_thenNone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/nothing");
+        ServerRequestObservationContext context = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+
+        assertThat(convention.getLowCardinalityKeyValues(context).stream()
+                .filter(kv -> kv.getKey().equals(Cons.Metrics.HANDLER_KEY))
+                .findFirst().orElseThrow().getValue())
+                .isEqualTo("none");
+    }
+}
@@ -0,0 +1,104 @@
+package org.cris6h16.apirestspringboot.Config.Metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link ObservedPasswordEncoder}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("UnitTest")
+class ObservedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    @Mock
+    private ObjectProvider<ObservationRegistry> registryProvider;
+
+    private final List<Observation.Context> observed = new ArrayList<>();
+    private ObservedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        lenient().when(registryProvider.getIfAvailable(any())).thenReturn(registry);
+        encoder = new ObservedPasswordEncoder(delegate, registryProvider);
+    }
+
+    @Test
+    void matches_delegatesAndObservesTheResult() {
+        when(delegate.matches("12345678", "{bcrypt}hash")).thenReturn(true);
+        when(delegate.matches("wrong", "{bcrypt}hash")).thenReturn(false);
+
+        assertThat(encoder.matches("12345678", "{bcrypt}hash")).isTrue();
+        assertThat(encoder.matches("wrong", "{bcrypt}hash")).isFalse();
+
+        assertThat(observed).hasSize(2);
+        assertThat(observed).allMatch(c -> c.getName().equals(Cons.Metrics.PASSWORD_VERIFY));
+        assertThat(observed.get(0).getLowCardinalityKeyValue("matched").getValue()).isEqualTo("true");
+        assertThat(observed.get(1).getLowCardinalityKeyValue("matched").getValue()).isEqualTo("false");
+        verify(registryProvider, times(1)).getIfAvailable(any()); // resolved once
+    }
+
+    @Test
+    void matches_exception_observedAndRethrown() {
+        IllegalArgumentException e = new IllegalArgumentException("no id");
+        when(delegate.matches(any(), any())).thenThrow(e);
+
+        assertThatThrownBy(() -> encoder.matches("12345678", "hash")).isSameAs(e);
+
+        assertThat(observed).hasSize(1);
+        assertThat(observed.get(0).getError()).isSameAs(e);
+    }
+
+    @Test
+    void encode_delegatesAndObserves() {
+        when(delegate.encode("12345678")).thenReturn("{bcrypt}hash");
+
+        assertThat(encoder.encode("12345678")).isEqualTo("{bcrypt}hash");
+
+        assertThat(observed).hasSize(1);
+        assertThat(observed.get(0).getName()).isEqualTo(Cons.Metrics.PASSWORD_ENCODE);
+    }
+
+    @Test
+    void upgradeEncoding_delegates() {
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+
+        assertThat(encoder.upgradeEncoding("hash")).isTrue();
+        assertThat(observed).isEmpty();
+    }
+}
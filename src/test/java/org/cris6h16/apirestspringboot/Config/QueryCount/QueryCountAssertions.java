@@ -0,0 +1,61 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lock the statements of a piece of work, e.g. a method of a service:
+ *
+ * <pre>{@code
+ * PublicNoteDTO note = assertStatements(1, () -> noteService.getByIdAndUserId(noteId, userId));
+ * }</pre>
+ * <p>
+ * The statements are the ones prepared by Hibernate on the current thread ( {@link QueryCount} ),
+ * then an N+1 introduced later fails here instead of in production.<br>
+ * Requires the beans of {@link QueryCountConfig}, e.g. a {@code @SpringBootTest}.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * @return the count of the work, for its rows and time
+     */
+    public static QueryCount count(Runnable work) {
+        try (QueryCount count = QueryCount.start()) {
+            work.run();
+            return count;
+        }
+    }
+
+    /**
+     * @param expected statements of the work
+     * @return the result of the work
+     */
+    public static <T> T assertStatements(long expected, Supplier<T> work) {
+        Object[] result = new Object[1];
+        assertStatements(expected, () -> {
+            result[0] = work.get();
+        });
+        @SuppressWarnings("unchecked")
+        T t = (T) result[0];
+        return t;
+    }
+
+    /**
+     * @param expected statements of the work
+     * @return the count of the work, for its rows and time
+     */
+    public static QueryCount assertStatements(long expected, Runnable work) {
+        QueryCount count = count(work);
+        assertThat(count.getStatements())
+                .as("statements ( %s )", count)
+                .isEqualTo(expected);
+        return count;
+    }
+}
@@ -0,0 +1,92 @@
+package org.cris6h16.apirestspringboot.Config.QueryCount;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for {@link QueryCountFilter} and {@link QueryCount}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Tag("UnitTest")
+class QueryCountFilterTest {
+
+    private final QueryCountFilter filter = new QueryCountFilter(1);
+    private final CountingStatementInspector inspector = new CountingStatementInspector();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_admin_thenHeaderWithTheStatements() throws Exception {
+        authenticate("ROLE_ADMIN");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/users"), response, (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        });
+
+        assertThat(response.getHeader(Cons.QueryCount.HEADER)).startsWith("statements=2, rows=0, time=");
+    }
+
+    @Test
+    void doFilter_adminAndCommittedByTheBody_thenHeaderWithTheStatementsUntilTheCommit() throws Exception {
+        authenticate("ROLE_ADMIN");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/notes"), response, (req, res) -> {
+            inspector.inspect("select 1");
+            res.getWriter().write("{}");
+            res.flushBuffer(); // committed
+            inspector.inspect("select 2");
+        });
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(Cons.QueryCount.HEADER)).startsWith("statements=1,");
+    }
+
+    @Test
+    void doFilter_user_thenNoHeader() throws Exception {
+        authenticate("ROLE_USER");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/notes"), response, (req, res) -> inspector.inspect("select 1"));
+
+        assertThat(response.getHeader(Cons.QueryCount.HEADER)).isNull();
+    }
+
+    @Test
+    void start_insideAnotherCount_thenAddedToBoth() {
+        try (QueryCount outer = QueryCount.start()) {
+            inspector.inspect("select 1");
+            try (QueryCount inner = QueryCount.start()) {
+                inspector.inspect("select 2");
+                QueryCount.recordRows(3);
+                assertThat(inner.getStatements()).isEqualTo(1);
+                assertThat(inner.getRows()).isEqualTo(3);
+            }
+            inspector.inspect("select 3");
+            assertThat(outer.getStatements()).isEqualTo(3);
+            assertThat(outer.getRows()).isEqualTo(3);
+        }
+        assertThat(QueryCount.isCounting()).isFalse();
+    }
+
+    private void authenticate(String role) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "cris6h16", null, AuthorityUtils.createAuthorityList(role)));
+    }
+}
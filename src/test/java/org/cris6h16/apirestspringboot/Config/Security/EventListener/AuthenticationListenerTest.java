@@ -1,5 +1,8 @@
 package org.cris6h16.apirestspringboot.Config.Security.EventListener;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Utils.FilesUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,12 +12,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -38,6 +45,9 @@ class AuthenticationListenerTest {
     @Mock
     private FilesUtils filesUtils;
 
+    @Mock
+    private ObjectProvider<ObservationRegistry> observationRegistry;
+
     @InjectMocks
     private AuthenticationListener authenticationListener;
 
@@ -52,6 +62,8 @@ class AuthenticationListenerTest {
         clearInvocations(filesUtils);
         reset(filesUtils);
 
+        lenient().when(observationRegistry.getIfAvailable(any())).thenReturn(ObservationRegistry.NOOP);
+
     }
 
 
@@ -300,4 +312,39 @@ class AuthenticationListenerTest {
                 argThat(str -> str.split("\n").length == failureDataSaved)
         );
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void onSuccessAndOnFailure_observeTheLogins() {
+        // Arrange
+        List<Observation.Context> observed = new CopyOnWriteArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        when(observationRegistry.getIfAvailable(any())).thenReturn(registry);
+
+        AuthenticationSuccessEvent successEvent = mock(AuthenticationSuccessEvent.class);
+        AbstractAuthenticationFailureEvent failureEvent = mock(AbstractAuthenticationFailureEvent.class);
+        when(failureEvent.getException()).thenReturn(new BadCredentialsException("bad"));
+
+        // Act
+        authenticationListener.onSuccess(successEvent);
+        authenticationListener.onFailure(failureEvent);
+
+        // Assert
+        assertThat(observed).hasSize(2);
+        assertThat(observed).allMatch(c -> c.getName().equals(Cons.Metrics.LOGIN));
+        assertThat(observed.get(0).getLowCardinalityKeyValue("result").getValue()).isEqualTo("success");
+        assertThat(observed.get(1).getLowCardinalityKeyValue("result").getValue()).isEqualTo("failure");
+        assertThat(observed.get(1).getLowCardinalityKeyValue("reason").getValue()).isEqualTo("BadCredentialsException");
+    }
+}
@@ -0,0 +1,72 @@
+package org.cris6h16.apirestspringboot.Config.Security.PasswordHashing;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link ParallelPasswordHasher}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Tag("UnitTest")
+class ParallelPasswordHasherTest {
+
+    @Test
+    void encodeAll_KeepsTheOrder_AndUsesThePool() {
+        // Arrange
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        PasswordEncoder encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                threads.add(Thread.currentThread().getName());
+                return "{test}" + raw;
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return encoded.equals("{test}" + raw);
+            }
+        };
+        ParallelPasswordHasher hasher = new ParallelPasswordHasher(encoder);
+        List<String> raw = IntStream.range(0, 1000).mapToObj(i -> "password" + i).toList();
+
+        // Act
+        List<String> encoded = hasher.encodeAll(raw);
+
+        // Assert
+        assertThat(encoded).hasSize(raw.size());
+        for (int i = 0; i < raw.size(); i++) assertThat(encoded.get(i)).isEqualTo("{test}" + raw.get(i));
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            assertThat(threads).anyMatch(t -> t.startsWith("password-hashing-"));
+        }
+        hasher.shutdown();
+    }
+
+    @Test
+    void encodeAll_EmptyOrSingle() {
+        ParallelPasswordHasher hasher = new ParallelPasswordHasher(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence raw) {
+                return "{test}" + raw;
+            }
+
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                return false;
+            }
+        });
+
+        assertThat(hasher.encodeAll(List.of())).isEmpty();
+        assertThat(hasher.encodeAll(List.of("12345678"))).containsExactly("{test}12345678");
+        hasher.shutdown();
+    }
+}
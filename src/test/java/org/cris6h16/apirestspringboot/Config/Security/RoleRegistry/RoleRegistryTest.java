@@ -0,0 +1,87 @@
+package org.cris6h16.apirestspringboot.Config.Security.RoleRegistry;
+
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Entities.RoleEntity;
+import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link RoleRegistry}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@Tag("UnitTest")
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleRegistry roleRegistry;
+
+    @Test
+    void load_AllRolesInDB_ThenNothingIsCreated() {
+        // Arrange
+        RoleEntity user = RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build();
+        RoleEntity admin = RoleEntity.builder().id(2L).name(ERole.ROLE_ADMIN).build();
+        when(roleRepository.findAll()).thenReturn(List.of(user, admin));
+
+        // Act
+        roleRegistry.load();
+
+        // Assert
+        assertThat(roleRegistry.get(ERole.ROLE_USER)).isSameAs(user);
+        assertThat(roleRegistry.get(ERole.ROLE_ADMIN)).isSameAs(admin);
+        verify(roleRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void load_MissingRole_ThenItsCreated() {
+        // Arrange
+        RoleEntity user = RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build();
+        RoleEntity admin = RoleEntity.builder().id(2L).name(ERole.ROLE_ADMIN).build();
+        when(roleRepository.findAll()).thenReturn(List.of(user));
+        when(roleRepository.saveAndFlush(argThat(r -> r.getId() == null && r.getName() == ERole.ROLE_ADMIN)))
+                .thenReturn(admin);
+
+        // Act
+        roleRegistry.load();
+
+        // Assert
+        assertThat(roleRegistry.get(ERole.ROLE_USER)).isSameAs(user);
+        assertThat(roleRegistry.get(ERole.ROLE_ADMIN)).isSameAs(admin);
+        verify(roleRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void load_MissingRoleCreatedByOtherInstance_ThenItsReloaded() {
+        // Arrange
+        RoleEntity user = RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build();
+        RoleEntity admin = RoleEntity.builder().id(2L).name(ERole.ROLE_ADMIN).build();
+        when(roleRepository.findAll()).thenReturn(List.of(user));
+        when(roleRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("role_name_unique"));
+        when(roleRepository.findByName(ERole.ROLE_ADMIN)).thenReturn(Optional.of(admin));
+
+        // Act
+        roleRegistry.load();
+
+        // Assert
+        assertThat(roleRegistry.get(ERole.ROLE_ADMIN)).isSameAs(admin);
+    }
+}
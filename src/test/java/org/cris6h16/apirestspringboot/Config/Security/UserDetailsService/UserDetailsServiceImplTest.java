@@ -1,6 +1,7 @@
 package org.cris6h16.apirestspringboot.Config.Security.UserDetailsService;
 
 import org.cris6h16.apirestspringboot.Config.Security.CustomUser.UserWithId;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Entities.RoleEntity;
@@ -17,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +41,9 @@ class UserDetailsServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RoleRegistry roleRegistry;
+
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
@@ -84,6 +89,8 @@ class UserDetailsServiceImplTest {
 
         when(userRepository.findByUsername("username"))
                 .thenReturn(Optional.of(usr));
+        when(roleRegistry.get(ERole.ROLE_USER))
+                .thenReturn(RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build());
 
         // Act
         UserDetails userDetails = userDetailsService.loadUserByUsername("username");
@@ -117,6 +124,8 @@ class UserDetailsServiceImplTest {
 
         when(userRepository.findByUsername("cris6h16"))
                 .thenReturn(Optional.of(usr));
+        when(roleRegistry.get(ERole.ROLE_USER))
+                .thenReturn(RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build());
 
         // Act & Assert
         UserDetails userDetails = userDetailsService.loadUserByUsername("cris6h16");
@@ -169,6 +178,35 @@ class UserDetailsServiceImplTest {
                 .hasFieldOrPropertyWithValue("password", usr.getPassword());
         assertThat(userDetails.getAuthorities().iterator().next().getAuthority())
                 .isEqualTo(usr.getRoles().iterator().next().getName().name());
+        assertThat(userDetails.isEnabled()).isTrue();
+    }
+
+    /**
+     * Test method for {@link UserDetailsServiceImpl#loadUserByUsername(String)}
+     *
+     * @autor <a href="https://www.github.com/cris6h16" target="_blank"> Cristian Herrera </a>
+     * @since 1.0
+     */
+    @Test
+    void UserDeleted_ThenDisabled() {
+        // Arrange
+        UserEntity usr = UserEntity.builder()
+                .id(1L)
+                .username("cris6h16")
+                .password("12345678")
+                .email("cristianmherrera21@gmail.com")
+                .roles(Collections.singleton(RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build()))
+                .deletedAt(new Date())
+                .build();
+
+        when(userRepository.findByUsername(usr.getUsername()))
+                .thenReturn(Optional.of(usr));
+
+        // Act
+        UserDetails userDetails = userDetailsService.loadUserByUsername(usr.getUsername());
+
+        // Assert
+        assertThat(userDetails.isEnabled()).isFalse(); // rejected by the authentication provider
     }
 
     // userDetails.getAuthorities().iterator().next().getAuthority()
@@ -0,0 +1,110 @@
+package org.cris6h16.apirestspringboot.Controllers;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionStatus;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.BulkDeletionService.BulkDeletionJobNotFoundException;
+import org.cris6h16.apirestspringboot.Services.BulkDeletionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for {@link BulkDeletionController}
+ * tested also the security configuration for the deletion endpoints
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Tag("UnitTest") // @WebMvcTest doesn't work with spring security custom configuration
+class BulkDeletionControllerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private BulkDeletionServiceImpl bulkDeletionService;
+
+    private static String path = Cons.BulkDeletion.Controller.Path.DELETIONS_PATH;
+
+    @BeforeEach
+    void setUp() {
+        reset(bulkDeletionService);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getById_Then200_WithTheProgress() throws Exception {
+        when(bulkDeletionService.getById(3L)).thenReturn(PublicBulkDeletionJobDTO.builder()
+                .id(3L)
+                .target(EBulkDeletionTarget.NOTES)
+                .status(EBulkDeletionStatus.RUNNING)
+                .deleted(42000L)
+                .total(100000L)
+                .build());
+
+        this.mvc.perform(get(path + "/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.target").value("NOTES"))
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.deleted").value(42000))
+                .andExpect(jsonPath("$.total").value(100000));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getById_NotFound_Then404() throws Exception {
+        when(bulkDeletionService.getById(3L)).thenThrow(new BulkDeletionJobNotFoundException());
+
+        this.mvc.perform(get(path + "/3"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(Cons.BulkDeletion.NOT_FOUND));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getLatest_Then200() throws Exception {
+        when(bulkDeletionService.getLatest()).thenReturn(List.of(
+                PublicBulkDeletionJobDTO.builder().id(4L).status(EBulkDeletionStatus.COMPLETED).build(),
+                PublicBulkDeletionJobDTO.builder().id(3L).status(EBulkDeletionStatus.FAILED).build()));
+
+        this.mvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].status").value("FAILED"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    void getById_NotAdmin_Then403() throws Exception {
+        this.mvc.perform(get(path + "/3"))
+                .andExpect(status().isForbidden());
+        this.mvc.perform(get(path))
+                .andExpect(status().isForbidden());
+        verify(bulkDeletionService, never()).getById(any());
+    }
+
+    @Test
+    void getById_Unauthenticated_Then401() throws Exception {
+        this.mvc.perform(get(path + "/3"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -4,12 +4,14 @@ import org.cris6h16.apirestspringboot.Controllers.CustomClasses.CustomPageImpl;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
 import org.cris6h16.apirestspringboot.Services.NoteServiceImpl;
+import org.cris6h16.apirestspringboot.Services.BulkDeletionServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -51,6 +53,9 @@ class NoteControllerIntegrationTest {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private BulkDeletionServiceImpl bulkDeletionService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -65,8 +70,8 @@ class NoteControllerIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        userService.deleteAll();  // N + 1
-        noteServiceImpl.deleteAll();
+        bulkDeletionService.run(EBulkDeletionTarget.NOTES);
+        bulkDeletionService.run(EBulkDeletionTarget.USERS);
 
         Long id = userService.create(
                 CreateUserDTO.builder()
@@ -5,7 +5,11 @@ import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Controllers.CustomClasses.CustomPageImpl;
 import org.cris6h16.apirestspringboot.Controllers.CustomClasses.WithMockUserWithId;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditNoteContentDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.NoteVersionMismatchException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
 import org.cris6h16.apirestspringboot.Services.NoteServiceImpl;
 import org.junit.jupiter.api.*;
@@ -16,16 +20,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -264,6 +275,67 @@ class NoteControllerTest {
                 .isEqualTo(pageStr);
     }
 
+    @Test
+    @WithMockUserWithId(id = 1, roles = {"ROLE_USER"})
+    void getPage_slimPageAccepted_ThenSlimEnvelope() throws Exception {
+        Page<PublicNoteDTO> page = new PageImpl<>(create10FixedPublicNoteDTO(), PageRequest.of(2, 10), 100);
+        when(noteService.getPage(any(), anyLong())).thenReturn(page);
+
+        String pageStr = this.mvc.perform(get(path)
+                        .accept(Cons.Response.Encoding.SLIM_PAGE_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(Cons.Response.Encoding.SLIM_PAGE_JSON_VALUE))
+                .andExpect(jsonPath("$.page").value(2))
+                .andExpect(jsonPath("$.size").value(10))
+                .andExpect(jsonPath("$.totalElements").value(100))
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(pageStr.length()).isLessThan(this.objectMapper.writeValueAsString(page).length());
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1, roles = {"ROLE_USER"})
+    void getPage_binaryWithoutItsConverter_ThenTheJsonFallbackOrNotServed() throws Exception {
+        assumeFalse(ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", null)); // the default build
+        Page<PublicNoteDTO> page = new PageImpl<>(create10FixedPublicNoteDTO(), PageRequest.of(2, 10), 100);
+        when(noteService.getPage(any(), anyLong())).thenReturn(page);
+
+        this.mvc.perform(get(path)
+                        .accept(Cons.Response.Encoding.CBOR_VALUE + ", " + MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.pageable").exists()); // the page of a JSON client, not the envelope
+        this.mvc.perform(get(path)
+                        .accept(Cons.Response.Encoding.CBOR_VALUE))
+                .andExpect(status().isForbidden()) // not acceptable, as any exception without its own handler
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1, roles = {"ROLE_USER"})
+    void getPage_fieldsAndPreview_ThenOnlyTheSelectedAttributes() throws Exception {
+        Page<PublicNoteDTO> page = new PageImpl<>(
+                List.of(PublicNoteDTO.builder().id(7L).title("title").content("first chars").build()),
+                PageRequest.of(0, 10), 1);
+        when(noteService.getPage(any(), anyLong(), any(), any())).thenReturn(page);
+
+        this.mvc.perform(get(path)
+                        .param("fields", "title")
+                        .param("preview", "11"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(7))
+                .andExpect(jsonPath("$.content[0].title").value("title"))
+                .andExpect(jsonPath("$.content[0].content").value("first chars"))
+                .andExpect(jsonPath("$.content[0].updatedAt").doesNotExist()) // not selected, then not serialized
+                .andExpect(jsonPath("$.content[0].version").doesNotExist());
+
+        verify(noteService).getPage(any(Pageable.class), eq(1L), eq("title"), eq(11));
+        verify(noteService, never()).getPage(any(), anyLong());
+    }
+
     @Test
     void getPage_isNotAuthenticated_Then401_UNAUTHORIZED() throws Exception {
         this.mvc.perform(get(path))
@@ -509,6 +581,225 @@ class NoteControllerTest {
         );
     }
 
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void put_ByIdAndUserId_withIfMatch_Then204_NoContentAndNewETag() throws Exception {
+        when(noteService.putByIdAndUserId(anyLong(), anyLong(), any(CreateNoteDTO.class), anyLong())).thenReturn(4L);
+
+        this.mvc.perform(put(path + "/10")
+                        .with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"My First Note\",\"content\":\"note of cris6h16\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(noteService, times(1)).putByIdAndUserId(eq(10L), eq(1L), any(CreateNoteDTO.class), eq(3L));
+        verify(noteService, never()).putByIdAndUserId(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void put_ByIdAndUserId_withIfMatchVersionMismatch_Then412_PreconditionFailed() throws Exception {
+        when(noteService.putByIdAndUserId(anyLong(), anyLong(), any(CreateNoteDTO.class), anyLong()))
+                .thenThrow(new NoteVersionMismatchException());
+
+        this.mvc.perform(put(path + "/10")
+                        .with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"My First Note\",\"content\":\"note of cris6h16\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(Cons.Note.Fails.VERSION_MISMATCH));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void put_ByIdAndUserId_withWeakIfMatch_Then412_PreconditionFailed() throws Exception {
+        this.mvc.perform(put(path + "/10")
+                        .with(csrf())
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"My First Note\",\"content\":\"note of cris6h16\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(Cons.CommonInEntity.IF_MATCH_WEAK));
+
+        verify(noteService, never()).putByIdAndUserId(any(), any(), any(), any());
+        verify(noteService, never()).putByIdAndUserId(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void put_ByIdAndUserId_withInvalidIfMatch_Then400_BadRequest() throws Exception {
+        this.mvc.perform(put(path + "/10")
+                        .with(csrf())
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"My First Note\",\"content\":\"note of cris6h16\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(Cons.CommonInEntity.IF_MATCH_INVALID));
+
+        verify(noteService, never()).putByIdAndUserId(any(), any(), any(), any());
+        verify(noteService, never()).putByIdAndUserId(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void patch_ByIdAndUserId_MergePatch_Then204_NoContentAndNewETag() throws Exception {
+        when(noteService.patchByIdAndUserId(anyLong(), anyLong(), any(PatchNoteDTO.class), any())).thenReturn(4L);
+
+        this.mvc.perform(patch(path + "/10")
+                        .with(csrf())
+                        .contentType(Cons.Note.Controller.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"title\":\"My First Note\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(noteService, times(1)).patchByIdAndUserId(eq(10L), eq(1L), argThat(p ->
+                p.isTitlePresent() && p.getTitle().equals("My First Note") &&
+                        !p.isContentPresent() && p.getContent() == null
+        ), isNull());
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void patch_ByIdAndUserId_NullMemberAndIfMatch_PassedToService() throws Exception {
+        when(noteService.patchByIdAndUserId(anyLong(), anyLong(), any(PatchNoteDTO.class), any())).thenReturn(4L);
+
+        this.mvc.perform(patch(path + "/10")
+                        .with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(Cons.Note.Controller.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"content\":null}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(noteService, times(1)).patchByIdAndUserId(eq(10L), eq(1L), argThat(p ->
+                !p.isTitlePresent() && p.isContentPresent() && p.getContent() == null
+        ), eq(3L));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void patch_ByIdAndUserId_VersionMismatch_Then412_PreconditionFailed() throws Exception {
+        when(noteService.patchByIdAndUserId(anyLong(), anyLong(), any(PatchNoteDTO.class), any()))
+                .thenThrow(new NoteVersionMismatchException());
+
+        this.mvc.perform(patch(path + "/10")
+                        .with(csrf())
+                        .header("If-Match", "\"3\"")
+                        .contentType(Cons.Note.Controller.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"title\":\"My First Note\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value(Cons.Note.Fails.VERSION_MISMATCH));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void editContent_ByIdAndUserId_Then204_NoContentAndNewETag() throws Exception {
+        when(noteService.editContentByIdAndUserId(anyLong(), anyLong(), any(EditNoteContentDTO.class))).thenReturn(4L);
+
+        this.mvc.perform(post(path + "/10" + Cons.Note.Edit.COMPLEMENT_EDITS)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":3,\"operations\":[{\"op\":\"insert\",\"offset\":0,\"text\":\"hi\"}]}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(noteService, times(1)).editContentByIdAndUserId(eq(10L), eq(1L), argThat(e ->
+                e.getVersion() == 3L && e.getOperations().size() == 1 &&
+                        e.getOperations().get(0).getText().equals("hi")
+        ));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void getContent_WithoutRange_Then200_WholeContent() throws Exception {
+        String content = "a".repeat(100) + "ñ";
+        when(noteService.getContentInfoByIdAndUserId(10L, 1L)).thenReturn(new PublicNoteContentInfoDTO(3L, content.length()));
+        when(noteService.getContentSliceByIdAndUserId(10L, 1L, 3L, 0, content.length())).thenReturn(content);
+
+        String body = this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, Cons.Note.Content.RANGE_UNIT))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).isEqualTo(content);
+        verify(noteService, times(1)).getContentSliceByIdAndUserId(any(), any(), any(), anyLong(), anyInt()); // a single query, in the request
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void getContent_WithRange_Then206_OnlyTheRange() throws Exception {
+        when(noteService.getContentInfoByIdAndUserId(10L, 1L)).thenReturn(new PublicNoteContentInfoDTO(3L, 1000));
+        when(noteService.getContentSliceByIdAndUserId(10L, 1L, 3L, 100, 100)).thenReturn("x".repeat(100));
+
+        this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT)
+                        .header(HttpHeaders.RANGE, "chars=100-199")
+                        .header(HttpHeaders.IF_RANGE, "\"3\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "chars 100-199/1000"))
+                .andExpect(content().string("x".repeat(100)));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void getContent_IfRangeOfAnOldVersion_Then200_WholeContent() throws Exception {
+        when(noteService.getContentInfoByIdAndUserId(10L, 1L)).thenReturn(new PublicNoteContentInfoDTO(4L, 3));
+        when(noteService.getContentSliceByIdAndUserId(10L, 1L, 4L, 0, 3)).thenReturn("abc");
+
+        this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT)
+                        .header(HttpHeaders.RANGE, "chars=1-")
+                        .header(HttpHeaders.IF_RANGE, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("abc"));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void getContent_ModifiedWhileRead_Then412_BeforeTheContent() throws Exception {
+        when(noteService.getContentInfoByIdAndUserId(10L, 1L)).thenReturn(new PublicNoteContentInfoDTO(3L, 1000));
+        when(noteService.getContentSliceByIdAndUserId(10L, 1L, 3L, 0, 1000)).thenThrow(new NoteVersionMismatchException());
+
+        this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void getContent_Empty_Then200_WithoutReadingIt() throws Exception {
+        when(noteService.getContentInfoByIdAndUserId(10L, 1L)).thenReturn(new PublicNoteContentInfoDTO(3L, 0));
+
+        this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+        verify(noteService, never()).getContentSliceByIdAndUserId(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @WithMockUserWithId(id = 1L)
+    void getContent_RangeOutsideTheContent_Then416_WithTheLength() throws Exception {
+        when(noteService.getContentInfoByIdAndUserId(10L, 1L)).thenReturn(new PublicNoteContentInfoDTO(3L, 1000));
+
+        this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT)
+                        .header(HttpHeaders.RANGE, "chars=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "chars */1000"))
+                .andExpect(jsonPath("$.message").value(Cons.Note.Content.RANGE_NOT_SATISFIABLE_MSG));
+        verify(noteService, never()).getContentSliceByIdAndUserId(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getContent_Unauthenticated_Then401_Unauthorized() throws Exception {
+        this.mvc.perform(get(path + "/10" + Cons.Note.Content.COMPLEMENT_CONTENT))
+                .andExpect(status().isUnauthorized());
+        verify(noteService, never()).getContentInfoByIdAndUserId(any(), any());
+    }
+
     @Test
     void put_ByIdAndUserId_Unauthenticated_Then401_Unauthorized() throws Exception {
         this.mvc.perform(put(path + "/1").with(csrf()))
@@ -3,7 +3,9 @@ package org.cris6h16.apirestspringboot.Controllers.UserController;
 import org.cris6h16.apirestspringboot.Controllers.CustomClasses.CustomPageImpl;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
 import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Services.BulkDeletionServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -42,9 +44,12 @@ class AdminUserControllerIntegrationTest {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private BulkDeletionServiceImpl bulkDeletionService;
+
     @BeforeEach
     void setUp() {
-        userService.deleteAll();
+        bulkDeletionService.run(EBulkDeletionTarget.USERS); // synchronously, in chunks
         createUsersAndAdmin();
     }
 
@@ -4,10 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Controllers.CustomClasses.CustomPageImpl;
 import org.cris6h16.apirestspringboot.Controllers.CustomClasses.WithMockUserWithId;
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUserResultDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUsersDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicRoleDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.cris6h16.apirestspringboot.Services.UserProvisioningServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,8 +29,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -54,13 +61,16 @@ class AdminUserControllerTest {
     @MockBean
     private UserServiceImpl userService;
 
+    @MockBean
+    private UserProvisioningServiceImpl userProvisioningService;
+
     private static String path = Cons.User.Controller.Path.USER_PATH;
 
 
     @BeforeEach
     void setUp() {
-        clearInvocations(userService);
-        reset(userService);
+        clearInvocations(userService, userProvisioningService);
+        reset(userService, userProvisioningService);
     }
 
     @Test
@@ -77,6 +87,7 @@ class AdminUserControllerTest {
         String pageStr = this.mvc.perform(get(path))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(Cons.QueryCount.HEADER, startsWith("statements=0,"))) // the service is mocked
                 .andReturn().getResponse().getContentAsString();
 
         CustomPageImpl<PublicUserDTO> pageRes = objectMapper.readValue(
@@ -115,6 +126,7 @@ class AdminUserControllerTest {
         this.mvc.perform(get(path))
                 .andExpect(status().isForbidden())
                 .andExpect(header().doesNotExist("Content-Type"))
+                .andExpect(header().doesNotExist(Cons.QueryCount.HEADER))
                 .andExpect(content().bytes(new byte[0]));
         verify(userService, never()).getPage(any());
     }
@@ -173,6 +185,54 @@ class AdminUserControllerTest {
                 .andExpect(jsonPath("$.message").value("Hello World I'm a handleable exception of cris6h16"));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void createBulk_successful_Then200_WithTheResults() throws Exception {
+        List<CreateUserDTO> users = List.of(
+                CreateUserDTO.builder().username("cris6h16").email("cris6h16@gmail.com").password("12345678").build(),
+                CreateUserDTO.builder().username("cris6h17").email("cris6h16@gmail.com").password("12345678").build()
+        );
+        PublicBulkUsersDTO result = PublicBulkUsersDTO.builder()
+                .created(1)
+                .failed(1)
+                .results(List.of(
+                        PublicBulkUserResultDTO.builder().index(0).id(1L).status(201).build(),
+                        PublicBulkUserResultDTO.builder().index(1).status(409).message(Cons.User.Constrains.EMAIL_UNIQUE_MSG).build()))
+                .build();
+        when(userProvisioningService.createAll(anyList(), eq(ERole.ROLE_USER))).thenReturn(result);
+
+        String res = this.mvc.perform(post(path + Cons.User.Controller.Path.COMPLEMENT_BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(users)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readValue(res, PublicBulkUsersDTO.class)).isEqualTo(result);
+        verify(userProvisioningService).createAll(argThat(l -> l.size() == 2 &&
+                l.get(1).getUsername().equals("cris6h17")), eq(ERole.ROLE_USER));
+    }
+
+    @Test
+    @WithMockUserWithId
+    void createBulk_isNotAnAdmin_Then403_FORBIDDEN() throws Exception {
+        this.mvc.perform(post(path + Cons.User.Controller.Path.COMPLEMENT_BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isForbidden())
+                .andExpect(content().bytes(new byte[0]));
+        verify(userProvisioningService, never()).createAll(any(), any());
+    }
+
+    @Test
+    void createBulk_isNotAuthenticated_Then401_UNAUTHORIZED() throws Exception {
+        this.mvc.perform(post(path + Cons.User.Controller.Path.COMPLEMENT_BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnauthorized());
+        verify(userProvisioningService, never()).createAll(any(), any());
+    }
+
 
     private List<PublicUserDTO> createPublicUserDTOs(int i) {
         List<PublicUserDTO> l = new ArrayList<>();
@@ -7,9 +7,11 @@ import org.cris6h16.apirestspringboot.DTOs.Patch.PatchPasswordUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchUsernameUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicRoleDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.BulkDeletionServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -52,6 +54,9 @@ class AuthenticatedUserControllerIntegrationTest {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private BulkDeletionServiceImpl bulkDeletionService;
+
     private static final String path = Cons.User.Controller.Path.USER_PATH;
     private static final String path_patch_username = path + Cons.User.Controller.Path.COMPLEMENT_PATCH_USERNAME;
     private static final String path_patch_email = path + Cons.User.Controller.Path.COMPLEMENT_PATCH_EMAIL;
@@ -62,7 +67,7 @@ class AuthenticatedUserControllerIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        userService.deleteAll();
+        bulkDeletionService.run(EBulkDeletionTarget.USERS); // synchronously, in chunks
         dto = CreateUserDTO.builder()
                 .username("cris6h16")
                 .email("cristianmherrera21@gmail.com")
@@ -208,8 +213,13 @@ class AuthenticatedUserControllerIntegrationTest {
                 .exchange(path + "/" + id, HttpMethod.DELETE, null, Void.class);
 
         assertThat(res.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
-        assertThat(userRepository.existsById(id)).isFalse();
-        assertThat(userRepository.count()).isZero();
+        assertThat(userRepository.findById(id)).get().extracting(UserEntity::getDeletedAt).isNotNull(); // purged later
+
+        // can't authenticate anymore
+        ResponseEntity<Void> again = this.restTemplate
+                .withBasicAuth("cris6h16", "12345678")
+                .exchange(path + "/" + id, HttpMethod.GET, null, Void.class);
+        assertThat(again.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
     }
 
 
@@ -1,6 +1,8 @@
 package org.cris6h16.apirestspringboot.Controllers.UserController;
 
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.cris6h16.apirestspringboot.Services.BulkDeletionServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,9 +33,12 @@ class PublicUserControllerIntegrationTest {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private BulkDeletionServiceImpl bulkDeletionService;
+
     @BeforeEach
     void setUp() {
-        userService.deleteAll();
+        bulkDeletionService.run(EBulkDeletionTarget.USERS); // synchronously, in chunks
     }
 
     @Test
@@ -3,8 +3,12 @@ package org.cris6h16.apirestspringboot.Controllers.UserController;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.Controllers.CustomClasses.WithMockUserWithId;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserAvailabilityDTO;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.ProperExceptionForTheUser;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.AvailabilityRateLimitException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UsernameLengthException;
+import org.cris6h16.apirestspringboot.Services.UserAvailabilityServiceImpl;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,14 +50,17 @@ class PublicUserControllerTest {
     @MockBean
     private UserServiceImpl userService;
 
+    @MockBean
+    private UserAvailabilityServiceImpl userAvailabilityService;
+
 
     private static String path = Cons.User.Controller.Path.USER_PATH;
 
 
     @BeforeEach
     void setUp() {
-        clearInvocations(userService);
-        reset(userService);
+        clearInvocations(userService, userAvailabilityService);
+        reset(userService, userAvailabilityService);
     }
 
     @Test
@@ -184,4 +192,44 @@ class PublicUserControllerTest {
         verify(userService, never()).create(any());
     }
 
+    @Test
+    void getAvailability_Anonymous_Then200_OK() throws Exception {
+        when(userAvailabilityService.getAvailability(eq("cris6h16"), eq("cristianmherrera21@gmail.com"), anyString()))
+                .thenReturn(new PublicUserAvailabilityDTO(false, true));
+
+        this.mvc.perform(get(path + Cons.User.Availability.COMPLEMENT_AVAILABILITY)
+                        .param("username", "cris6h16")
+                        .param("email", "cristianmherrera21@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.usernameAvailable").value(false))
+                .andExpect(jsonPath("$.emailAvailable").value(true));
+    }
+
+    @Test
+    void getAvailability_InvalidUsername_Then400_BAD_REQUEST() throws Exception {
+        when(userAvailabilityService.getAvailability(eq("cri"), isNull(), anyString()))
+                .thenThrow(new UsernameLengthException());
+
+        this.mvc.perform(get(path + Cons.User.Availability.COMPLEMENT_AVAILABILITY)
+                        .param("username", "cri"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(Cons.User.Validations.USERNAME_LENGTH_FAIL_MSG));
+    }
+
+    @Test
+    void getAvailability_TooManyChecks_Then429_TOO_MANY_REQUESTS() throws Exception {
+        when(userAvailabilityService.getAvailability(eq("cris6h16"), isNull(), eq("10.0.0.1")))
+                .thenThrow(new AvailabilityRateLimitException());
+
+        this.mvc.perform(get(path + Cons.User.Availability.COMPLEMENT_AVAILABILITY)
+                        .param("username", "cris6h16")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        }))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message").value(Cons.User.Availability.TOO_MANY_CHECKS_MSG));
+    }
+
 }
@@ -6,6 +6,7 @@ import org.cris6h16.apirestspringboot.Repositories.UserRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +16,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Test the right behavior of cascading on {@link UserEntity} to the contained Entities
@@ -158,19 +160,18 @@ public class CascadingUserEntityTest {
     @Test
     @Order(4)
     @Tag("NoteEntity")
-    public void WhenRemove_ContainedNoteEntitiesCascade() {
+    public void WhenRemove_ContainedNoteEntitiesNotCascade() { // they would be loaded to be removed, see UserServiceImpl#deleteById
         // Arrange
         usr.getNotes().addAll(notes);
         userRepository.saveAndFlush(usr);
         boolean saved = userRepository.count() == 1 && noteRepository.count() == notes.size();
 
-        // Act
-        userRepository.deleteById(usr.getId());
-
-        // Assert
+        // Act & Assert
         assertThat(saved).isTrue();
-        assertThat(userRepository.count()).isEqualTo(0);
-        assertThat(noteRepository.count()).isEqualTo(0);
+        assertThatThrownBy(() -> {
+            userRepository.deleteById(usr.getId());
+            userRepository.flush();
+        }).isInstanceOf(DataIntegrityViolationException.class);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.RUNNING_TARGET_UNIQUE_NAME;
+
+/**
+ * Test class for {@link BulkDeletionJobRepository} and the set-based statements
+ * of the chunks in {@link UserRepository} and {@link NoteRepository},
+ * using an embedded {@code H2} database.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(rollbackFor = Exception.class)
+public class BulkDeletionJobRepositoryTest {
+    @Autowired
+    private BulkDeletionJobRepository bulkDeletionJobRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        bulkDeletionJobRepository.deleteAll();
+        noteRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void lockLastIdIfRunning_advanceAndFinish() {
+        // Arrange
+        Date now = new Date();
+        BulkDeletionJobEntity job = bulkDeletionJobRepository.saveAndFlush(BulkDeletionJobEntity.builder()
+                .target(EBulkDeletionTarget.NOTES)
+                .status(EBulkDeletionStatus.RUNNING)
+                .lastId(0L)
+                .deleted(0L)
+                .total(3L)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+
+        // Act
+        Long lastId = bulkDeletionJobRepository.lockLastIdIfRunning(job.getId()).orElseThrow();
+        bulkDeletionJobRepository.advance(job.getId(), 50L, 2, new Date());
+        bulkDeletionJobRepository.finish(job.getId(), EBulkDeletionStatus.COMPLETED, new Date());
+        int finishedTwice = bulkDeletionJobRepository.finish(job.getId(), EBulkDeletionStatus.FAILED, new Date());
+        entityManager.clear();
+
+        // Assert
+        assertThat(lastId).isZero();
+        assertThat(bulkDeletionJobRepository.lockLastIdIfRunning(job.getId())).isEmpty();
+        assertThat(finishedTwice).isZero();
+        BulkDeletionJobEntity finished = bulkDeletionJobRepository.findById(job.getId()).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(EBulkDeletionStatus.COMPLETED);
+        assertThat(finished.getLastId()).isEqualTo(50L);
+        assertThat(finished.getDeleted()).isEqualTo(2L);
+        assertThat(finished.getFinishedAt()).isNotNull();
+        assertThat(bulkDeletionJobRepository.findIdsByStatus(EBulkDeletionStatus.RUNNING)).isEmpty();
+    }
+
+    @Test
+    void runningTarget_aSecondRunningJobOfTheTargetRejectedUntilTheFirstFinishes() {
+        // Arrange
+        BulkDeletionJobEntity first = bulkDeletionJobRepository.saveAndFlush(running(EBulkDeletionTarget.NOTES));
+        bulkDeletionJobRepository.saveAndFlush(running(EBulkDeletionTarget.USERS)); // another target
+
+        // Act
+        bulkDeletionJobRepository.finish(first.getId(), EBulkDeletionStatus.COMPLETED, new Date());
+        BulkDeletionJobEntity second = bulkDeletionJobRepository.saveAndFlush(running(EBulkDeletionTarget.NOTES));
+        entityManager.clear();
+
+        // Assert
+        assertThat(bulkDeletionJobRepository.findById(first.getId()).orElseThrow().getRunningTarget()).isNull();
+        assertThat(second.getId()).isNotNull();
+        assertThatThrownBy(() -> bulkDeletionJobRepository.saveAndFlush(running(EBulkDeletionTarget.NOTES)))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(RUNNING_TARGET_UNIQUE_NAME.toUpperCase());
+    }
+
+    @Test
+    void usersChunk_deletedWithSetBasedStatements() {
+        // Arrange
+        RoleEntity role = roleRepository.findByName(ERole.ROLE_USER)
+                .orElseGet(() -> roleRepository.saveAndFlush(RoleEntity.builder().name(ERole.ROLE_USER).build()));
+        List<UserEntity> users = List.of(saveUser("user1", role), saveUser("user2", role), saveUser("user3", role));
+        for (UserEntity u : users) {
+            noteRepository.save(NoteEntity.builder().title("t").content("c").updatedAt(new Date()).user(u).build());
+        }
+        noteRepository.flush();
+        entityManager.clear();
+
+        // Act
+        List<Long> chunk = userRepository.findIdsAfter(0L, Limit.of(2));
+        List<Long> locked = userRepository.lockByIdIn(chunk);
+        userRepository.deleteRolesByUserIdIn(chunk);
+        int notes = noteRepository.deleteByUserIdIn(chunk);
+        userRepository.deleteAllByIdInBatch(chunk);
+        entityManager.clear();
+
+        // Assert
+        assertThat(chunk).containsExactly(users.get(0).getId(), users.get(1).getId());
+        assertThat(locked).isEqualTo(chunk);
+        assertThat(notes).isEqualTo(2);
+        assertThat(userRepository.findAll()).extracting(UserEntity::getId).containsExactly(users.get(2).getId());
+        assertThat(userRepository.findIdsAfter(chunk.get(1), Limit.of(2))).containsExactly(users.get(2).getId());
+        assertThat(noteRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findIdsByUserIdInAfter_onlyTheNotesOfTheUsers() {
+        // Arrange
+        RoleEntity role = roleRepository.findByName(ERole.ROLE_USER)
+                .orElseGet(() -> roleRepository.saveAndFlush(RoleEntity.builder().name(ERole.ROLE_USER).build()));
+        UserEntity user = saveUser("user1", role);
+        UserEntity other = saveUser("user2", role);
+        UserEntity another = saveUser("user3", role);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ids.add(noteRepository.save(NoteEntity.builder().title("t").content("c").updatedAt(new Date()).user(user).build()).getId());
+            noteRepository.save(NoteEntity.builder().title("t").content("c").updatedAt(new Date()).user(other).build());
+            ids.add(noteRepository.save(NoteEntity.builder().title("t").content("c").updatedAt(new Date()).user(another).build()).getId());
+        }
+        noteRepository.flush();
+        List<Long> userIds = List.of(user.getId(), another.getId());
+
+        // Act
+        List<Long> first = noteRepository.findIdsByUserIdInAfter(userIds, 0L, Limit.of(3));
+        List<Long> second = noteRepository.findIdsByUserIdInAfter(userIds, first.get(2), Limit.of(3));
+
+        // Assert
+        assertThat(first).containsExactly(ids.get(0), ids.get(1), ids.get(2));
+        assertThat(second).containsExactly(ids.get(3));
+    }
+
+    private BulkDeletionJobEntity running(EBulkDeletionTarget target) {
+        Date now = new Date();
+        return BulkDeletionJobEntity.builder()
+                .target(target)
+                .status(EBulkDeletionStatus.RUNNING)
+                .runningTarget(target)
+                .lastId(0L)
+                .deleted(0L)
+                .total(0L)
+                .startedAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private UserEntity saveUser(String username, RoleEntity role) {
+        return userRepository.saveAndFlush(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("12345678")
+                .createdAt(new Date())
+                .roles(Set.of(role))
+                .build());
+    }
+}
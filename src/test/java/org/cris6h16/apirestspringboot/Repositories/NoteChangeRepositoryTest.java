@@ -0,0 +1,202 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.NoteChangeEntity;
+import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.cris6h16.apirestspringboot.Entities.NoteSyncStateEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link NoteChangeRepository} and {@link NoteSyncStateRepository},
+ * using an embedded {@code H2} database.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(rollbackFor = Exception.class)
+public class NoteChangeRepositoryTest {
+    @Autowired
+    private NoteChangeRepository noteChangeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NoteSyncStateRepository noteSyncStateRepository;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        noteChangeRepository.deleteAll();
+        noteSyncStateRepository.deleteAll();
+        noteRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.saveAndFlush(UserEntity.builder()
+                .username("cris6h16")
+                .email("cris6h16@example.com")
+                .password("12345678")
+                .createdAt(new Date())
+                .build());
+    }
+
+    @Test
+    void incrementChangeSeqByUserId_onlyIfTheStateExists() {
+        // Act
+        int withoutState = noteSyncStateRepository.incrementChangeSeqByUserId(user.getId());
+        saveState(1L, 0L);
+        noteSyncStateRepository.incrementChangeSeqByUserId(user.getId());
+
+        // Assert
+        assertThat(withoutState).isZero();
+        assertThat(noteSyncStateRepository.findChangeSeqByUserId(user.getId())).isEqualTo(2L);
+        assertThat(userRepository.lockById(user.getId())).contains(user.getId());
+        entityManager.clear();
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getVersion()).isEqualTo(user.getVersion());
+    }
+
+    @Test
+    void updateByUserIdAndNoteId_movesTheRowToTheNewSeq() {
+        // Arrange
+        save(10L, 1L, false, new Date());
+        save(11L, 2L, false, new Date());
+
+        // Act
+        int updated = noteChangeRepository.updateByUserIdAndNoteId(user.getId(), 10L, 3L, true, new Date());
+        int notExistent = noteChangeRepository.updateByUserIdAndNoteId(user.getId(), 99L, 4L, false, new Date());
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isOne();
+        assertThat(notExistent).isZero();
+        List<NoteChangeEntity> changes = noteChangeRepository
+                .findByUserIdAndSeqGreaterThanOrderBySeqAsc(user.getId(), 0L, Limit.of(10));
+        assertThat(changes).extracting(NoteChangeEntity::getNoteId).containsExactly(11L, 10L);
+        assertThat(changes).extracting(NoteChangeEntity::isDeleted).containsExactly(false, true);
+        assertThat(noteChangeRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(user.getId(), 2L, Limit.of(10)))
+                .extracting(NoteChangeEntity::getNoteId).containsExactly(10L);
+    }
+
+    @Test
+    void purge_deletesOldTombstonesAndRemembersTheirSeq() {
+        // Arrange
+        Date old = new Date(System.currentTimeMillis() - 1000L * 60 * 60 * 24 * 60);
+        Date cutoff = new Date(System.currentTimeMillis() - 1000L * 60 * 60 * 24 * 30);
+        save(10L, 1L, true, old);
+        save(11L, 2L, true, old);
+        save(12L, 3L, false, old);
+        save(13L, 4L, true, new Date());
+        saveState(4L, 0L);
+
+        // Act
+        noteSyncStateRepository.updatePurgedSeqForTombstonesChangedBefore(cutoff);
+        int purged = noteChangeRepository.deleteTombstonesChangedBefore(cutoff);
+        entityManager.clear();
+
+        // Assert
+        assertThat(purged).isEqualTo(2);
+        assertThat(noteSyncStateRepository.findPurgedSeqByUserId(user.getId())).contains(2L);
+        assertThat(noteChangeRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(user.getId(), 0L, Limit.of(10)))
+                .extracting(NoteChangeEntity::getNoteId).containsExactly(12L, 13L);
+    }
+
+    @Test
+    void tombstonesByNoteIdIn_theNextSeqsInIdOrderThenTheStateAdvanced() {
+        // Arrange
+        List<Long> ids = saveNotes(3);
+        List<Long> chunk = ids.subList(0, 2);
+        saveState(5L, 0L);
+        save(ids.get(1), 4L, false, new Date()); // only the second one has a change row
+        save(ids.get(2), 5L, false, new Date());
+        Date now = new Date();
+
+        // Act
+        int states = noteSyncStateRepository.insertMissingByNoteIdIn(chunk);
+        int moved = noteChangeRepository.tombstoneByNoteIdIn(chunk, now);
+        int inserted = noteChangeRepository.insertTombstonesByNoteIdIn(chunk, now);
+        noteSyncStateRepository.advanceChangeSeqByNoteIdIn(chunk);
+        entityManager.clear();
+
+        // Assert
+        assertThat(states).isZero();
+        assertThat(moved).isOne();
+        assertThat(inserted).isOne();
+        assertThat(noteSyncStateRepository.findChangeSeqByUserId(user.getId())).isEqualTo(7L);
+        List<NoteChangeEntity> changes = noteChangeRepository
+                .findByUserIdAndSeqGreaterThanOrderBySeqAsc(user.getId(), 0L, Limit.of(10));
+        assertThat(changes).extracting(NoteChangeEntity::getNoteId).containsExactly(ids.get(2), ids.get(0), ids.get(1));
+        assertThat(changes).extracting(NoteChangeEntity::getSeq).containsExactly(5L, 6L, 7L);
+        assertThat(changes).extracting(NoteChangeEntity::isDeleted).containsExactly(false, true, true);
+    }
+
+    @Test
+    void insertMissingByNoteIdIn_theTombstonesOfAUserWithoutStateFromOne() {
+        // Arrange
+        List<Long> ids = saveNotes(2);
+        Date now = new Date();
+
+        // Act
+        int states = noteSyncStateRepository.insertMissingByNoteIdIn(ids);
+        noteChangeRepository.tombstoneByNoteIdIn(ids, now);
+        int inserted = noteChangeRepository.insertTombstonesByNoteIdIn(ids, now);
+        noteSyncStateRepository.advanceChangeSeqByNoteIdIn(ids);
+        entityManager.clear();
+
+        // Assert
+        assertThat(states).isOne();
+        assertThat(inserted).isEqualTo(2);
+        assertThat(noteSyncStateRepository.findChangeSeqByUserId(user.getId())).isEqualTo(2L);
+        assertThat(noteSyncStateRepository.findPurgedSeqByUserId(user.getId())).contains(0L);
+        assertThat(noteChangeRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(user.getId(), 0L, Limit.of(10)))
+                .extracting(NoteChangeEntity::getSeq).containsExactly(1L, 2L);
+    }
+
+    private List<Long> saveNotes(int amount) {
+        List<Long> ids = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            ids.add(noteRepository.saveAndFlush(NoteEntity.builder()
+                    .title("title" + i)
+                    .content("content" + i)
+                    .updatedAt(new Date())
+                    .user(user)
+                    .build()).getId());
+        }
+        return ids;
+    }
+
+    private void saveState(Long changeSeq, Long purgedSeq) {
+        noteSyncStateRepository.saveAndFlush(NoteSyncStateEntity.builder()
+                .user(user)
+                .changeSeq(changeSeq)
+                .purgedSeq(purgedSeq)
+                .build());
+    }
+
+    private void save(Long noteId, Long seq, boolean deleted, Date changedAt) {
+        noteChangeRepository.saveAndFlush(NoteChangeEntity.builder()
+                .noteId(noteId)
+                .seq(seq)
+                .deleted(deleted)
+                .changedAt(changedAt)
+                .user(user)
+                .build());
+    }
+}
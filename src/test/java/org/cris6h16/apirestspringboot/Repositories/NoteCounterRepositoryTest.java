@@ -0,0 +1,138 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import org.cris6h16.apirestspringboot.Entities.NoteCounterEntity;
+import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link NoteCounterRepository}, using an embedded {@code H2} database.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(rollbackFor = Exception.class)
+public class NoteCounterRepositoryTest {
+    @Autowired
+    private NoteCounterRepository noteCounterRepository;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        noteCounterRepository.deleteAll();
+        noteRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void addByUserId_onlyIfTheCounterExists() {
+        // Arrange
+        UserEntity user = saveUser("cris6h16");
+
+        // Act
+        int withoutCounter = noteCounterRepository.addByUserId(user.getId(), 1);
+        saveCounter(user, 5L);
+        noteCounterRepository.addByUserId(user.getId(), 1);
+        noteCounterRepository.addByUserId(user.getId(), -3);
+
+        // Assert
+        assertThat(withoutCounter).isZero();
+        assertThat(noteCounterRepository.findNoteCountByUserId(user.getId())).contains(3L);
+    }
+
+    @Test
+    void subtractByNoteIdIn_thenTheMissingCountersWithoutTheNotes() {
+        // Arrange
+        UserEntity counted = saveUser("counted");
+        UserEntity missing = saveUser("missing");
+        saveNotes(counted, 3);
+        saveNotes(missing, 2);
+        saveCounter(counted, 3L);
+        List<Long> chunk = noteRepository.findIdsByUserIdInAfter(List.of(counted.getId(), missing.getId()), 0L, Limit.of(4));
+
+        // Act
+        int updated = noteCounterRepository.subtractByNoteIdIn(chunk);
+        int inserted = noteCounterRepository.insertMissingWithoutNoteIdIn(chunk);
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isOne();
+        assertThat(inserted).isOne();
+        assertThat(noteCounterRepository.findNoteCountByUserId(counted.getId())).contains(0L);
+        assertThat(noteCounterRepository.findNoteCountByUserId(missing.getId())).contains(1L);
+    }
+
+    @Test
+    void findDriftedUserIds_wrongOrMissingCounters() {
+        // Arrange
+        UserEntity exact = saveUser("exact");
+        UserEntity wrong = saveUser("wrong");
+        UserEntity missing = saveUser("missing");
+        UserEntity withoutNotes = saveUser("without");
+        saveNotes(exact, 2);
+        saveNotes(wrong, 3);
+        saveNotes(missing, 1);
+        saveCounter(exact, 2L);
+        saveCounter(wrong, 7L);
+        saveCounter(withoutNotes, 0L);
+
+        // Act
+        List<Long> drifted = noteCounterRepository.findDriftedUserIds();
+
+        // Assert
+        assertThat(drifted).containsExactlyInAnyOrder(wrong.getId(), missing.getId());
+        assertThat(noteRepository.countByUserId(wrong.getId())).isEqualTo(3L);
+        assertThat(noteCounterRepository.findByUserIdIn(List.of(exact.getId(), wrong.getId(), missing.getId())))
+                .extracting(NoteCounterEntity::getUserId)
+                .containsExactlyInAnyOrder(exact.getId(), wrong.getId());
+    }
+
+    private UserEntity saveUser(String username) {
+        return userRepository.saveAndFlush(UserEntity.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("12345678")
+                .createdAt(new Date())
+                .build());
+    }
+
+    private void saveNotes(UserEntity user, int amount) {
+        for (int i = 0; i < amount; i++) {
+            noteRepository.save(NoteEntity.builder()
+                    .title("title" + i)
+                    .content("content" + i)
+                    .updatedAt(new Date())
+                    .user(user)
+                    .build());
+        }
+        noteRepository.flush();
+    }
+
+    private void saveCounter(UserEntity user, Long noteCount) {
+        noteCounterRepository.saveAndFlush(NoteCounterEntity.builder()
+                .user(userRepository.getReferenceById(user.getId()))
+                .noteCount(noteCount)
+                .build());
+        entityManager.clear();
+    }
+}
@@ -1,8 +1,13 @@
 package org.cris6h16.apirestspringboot.Repositories;
 
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteContentInfoDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteVersionDTO;
+import org.cris6h16.apirestspringboot.Entities.ENoteField;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Services.UserServiceImpl;
+import org.cris6h16.apirestspringboot.Utils.NoteDigestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
@@ -176,6 +181,146 @@ public class NoteRepositoryTest {
     }
 
 
+    /**
+     * Test {@link NoteRepository#lockByIdAndUserId(Long, Long)} only finds the note of its user.
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void lockByIdAndUserId_onlyTheNoteOfTheUser() {
+        // Arrange
+        NoteEntity n = userNotes.values().iterator().next().iterator().next();
+        Long userId = n.getUser().getId();
+
+        // Act & Assert
+        assertThat(noteRepository.lockByIdAndUserId(n.getId(), userId)).contains(n.getId());
+        assertThat(noteRepository.lockByIdAndUserId(n.getId(), userId + 999)).isEmpty();
+    }
+
+    /**
+     * Test {@link NoteRepository#lockIdsAfter(Long, int)} and {@link NoteRepository#findOwnerVersionsByIdIn(Collection)},
+     * a chunk of a deletion with the owner and version of each note.
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void lockIdsAfter_chunkOrderedByIdWithItsOwners() {
+        // Arrange
+        List<NoteEntity> notes = userNotes.values().stream()
+                .flatMap(Set::stream)
+                .sorted(Comparator.comparing(NoteEntity::getId))
+                .toList();
+
+        // Act
+        List<Long> chunk = noteRepository.lockIdsAfter(notes.get(0).getId(), 3);
+        List<NoteRepository.NoteOwnerVersion> owners = noteRepository.findOwnerVersionsByIdIn(chunk);
+
+        // Assert
+        assertThat(chunk).containsExactly(notes.get(1).getId(), notes.get(2).getId(), notes.get(3).getId());
+        assertThat(owners).hasSize(3);
+        for (int i = 0; i < owners.size(); i++) {
+            NoteEntity n = notes.get(i + 1);
+            assertThat(owners.get(i).getId()).isEqualTo(n.getId());
+            assertThat(owners.get(i).getUserId()).isEqualTo(n.getUser().getId());
+            assertThat(owners.get(i).getVersion()).isEqualTo(n.getVersion());
+        }
+    }
+
+    /**
+     * Test {@link NoteRepository#findContentInfoByIdAndUserId(Long, Long)} and
+     * {@link NoteRepository#findContentSliceByIdAndUserIdAndVersion(Long, Long, Long, int, int)},
+     * the slices are cut in characters by the database.
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void findContentSliceByIdAndUserIdAndVersion_cutInCharacters() {
+        // Arrange
+        NoteEntity n = userNotes.values().iterator().next().iterator().next();
+        Long userId = n.getUser().getId();
+        n = noteRepository.findById(n.getId()).orElseThrow();
+        n.setContent("ñandú über café");
+        n = noteRepository.saveAndFlush(n);
+        Long version = n.getVersion();
+
+        // Act
+        PublicNoteContentInfoDTO info = noteRepository.findContentInfoByIdAndUserId(n.getId(), userId).orElseThrow();
+
+        // Assert
+        assertThat(info.getVersion()).isEqualTo(version);
+        assertThat(info.getLength()).isEqualTo(15);
+        assertThat(noteRepository.findContentSliceByIdAndUserIdAndVersion(n.getId(), userId, version, 1, 5)).contains("ñandú");
+        assertThat(noteRepository.findContentSliceByIdAndUserIdAndVersion(n.getId(), userId, version, 12, 100)).contains("café");
+        assertThat(noteRepository.findContentSliceByIdAndUserIdAndVersion(n.getId(), userId, version + 1, 1, 5)).isEmpty();
+        assertThat(noteRepository.findContentInfoByIdAndUserId(n.getId(), userId + 999)).isEmpty();
+    }
+
+    /**
+     * Test {@link NoteRepository#findPageByUserId(Long, Pageable, Set, Integer)} selects only
+     * the given columns and cuts the content in the database.
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void findPageByUserId_fieldsAndPreview_onlyTheSelectedColumns() {
+        // Arrange
+        UserEntity usr = userNotes.keySet().iterator().next();
+        Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.asc("title"))); // sorted by a non-selected column
+
+        // Act
+        List<PublicNoteDTO> titles = noteRepository.findPageByUserId(usr.getId(), pageable, EnumSet.of(ENoteField.ID, ENoteField.TITLE), null);
+        List<PublicNoteDTO> previews = noteRepository.findPageByUserId(usr.getId(), pageable, EnumSet.of(ENoteField.ID, ENoteField.CONTENT), 4);
+
+        // Assert
+        assertThat(titles).hasSize(3);
+        assertThat(titles).allSatisfy(n -> {
+            assertThat(n.getId()).isNotNull();
+            assertThat(n.getTitle()).startsWith("title");
+            assertThat(n.getContent()).isNull();
+            assertThat(n.getUpdatedAt()).isNull();
+            assertThat(n.getVersion()).isNull();
+        });
+        assertThat(titles.stream().map(PublicNoteDTO::getTitle)).isSortedAccordingTo(Comparator.naturalOrder());
+
+        assertThat(previews).hasSize(3);
+        assertThat(previews).allSatisfy(n -> {
+            assertThat(n.getContent()).isEqualTo("cont");
+            assertThat(n.getTitle()).isNull();
+        });
+        assertThat(previews.stream().map(PublicNoteDTO::getId)).containsExactlyElementsOf(titles.stream().map(PublicNoteDTO::getId).toList());
+    }
+
+    /**
+     * Test {@link NoteRepository#findVersionsByUserIdAndBucket(Long, int)}
+     * returns only the notes of the user in the leaf.
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void findVersionsByUserIdAndBucket_onlyHisNotesInTheLeaf() {
+        // Arrange
+        NoteEntity n = userNotes.values().iterator().next().iterator().next();
+        Long userId = n.getUser().getId();
+        int bucket = NoteDigestUtils.bucketOf(n.getId());
+        List<Long> expected = userNotes.get(n.getUser()).stream()
+                .map(NoteEntity::getId)
+                .filter(id -> NoteDigestUtils.bucketOf(id) == bucket)
+                .sorted()
+                .toList();
+
+        // Act
+        List<PublicNoteVersionDTO> versions = noteRepository.findVersionsByUserIdAndBucket(userId, bucket);
+
+        // Assert
+        assertThat(versions).extracting(PublicNoteVersionDTO::getId).containsExactlyElementsOf(expected);
+        assertThat(versions).extracting(PublicNoteVersionDTO::getVersion).containsOnly(0L);
+    }
+
     /**
      * Test {@link NoteRepository#findByUserId(Long, Pageable)} sorted by {@code title}
      * in ascending order.
@@ -0,0 +1,201 @@
+package org.cris6h16.apirestspringboot.Repositories;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.cris6h16.apirestspringboot.Entities.RoleEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test the Hibernate second-level cache of {@link UserEntity}, {@link RoleEntity} and {@link NoteEntity},
+ * using an embedded {@code H2} database.<br>
+ * Each step runs in its own committed transaction, like the requests of the app, then
+ * the reads of a step can only be served by the second-level cache or the database.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true") // off in prod, read by the assertions
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // commits are required to populate/evict the cache
+public class SecondLevelCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private NoteRepository noteRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cleanUp();
+
+        userId = tx.execute(s -> {
+            RoleEntity role = roleRepository.save(RoleEntity.builder().name(ERole.ROLE_USER).build());
+            return userRepository.save(UserEntity.builder()
+                    .username("cris6h16")
+                    .email("cris6h16@example.com")
+                    .password("12345678")
+                    .createdAt(new Date())
+                    .roles(new HashSet<>(Set.of(role)))
+                    .build()).getId();
+        });
+        statistics.clear();
+    }
+
+    @Test
+    void findById_secondRead_servedByTheCacheWithItsRoles() {
+        // Act
+        tx.executeWithoutResult(s -> userRepository.findById(userId).orElseThrow());
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+        UserEntity user = tx.execute(s -> {
+            UserEntity u = userRepository.findById(userId).orElseThrow();
+            u.getRoles().size();
+            return u;
+        });
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstRead);
+        assertThat(regionHits(UserEntity.class.getName())).isPositive();
+        assertThat(regionHits(UserEntity.class.getName() + ".roles")).isPositive();
+        assertThat(regionHits(RoleEntity.class.getName())).isPositive();
+        assertThat(user.getRoles()).extracting(RoleEntity::getName).containsExactly(ERole.ROLE_USER);
+    }
+
+    @Test
+    void deleteAllByIdInBatch_notes_evictsTheNotesRegionOnly() { // the chunks of the bulk deletions
+        // Arrange
+        Long noteId = saveNote("title");
+        tx.executeWithoutResult(s -> {
+            userRepository.findById(userId).orElseThrow();
+            noteRepository.findById(noteId).orElseThrow();
+        });
+
+        // Act
+        tx.executeWithoutResult(s -> noteRepository.deleteAllByIdInBatch(List.of(noteId)));
+        Optional<NoteEntity> note = tx.execute(s -> noteRepository.findById(noteId));
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(NoteEntity.class, noteId)).isFalse();
+        assertThat(note).isEmpty(); // not served by a stale entry
+        assertThat(entityManagerFactory.getCache().contains(UserEntity.class, userId)).isTrue();
+    }
+
+    @Test
+    void deleteAllByIdInBatch_users_evictsTheUsersButNotTheRoles() { // the purge and the bulk deletion of users
+        // Arrange
+        Long roleId = tx.execute(s -> {
+            UserEntity user = userRepository.findById(userId).orElseThrow();
+            return user.getRoles().iterator().next().getId();
+        });
+
+        // Act
+        tx.executeWithoutResult(s -> {
+            userRepository.deleteRolesByUserIdIn(List.of(userId));
+            userRepository.deleteAllByIdInBatch(List.of(userId));
+        });
+        Optional<UserEntity> user = tx.execute(s -> userRepository.findById(userId));
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(UserEntity.class, userId)).isFalse();
+        assertThat(user).isEmpty(); // not served by a stale entry
+        assertThat(entityManagerFactory.getCache().contains(RoleEntity.class, roleId)).isTrue(); // read-only, untouched by the deletions
+    }
+
+    @Test
+    void saveAndFlush_noteWrittenThroughTheEntity_keepsTheOtherNotes() {
+        // Arrange
+        Long noteId = saveNote("title");
+        Long otherId = saveNote("other");
+        tx.executeWithoutResult(s -> {
+            noteRepository.findById(noteId).orElseThrow();
+            noteRepository.findById(otherId).orElseThrow();
+        });
+
+        // Act
+        tx.executeWithoutResult(s -> {
+            NoteEntity note = noteRepository.findById(noteId).orElseThrow();
+            note.setTitle("new title");
+            noteRepository.saveAndFlush(note);
+        });
+        NoteEntity note = tx.execute(s -> noteRepository.findById(noteId).orElseThrow());
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(NoteEntity.class, otherId)).isTrue();
+        assertThat(note.getTitle()).isEqualTo("new title");
+        assertThat(note.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void deleteRolesByUserIdIn_nativeWithItsTable_keepsTheEntityRegions() {
+        // Arrange
+        Long noteId = saveNote("title");
+        tx.executeWithoutResult(s -> {
+            userRepository.findById(userId).orElseThrow();
+            noteRepository.findById(noteId).orElseThrow();
+        });
+
+        // Act
+        tx.executeWithoutResult(s -> userRepository.deleteRolesByUserIdIn(List.of(userId + 999)));
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(UserEntity.class, userId)).isTrue(); // without the hint every region is evicted
+        assertThat(entityManagerFactory.getCache().contains(NoteEntity.class, noteId)).isTrue();
+    }
+
+    @AfterEach
+    void cleanUp() { // the data is committed, then it would be seen by the other tests that share the database
+        tx.executeWithoutResult(s -> {
+            noteRepository.deleteAll();
+            userRepository.deleteAll();
+            roleRepository.deleteAll();
+        });
+        // the collection regions too ( evictAll() is only for the entities ), the regions are shared by every
+        // context of the tests ( same CacheManager ) and their ids start from 1 in each database
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private Long saveNote(String title) {
+        return tx.execute(s -> noteRepository.save(NoteEntity.builder()
+                .title(title)
+                .content("content")
+                .updatedAt(new Date())
+                .user(userRepository.getReferenceById(userId))
+                .build()).getId());
+    }
+
+    private long regionHits(String region) {
+        return statistics.getDomainDataRegionStatistics(region).getHitCount();
+    }
+}
@@ -11,13 +11,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Constrains.EMAIL_UNIQUE_NAME;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Constrains.USERNAME_UNIQUE_NAME;
 
 /**
  * Test class for {@link UserRepository}.<br>
@@ -98,126 +107,176 @@ public class UserRepositoryTest {
 
 
     /**
-     * Test {@link UserRepository#updateEmailById(String, Long)}.<br>
+     * Test {@link UserRepository#existsByUsername(String)}.<br>
      *
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
     @Test
-    void updateEmailById() {
+    void existsByUsername() {
+        boolean result = userRepository.existsByUsername(this.usr.getUsername());
+        assertThat(result).isFalse();
+
+        userRepository.saveAndFlush(this.usr);
+
+        result = userRepository.existsByUsername(this.usr.getUsername());
+        assertThat(result).isTrue();
+    }
+
+    /**
+     * Test {@link UserRepository#existsByEmail(String)}.<br>
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void existsByEmail() {
         // Arrange
-        String newEmail = "updated@example.com";
-        assertThat(this.usr.getId()).isNull();
-        assertThat(this.usr.getEmail()).isNotEqualTo(newEmail);
-        usr = userRepository.saveAndFlush(this.usr);
+        boolean result = userRepository.existsByEmail(this.usr.getEmail());
+        assertThat(result).isFalse();
 
         // Act
-        userRepository.updateEmailById(newEmail, this.usr.getId());
-        userRepository.flush();
+        userRepository.saveAndFlush(this.usr);
 
         // Assert
-        UserEntity result = userRepository.findById(this.usr.getId()).orElse(null);
-
-        assertThat(result)
-                .isNotNull()
-                .hasFieldOrPropertyWithValue("email", newEmail)
-                .hasFieldOrPropertyWithValue("username", this.usr.getUsername())
-                .hasFieldOrPropertyWithValue("password", this.usr.getPassword());
-        assertThat(result.getUpdatedAt())
-                .isBeforeOrEqualTo(new Date());
+        result = userRepository.existsByEmail(this.usr.getEmail());
+        assertThat(result).isTrue();
     }
 
     /**
-     * Test {@link UserRepository#updateUsernameById(String, Long)}.<br>
+     * Test {@link UserRepository#findUsernamesIn(Collection)} and {@link UserRepository#findEmailsIn(Collection)}.<br>
      *
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
     @Test
-    void updateUsernameById() {
+    void findUsernamesInAndFindEmailsIn_OnlyTheExistentOnes() {
         // Arrange
-        String newUsername = "cristianmherrera21";
         userRepository.saveAndFlush(this.usr);
-        assertThat(this.usr.getUsername()).isNotEqualTo(newUsername);
 
         // Act
-        userRepository.updateUsernameById(newUsername, this.usr.getId());
+        Set<String> usernames = userRepository.findUsernamesIn(List.of(this.usr.getUsername(), "nonexistent"));
+        Set<String> emails = userRepository.findEmailsIn(List.of("nonexistent@example.com", this.usr.getEmail()));
 
         // Assert
-        UserEntity result = userRepository.findById(this.usr.getId()).orElse(null);
-        assertThat(result)
-                .isNotNull()
-                .hasFieldOrPropertyWithValue("email", this.usr.getEmail())
-                .hasFieldOrPropertyWithValue("username", newUsername)
-                .hasFieldOrPropertyWithValue("password", this.usr.getPassword());
-        assertThat(result.getUpdatedAt())
-                .isBeforeOrEqualTo(new Date());
+        assertThat(usernames).containsExactly(this.usr.getUsername());
+        assertThat(emails).containsExactly(this.usr.getEmail());
     }
 
 
     /**
-     * Test {@link UserRepository#updatePasswordById(String, Long)}.<br>
+     * Test the queries of the live users after a soft deletion ( {@code deleted_at} and {@code deletion_key} set ).<br>
      *
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
     @Test
-    void updatePasswordById() {
+    void softDeleted_ThenHiddenFromTheLiveQueries() {
         // Arrange
-        String newPassword = "87654321";
-        userRepository.saveAndFlush(this.usr);
-        assertThat(this.usr.getPassword()).isNotEqualTo(newPassword);
+        Long id = userRepository.saveAndFlush(this.usr).getId();
 
         // Act
-        userRepository.updatePasswordById(newPassword, this.usr.getId());
+        softDelete(id);
 
         // Assert
-        UserEntity result = userRepository.findById(this.usr.getId()).orElse(null);
-        assertThat(result)
-                .isNotNull()
-                .hasFieldOrPropertyWithValue("email", this.usr.getEmail())
-                .hasFieldOrPropertyWithValue("username", this.usr.getUsername())
-                .hasFieldOrPropertyWithValue("password", newPassword);
-        assertThat(result.getUpdatedAt())
-                .isBeforeOrEqualTo(new Date());
+        assertThat(userRepository.findById(id)).get().extracting(UserEntity::getDeletedAt).isNotNull(); // still there until purged
+        assertThat(userRepository.existsByUsername(this.usr.getUsername())).isFalse();
+        assertThat(userRepository.existsByEmail(this.usr.getEmail())).isFalse();
+        assertThat(userRepository.findUsernamesIn(List.of(this.usr.getUsername()))).isEmpty();
+        assertThat(userRepository.findPageRows(PageRequest.of(0, 10))).isEmpty();
+        assertThat(userRepository.countByDeletedAtIsNull()).isZero();
+        assertThat(userRepository.findDeletedIdsAfter(0L, Limit.of(10))).containsExactly(id);
     }
 
+    /**
+     * Test {@link UserRepository#findByUsername(String)} when the username was taken again after a deletion.<br>
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void findByUsername_LiveUserBeforeTheDeletedOnes() {
+        // Arrange
+        UserEntity deleted = userRepository.saveAndFlush(this.usr);
+        softDelete(deleted.getId());
+        assertThat(userRepository.findByUsername(this.usr.getUsername()))
+                .get().extracting(UserEntity::getDeletedAt).isNotNull(); // the authentication reports it as disabled
+
+        UserEntity live = userRepository.saveAndFlush(UserEntity.builder()
+                .username(this.usr.getUsername())
+                .password("87654321")
+                .email(this.usr.getEmail())
+                .roles(new HashSet<>(roleRepository.findAll()))
+                .createdAt(new Date())
+                .build());
+
+        // Act
+        Optional<UserEntity> result = userRepository.findByUsername(this.usr.getUsername());
+
+        // Assert
+        assertThat(result).get().extracting(UserEntity::getId).isEqualTo(live.getId());
+    }
 
     /**
-     * Test {@link UserRepository#existsByUsername(String)}.<br>
+     * Test the unique constraints of {@code username} and {@code email} among the live users.<br>
      *
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
     @Test
-    void existsByUsername() {
-        boolean result = userRepository.existsByUsername(this.usr.getUsername());
-        assertThat(result).isFalse();
+    void saveAndFlush_UsernameOfALiveUser_ThenUniqueViolation() {
+        // Arrange
+        userRepository.saveAndFlush(this.usr);
+        UserEntity duplicated = copyOf(this.usr);
+        duplicated.setEmail("other" + this.usr.getEmail());
 
+        // Act & Assert
+        assertThatThrownBy(() -> userRepository.saveAndFlush(duplicated))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .rootCause().message().containsIgnoringCase(USERNAME_UNIQUE_NAME);
+    }
+
+    /**
+     * Test the unique constraints of {@code username} and {@code email} among the live users.<br>
+     *
+     * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+     * @since 1.0
+     */
+    @Test
+    void saveAndFlush_EmailOfALiveUser_ThenUniqueViolation() {
+        // Arrange
         userRepository.saveAndFlush(this.usr);
+        UserEntity duplicated = copyOf(this.usr);
+        duplicated.setUsername("other" + this.usr.getUsername());
 
-        result = userRepository.existsByUsername(this.usr.getUsername());
-        assertThat(result).isTrue();
+        // Act & Assert
+        assertThatThrownBy(() -> userRepository.saveAndFlush(duplicated))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .rootCause().message().containsIgnoringCase(EMAIL_UNIQUE_NAME);
     }
 
     /**
-     * Test {@link UserRepository#existsByEmail(String)}.<br>
+     * Test the unique constraints of {@code username} and {@code email} when a user was deleted twice with the
+     * same names: the deleted ones never collide.<br>
      *
      * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
      * @since 1.0
      */
     @Test
-    void existsByEmail() {
+    void saveAndFlush_NamesOfDeletedUsers_ThenSaved() {
         // Arrange
-        boolean result = userRepository.existsByEmail(this.usr.getEmail());
-        assertThat(result).isFalse();
+        Long first = userRepository.saveAndFlush(this.usr).getId();
+        softDelete(first);
+        Long second = userRepository.saveAndFlush(copyOf(this.usr)).getId();
+        softDelete(second);
 
         // Act
-        userRepository.saveAndFlush(this.usr);
+        UserEntity live = userRepository.saveAndFlush(copyOf(this.usr));
 
         // Assert
-        result = userRepository.existsByEmail(this.usr.getEmail());
-        assertThat(result).isTrue();
+        assertThat(live.getId()).isNotIn(first, second);
+        assertThat(userRepository.findById(first)).get().extracting(UserEntity::getDeletionKey).isEqualTo(first);
+        assertThat(live.getDeletionKey()).isZero();
     }
 
 
@@ -239,4 +298,24 @@ public class UserRepositoryTest {
                 .build();
     }
 
+    /**
+     * As {@code UserServiceImpl#deleteById}
+     */
+    private void softDelete(Long id) {
+        UserEntity user = userRepository.findById(id).orElseThrow();
+        user.setDeletedAt(new Date());
+        user.setDeletionKey(id);
+        userRepository.flush();
+    }
+
+    private UserEntity copyOf(UserEntity user) {
+        return UserEntity.builder()
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .email(user.getEmail())
+                .roles(new HashSet<>(roleRepository.findAll()))
+                .createdAt(new Date())
+                .build();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,342 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import org.cris6h16.apirestspringboot.Entities.BulkDeletionJobEntity;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionStatus;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.BulkDeletionService.BulkDeletionJobNotFoundException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.BulkDeletionJobRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository.NoteOwnerVersion;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteCounterService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteDigestService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteSyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.CHUNK_SIZE;
+import static org.cris6h16.apirestspringboot.Constants.Cons.BulkDeletion.RUNNING_TARGET_UNIQUE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkDeletionServiceImplTest {
+
+    @Mock
+    BulkDeletionJobRepository bulkDeletionJobRepository;
+
+    @Mock
+    NoteRepository noteRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    NoteDigestService noteDigestService;
+
+    @Mock
+    NoteCounterService noteCounterService;
+
+    @Mock
+    NoteSyncService noteSyncService;
+
+    @Mock
+    TaskExecutor taskExecutor;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    BulkDeletionServiceImpl bulkDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        bulkDeletionService = new BulkDeletionServiceImpl(bulkDeletionJobRepository, noteRepository, userRepository,
+                noteDigestService, noteCounterService, noteSyncService, taskExecutor, transactionManager);
+    }
+
+    @Test
+    @Tag("start")
+    void start_RunningJobOfTheTarget_ThenJoinedAndSubmitted() {
+        // Arrange
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.NOTES, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+
+        // Act
+        var dto = bulkDeletionService.start(EBulkDeletionTarget.NOTES);
+
+        // Assert
+        assertThat(dto.getId()).isEqualTo(7L);
+        verify(bulkDeletionJobRepository, never()).save(any());
+        verify(taskExecutor).execute(any());
+        verify(noteRepository, never()).lockIdsAfter(any(), anyInt()); // not in the caller thread
+    }
+
+    @Test
+    @Tag("start")
+    void start_CreatedByAConcurrentStart_ThenJoined() {
+        // Arrange
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.NOTES, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.empty(), Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+        when(bulkDeletionJobRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException(RUNNING_TARGET_UNIQUE_NAME));
+
+        // Act
+        var dto = bulkDeletionService.start(EBulkDeletionTarget.NOTES);
+
+        // Assert
+        assertThat(dto.getId()).isEqualTo(7L);
+        verify(bulkDeletionJobRepository).saveAndFlush(argThat(j -> j.getRunningTarget() == EBulkDeletionTarget.NOTES));
+        verify(taskExecutor).execute(any());
+    }
+
+    @Test
+    @Tag("run")
+    void run_Notes_ChunksOrderedByIdWithTheTombstonesDigestsAndCountersOfEachChunk() {
+        // Arrange
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.NOTES, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.empty());
+        when(noteRepository.count()).thenReturn(3L);
+        when(bulkDeletionJobRepository.saveAndFlush(any())).thenAnswer(inv -> {
+            BulkDeletionJobEntity j = inv.getArgument(0);
+            j.setId(7L);
+            return j;
+        });
+        when(bulkDeletionJobRepository.lockLastIdIfRunning(7L)).thenReturn(Optional.of(0L), Optional.of(20L), Optional.of(30L));
+        when(noteRepository.lockIdsAfter(0L, CHUNK_SIZE)).thenReturn(List.of(10L, 20L));
+        when(noteRepository.lockIdsAfter(20L, CHUNK_SIZE)).thenReturn(List.of(30L));
+        when(noteRepository.lockIdsAfter(30L, CHUNK_SIZE)).thenReturn(List.of());
+        List<NoteOwnerVersion> first = List.of(owner(10L, 2L, 0L), owner(20L, 1L, 3L));
+        List<NoteOwnerVersion> second = List.of(owner(30L, 1L, 1L));
+        when(noteRepository.findOwnerVersionsByIdIn(List.of(10L, 20L))).thenReturn(first);
+        when(noteRepository.findOwnerVersionsByIdIn(List.of(30L))).thenReturn(second);
+        when(bulkDeletionJobRepository.findById(7L)).thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+
+        // Act
+        bulkDeletionService.run(EBulkDeletionTarget.NOTES);
+
+        // Assert
+        verify(bulkDeletionJobRepository).saveAndFlush(argThat(j -> j.getTotal() == 3L && j.getLastId() == 0L &&
+                j.getStatus() == EBulkDeletionStatus.RUNNING));
+        InOrder inOrder = inOrder(noteRepository, userRepository, noteSyncService, noteDigestService, noteCounterService, bulkDeletionJobRepository);
+        inOrder.verify(userRepository).lockByIdIn(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L)))); // the users in id order
+        inOrder.verify(noteSyncService).recordDeletes(List.of(10L, 20L)); // a call per chunk, not per note
+        inOrder.verify(noteCounterService).subtractNotes(List.of(10L, 20L));
+        inOrder.verify(noteDigestService).recordDeletes(first);
+        inOrder.verify(noteRepository).deleteAllByIdInBatch(List.of(10L, 20L));
+        inOrder.verify(bulkDeletionJobRepository).advance(eq(7L), eq(20L), eq(2L), any());
+        inOrder.verify(noteSyncService).recordDeletes(List.of(30L));
+        inOrder.verify(noteCounterService).subtractNotes(List.of(30L));
+        inOrder.verify(noteDigestService).recordDeletes(second);
+        inOrder.verify(noteRepository).deleteAllByIdInBatch(List.of(30L));
+        inOrder.verify(bulkDeletionJobRepository).advance(eq(7L), eq(30L), eq(1L), any());
+        inOrder.verify(bulkDeletionJobRepository).finish(eq(7L), eq(EBulkDeletionStatus.COMPLETED), any());
+        verify(noteRepository, never()).deleteAll();
+        verify(noteSyncService, never()).recordDelete(any(), any());
+        verify(transactionManager, times(4)).getTransaction(any()); // creation + a transaction per chunk ( the calls of the services join it )
+    }
+
+    @Test
+    @Tag("run")
+    void run_Users_TheNotesOfTheChunkInChunksThenItsUsersInOneStatement() {
+        // Arrange
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.USERS, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.of(job(8L, EBulkDeletionTarget.USERS)));
+        when(bulkDeletionJobRepository.lockLastIdIfRunning(8L)).thenReturn(Optional.of(0L), Optional.of(0L), Optional.of(2L));
+        when(userRepository.findIdsAfter(0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(2L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L, 2L), 0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of(10L, 20L));
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L, 2L), 20L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(userRepository.lockByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(bulkDeletionJobRepository.findById(8L)).thenReturn(Optional.of(job(8L, EBulkDeletionTarget.USERS)));
+
+        // Act
+        bulkDeletionService.run(EBulkDeletionTarget.USERS);
+
+        // Assert
+        InOrder inOrder = inOrder(userRepository, noteRepository, bulkDeletionJobRepository);
+        inOrder.verify(noteRepository).deleteAllByIdInBatch(List.of(10L, 20L));
+        inOrder.verify(userRepository).lockByIdIn(List.of(1L, 2L));
+        inOrder.verify(noteRepository).deleteByUserIdIn(List.of(1L, 2L)); // created meanwhile
+        inOrder.verify(userRepository).deleteRolesByUserIdIn(List.of(1L, 2L));
+        inOrder.verify(userRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(bulkDeletionJobRepository).advance(eq(8L), eq(2L), eq(2L), any());
+        inOrder.verify(bulkDeletionJobRepository).finish(eq(8L), eq(EBulkDeletionStatus.COMPLETED), any());
+        verify(userRepository, times(1)).deleteAllByIdInBatch(any()); // not a statement ( and an eviction of the region ) per user
+    }
+
+    @Test
+    @Tag("run")
+    void run_UsersDeletedMeanwhile_ThenSkippedAndTheChunkAdvancedOnce() {
+        // Arrange
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.USERS, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.of(job(8L, EBulkDeletionTarget.USERS)));
+        when(bulkDeletionJobRepository.lockLastIdIfRunning(8L)).thenReturn(Optional.of(0L), Optional.of(2L), Optional.of(2L)); // advanced by another worker
+        when(userRepository.findIdsAfter(0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findIdsAfter(2L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L, 2L), 0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(userRepository.lockByIdIn(List.of(1L, 2L))).thenReturn(List.of());
+        when(bulkDeletionJobRepository.findById(8L)).thenReturn(Optional.of(job(8L, EBulkDeletionTarget.USERS)));
+
+        // Act
+        bulkDeletionService.run(EBulkDeletionTarget.USERS);
+
+        // Assert
+        verify(userRepository, never()).deleteAllByIdInBatch(any());
+        verify(bulkDeletionJobRepository, never()).advance(any(), any(), anyLong(), any());
+        verify(bulkDeletionJobRepository).finish(eq(8L), eq(EBulkDeletionStatus.COMPLETED), any());
+    }
+
+    @Test
+    @Tag("run")
+    void run_ChunkFails_ThenFailedWithTheDeletedChunksKept() {
+        // Arrange
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.NOTES, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+        when(bulkDeletionJobRepository.lockLastIdIfRunning(7L)).thenReturn(Optional.of(0L), Optional.of(10L));
+        when(noteRepository.lockIdsAfter(0L, CHUNK_SIZE)).thenReturn(List.of(10L));
+        when(noteRepository.findOwnerVersionsByIdIn(List.of(10L))).thenReturn(List.of(owner(10L, 1L, 0L)));
+        when(noteRepository.lockIdsAfter(10L, CHUNK_SIZE)).thenThrow(new QueryTimeoutException("timeout"));
+        when(bulkDeletionJobRepository.findById(7L)).thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+
+        // Act
+        bulkDeletionService.run(EBulkDeletionTarget.NOTES);
+
+        // Assert
+        verify(bulkDeletionJobRepository).advance(eq(7L), eq(10L), eq(1L), any());
+        verify(bulkDeletionJobRepository).finish(eq(7L), eq(EBulkDeletionStatus.FAILED), any());
+        verify(bulkDeletionJobRepository, never()).finish(eq(7L), eq(EBulkDeletionStatus.COMPLETED), any());
+    }
+
+    @Test
+    @Tag("run")
+    void run_FinishedByAnotherWorker_ThenNothingDeleted() {
+        when(bulkDeletionJobRepository.findFirstByTargetAndStatus(EBulkDeletionTarget.NOTES, EBulkDeletionStatus.RUNNING))
+                .thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+        when(bulkDeletionJobRepository.lockLastIdIfRunning(7L)).thenReturn(Optional.empty());
+        when(bulkDeletionJobRepository.findById(7L)).thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+
+        bulkDeletionService.run(EBulkDeletionTarget.NOTES);
+
+        verify(noteRepository, never()).lockIdsAfter(any(), anyInt());
+        verify(bulkDeletionJobRepository, never()).finish(any(), any(), any());
+    }
+
+    @Test
+    @Tag("deleteUser")
+    void deleteUser_NotesInChunksThenTheUserWithoutLoadingThem() {
+        // Arrange
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L), 0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of(10L, 20L));
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L), 20L, Limit.of(CHUNK_SIZE))).thenReturn(List.of(30L));
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L), 30L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(userRepository.lockByIdIn(List.of(1L))).thenReturn(List.of(1L));
+
+        // Act
+        bulkDeletionService.deleteUser(1L);
+
+        // Assert
+        InOrder inOrder = inOrder(noteRepository, userRepository);
+        inOrder.verify(noteRepository).deleteAllByIdInBatch(List.of(10L, 20L));
+        inOrder.verify(noteRepository).deleteAllByIdInBatch(List.of(30L));
+        inOrder.verify(userRepository).lockByIdIn(List.of(1L));
+        inOrder.verify(noteRepository).deleteByUserIdIn(List.of(1L));
+        inOrder.verify(userRepository).deleteRolesByUserIdIn(List.of(1L));
+        inOrder.verify(userRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(userRepository, never()).deleteById(any());
+        verify(transactionManager, times(4)).getTransaction(any()); // a transaction per chunk + the last one
+    }
+
+    @Test
+    @Tag("deleteUser")
+    void deleteUser_DeletedMeanwhile_ThenUserNotFoundException() {
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L), 0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(userRepository.lockByIdIn(List.of(1L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> bulkDeletionService.deleteUser(1L))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(userRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @Tag("purgeDeletedUsers")
+    void purgeDeletedUsers_ChunksOfDeletedUsers_SkippingTheAlreadyPurged() {
+        // Arrange
+        when(userRepository.findDeletedIdsAfter(0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of(1L, 2L));
+        when(userRepository.findDeletedIdsAfter(2L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(noteRepository.findIdsByUserIdInAfter(List.of(1L, 2L), 0L, Limit.of(CHUNK_SIZE))).thenReturn(List.of());
+        when(userRepository.lockByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L)); // 2 purged by another instance
+
+        // Act
+        int purged = bulkDeletionService.purgeDeletedUsers();
+
+        // Assert
+        assertThat(purged).isEqualTo(1);
+        verify(userRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(userRepository, times(1)).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @Tag("resumeRunning")
+    void resumeRunning_SubmittedEachInterruptedJob() {
+        when(bulkDeletionJobRepository.findIdsByStatus(EBulkDeletionStatus.RUNNING)).thenReturn(List.of(7L, 8L));
+        when(bulkDeletionJobRepository.findById(7L)).thenReturn(Optional.of(job(7L, EBulkDeletionTarget.NOTES)));
+        when(bulkDeletionJobRepository.findById(8L)).thenReturn(Optional.of(job(8L, EBulkDeletionTarget.USERS)));
+
+        assertThat(bulkDeletionService.resumeRunning()).isEqualTo(2);
+        verify(taskExecutor, times(2)).execute(any());
+    }
+
+    @Test
+    @Tag("getById")
+    void getById_NotFound_ThenBulkDeletionJobNotFoundException() {
+        when(bulkDeletionJobRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> bulkDeletionService.getById(9L))
+                .isInstanceOf(BulkDeletionJobNotFoundException.class);
+    }
+
+    private NoteOwnerVersion owner(Long id, Long userId, Long version) {
+        return new NoteOwnerVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private BulkDeletionJobEntity job(Long id, EBulkDeletionTarget target) {
+        return BulkDeletionJobEntity.builder()
+                .id(id)
+                .target(target)
+                .status(EBulkDeletionStatus.RUNNING)
+                .lastId(0L)
+                .deleted(0L)
+                .total(0L)
+                .build();
+    }
+}
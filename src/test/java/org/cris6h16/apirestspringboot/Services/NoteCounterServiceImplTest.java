@@ -0,0 +1,127 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import org.cris6h16.apirestspringboot.Entities.NoteCounterEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.NoteCounterRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteCounterServiceImplTest {
+
+    @Mock
+    NoteCounterRepository noteCounterRepository;
+
+    @Mock
+    NoteRepository noteRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    NoteCounterServiceImpl noteCounterService;
+
+    @BeforeEach
+    void setUp() {
+        noteCounterService = new NoteCounterServiceImpl(noteCounterRepository, noteRepository, userRepository, transactionManager);
+    }
+
+    @Test
+    @Tag("add")
+    void add_ExistentCounter_OnlyTheDelta() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteCounterRepository.addByUserId(1L, -1)).thenReturn(1);
+
+        // Act
+        noteCounterService.add(1L, -1);
+
+        // Assert
+        verify(noteCounterRepository, never()).save(any());
+        verify(noteRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    @Tag("add")
+    void add_FirstCountedWrite_CountedFromTheNotes() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteCounterRepository.addByUserId(1L, 1)).thenReturn(0);
+        when(noteRepository.countByUserId(1L)).thenReturn(4L); // 3 from before the counters + the new one
+        when(userRepository.getReferenceById(1L)).thenReturn(UserEntity.builder().id(1L).build());
+
+        // Act
+        noteCounterService.add(1L, 1);
+
+        // Assert
+        verify(noteCounterRepository).save(argThat(c -> c.getNoteCount() == 4L && c.getUser().getId() == 1L));
+    }
+
+    @Test
+    @Tag("add")
+    void add_UserNotFound_ThenUserNotFoundException() {
+        when(userRepository.lockById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> noteCounterService.add(1L, 1))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(noteCounterRepository, never()).addByUserId(any(), anyLong());
+    }
+
+    @Test
+    @Tag("getCounts")
+    void getCounts_WithoutCounter_ThenZero() {
+        when(noteCounterRepository.findByUserIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                NoteCounterEntity.builder().userId(1L).noteCount(9L).build()
+        ));
+
+        assertThat(noteCounterService.getCounts(List.of(1L, 2L)))
+                .containsEntry(1L, 9L)
+                .containsEntry(2L, 0L);
+    }
+
+    @Test
+    @Tag("reconcile")
+    void reconcile_RecountedHoldingTheLock_OnlyTheDrifted() {
+        // Arrange
+        when(noteCounterRepository.findDriftedUserIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L)); // wrong counter
+        when(noteRepository.countByUserId(1L)).thenReturn(5L);
+        when(noteCounterRepository.findNoteCountByUserId(1L)).thenReturn(Optional.of(7L));
+        when(userRepository.lockById(2L)).thenReturn(Optional.of(2L)); // missing counter
+        when(noteRepository.countByUserId(2L)).thenReturn(3L);
+        when(noteCounterRepository.findNoteCountByUserId(2L)).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(2L)).thenReturn(UserEntity.builder().id(2L).build());
+        when(userRepository.lockById(3L)).thenReturn(Optional.of(3L)); // a write was in flight, already right
+        when(noteRepository.countByUserId(3L)).thenReturn(1L);
+        when(noteCounterRepository.findNoteCountByUserId(3L)).thenReturn(Optional.of(1L));
+        when(userRepository.lockById(4L)).thenReturn(Optional.empty()); // deleted meanwhile
+
+        // Act
+        int repaired = noteCounterService.reconcile();
+
+        // Assert
+        assertThat(repaired).isEqualTo(2);
+        verify(noteCounterRepository).setByUserId(1L, 5L);
+        verify(noteCounterRepository).save(argThat(c -> c.getNoteCount() == 3L && c.getUser().getId() == 2L));
+        verify(noteCounterRepository, never()).setByUserId(eq(3L), anyLong());
+        verify(transactionManager, times(4)).getTransaction(any()); // a transaction per user
+    }
+}
@@ -0,0 +1,229 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDigestDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteVersionDTO;
+import org.cris6h16.apirestspringboot.Entities.NoteDigestEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidDigestPathException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.NoteDigestRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository.NoteOwnerVersion;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cris6h16.apirestspringboot.Utils.NoteDigestUtils.noteHash;
+import static org.cris6h16.apirestspringboot.Utils.NoteDigestUtils.toHex;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteDigestServiceImplTest {
+
+    @Mock
+    NoteDigestRepository noteDigestRepository;
+
+    @Mock
+    NoteRepository noteRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @InjectMocks
+    NoteDigestServiceImpl noteDigestService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(noteDigestRepository, noteRepository, userRepository);
+    }
+
+    @Test
+    @Tag("recordUpsert")
+    void recordUpsert_Created_InsertsTheLeaf() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteDigestRepository.findByUserIdAndBucket(1L, 10)).thenReturn(Optional.empty());
+
+        // Act
+        noteDigestService.recordUpsert(1L, 10L, null, 0L);
+
+        // Assert
+        verify(noteDigestRepository).save(argThat(d -> d.getBucket() == 10 && d.getHash() == noteHash(10L, 0L)));
+    }
+
+    @Test
+    @Tag("recordUpsert")
+    void recordUpsert_Updated_ReplacesTheOldHash() {
+        // Arrange
+        long other = noteHash(4106L, 5L); // same leaf
+        NoteDigestEntity leaf = NoteDigestEntity.builder().bucket(10).hash(other ^ noteHash(10L, 0L)).build();
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteDigestRepository.findByUserIdAndBucket(1L, 10)).thenReturn(Optional.of(leaf));
+
+        // Act
+        noteDigestService.recordUpsert(1L, 10L, 0L, 1L);
+
+        // Assert
+        assertThat(leaf.getHash()).isEqualTo(other ^ noteHash(10L, 1L));
+        verify(noteDigestRepository, never()).save(any());
+    }
+
+    @Test
+    @Tag("recordDelete")
+    void recordDelete_RemovesTheHash() {
+        // Arrange
+        long other = noteHash(4106L, 5L);
+        NoteDigestEntity leaf = NoteDigestEntity.builder().bucket(10).hash(other ^ noteHash(10L, 3L)).build();
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteDigestRepository.findByUserIdAndBucket(1L, 10)).thenReturn(Optional.of(leaf));
+
+        // Act
+        noteDigestService.recordDelete(1L, 10L, 3L);
+
+        // Assert
+        assertThat(leaf.getHash()).isEqualTo(other);
+    }
+
+    @Test
+    @Tag("recordDeletes")
+    void recordDeletes_EachLeafReadAndWrittenOnceForAllItsNotes() {
+        // Arrange
+        long other = noteHash(8202L, 1L); // same leaf
+        NoteDigestEntity leaf = NoteDigestEntity.builder().bucket(10).hash(other ^ noteHash(10L, 3L) ^ noteHash(4106L, 5L))
+                .user(UserEntity.builder().id(1L).build()).build();
+        NoteDigestEntity otherUser = NoteDigestEntity.builder().bucket(10).hash(7L)
+                .user(UserEntity.builder().id(2L).build()).build(); // in the superset returned, not deleted
+        when(noteDigestRepository.findByUserIdInAndBucketIn(Set.of(1L, 2L), Set.of(10, 11))).thenReturn(List.of(leaf, otherUser));
+        when(userRepository.getReferenceById(2L)).thenReturn(UserEntity.builder().id(2L).build());
+
+        // Act
+        noteDigestService.recordDeletes(List.of(owner(10L, 1L, 3L), owner(4106L, 1L, 5L), owner(11L, 2L, 0L)));
+
+        // Assert
+        assertThat(leaf.getHash()).isEqualTo(other);
+        assertThat(otherUser.getHash()).isEqualTo(7L);
+        verify(noteDigestRepository).saveAll(argThat(created -> created.iterator().next().getBucket() == 11 &&
+                created.iterator().next().getHash() == noteHash(11L, 0L)));
+        verify(userRepository, never()).lockById(any()); // held by the caller
+        verify(noteDigestRepository, never()).findByUserIdAndBucket(anyLong(), anyInt());
+    }
+
+    @Test
+    @Tag("recordUpsert")
+    void recordUpsert_UserNotFound_Throws() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteDigestService.recordUpsert(1L, 10L, null, 0L))
+                .isInstanceOf(UserNotFoundException.class);
+        verify(noteDigestRepository, never()).findByUserIdAndBucket(anyLong(), anyInt());
+    }
+
+    @Test
+    @Tag("getDigest")
+    void getDigest_Root_ChildrenAreTheXorOfTheirLeaves() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(noteDigestRepository.findByUserIdAndBucketBetween(1L, 0, Cons.Note.Digest.LEAVES - 1)).thenReturn(List.of(
+                NoteDigestEntity.builder().bucket(0x001).hash(0x1L).build(),
+                NoteDigestEntity.builder().bucket(0x0ff).hash(0x2L).build(),
+                NoteDigestEntity.builder().bucket(0xa00).hash(0x4L).build()
+        ));
+
+        // Act
+        PublicNoteDigestDTO dto = noteDigestService.getDigest(1L, "");
+
+        // Assert
+        assertThat(dto.getPath()).isEmpty();
+        assertThat(dto.getHash()).isEqualTo(toHex(0x7L));
+        assertThat(dto.getChildren()).hasSize(16);
+        assertThat(dto.getChildren().get(0)).isEqualTo(toHex(0x3L));
+        assertThat(dto.getChildren().get(0xa)).isEqualTo(toHex(0x4L));
+        assertThat(dto.getChildren().get(1)).isEqualTo(toHex(0L));
+        assertThat(dto.getNotes()).isNull();
+    }
+
+    @Test
+    @Tag("getDigest")
+    void getDigest_InnerNode_QueriesOnlyItsLeaves() {
+        // Arrange
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(noteDigestRepository.findByUserIdAndBucketBetween(1L, 0xa30, 0xa3f)).thenReturn(List.of(
+                NoteDigestEntity.builder().bucket(0xa3f).hash(0x8L).build()
+        ));
+
+        // Act
+        PublicNoteDigestDTO dto = noteDigestService.getDigest(1L, "A3");
+
+        // Assert
+        assertThat(dto.getPath()).isEqualTo("a3");
+        assertThat(dto.getHash()).isEqualTo(toHex(0x8L));
+        assertThat(dto.getChildren().get(0xf)).isEqualTo(toHex(0x8L));
+    }
+
+    @Test
+    @Tag("getDigest")
+    void getDigest_Leaf_ReturnsTheNotes() {
+        // Arrange
+        List<PublicNoteVersionDTO> notes = List.of(new PublicNoteVersionDTO(0xa3L, 2L));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(noteDigestRepository.findByUserIdAndBucketBetween(1L, 0xa3, 0xa3)).thenReturn(List.of(
+                NoteDigestEntity.builder().bucket(0xa3).hash(noteHash(0xa3L, 2L)).build()
+        ));
+        when(noteRepository.findVersionsByUserIdAndBucket(1L, 0xa3)).thenReturn(notes);
+
+        // Act
+        PublicNoteDigestDTO dto = noteDigestService.getDigest(1L, "0a3");
+
+        // Assert
+        assertThat(dto.getHash()).isEqualTo(toHex(noteHash(0xa3L, 2L)));
+        assertThat(dto.getChildren()).isNull();
+        assertThat(dto.getNotes()).isEqualTo(notes);
+    }
+
+    @Test
+    @Tag("getDigest")
+    void getDigest_InvalidPath_Throws() {
+        assertThatThrownBy(() -> noteDigestService.getDigest(1L, "0a3f"))
+                .isInstanceOf(InvalidDigestPathException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.Note.Digest.DIGEST_PATH_INVALID_MSG)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        verify(noteDigestRepository, never()).findByUserIdAndBucketBetween(any(), any(), any());
+    }
+
+    private NoteOwnerVersion owner(Long id, Long userId, Long version) {
+        return new NoteOwnerVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cris6h16.apirestspringboot.Config.QueryCount.QueryCount;
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditNoteContentDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditOperationDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cris6h16.apirestspringboot.Config.QueryCount.QueryCountAssertions.assertStatements;
+import static org.cris6h16.apirestspringboot.Config.QueryCount.QueryCountAssertions.count;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Note.Edit.OP_INSERT;
+
+/**
+ * Lock the statements of each method of {@link NoteServiceImpl} against an embedded {@code H2} database,
+ * a change that adds a statement ( or a statement per note ) fails here.<br>
+ * Each call runs in its own transaction as in a request, with the second-level cache evicted before it
+ * ( the counts of a cold cache ).
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@SpringBootTest(properties = "query-count.statement-budget=5") // any property, not the context of ApiRestSpringBootApplicationTests ( it closes the shared caches )
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Tag("UnitTest")
+public class NoteServiceImplStatementsTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final int NOTES = 5;
+
+    @Autowired
+    private NoteService noteService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+    private List<Long> noteIds;
+
+    @BeforeEach
+    void setUp() {
+        String username = "notestmts" + USERS.incrementAndGet(); // the context is shared, a user per test
+        userId = userService.create(new CreateUserDTO(username, "12345678", username + "@example.com"), ERole.ROLE_USER);
+        noteIds = new ArrayList<>(NOTES);
+        for (int i = 0; i < NOTES; i++) {
+            noteIds.add(noteService.create(new CreateNoteDTO("title " + i, "content " + i), userId));
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void create() { // the user, the note, its change, its digest and the counter ( the user is locked by each of the last ones )
+        Long id = assertStatements(12, () -> noteService.create(new CreateNoteDTO("title", "content"), userId));
+        assertThat(id).isNotNull();
+    }
+
+    @Test
+    void getByIdAndUserId() {
+        PublicNoteDTO note = assertStatements(1, () -> noteService.getByIdAndUserId(noteIds.get(0), userId));
+        assertThat(note.getTitle()).isEqualTo("title 0");
+    }
+
+    @Test
+    void putByIdAndUserId_Existing() {
+        assertStatements(10, () -> noteService.putByIdAndUserId(noteIds.get(0), userId, new CreateNoteDTO("new title", "new content")));
+    }
+
+    @Test
+    void putByIdAndUserId_WithVersion() {
+        Long version = noteService.getByIdAndUserId(noteIds.get(0), userId).getVersion();
+        entityManagerFactory.getCache().evictAll();
+
+        assertStatements(9, () -> noteService.putByIdAndUserId(noteIds.get(0), userId, new CreateNoteDTO("new title", "new content"), version)); // the note is read ( from the second-level cache once warm ), then written through the entity
+    }
+
+    @Test
+    void patchByIdAndUserId_WithoutVersion() {
+        PatchNoteDTO patch = new PatchNoteDTO();
+        patch.setTitle("new title");
+
+        assertStatements(10, () -> noteService.patchByIdAndUserId(noteIds.get(0), userId, patch, null)); // the lock of the note, the note, then its changed columns
+    }
+
+    @Test
+    void editContentByIdAndUserId() {
+        Long version = noteService.getByIdAndUserId(noteIds.get(0), userId).getVersion();
+        entityManagerFactory.getCache().evictAll();
+        EditNoteContentDTO edit = new EditNoteContentDTO(version, List.of(new EditOperationDTO(OP_INSERT, 0, null, "new ")));
+
+        assertStatements(9, () -> noteService.editContentByIdAndUserId(noteIds.get(0), userId, edit));
+    }
+
+    @Test
+    void getContentInfoByIdAndUserId() {
+        assertStatements(1, () -> noteService.getContentInfoByIdAndUserId(noteIds.get(0), userId));
+    }
+
+    @Test
+    void getContentSliceByIdAndUserId() { // the range of the content is cut in a single statement
+        Long version = noteService.getByIdAndUserId(noteIds.get(0), userId).getVersion();
+        String slice = assertStatements(1, () -> noteService.getContentSliceByIdAndUserId(noteIds.get(0), userId, version, 0, 7));
+        assertThat(slice).isEqualTo("content");
+    }
+
+    @Test
+    void deleteByIdAndUserId() { // the derived delete loads the note before removing it, then its cached entry is evicted
+        assertStatements(13, () -> noteService.deleteByIdAndUserId(noteIds.get(0), userId));
+    }
+
+    @Test
+    void getPage_StatementsDontGrowWithTheNotes() {
+        Page<PublicNoteDTO> page = assertStatements(2, () -> noteService.getPage(PageRequest.of(0, NOTES, Sort.by("id")), userId)); // the counter, then the notes
+        assertThat(page.getContent()).hasSize(NOTES);
+        assertThat(page.getTotalElements()).isEqualTo(NOTES);
+    }
+
+    @Test
+    void getPage_WithFields() {
+        Page<PublicNoteDTO> page = assertStatements(2, () -> noteService.getPage(PageRequest.of(0, NOTES, Sort.by("id")), userId, "id,title", 10));
+        assertThat(page.getContent()).hasSize(NOTES);
+    }
+
+    @Test
+    void getPage_RowsAreCounted() {
+        QueryCount count = count(() -> noteService.getPage(PageRequest.of(0, NOTES, Sort.by("id")), userId));
+        assertThat(count.getRows()).isGreaterThanOrEqualTo(NOTES);
+        assertThat(count.getNanos()).isPositive();
+    }
+}
@@ -2,16 +2,29 @@ package org.cris6h16.apirestspringboot.Services;
 
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditNoteContentDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.EditOperationDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchNoteDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
+import org.cris6h16.apirestspringboot.Entities.ENoteField;
 import org.cris6h16.apirestspringboot.Entities.NoteEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIdException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.AnyNoteDTOIsNullException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidEditException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidNoteFieldsException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.NoteNotFoundException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.NoteVersionMismatchException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.TitleMaxLengthFailException;
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
 import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.BulkDeletionService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteCounterService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteDigestService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.NoteSyncService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -27,9 +40,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +52,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -52,12 +68,24 @@ public class NoteServiceImplTest {
     @Mock
     UserServiceImpl userService;
 
+    @Mock
+    NoteSyncService noteSyncService;
+
+    @Mock
+    NoteDigestService noteDigestService;
+
+    @Mock
+    NoteCounterService noteCounterService;
+
+    @Mock
+    BulkDeletionService bulkDeletionService;
+
     @InjectMocks
     NoteServiceImpl noteService;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(noteRepository, userRepository, userService);
+        Mockito.reset(noteRepository, userRepository, userService, noteSyncService, noteDigestService, noteCounterService, bulkDeletionService);
     }
 
     @Test
@@ -92,6 +120,8 @@ public class NoteServiceImplTest {
                         passedToDB.getUpdatedAt() != null &&
                         passedToDB.getUpdatedAt().getTime() <= System.currentTimeMillis()
         ));
+        verify(noteSyncService).recordUpsert(userId, noteId);
+        verify(noteCounterService).add(userId, 1);
     }
 
     @Tag("create")
@@ -333,33 +363,25 @@ public class NoteServiceImplTest {
 
     @Test
     @Tag("putByIdAndUserId")
-    void putByIdAndUserId_ByIdAndUserId_NoteNotFound_ThenCreateSuccessful() {
+    void putByIdAndUserId_ByIdAndUserId_NoteNotFound_ThenNoteNotFoundExceptionNotCreated() {
         // Arrange
         Long userId = 1L;
         Long noteId = 11L;
-        UserEntity uDB = mock(UserEntity.class);
         CreateNoteDTO dto = CreateNoteDTO.builder()
                 .title("cris6h16's note")
                 .content("github.com/cris6h16")
                 .build();
 
-        when(userRepository.findById(any())).thenReturn(Optional.of(uDB));
+        when(userRepository.findById(any())).thenReturn(Optional.of(mock(UserEntity.class)));
         when(noteRepository.findByIdAndUserId(any(), any())).thenReturn(Optional.empty());
 
-        // Act
-        noteService.putByIdAndUserId(noteId, userId, dto);
-
-        // Assert
-        verify(userRepository).findById(userId);
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.putByIdAndUserId(noteId, userId, dto))
+                .isInstanceOf(NoteNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
         verify(noteRepository).findByIdAndUserId(noteId, userId);
-        verify(noteRepository).saveAndFlush(argThat(passedToDB ->
-                passedToDB.getId().equals(noteId) &&
-                        passedToDB.getTitle().equals(dto.getTitle()) &&
-                        passedToDB.getContent().equals(dto.getContent()) &&
-                        passedToDB.getUser().equals(uDB) &&
-                        passedToDB.getUpdatedAt() != null &&
-                        passedToDB.getUpdatedAt().getTime() <= System.currentTimeMillis()
-        ));
+        verify(noteRepository, never()).saveAndFlush(any());
+        verify(noteCounterService, never()).add(anyLong(), anyLong());
     }
 
     @Test
@@ -383,6 +405,7 @@ public class NoteServiceImplTest {
 
         when(userRepository.findById(any())).thenReturn(Optional.of(uDB));
         when(noteRepository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(nDB));
+        when(noteRepository.saveAndFlush(any())).thenReturn(nDB);
 
         // Act
         noteService.putByIdAndUserId(noteId, userId, toPutDto);
@@ -398,6 +421,7 @@ public class NoteServiceImplTest {
                         passedToDB.getUpdatedAt() != null &&
                         passedToDB.getUpdatedAt().getTime() <= System.currentTimeMillis()
         ));
+        verify(noteSyncService).recordUpsert(userId, noteId);
     }
 
     @Tag("putByIdAndUserId")
@@ -559,6 +583,328 @@ public class NoteServiceImplTest {
     }
 
 
+    @Test
+    @Tag("putByIdAndUserId")
+    void putByIdAndUserId_WithVersion_VersionMatches_ThenConditionalUpdateAndNewVersion() {
+        // Arrange
+        Long userId = 1L;
+        Long noteId = 11L;
+        Long version = 3L;
+        CreateNoteDTO dto = CreateNoteDTO.builder()
+                .title("cris6h16's note")
+                .content("github.com/cris6h16")
+                .build();
+        NoteEntity note = stubNote(noteId, userId, version);
+        stubFlush();
+
+        // Act
+        Long newVersion = noteService.putByIdAndUserId(noteId, userId, dto, version);
+
+        // Assert
+        assertThat(newVersion).isEqualTo(version + 1);
+        assertThat(note)
+                .hasFieldOrPropertyWithValue("title", dto.getTitle())
+                .hasFieldOrPropertyWithValue("content", dto.getContent());
+        verify(noteRepository).saveAndFlush(note); // through the entity, only its own cache entry is updated
+        verify(userRepository, never()).findById(any());
+        verify(noteDigestService).recordUpsert(userId, noteId, version, version + 1);
+    }
+
+    @Test
+    @Tag("putByIdAndUserId")
+    void putByIdAndUserId_WithVersion_VersionMismatch_ThenNoteVersionMismatchException() {
+        // Arrange
+        Long userId = 1L;
+        Long noteId = 11L;
+        CreateNoteDTO dto = CreateNoteDTO.builder()
+                .title("cris6h16's note")
+                .content("github.com/cris6h16")
+                .build();
+        stubNote(noteId, userId, 3L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.putByIdAndUserId(noteId, userId, dto, 2L))
+                .isInstanceOf(NoteVersionMismatchException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.Note.Fails.VERSION_MISMATCH)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+        verify(noteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("putByIdAndUserId")
+    void putByIdAndUserId_WithVersion_WrittenConcurrently_ThenNoteVersionMismatchException() {
+        // Arrange
+        Long userId = 1L;
+        Long noteId = 11L;
+        CreateNoteDTO dto = CreateNoteDTO.builder()
+                .title("cris6h16's note")
+                .content("github.com/cris6h16")
+                .build();
+        stubNote(noteId, userId, 2L);
+        when(noteRepository.saveAndFlush(any())).thenThrow(new ObjectOptimisticLockingFailureException(NoteEntity.class, noteId));
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.putByIdAndUserId(noteId, userId, dto, 2L))
+                .isInstanceOf(NoteVersionMismatchException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+        verify(noteSyncService, never()).recordUpsert(any(), any());
+    }
+
+    @Test
+    @Tag("putByIdAndUserId")
+    void putByIdAndUserId_WithVersion_NoteOfAnotherUser_ThenNoteNotFoundException() {
+        // Arrange
+        CreateNoteDTO dto = CreateNoteDTO.builder()
+                .title("cris6h16's note")
+                .content("github.com/cris6h16")
+                .build();
+        stubNote(11L, 2L, 3L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.putByIdAndUserId(11L, 1L, dto, 3L))
+                .isInstanceOf(NoteNotFoundException.class);
+        verify(noteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("putByIdAndUserId")
+    void putByIdAndUserId_WithVersion_NoteNotFound_ThenNoteNotFoundExceptionNotCreated() {
+        // Arrange
+        CreateNoteDTO dto = CreateNoteDTO.builder()
+                .title("cris6h16's note")
+                .content("github.com/cris6h16")
+                .build();
+        when(noteRepository.findById(11L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.putByIdAndUserId(11L, 1L, dto, 3L))
+                .isInstanceOf(NoteNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+        verify(noteRepository, never()).saveAndFlush(any());
+        verify(noteCounterService, never()).add(any(), anyLong());
+    }
+
+    @Test
+    @Tag("patchByIdAndUserId")
+    void patchByIdAndUserId_OnlyTitle_UpdatesOnlyTheTitle() {
+        // Arrange
+        Long userId = 1L;
+        Long noteId = 11L;
+        PatchNoteDTO patch = new PatchNoteDTO();
+        patch.setTitle("cris6h16's note");
+        when(noteRepository.lockByIdAndUserId(noteId, userId)).thenReturn(Optional.of(noteId)); // without a version, locked
+        NoteEntity note = stubNote(noteId, userId, 4L);
+        stubFlush();
+
+        // Act
+        Long newVersion = noteService.patchByIdAndUserId(noteId, userId, patch, null);
+
+        // Assert
+        assertThat(newVersion).isEqualTo(5L);
+        assertThat(note)
+                .hasFieldOrPropertyWithValue("title", "cris6h16's note")
+                .hasFieldOrPropertyWithValue("content", "content"); // only the sent members
+        verify(noteSyncService).recordUpsert(userId, noteId);
+        verify(noteDigestService).recordUpsert(userId, noteId, 4L, 5L);
+    }
+
+    @Test
+    @Tag("patchByIdAndUserId")
+    void patchByIdAndUserId_NullContentWithVersion_BlanksTheContent() {
+        // Arrange
+        Long userId = 1L;
+        Long noteId = 11L;
+        PatchNoteDTO patch = new PatchNoteDTO();
+        patch.setContent(null);
+        NoteEntity note = stubNote(noteId, userId, 2L);
+        stubFlush();
+
+        // Act
+        Long newVersion = noteService.patchByIdAndUserId(noteId, userId, patch, 2L);
+
+        // Assert
+        assertThat(newVersion).isEqualTo(3L);
+        assertThat(note)
+                .hasFieldOrPropertyWithValue("title", "title")
+                .hasFieldOrPropertyWithValue("content", "");
+        verify(noteRepository, never()).lockByIdAndUserId(any(), any()); // conditional on the version, without a lock
+        verify(noteDigestService).recordUpsert(userId, noteId, 2L, 3L);
+    }
+
+    @Test
+    @Tag("patchByIdAndUserId")
+    void patchByIdAndUserId_TitleTooLong_ThenTitleMaxLengthFailException() {
+        // Arrange
+        PatchNoteDTO patch = new PatchNoteDTO();
+        patch.setTitle("a".repeat(Cons.Note.Validations.MAX_TITLE_LENGTH + 1));
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.patchByIdAndUserId(11L, 1L, patch, null))
+                .isInstanceOf(TitleMaxLengthFailException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        verify(noteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("patchByIdAndUserId")
+    void patchByIdAndUserId_NotFoundOrStale_ThenNotFoundOrVersionMismatch() {
+        // Arrange
+        PatchNoteDTO patch = new PatchNoteDTO();
+        patch.setTitle("cris6h16's note");
+
+        when(noteRepository.lockByIdAndUserId(11L, 1L)).thenReturn(Optional.empty());
+        stubNote(11L, 1L, 3L);
+        when(noteRepository.findById(12L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.patchByIdAndUserId(11L, 1L, patch, null))
+                .isInstanceOf(NoteNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+        assertThatThrownBy(() -> noteService.patchByIdAndUserId(11L, 1L, patch, 2L))
+                .isInstanceOf(NoteVersionMismatchException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+        assertThatThrownBy(() -> noteService.patchByIdAndUserId(12L, 1L, patch, 2L)) // with a precondition too
+                .isInstanceOf(NoteNotFoundException.class);
+        verify(noteSyncService, never()).recordUpsert(any(), any());
+    }
+
+    @Test
+    @Tag("patchByIdAndUserId")
+    void patchByIdAndUserId_EmptyPatch_NothingWritten() {
+        // Arrange
+        when(noteRepository.findVersionByIdAndUserId(11L, 1L)).thenReturn(Optional.of(2L));
+
+        // Act
+        Long version = noteService.patchByIdAndUserId(11L, 1L, new PatchNoteDTO(), null);
+
+        // Assert
+        assertThat(version).isEqualTo(2L);
+        assertThatThrownBy(() -> noteService.patchByIdAndUserId(11L, 1L, new PatchNoteDTO(), 1L))
+                .isInstanceOf(NoteVersionMismatchException.class);
+        verify(noteRepository, never()).saveAndFlush(any());
+        verify(noteSyncService, never()).recordUpsert(any(), any());
+    }
+
+    @Test
+    @Tag("getContentInfoByIdAndUserId")
+    void getContentInfoByIdAndUserId_NotFound_ThenNoteNotFoundException() {
+        when(noteRepository.findContentInfoByIdAndUserId(11L, 1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> noteService.getContentInfoByIdAndUserId(11L, 1L))
+                .isInstanceOf(NoteNotFoundException.class);
+    }
+
+    @Test
+    @Tag("getContentSliceByIdAndUserId")
+    void getContentSliceByIdAndUserId_ZeroBasedStartPassedOneBased() {
+        when(noteRepository.findContentSliceByIdAndUserIdAndVersion(11L, 1L, 3L, 101, 50)).thenReturn(Optional.of("slice"));
+
+        assertThat(noteService.getContentSliceByIdAndUserId(11L, 1L, 3L, 100, 50)).isEqualTo("slice");
+    }
+
+    @Test
+    @Tag("getContentSliceByIdAndUserId")
+    void getContentSliceByIdAndUserId_ModifiedWhileReading_ThenNoteVersionMismatchException() {
+        when(noteRepository.findContentSliceByIdAndUserIdAndVersion(11L, 1L, 3L, 1, 50)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> noteService.getContentSliceByIdAndUserId(11L, 1L, 3L, 0, 50))
+                .isInstanceOf(NoteVersionMismatchException.class);
+    }
+
+    @Test
+    @Tag("editContentByIdAndUserId")
+    void editContentByIdAndUserId_OperationsAppliedInOrder() {
+        // Arrange
+        Long userId = 1L;
+        Long noteId = 11L;
+        EditNoteContentDTO edit = EditNoteContentDTO.builder()
+                .version(3L)
+                .operations(List.of(
+                        EditOperationDTO.builder().op("delete").offset(0).length(5).build(),   // "world"
+                        EditOperationDTO.builder().op("insert").offset(0).text("hi").build(),  // "hi world"
+                        EditOperationDTO.builder().op("insert").offset(8).text("!").build()    // "hi world!"
+                ))
+                .build();
+        NoteEntity note = stubNote(noteId, userId, 3L);
+        note.setContent("hello world");
+        stubFlush();
+
+        // Act
+        Long newVersion = noteService.editContentByIdAndUserId(noteId, userId, edit);
+
+        // Assert
+        assertThat(newVersion).isEqualTo(4L);
+        assertThat(note.getContent()).isEqualTo("hi world!");
+        verify(noteRepository).saveAndFlush(note);
+        verify(noteSyncService).recordUpsert(userId, noteId);
+        verify(noteDigestService).recordUpsert(userId, noteId, 3L, 4L);
+    }
+
+    @Test
+    @Tag("editContentByIdAndUserId")
+    void editContentByIdAndUserId_StaleVersion_ThenNoteVersionMismatchException() {
+        // Arrange
+        EditNoteContentDTO edit = EditNoteContentDTO.builder()
+                .version(3L)
+                .operations(List.of(EditOperationDTO.builder().op("insert").offset(0).text("hi").build()))
+                .build();
+        stubNote(11L, 1L, 4L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.editContentByIdAndUserId(11L, 1L, edit))
+                .isInstanceOf(NoteVersionMismatchException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+        verify(noteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("editContentByIdAndUserId")
+    void editContentByIdAndUserId_NoteNotFound_ThenNoteNotFoundException() {
+        // Arrange
+        EditNoteContentDTO edit = EditNoteContentDTO.builder().version(3L).operations(List.of()).build();
+
+        when(noteRepository.findById(11L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.editContentByIdAndUserId(11L, 1L, edit))
+                .isInstanceOf(NoteNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+    }
+
+    @Tag("editContentByIdAndUserId")
+    @ParameterizedTest
+    @ValueSource(strings = {"delete:4:2", "delete:-1:1", "insert:6:x", "insert:0:", "replace:0:x"})
+    void editContentByIdAndUserId_InvalidOperation_ThenInvalidEditException(String operation) {
+        // Arrange
+        String[] parts = operation.split(":", -1);
+        EditOperationDTO op = EditOperationDTO.builder()
+                .op(parts[0])
+                .offset(Integer.parseInt(parts[1]))
+                .length(parts[0].equals("delete") ? Integer.parseInt(parts[2]) : null)
+                .text(parts[0].equals("delete") || parts[2].isEmpty() ? null : parts[2])
+                .build();
+        EditNoteContentDTO edit = EditNoteContentDTO.builder().version(3L).operations(List.of(op)).build();
+
+        stubNote(11L, 1L, 3L).setContent("hello");
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteService.editContentByIdAndUserId(11L, 1L, edit))
+                .isInstanceOf(InvalidEditException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.Note.Edit.INVALID_EDIT_MSG)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        verify(noteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("editContentByIdAndUserId")
+    void editContentByIdAndUserId_VersionMissing_ThenInvalidEditException() {
+        EditNoteContentDTO edit = EditNoteContentDTO.builder().operations(List.of()).build();
+
+        assertThatThrownBy(() -> noteService.editContentByIdAndUserId(11L, 1L, edit))
+                .isInstanceOf(InvalidEditException.class);
+        verify(noteRepository, never()).findById(any());
+    }
+
     @Test
     @Tag("deleteByIdAndUserId")
     void deleteByIdAndUserId_Successful() {
@@ -567,15 +913,18 @@ public class NoteServiceImplTest {
         Long noteId = 11L;
 
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(noteRepository.existsByIdAndUserId(noteId, userId)).thenReturn(true);
+        when(noteRepository.findVersionByIdAndUserId(noteId, userId)).thenReturn(Optional.of(3L));
 
         // Act
         noteService.deleteByIdAndUserId(noteId, userId);
 
         // Assert
         verify(userRepository).existsById(userId);
-        verify(noteRepository).existsByIdAndUserId(noteId, userId);
+        verify(noteRepository).findVersionByIdAndUserId(noteId, userId);
         verify(noteRepository).deleteByIdAndUserId(noteId, userId);
+        verify(noteSyncService).recordDelete(userId, noteId);
+        verify(noteDigestService).recordDelete(userId, noteId, 3L);
+        verify(noteCounterService).add(userId, -1);
     }
 
     @Tag("deleteByIdAndUserId")
@@ -597,7 +946,7 @@ public class NoteServiceImplTest {
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
         }
         verify(userRepository, never()).existsById(any());
-        verify(noteRepository, never()).existsByIdAndUserId(any(), any());
+        verify(noteRepository, never()).findVersionByIdAndUserId(any(), any());
         verify(noteRepository, never()).deleteByIdAndUserId(any(), any());
     }
 
@@ -616,7 +965,7 @@ public class NoteServiceImplTest {
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
         verify(userRepository).existsById(userId);
-        verify(noteRepository, never()).existsByIdAndUserId(any(), any());
+        verify(noteRepository, never()).findVersionByIdAndUserId(any(), any());
         verify(noteRepository, never()).deleteByIdAndUserId(any(), any());
     }
 
@@ -628,7 +977,7 @@ public class NoteServiceImplTest {
         Long noteId = 11L;
 
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(noteRepository.existsByIdAndUserId(noteId, userId)).thenReturn(false);
+        when(noteRepository.findVersionByIdAndUserId(noteId, userId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> noteService.deleteByIdAndUserId(noteId, userId))
@@ -636,7 +985,7 @@ public class NoteServiceImplTest {
                 .hasFieldOrPropertyWithValue("reason", Cons.Note.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
         verify(userRepository).existsById(userId);
-        verify(noteRepository).existsByIdAndUserId(noteId, userId);
+        verify(noteRepository).findVersionByIdAndUserId(noteId, userId);
         verify(noteRepository, never()).deleteByIdAndUserId(any(), any());
     }
     @Test
@@ -656,22 +1005,21 @@ public class NoteServiceImplTest {
                     .build());
         }
 
-        Page<NoteEntity> page = new PageImpl<>(entities, pageable, 100L);
-
         long mockTotalElements = 100L;
         int mockTotalPages = 10;
         int mockPageNumber = 0;
         int mockPageSize = 10;
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(noteRepository.findByUserId(userId, pageable)).thenReturn(page);
+        when(noteCounterService.getCount(userId)).thenReturn(Optional.of(100L));
+        when(noteRepository.findPageByUserId(userId, pageable)).thenReturn(entities);
 
         // Act
         Page<PublicNoteDTO> pageRes = noteService.getPage(pageable, userId);
 
         // Assert
-        verify(userRepository).existsById(userId);
-        verify(noteRepository).findByUserId(userId, pageable);
+        verify(noteRepository).findPageByUserId(userId, pageable);
+        verify(userRepository, never()).existsById(any()); // the counter exists only if the user exists
+        verify(noteRepository, never()).countByUserId(any());
 
         assertEquals(pageRes.getTotalElements(), mockTotalElements);
         assertEquals(pageRes.getTotalPages(), mockTotalPages);
@@ -707,7 +1055,7 @@ public class NoteServiceImplTest {
         assertThatThrownBy(() -> noteService.getPage(pageable, userId))
                 .isInstanceOf(IllegalArgumentException.class);
         verify(userRepository, never()).existsById(any());
-        verify(noteRepository, never()).findByUserId(any(), any());
+        verify(noteRepository, never()).findPageByUserId(any(), any());
     }
 
     @Tag("getPage")
@@ -725,7 +1073,7 @@ public class NoteServiceImplTest {
                 .hasFieldOrPropertyWithValue("reason", Cons.CommonInEntity.ID_INVALID)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
         verify(userRepository, never()).existsById(any());
-        verify(noteRepository, never()).findByUserId(any(), any());
+        verify(noteRepository, never()).findPageByUserId(any(), any());
     }
 
     @Test
@@ -743,7 +1091,65 @@ public class NoteServiceImplTest {
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
         verify(userRepository).existsById(userId);
-        verify(noteRepository, never()).findByUserId(any(), any());
+        verify(noteRepository, never()).findPageByUserId(any(), any());
+    }
+
+    @Test
+    @Tag("getPage")
+    void getPage_fieldsAndPreview_selectedByTheRepository() {
+        // Arrange
+        Long userId = 1L;
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+        List<PublicNoteDTO> notes = List.of(PublicNoteDTO.builder().id(1L).title("title").content("con").build());
+
+        when(noteCounterService.getCount(userId)).thenReturn(Optional.of(1L));
+        when(noteRepository.findPageByUserId(eq(userId), eq(pageable), any(), eq(3))).thenReturn(notes);
+
+        // Act
+        Page<PublicNoteDTO> page = noteService.getPage(pageable, userId, " title ", 3);
+
+        // Assert
+        verify(noteRepository).findPageByUserId(userId, pageable, EnumSet.of(ENoteField.ID, ENoteField.TITLE, ENoteField.CONTENT), 3); // the id always, the content by the preview
+        verify(noteRepository, never()).findPageByUserId(any(), any());
+        assertThat(page.getContent()).isEqualTo(notes);
+        assertThat(page.getTotalElements()).isEqualTo(1L);
+    }
+
+    @Test
+    @Tag("getPage")
+    void getPage_fieldsAndPreviewNull_ThenFullNotes() {
+        // Arrange
+        Long userId = 1L;
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+        when(noteCounterService.getCount(userId)).thenReturn(Optional.of(0L));
+        when(noteRepository.findPageByUserId(userId, pageable)).thenReturn(new ArrayList<>());
+
+        // Act
+        noteService.getPage(pageable, userId, null, null);
+
+        // Assert
+        verify(noteRepository).findPageByUserId(userId, pageable);
+        verify(noteRepository, never()).findPageByUserId(any(), any(), any(), any());
+    }
+
+    @Tag("getPage")
+    @ParameterizedTest
+    @ValueSource(strings = {"", "title,", "user", "password", "Title", "title,,content"})
+    void getPage_unknownField_ThenInvalidNoteFieldsException(String fields) {
+        assertThatThrownBy(() -> noteService.getPage(PageRequest.of(0, 10), 1L, fields, null))
+                .isInstanceOf(InvalidNoteFieldsException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.Note.Page.FIELDS_INVALID_MSG)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        verify(noteRepository, never()).findPageByUserId(any(), any(), any(), any());
+    }
+
+    @Tag("getPage")
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, Cons.Note.Page.MAX_PREVIEW + 1})
+    void getPage_previewOutOfRange_ThenInvalidNoteFieldsException(int preview) {
+        assertThatThrownBy(() -> noteService.getPage(PageRequest.of(0, 10), 1L, null, preview))
+                .isInstanceOf(InvalidNoteFieldsException.class);
+        verify(noteRepository, never()).findPageByUserId(any(), any(), any(), any());
     }
 
     @Test
@@ -754,7 +1160,8 @@ public class NoteServiceImplTest {
         PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
 
         when(userRepository.existsById(userId)).thenReturn(true);
-        when(noteRepository.findByUserId(userId, pageable)).thenReturn(new PageImpl<>(new ArrayList<>()));
+        when(noteRepository.countByUserId(userId)).thenReturn(0L);
+        when(noteRepository.findPageByUserId(userId, pageable)).thenReturn(new ArrayList<>());
 
         // Act
         Page<PublicNoteDTO> dtos = noteService.getPage(pageable, userId);
@@ -763,14 +1170,67 @@ public class NoteServiceImplTest {
         assertThat(dtos)
                 .isNotNull()
                 .isEmpty();
+        assertThat(dtos.getTotalElements()).isZero();
+    }
+
+    @Test
+    @Tag("getPage")
+    void getPage_WithoutCounter_ThenCountedFromTheNotes() {
+        // Arrange
+        Long userId = 1L;
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        List<NoteEntity> entities = List.of(
+                NoteEntity.builder().id(1L).title("t1").content("c1").build(),
+                NoteEntity.builder().id(2L).title("t2").content("c2").build());
+
+        when(noteCounterService.getCount(userId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(noteRepository.countByUserId(userId)).thenReturn(5L); // notes from before the counters
+        when(noteRepository.findPageByUserId(userId, pageable)).thenReturn(entities);
+
+        // Act
+        Page<PublicNoteDTO> dtos = noteService.getPage(pageable, userId);
+
+        // Assert
+        assertThat(dtos.getTotalElements()).isEqualTo(5L);
+        assertThat(dtos.getTotalPages()).isEqualTo(3);
     }
 
     @Test
     @Tag("deleteAll")
     void deleteAll_Successful() {
-        doNothing().when(noteRepository).deleteAll();
-        noteService.deleteAll();
-        verify(noteRepository).deleteAll();
+        PublicBulkDeletionJobDTO job = PublicBulkDeletionJobDTO.builder().id(3L).target(EBulkDeletionTarget.NOTES).build();
+        when(bulkDeletionService.start(EBulkDeletionTarget.NOTES)).thenReturn(job);
+
+        assertThat(noteService.deleteAll()).isEqualTo(job);
+        verify(noteRepository, never()).deleteAll(); // never loaded, deleted in background chunks
     }
 
+    /**
+     * Stub the note read to be written with a version ( from the second-level cache in the app )
+     *
+     * @return the note that the service modifies
+     */
+    private NoteEntity stubNote(Long noteId, Long userId, Long version) {
+        NoteEntity note = NoteEntity.builder()
+                .id(noteId)
+                .title("title")
+                .content("content")
+                .version(version)
+                .user(UserEntity.builder().id(userId).build())
+                .build();
+        when(noteRepository.findById(noteId)).thenReturn(Optional.of(note));
+        return note;
+    }
+
+    /**
+     * The flush of a note increments its version, as {@link jakarta.persistence.Version}
+     */
+    private void stubFlush() {
+        when(noteRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            NoteEntity note = invocation.getArgument(0);
+            note.setVersion(note.getVersion() + 1);
+            return note;
+        });
+    }
 }
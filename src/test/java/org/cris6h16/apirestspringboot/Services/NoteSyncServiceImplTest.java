@@ -0,0 +1,188 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicNoteChangesDTO;
+import org.cris6h16.apirestspringboot.Entities.NoteChangeEntity;
+import org.cris6h16.apirestspringboot.Entities.NoteEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidSyncTokenException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.SyncTokenExpiredException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UserNotFoundException;
+import org.cris6h16.apirestspringboot.Repositories.NoteChangeRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteRepository;
+import org.cris6h16.apirestspringboot.Repositories.NoteSyncStateRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteSyncServiceImplTest {
+
+    @Mock
+    NoteChangeRepository noteChangeRepository;
+
+    @Mock
+    NoteRepository noteRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    NoteSyncStateRepository noteSyncStateRepository;
+
+    @InjectMocks
+    NoteSyncServiceImpl noteSyncService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(noteChangeRepository, noteRepository, userRepository, noteSyncStateRepository);
+    }
+
+    @Test
+    @Tag("recordUpsert")
+    void recordUpsert_FirstChange_InsertsTheRow() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteSyncStateRepository.incrementChangeSeqByUserId(1L)).thenReturn(1);
+        when(noteSyncStateRepository.findChangeSeqByUserId(1L)).thenReturn(7L);
+        when(noteChangeRepository.updateByUserIdAndNoteId(eq(1L), eq(10L), eq(7L), eq(false), any())).thenReturn(0);
+
+        // Act
+        noteSyncService.recordUpsert(1L, 10L);
+
+        // Assert
+        verify(noteChangeRepository).save(argThat(c -> c.getNoteId() == 10L && c.getSeq() == 7L && !c.isDeleted()));
+    }
+
+    @Test
+    @Tag("recordDelete")
+    void recordDelete_ExistentChange_MovesTheRow() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteSyncStateRepository.incrementChangeSeqByUserId(1L)).thenReturn(1);
+        when(noteSyncStateRepository.findChangeSeqByUserId(1L)).thenReturn(8L);
+        when(noteChangeRepository.updateByUserIdAndNoteId(eq(1L), eq(10L), eq(8L), eq(true), any())).thenReturn(1);
+
+        // Act
+        noteSyncService.recordDelete(1L, 10L);
+
+        // Assert
+        verify(noteChangeRepository, never()).save(any());
+    }
+
+    @Test
+    @Tag("recordUpsert")
+    void recordUpsert_UserNotFound_Throws() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteSyncService.recordUpsert(1L, 10L))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+        verify(noteChangeRepository, never()).save(any());
+        verify(noteSyncStateRepository, never()).incrementChangeSeqByUserId(any());
+    }
+
+    @Test
+    @Tag("recordUpsert")
+    void recordUpsert_FirstWriteOfTheUser_InsertsItsState() {
+        // Arrange
+        when(userRepository.lockById(1L)).thenReturn(Optional.of(1L));
+        when(noteSyncStateRepository.incrementChangeSeqByUserId(1L)).thenReturn(0);
+        when(noteSyncStateRepository.findChangeSeqByUserId(1L)).thenReturn(1L);
+
+        // Act
+        noteSyncService.recordUpsert(1L, 10L);
+
+        // Assert
+        verify(noteSyncStateRepository).save(argThat(s -> s.getChangeSeq() == 1L && s.getPurgedSeq() == 0L));
+        verify(noteChangeRepository).save(argThat(c -> c.getNoteId() == 10L && c.getSeq() == 1L));
+    }
+
+    @Test
+    @Tag("getChangesSince")
+    void getChangesSince_NegativeSince_Throws() {
+        assertThatThrownBy(() -> noteSyncService.getChangesSince(1L, -1L, null))
+                .isInstanceOf(InvalidSyncTokenException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.Note.Sync.SYNC_TOKEN_INVALID_MSG)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        verify(noteChangeRepository, never()).findByUserIdAndSeqGreaterThanOrderBySeqAsc(any(), any(), any());
+    }
+
+    @Test
+    @Tag("getChangesSince")
+    void getChangesSince_SinceBeforePurgedTombstones_Gone() {
+        // Arrange
+        when(noteSyncStateRepository.findPurgedSeqByUserId(1L)).thenReturn(Optional.of(5L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> noteSyncService.getChangesSince(1L, 4L, null))
+                .isInstanceOf(SyncTokenExpiredException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.Note.Sync.SYNC_TOKEN_EXPIRED_MSG)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.GONE);
+        verify(noteChangeRepository, never()).findByUserIdAndSeqGreaterThanOrderBySeqAsc(any(), any(), any());
+    }
+
+    @Test
+    @Tag("getChangesSince")
+    void getChangesSince_FullSyncAfterPurge_Successful() {
+        // Arrange
+        when(noteSyncStateRepository.findPurgedSeqByUserId(1L)).thenReturn(Optional.of(5L));
+        when(noteChangeRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(1L, 0L, Limit.of(Cons.Note.Sync.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of());
+
+        // Act
+        PublicNoteChangesDTO dto = noteSyncService.getChangesSince(1L, 0L, null);
+
+        // Assert
+        assertThat(dto.getChanges()).isEmpty();
+        assertThat(dto.getSyncToken()).isZero();
+        assertThat(dto.isHasMore()).isFalse();
+    }
+
+    @Test
+    @Tag("getChangesSince")
+    void getChangesSince_MoreThanLimit_HasMoreAndTokenIsLastSeq() {
+        // Arrange
+        NoteEntity note = NoteEntity.builder().id(10L).title("title").content("content").updatedAt(new Date()).version(2L).build();
+        when(noteSyncStateRepository.findPurgedSeqByUserId(1L)).thenReturn(Optional.empty()); // never wrote before
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(noteChangeRepository.findByUserIdAndSeqGreaterThanOrderBySeqAsc(1L, 3L, Limit.of(3)))
+                .thenReturn(List.of(change(10L, 4L, false), change(11L, 6L, true), change(12L, 9L, false)));
+        when(noteRepository.findByUserIdAndIdIn(eq(1L), argThat(ids -> ids.size() == 1 && ids.contains(10L))))
+                .thenReturn(List.of(note));
+
+        // Act
+        PublicNoteChangesDTO dto = noteSyncService.getChangesSince(1L, 3L, 2);
+
+        // Assert
+        assertThat(dto.isHasMore()).isTrue();
+        assertThat(dto.getSyncToken()).isEqualTo(6L);
+        assertThat(dto.getChanges()).hasSize(2);
+        assertThat(dto.getChanges().get(0).isDeleted()).isFalse();
+        assertThat(dto.getChanges().get(0).getNote().getVersion()).isEqualTo(2L);
+        assertThat(dto.getChanges().get(1).isDeleted()).isTrue();
+        assertThat(dto.getChanges().get(1).getNote()).isNull();
+    }
+
+    private NoteChangeEntity change(Long noteId, Long seq, boolean deleted) {
+        return NoteChangeEntity.builder().noteId(noteId).seq(seq).deleted(deleted).changedAt(new Date()).build();
+    }
+}
@@ -0,0 +1,128 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserAvailabilityDTO;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.AvailabilityRateLimitException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.EmailIsInvalidException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UsernameLengthException;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Availability.MAX_CHECKS_PER_CLIENT;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserAvailabilityServiceImpl}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserAvailabilityServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserAvailabilityServiceImpl userAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        userAvailabilityService = new UserAvailabilityServiceImpl(userRepository, transactionManager);
+    }
+
+    @Test
+    @Tag("isUsernameAvailable")
+    void isUsernameAvailable_NotBuiltYet_ThenAskedToTheDatabase() {
+        when(userRepository.existsByUsername("cris6h16")).thenReturn(true);
+
+        assertThat(userAvailabilityService.isUsernameAvailable("cris6h16")).isFalse();
+        verify(userRepository).existsByUsername("cris6h16");
+    }
+
+    @Test
+    @Tag("isUsernameAvailable")
+    void isUsernameAvailable_NotInTheFilter_ThenAvailableWithoutQuery() {
+        rebuildWith(Stream.of("cris6h16"), Stream.of("cristianmherrera21@gmail.com"));
+
+        assertThat(userAvailabilityService.isUsernameAvailable("newuser")).isTrue();
+        assertThat(userAvailabilityService.isEmailAvailable("new@example.com")).isTrue();
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @Tag("isUsernameAvailable")
+    void isUsernameAvailable_ProbableHit_ThenConfirmedByTheDatabase() {
+        rebuildWith(Stream.of("cris6h16"), Stream.of("cristianmherrera21@gmail.com"));
+        when(userRepository.existsByUsername("cris6h16")).thenReturn(false); // released by a deleted user since the build
+
+        assertThat(userAvailabilityService.isUsernameAvailable("cris6h16")).isTrue();
+        verify(userRepository).existsByUsername("cris6h16");
+    }
+
+    @Test
+    @Tag("registerTaken")
+    void registerTaken_ThenAProbableHit() {
+        rebuildWith(Stream.of(), Stream.of());
+        userAvailabilityService.registerTaken("cris6h16", null);
+        when(userRepository.existsByUsername("cris6h16")).thenReturn(true);
+
+        assertThat(userAvailabilityService.isUsernameAvailable("cris6h16")).isFalse();
+        assertThat(userAvailabilityService.isEmailAvailable("cristianmherrera21@gmail.com")).isTrue();
+    }
+
+    @Test
+    @Tag("getAvailability")
+    void getAvailability_TrimmedAndLowercased_NullForTheNotAsked() {
+        rebuildWith(Stream.of("cris6h16"), Stream.of());
+        when(userRepository.existsByUsername("cris6h16")).thenReturn(true);
+
+        PublicUserAvailabilityDTO dto = userAvailabilityService.getAvailability("  CRIS6h16 ", null, "10.0.0.1");
+
+        assertThat(dto.getUsernameAvailable()).isFalse();
+        assertThat(dto.getEmailAvailable()).isNull();
+    }
+
+    @Test
+    @Tag("getAvailability")
+    void getAvailability_Invalid_ThenValidationExceptions() {
+        assertThatThrownBy(() -> userAvailabilityService.getAvailability("cri", null, "10.0.0.1"))
+                .isInstanceOf(UsernameLengthException.class);
+        assertThatThrownBy(() -> userAvailabilityService.getAvailability(null, "not-an-email", "10.0.0.1"))
+                .isInstanceOf(EmailIsInvalidException.class);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @Tag("getAvailability")
+    void getAvailability_TooManyChecksOfAClient_ThenAvailabilityRateLimitException() {
+        // Arrange
+        rebuildWith(Stream.of("cris6h16"), Stream.of());
+        for (int i = 0; i < MAX_CHECKS_PER_CLIENT; i++) userAvailabilityService.getAvailability("user" + i, null, "10.0.0.1");
+
+        // Act & Assert
+        assertThatThrownBy(() -> userAvailabilityService.getAvailability("newuser", null, "10.0.0.1"))
+                .isInstanceOf(AvailabilityRateLimitException.class);
+        assertThat(userAvailabilityService.getAvailability("newuser", null, "10.0.0.2").getUsernameAvailable()).isTrue(); // another client
+    }
+
+    private void rebuildWith(Stream<String> usernames, Stream<String> emails) {
+        when(userRepository.countByDeletedAtIsNull()).thenReturn(1L);
+        when(userRepository.streamLiveUsernames()).thenReturn(usernames);
+        when(userRepository.streamLiveEmails()).thenReturn(emails);
+        userAvailabilityService.rebuild();
+    }
+}
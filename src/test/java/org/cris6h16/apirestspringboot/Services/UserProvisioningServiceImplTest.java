@@ -0,0 +1,190 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import jakarta.persistence.EntityManager;
+import org.cris6h16.apirestspringboot.Config.Security.PasswordHashing.ParallelPasswordHasher;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUserResultDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkUsersDTO;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Entities.RoleEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.BulkSizeException;
+import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserAvailabilityService;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link UserProvisioningServiceImpl}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("UnitTest")
+public class UserProvisioningServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @Mock
+    private ParallelPasswordHasher passwordHasher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserAvailabilityService userAvailabilityService;
+
+    @InjectMocks
+    private UserProvisioningServiceImpl userProvisioningService;
+
+    @Test
+    void createAll_nullEmptyOrTooLarge_ThenBulkSizeException() {
+        List<CreateUserDTO> tooLarge = IntStream.rangeClosed(0, Cons.User.Bulk.MAX_USERS)
+                .mapToObj(i -> createValidDTO(i))
+                .toList();
+
+        assertThatThrownBy(() -> userProvisioningService.createAll(null, ERole.ROLE_USER))
+                .isInstanceOf(BulkSizeException.class);
+        assertThatThrownBy(() -> userProvisioningService.createAll(List.of(), ERole.ROLE_USER))
+                .isInstanceOf(BulkSizeException.class);
+        assertThatThrownBy(() -> userProvisioningService.createAll(tooLarge, ERole.ROLE_USER))
+                .isInstanceOf(BulkSizeException.class);
+        verifyNoInteractions(userRepository, passwordHasher);
+    }
+
+    @Test
+    void createAll_rolesEmpty_ThenIllegalArgumentException() {
+        assertThatThrownBy(() -> userProvisioningService.createAll(List.of(createValidDTO(0))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void createAll_InvalidDuplicatedAndExistent_ReportedPerUser_TheOthersCreated() {
+        // Arrange
+        List<CreateUserDTO> dtos = new ArrayList<>(List.of(
+                createValidDTO(0),
+                CreateUserDTO.builder().username("abc").email("abc@example.com").password("12345678").build(), // username too short
+                CreateUserDTO.builder().username("  CRIS6H16-0 ").email("other@example.com").password("12345678").build(), // repeated in the request
+                createValidDTO(3), // email already exists
+                createValidDTO(4)
+        ));
+        dtos.add(null);
+
+        when(userRepository.findUsernamesIn(anyList())).thenReturn(Set.of());
+        when(userRepository.findEmailsIn(anyList())).thenReturn(Set.of("cris6h16-3@example.com"));
+        when(passwordHasher.encodeAll(List.of("12345678", "12345678"))).thenReturn(List.of("{bcrypt}0", "{bcrypt}4"));
+        mockInsert();
+
+        // Act
+        PublicBulkUsersDTO result = userProvisioningService.createAll(dtos, ERole.ROLE_USER);
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getResults()).extracting(PublicBulkUserResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(result.getResults()).extracting(PublicBulkUserResultDTO::getStatus).containsExactly(201, 400, 409, 409, 201, 400);
+        assertThat(result.getResults()).extracting(PublicBulkUserResultDTO::getMessage).containsExactly(
+                null,
+                Cons.User.Validations.USERNAME_LENGTH_FAIL_MSG,
+                Cons.User.Constrains.USERNAME_UNIQUE_MSG,
+                Cons.User.Constrains.EMAIL_UNIQUE_MSG,
+                null,
+                Cons.User.DTO.ANY_RELATED_DTO_WITH_USER_NULL);
+        assertThat(result.getResults().get(0).getId()).isNotNull();
+        assertThat(result.getResults().get(4).getId()).isNotNull();
+
+        verify(userRepository).findUsernamesIn(List.of("cris6h16-0", "cris6h16-3", "cris6h16-4")); // one query for the chunk
+        verify(userRepository).saveAll(argThat((List<UserEntity> l) -> l.size() == 2 &&
+                l.get(0).getPassword().equals("{bcrypt}0") &&
+                l.get(1).getUsername().equals("cris6h16-4") &&
+                l.get(1).getRoles().iterator().next().getName().equals(ERole.ROLE_USER)));
+        verify(userAvailabilityService).registerTaken(eq("cris6h16-4"), any());
+    }
+
+    @Test
+    void createAll_ChunkHitsAUniqueConstraint_RetriedUserByUser() {
+        // Arrange
+        List<CreateUserDTO> dtos = List.of(createValidDTO(0), createValidDTO(1));
+
+        when(userRepository.findUsernamesIn(anyList())).thenReturn(Set.of());
+        when(userRepository.findEmailsIn(anyList())).thenReturn(Set.of());
+        when(passwordHasher.encodeAll(anyList())).thenReturn(List.of("{bcrypt}0", "{bcrypt}1"));
+        mockInsert();
+        DataIntegrityViolationException conflict = new DataIntegrityViolationException("fail",
+                new SQLException("duplicate key value violates unique constraint \"" + Cons.User.Constrains.USERNAME_UNIQUE_NAME + "\""));
+        when(userRepository.saveAll(anyList()))
+                .thenThrow(conflict) // the chunk
+                .thenThrow(conflict) // the first user
+                .thenAnswer(inv -> withIds(inv.getArgument(0))); // the second user
+
+        // Act
+        PublicBulkUsersDTO result = userProvisioningService.createAll(dtos, ERole.ROLE_USER);
+
+        // Assert
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(PublicBulkUserResultDTO::getStatus).containsExactly(409, 201);
+        assertThat(result.getResults().get(0).getMessage()).isEqualTo(Cons.User.Constrains.USERNAME_UNIQUE_MSG);
+        verify(userRepository, times(3)).saveAll(anyList());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private void mockInsert() {
+        Session session = mock(Session.class);
+        RoleEntity role = RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build();
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(roleRegistry.get(ERole.ROLE_USER)).thenReturn(role);
+        when(roleRepository.getReferenceById(1L)).thenReturn(role);
+        lenient().when(userRepository.saveAll(anyList())).thenAnswer(inv -> withIds(inv.getArgument(0)));
+        lenient().doNothing().when(session).setCacheMode(CacheMode.GET);
+    }
+
+    private List<UserEntity> withIds(List<UserEntity> users) {
+        users.forEach(u -> u.setId(ids.incrementAndGet()));
+        return users;
+    }
+
+    private CreateUserDTO createValidDTO(int i) {
+        return CreateUserDTO.builder()
+                .username("cris6h16-" + i)
+                .email("cris6h16-" + i + "@example.com")
+                .password("12345678")
+                .build();
+    }
+}
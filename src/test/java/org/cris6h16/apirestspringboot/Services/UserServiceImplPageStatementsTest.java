@@ -0,0 +1,134 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicRoleDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Entities.NoteCounterEntity;
+import org.cris6h16.apirestspringboot.Entities.RoleEntity;
+import org.cris6h16.apirestspringboot.Entities.UserEntity;
+import org.cris6h16.apirestspringboot.Repositories.NoteCounterRepository;
+import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
+import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.BulkDeletionService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserAvailabilityService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Count the statements of {@link UserServiceImpl#getPage(org.springframework.data.domain.Pageable)}
+ * against an embedded {@code H2} database, with the statistics of Hibernate.
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true") // off in prod, read by the assertions
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import({UserServiceImpl.class, RoleRegistry.class, UserServiceImplPageStatementsTest.Config.class})
+public class UserServiceImplPageStatementsTest {
+    private static final int USERS = 100;
+
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private NoteCounterRepository noteCounterRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+    @MockBean
+    private BulkDeletionService bulkDeletionService;
+    @MockBean
+    private UserAvailabilityService userAvailabilityService;
+
+    private Statistics statistics;
+    private long total;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4); // the admin created at startup
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        RoleEntity user = roleRepository.getReferenceById(roleRegistry.get(ERole.ROLE_USER).getId());
+        RoleEntity admin = roleRepository.getReferenceById(roleRegistry.get(ERole.ROLE_ADMIN).getId());
+
+        List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(UserEntity.builder()
+                    .username("auser" + i) // before the admin
+                    .email("user" + i + "@example.com")
+                    .password("12345678")
+                    .createdAt(new Date())
+                    .roles(i == 0 ? Set.of(user, admin) : Set.of(user))
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+        for (int i = 0; i < USERS; i += 2) {
+            noteCounterRepository.save(NoteCounterEntity.builder()
+                    .user(users.get(i))
+                    .noteCount((long) i)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        total = userRepository.countByDeletedAtIsNull(); // the admin created at startup too
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getPage_OfOneHundredUsers_AtMostTwoStatements() {
+        // Act
+        Page<PublicUserDTO> page = userService.getPage(PageRequest.of(0, USERS, Sort.by("username")));
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2); // the rows, then the roles
+        assertThat(page.getContent()).hasSize(USERS);
+        assertThat(page.getTotalElements()).isEqualTo(total);
+        assertThat(page.getContent().get(0))
+                .hasFieldOrPropertyWithValue("username", "auser0")
+                .hasFieldOrPropertyWithValue("noteCount", 0L)
+                .hasFieldOrPropertyWithValue("roles", Set.of(new PublicRoleDTO(ERole.ROLE_USER), new PublicRoleDTO(ERole.ROLE_ADMIN)));
+        assertThat(page.getContent().get(2)) // sorted by username: auser0, auser1, auser10
+                .hasFieldOrPropertyWithValue("username", "auser10")
+                .hasFieldOrPropertyWithValue("noteCount", 10L);
+        assertThat(page.getContent().get(1)).hasFieldOrPropertyWithValue("noteCount", 0L); // without counter
+    }
+}
@@ -0,0 +1,102 @@
+package org.cris6h16.apirestspringboot.Services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchEmailUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchPasswordUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Patch.PatchUsernameUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
+import org.cris6h16.apirestspringboot.Entities.ERole;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cris6h16.apirestspringboot.Config.QueryCount.QueryCountAssertions.assertStatements;
+
+/**
+ * Lock the statements of each method of {@link UserServiceImpl} against an embedded {@code H2} database,
+ * a change that adds a statement ( or a statement per user ) fails here.<br>
+ * Each call runs in its own transaction as in a request, with the second-level cache evicted before it
+ * ( the counts of a cold cache ).
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+@SpringBootTest(properties = "query-count.statement-budget=5") // any property, not the context of ApiRestSpringBootApplicationTests ( it closes the shared caches )
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Tag("UnitTest")
+public class UserServiceImplStatementsTest {
+    private static final AtomicInteger USERS = new AtomicInteger();
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PAGE_SIZE; i++) userId = createUser(); // the context is shared, new users per test
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void create() { // the user, its role, and the role itself ( the PERSIST cascade loads each role, from the second-level cache once warm )
+        String username = "userstmts" + USERS.incrementAndGet();
+        Long id = assertStatements(3, () -> userService.create(new CreateUserDTO(username, "12345678", username + "@example.com"), ERole.ROLE_USER));
+        assertThat(id).isNotNull();
+    }
+
+    @Test
+    void getById() {
+        PublicUserDTO user = assertStatements(1, () -> userService.getById(userId)); // the roles are EAGER, in the same statement
+        assertThat(user.getRoles()).hasSize(1);
+    }
+
+    @Test
+    void getPage_StatementsDontGrowWithTheUsers() {
+        Page<PublicUserDTO> page = assertStatements(2, () -> userService.getPage(PageRequest.of(0, PAGE_SIZE, Sort.by("id")))); // the rows, then the roles of all of them
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(u -> assertThat(u.getRoles()).isNotEmpty());
+    }
+
+    @Test
+    void patchUsernameById() { // the lock, the user ( from the second-level cache once warm ), then its changed columns
+        String username = "userstmts" + USERS.incrementAndGet();
+        assertStatements(3, () -> userService.patchUsernameById(userId, new PatchUsernameUserDTO(username)));
+    }
+
+    @Test
+    void patchEmailById() {
+        String email = "userstmts" + USERS.incrementAndGet() + "@example.com";
+        assertStatements(3, () -> userService.patchEmailById(userId, new PatchEmailUserDTO(email)));
+    }
+
+    @Test
+    void patchPasswordById() {
+        assertStatements(3, () -> userService.patchPasswordById(userId, new PatchPasswordUserDTO("87654321")));
+    }
+
+    @Test
+    void deleteById() { // soft deletion as the patches, the notes aren't loaded
+        assertStatements(3, () -> userService.deleteById(userId));
+    }
+
+    private Long createUser() {
+        String username = "userstmts" + USERS.incrementAndGet();
+        return userService.create(new CreateUserDTO(username, "12345678", username + "@example.com"), ERole.ROLE_USER);
+    }
+}
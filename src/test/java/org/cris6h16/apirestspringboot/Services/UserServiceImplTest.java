@@ -1,12 +1,17 @@
 package org.cris6h16.apirestspringboot.Services;
 
+import org.cris6h16.apirestspringboot.Config.Security.RoleRegistry.RoleRegistry;
 import org.cris6h16.apirestspringboot.Constants.Cons;
 import org.cris6h16.apirestspringboot.DTOs.Creation.CreateUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchEmailUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchPasswordUserDTO;
 import org.cris6h16.apirestspringboot.DTOs.Patch.PatchUsernameUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicBulkDeletionJobDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicRoleDTO;
 import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserPageRowDTO;
+import org.cris6h16.apirestspringboot.DTOs.Public.PublicUserRoleDTO;
+import org.cris6h16.apirestspringboot.Entities.EBulkDeletionTarget;
 import org.cris6h16.apirestspringboot.Entities.ERole;
 import org.cris6h16.apirestspringboot.Entities.RoleEntity;
 import org.cris6h16.apirestspringboot.Entities.UserEntity;
@@ -14,6 +19,8 @@ import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.Inval
 import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.*;
 import org.cris6h16.apirestspringboot.Repositories.RoleRepository;
 import org.cris6h16.apirestspringboot.Repositories.UserRepository;
+import org.cris6h16.apirestspringboot.Services.Interfaces.BulkDeletionService;
+import org.cris6h16.apirestspringboot.Services.Interfaces.UserAvailabilityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -24,6 +31,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -35,6 +43,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
@@ -53,28 +62,39 @@ public class UserServiceImplTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private RoleRegistry roleRegistry;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private BulkDeletionService bulkDeletionService;
+
+    @Mock
+    private UserAvailabilityService userAvailabilityService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(roleRepository, userRepository, passwordEncoder);
+        Mockito.reset(roleRepository, roleRegistry, userRepository, passwordEncoder, bulkDeletionService, userAvailabilityService);
     }
 
     @Test
     @Tag("create")
-    void create_RoleNonexistentInDB_ThenCreateBoth_Successful() {
+    void create_RoleFromTheRegistry_ReferencedWithoutQuery_Successful() {
         // Arrange
         UserEntity user = createUserEntityWithIdAndRolesWithId();
+        RoleEntity role = user.getRoles().iterator().next();
         CreateUserDTO dtoToCreate = createValidDTO();
 
-        when(roleRepository.findByName(ERole.ROLE_USER)).thenReturn(Optional.empty());
+        when(roleRegistry.get(ERole.ROLE_USER)).thenReturn(role);
+        when(roleRepository.getReferenceById(role.getId())).thenReturn(role);
         when(passwordEncoder.encode(any(String.class))).thenReturn("{bcrypt}$2a81...");
         when(userRepository.saveAndFlush(any(UserEntity.class))).thenReturn(user);
 
@@ -83,47 +103,37 @@ public class UserServiceImplTest {
 
         // Assert
         assertThat(id).isEqualTo(user.getId());
-        verify(roleRepository).findByName(ERole.ROLE_USER);
+        verify(roleRepository).getReferenceById(role.getId());
+        verify(roleRepository, never()).findByName(any());
         verify(passwordEncoder).encode(dtoToCreate.getPassword());
         verify(userRepository).saveAndFlush(argThat(passedToDb ->
                 passedToDb.getUsername().equals(dtoToCreate.getUsername()) &&
                         passedToDb.getEmail().equals(dtoToCreate.getEmail()) &&
                         passedToDb.getPassword().equals("{bcrypt}$2a81...") &&
                         passedToDb.getRoles().size() == 1 &&
+                        passedToDb.getCreatedAt() != null &&
+                        passedToDb.getUpdatedAt() == null &&
+                        passedToDb.getRoles().iterator().next().getId().equals(role.getId()) &&
                         passedToDb.getRoles().iterator().next().getName().equals(ERole.ROLE_USER)));
+        verify(userAvailabilityService).registerTaken(user.getUsername(), user.getEmail());
     }
 
-
     @Test
     @Tag("create")
-    void create_RoleExistentInDBThenAssignIt_Successful() {
+    void create_UsernameTakenMeanwhile_ThenUsernameAlreadyExistsException() {
         // Arrange
-        UserEntity user = createUserEntityWithIdAndRolesWithId();
-        RoleEntity role = user.getRoles().iterator().next();
-
-        when(roleRepository.findByName(ERole.ROLE_USER))
-                .thenReturn(Optional.ofNullable(role));
-        when(passwordEncoder.encode(any(String.class)))
-                .thenReturn("{bcrypt}$2a81...");
+        RoleEntity role = createUserEntityWithIdAndRolesWithId().getRoles().iterator().next();
+        when(roleRegistry.get(ERole.ROLE_USER)).thenReturn(role);
+        when(roleRepository.getReferenceById(role.getId())).thenReturn(role);
+        when(passwordEncoder.encode(any(String.class))).thenReturn("{bcrypt}$2a81...");
         when(userRepository.saveAndFlush(any(UserEntity.class)))
-                .thenReturn(user);
+                .thenThrow(new DataIntegrityViolationException("violates unique constraint \"" + Cons.User.Constrains.USERNAME_UNIQUE_NAME + "\""));
 
-        CreateUserDTO dtoToCreate = createValidDTO();
-
-        // Act
-        userService.create(dtoToCreate, ERole.ROLE_USER);
-
-        // Assert
-        verify(userRepository).saveAndFlush(argThat(passedToDb ->
-                passedToDb.getUsername().equals(dtoToCreate.getUsername()) &&
-                        passedToDb.getEmail().equals(dtoToCreate.getEmail()) &&
-                        passedToDb.getPassword().equals("{bcrypt}$2a81...") &&
-                        passedToDb.getRoles().size() == 1 &&
-                        passedToDb.getCreatedAt() != null &&
-                        passedToDb.getUpdatedAt() == null &&
-                        passedToDb.getRoles().iterator().next().getId().equals(role.getId()) &&
-                        passedToDb.getRoles().iterator().next().getName().equals(role.getName())
-        ));
+        // Act & Assert
+        assertThatThrownBy(() -> userService.create(createValidDTO(), ERole.ROLE_USER))
+                .isInstanceOf(UsernameAlreadyExistsException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
+        verify(userAvailabilityService, never()).registerTaken(any(), any());
     }
 
     @Test
@@ -133,8 +143,11 @@ public class UserServiceImplTest {
         UserEntity user = createUserEntityWithIdAndRolesWithId(); // ignored
         ERole[] eRoles = ERole.values();
 
-        when(roleRepository.findByName(any()))
-                .thenReturn(Optional.empty());
+        for (ERole r : eRoles) {
+            RoleEntity role = RoleEntity.builder().id((long) r.ordinal() + 1).name(r).build();
+            when(roleRegistry.get(r)).thenReturn(role);
+            when(roleRepository.getReferenceById(role.getId())).thenReturn(role);
+        }
         when(passwordEncoder.encode(any(String.class)))
                 .thenReturn("{bcrypt}$2a81...");
         when(userRepository.saveAndFlush(any(UserEntity.class)))
@@ -215,7 +228,9 @@ public class UserServiceImplTest {
                 .email("    cristianmHErrera21@gmail.com ")
                 .build();
 
-        when(roleRepository.findByName(ERole.ROLE_USER)).thenReturn(Optional.empty());
+        RoleEntity role = RoleEntity.builder().id(1L).name(ERole.ROLE_USER).build();
+        when(roleRegistry.get(ERole.ROLE_USER)).thenReturn(role);
+        when(roleRepository.getReferenceById(role.getId())).thenReturn(role);
         when(passwordEncoder.encode(any(String.class))).thenReturn("{bcrypt}$2a81...");
         when(userRepository.saveAndFlush(any(UserEntity.class)))
                 .thenReturn(createUserEntityWithIdAndRolesWithId());
@@ -314,6 +329,20 @@ public class UserServiceImplTest {
 
 
 
+    /**
+     * Stub the user to write without a version: its row is locked, then it's read
+     *
+     * @return the user that the service modifies
+     */
+    private UserEntity stubForUpdate(Long id) {
+        UserEntity user = createUserEntityWithIdAndRolesWithId();
+        user.setId(id);
+        user.setVersion(0L);
+        when(userRepository.lockById(id)).thenReturn(Optional.of(id));
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        return user;
+    }
+
     private UserEntity createUserEntityWithIdAndRolesWithId() {
         return UserEntity.builder()
                 .id(1L)
@@ -402,6 +431,21 @@ public class UserServiceImplTest {
     }
 
 
+    @Test
+    @Tag("getById")
+    void getById_UserDeleted_ThenUserNotFoundException() {
+        // Arrange
+        UserEntity entity = createUserEntityWithIdAndRolesWithId();
+        entity.setDeletedAt(new Date());
+
+        when(userRepository.findById(entity.getId())).thenReturn(Optional.of(entity));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.getById(entity.getId()))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+    }
+
     @Test
     @Tag("getById")
     void getById_UserFoundWithRolesNull_thenInRolesReturnEmptySet_Successful() {
@@ -432,15 +476,17 @@ public class UserServiceImplTest {
     void deleteById_Successful() {
         // Arrange
         Long id = 1L;
-
-        given(userRepository.existsById(id)).willReturn(true);
-        doNothing().when(userRepository).deleteById(id);
+        UserEntity user = stubForUpdate(id);
 
         // Act
         userService.deleteById(id);
 
         // Assert
-        verify(userRepository).deleteById(id);
+        assertThat(user.getDeletedAt()).isNotNull();
+        assertThat(user.getDeletionKey()).isEqualTo(id); // its names can be taken again
+        verify(userRepository).saveAndFlush(user); // through the entity, only its own cache entry is updated
+        verify(bulkDeletionService, never()).deleteUser(any()); // purged later
+        verify(userRepository, never()).deleteById(any()); // it would load all the notes
     }
 
     @Tag("deleteById")
@@ -455,7 +501,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(InvalidIdException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.CommonInEntity.ID_INVALID)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).deleteById(any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -463,14 +509,62 @@ public class UserServiceImplTest {
     void deleteById_UserNotFound_ThenUserNotFoundException() {
         // Arrange
         Long id = 1L;
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.lockById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.deleteById(id))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
-        verify(userRepository).existsById(id);
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("deleteById")
+    void deleteById_UserAlreadyDeleted_ThenUserNotFoundException() {
+        // Arrange
+        Long id = 1L;
+        Date deletedAt = new Date(0);
+        stubForUpdate(id).setDeletedAt(deletedAt);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.deleteById(id))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @Tag("patchPasswordById")
+    void patchPasswordById_UserDeleted_ThenUserNotFoundException() {
+        // Arrange
+        Long id = 1L;
+        UserEntity user = stubForUpdate(id);
+        user.setDeletedAt(new Date()); // waiting to be purged
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchPasswordById(id, new PatchPasswordUserDTO("12345678")))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    @Tag("patchEmailById")
+    void patchEmailById_WithVersionUserDeleted_ThenUserNotFoundException() {
+        // Arrange
+        Long id = 1L;
+        UserEntity user = createUserEntityWithIdAndRolesWithId();
+        user.setVersion(3L);
+        user.setDeletedAt(new Date());
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchEmailById(id, new PatchEmailUserDTO("new@example.com"), 3L))
+                .isInstanceOf(UserNotFoundException.class); // not a version mismatch, as a read
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(userAvailabilityService, never()).isEmailAvailable(any());
     }
 
 
@@ -481,9 +575,16 @@ public class UserServiceImplTest {
         int amount = 10;
         List<UserEntity> entities = getUserEntities(amount);
         Pageable pag = PageRequest.of(1, 5, Sort.by(Sort.Order.asc("id")));
-        PageImpl<UserEntity> mockPage = new PageImpl<>(entities, pag, entities.size()); // 10
-                when(userRepository.findAll(any(Pageable.class)))
-                .thenReturn(mockPage);
+        List<PublicUserPageRowDTO> rows = entities.stream()
+                .map(e -> new PublicUserPageRowDTO(e.getId(), e.getUsername(), e.getEmail(), e.getCreatedAt(),
+                        e.getUpdatedAt(), e.getVersion(), e.getId() * 10, (long) entities.size())) // total: 10
+                .toList();
+        when(userRepository.findPageRows(any(Pageable.class)))
+                .thenReturn(rows);
+        when(userRepository.findRolesByUserIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> new PublicUserRoleDTO(id, ERole.ROLE_USER)).toList();
+        });
 
         // Act
         Page<PublicUserDTO> pageRes = userService.getPage(pag);
@@ -505,9 +606,29 @@ public class UserServiceImplTest {
                     .hasFieldOrPropertyWithValue("email", entities.get(i).getEmail())
                     .hasFieldOrPropertyWithValue("createdAt", entities.get(i).getCreatedAt())
                     .hasFieldOrPropertyWithValue("updatedAt", entities.get(i).getUpdatedAt())
-                    .hasFieldOrPropertyWithValue("roles", new HashSet<>(Collections.singleton(new PublicRoleDTO(ERole.ROLE_USER))));
+                    .hasFieldOrPropertyWithValue("roles", new HashSet<>(Collections.singleton(new PublicRoleDTO(ERole.ROLE_USER))))
+                    .hasFieldOrPropertyWithValue("noteCount", entities.get(i).getId() * 10);
         }
-        verify(userRepository).findAll(pag);
+        verify(userRepository).findPageRows(pag);
+        verify(userRepository).findRolesByUserIdIn(anyCollection()); // a single query for the roles of the page
+        verify(userRepository, never()).countByDeletedAtIsNull(); // carried by the rows
+    }
+
+    @Test
+    @Tag("getPage")
+    void getPage_OutOfRange_ThenEmptyWithTheCountedTotal() {
+        // Arrange
+        Pageable pag = PageRequest.of(3, 5, Sort.by(Sort.Order.asc("id")));
+        when(userRepository.findPageRows(pag)).thenReturn(List.of());
+        when(userRepository.countByDeletedAtIsNull()).thenReturn(7L);
+
+        // Act
+        Page<PublicUserDTO> pageRes = userService.getPage(pag);
+
+        // Assert
+        assertThat(pageRes.getContent()).isEmpty();
+        assertThat(pageRes.getTotalElements()).isEqualTo(7);
+        verify(userRepository, never()).findRolesByUserIdIn(any());
     }
 
     @Test
@@ -519,7 +640,7 @@ public class UserServiceImplTest {
         // Act & Assert
         assertThatThrownBy(() -> userService.getPage(pag))
                 .isInstanceOf(IllegalArgumentException.class);
-        verify(userRepository, never()).findAll(any(Pageable.class));
+        verify(userRepository, never()).findPageRows(any(Pageable.class));
     }
 
 
@@ -533,17 +654,18 @@ public class UserServiceImplTest {
 
         String cleanUsername = newUsername.trim().toLowerCase();
 
-        when(userRepository.existsById(id)).thenReturn(true);
-        when(userRepository.existsByUsername(cleanUsername)).thenReturn(false);
-        doNothing().when(userRepository).updateUsernameById(cleanUsername, id);
+        UserEntity user = stubForUpdate(id);
+        when(userAvailabilityService.isUsernameAvailable(cleanUsername)).thenReturn(true);
 
         // Act
         userService.patchUsernameById(id, dto);
 
         // Assert
-        verify(userRepository).existsById(id);
-        verify(userRepository).existsByUsername(cleanUsername);
-        verify(userRepository).updateUsernameById(cleanUsername, id);
+        verify(userRepository).lockById(id);
+        verify(userAvailabilityService).isUsernameAvailable(cleanUsername);
+        assertThat(user.getUsername()).isEqualTo(cleanUsername);
+        verify(userRepository).saveAndFlush(user);
+        verify(userAvailabilityService).registerTaken(cleanUsername, null);
     }
 
     @Tag("patchUsernameById")
@@ -559,7 +681,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(InvalidIdException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.CommonInEntity.ID_INVALID)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).updateUsernameById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -573,7 +695,7 @@ public class UserServiceImplTest {
         assertThatThrownBy(() -> userService.patchUsernameById(id, dto))
                 .isInstanceOf(AnyUserDTOIsNullException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.DTO.ANY_RELATED_DTO_WITH_USER_NULL);
-        verify(userRepository, never()).updateUsernameById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
 
@@ -587,15 +709,15 @@ public class UserServiceImplTest {
 
         String cleanUsername = newUsername.trim().toLowerCase();
 
-        when(userRepository.existsById(id)).thenReturn(true);
-        when(userRepository.existsByUsername(cleanUsername)).thenReturn(false);
-        doNothing().when(userRepository).updateUsernameById(cleanUsername, id);
+        UserEntity user = stubForUpdate(id);
+        when(userAvailabilityService.isUsernameAvailable(cleanUsername)).thenReturn(true);
 
         // Act
         userService.patchUsernameById(id, dto);
 
         // Assert
-        verify(userRepository).updateUsernameById(cleanUsername, id);
+        assertThat(user.getUsername()).isEqualTo(cleanUsername);
+        verify(userRepository).saveAndFlush(user);
     }
 
 
@@ -622,7 +744,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(UsernameLengthException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Validations.USERNAME_LENGTH_FAIL_MSG)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).updateUsernameById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -632,15 +754,15 @@ public class UserServiceImplTest {
         Long id = 1L;
         PatchUsernameUserDTO dto = new PatchUsernameUserDTO("newUsername");
 
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.lockById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.patchUsernameById(id, dto))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
-        verify(userRepository).existsById(id);
-        verify(userRepository, never()).updateUsernameById(any(), any());
+        verify(userRepository).lockById(id);
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
 
@@ -654,17 +776,17 @@ public class UserServiceImplTest {
 
         String cleanUsername = newUsername.trim().toLowerCase();
 
-        when(userRepository.existsById(id)).thenReturn(true);
-        when(userRepository.existsByUsername(cleanUsername)).thenReturn(true);
+        UserEntity user = stubForUpdate(id);
+        when(userAvailabilityService.isUsernameAvailable(cleanUsername)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> userService.patchUsernameById(id, dto))
                 .isInstanceOf(UsernameAlreadyExistsException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Constrains.USERNAME_UNIQUE_MSG)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
-        verify(userRepository).existsById(id);
-        verify(userRepository).existsByUsername(cleanUsername);
-        verify(userRepository, never()).updateUsernameById(any(), any());
+        verify(userRepository).lockById(id);
+        verify(userAvailabilityService).isUsernameAvailable(cleanUsername);
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
 
@@ -676,17 +798,17 @@ public class UserServiceImplTest {
         String newEmail = "cristianmherrera21@gmail.com";
         PatchEmailUserDTO dto = new PatchEmailUserDTO(newEmail);
 
-        when(userRepository.existsById(id)).thenReturn(true);
-        when(userRepository.existsByEmail(newEmail)).thenReturn(false);
-        doNothing().when(userRepository).updateEmailById(newEmail, id);
+        UserEntity user = stubForUpdate(id);
+        when(userAvailabilityService.isEmailAvailable(newEmail)).thenReturn(true);
 
         // Act
         userService.patchEmailById(id, dto);
 
         // Assert
-        verify(userRepository).existsById(id);
-        verify(userRepository).existsByEmail(newEmail);
-        verify(userRepository).updateEmailById(newEmail, id);
+        verify(userRepository).lockById(id);
+        verify(userAvailabilityService).isEmailAvailable(newEmail);
+        assertThat(user.getEmail()).isEqualTo(newEmail);
+        verify(userRepository).saveAndFlush(user);
     }
 
     @Tag("patchEmailById")
@@ -702,7 +824,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(InvalidIdException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.CommonInEntity.ID_INVALID)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).updateEmailById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -716,7 +838,7 @@ public class UserServiceImplTest {
         assertThatThrownBy(() -> userService.patchEmailById(id, dto))
                 .isInstanceOf(AnyUserDTOIsNullException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.DTO.ANY_RELATED_DTO_WITH_USER_NULL);
-        verify(userRepository, never()).updateEmailById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
 
@@ -730,15 +852,15 @@ public class UserServiceImplTest {
 
         String cleanEmail = newEmail.trim().toLowerCase();
 
-        when(userRepository.existsById(id)).thenReturn(true);
-        when(userRepository.existsByEmail(cleanEmail)).thenReturn(false);
-        doNothing().when(userRepository).updateEmailById(cleanEmail, id);
+        UserEntity user = stubForUpdate(id);
+        when(userAvailabilityService.isEmailAvailable(cleanEmail)).thenReturn(true);
 
         // Act
         userService.patchEmailById(id, dto);
 
         // Assert
-        verify(userRepository).updateEmailById(cleanEmail, id);
+        assertThat(user.getEmail()).isEqualTo(cleanEmail);
+        verify(userRepository).saveAndFlush(user);
     }
 
     @Tag("patchEmailById")
@@ -764,7 +886,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(EmailIsInvalidException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Validations.EMAIL_IS_INVALID_MSG)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).updateEmailById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -774,14 +896,14 @@ public class UserServiceImplTest {
         Long id = 1L;
         PatchEmailUserDTO dto = new PatchEmailUserDTO("cristianmherrera21@gmail.com");
 
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.lockById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.patchEmailById(id, dto))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
-        verify(userRepository, never()).updateEmailById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -792,18 +914,62 @@ public class UserServiceImplTest {
         String newEmail = "cristianmherrera21@gmail.com";
         PatchEmailUserDTO dto = new PatchEmailUserDTO(newEmail);
 
-        when(userRepository.existsById(id)).thenReturn(true);
-        when(userRepository.existsByEmail(newEmail)).thenReturn(true);
+        UserEntity user = stubForUpdate(id);
+        when(userAvailabilityService.isEmailAvailable(newEmail)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> userService.patchEmailById(id, dto))
                 .isInstanceOf(EmailAlreadyExistException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Constrains.EMAIL_UNIQUE_MSG)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
-        verify(userRepository, never()).updateEmailById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+
+    @Test
+    @Tag("patchEmailById")
+    void patchEmailById_TakenThroughAnotherInstance_ThenEmailAlreadyExistException() {
+        // Arrange
+        Long id = 1L;
+        String newEmail = "cristianmherrera21@gmail.com";
+        PatchEmailUserDTO dto = new PatchEmailUserDTO(newEmail);
+
+        stubForUpdate(id);
+        when(userAvailabilityService.isEmailAvailable(newEmail)).thenReturn(true); // not in the filters of this instance
+        when(userRepository.saveAndFlush(any(UserEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("violates unique constraint \"" + Cons.User.Constrains.EMAIL_UNIQUE_NAME + "\""));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchEmailById(id, dto))
+                .isInstanceOf(EmailAlreadyExistException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.User.Constrains.EMAIL_UNIQUE_MSG)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
+        verify(userAvailabilityService, never()).registerTaken(any(), any());
     }
 
 
+    @Test
+    @Tag("patchEmailById")
+    void patchEmailById_WithVersion_VersionMismatch_ThenUserVersionMismatchException() {
+        // Arrange
+        Long id = 1L;
+        Long version = 7L;
+        String newEmail = "cristianmherrera21@gmail.com";
+        PatchEmailUserDTO dto = new PatchEmailUserDTO(newEmail);
+
+        UserEntity user = createUserEntityWithIdAndRolesWithId();
+        user.setVersion(version - 1);
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patchEmailById(id, dto, version))
+                .isInstanceOf(UserVersionMismatchException.class)
+                .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.VERSION_MISMATCH)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+        verify(userRepository, never()).lockById(any()); // conditional on the version, without a lock
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     @Tag("patchPasswordById")
     void patchPasswordById_Successful() {
@@ -812,17 +978,17 @@ public class UserServiceImplTest {
         String newPassword = "12345678";
         PatchPasswordUserDTO dto = new PatchPasswordUserDTO(newPassword);
 
-        when(userRepository.existsById(id)).thenReturn(true);
+        UserEntity user = stubForUpdate(id);
         when(passwordEncoder.encode(newPassword)).thenReturn("{bcrypt}$2a81...");
-        doNothing().when(userRepository).updatePasswordById("{bcrypt}$2a81...", id);
 
         // Act
         userService.patchPasswordById(id, dto);
 
         // Assert
-        verify(userRepository).existsById(id);
+        verify(userRepository).lockById(id);
         verify(passwordEncoder).encode(newPassword);
-        verify(userRepository).updatePasswordById("{bcrypt}$2a81...", id);
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}$2a81...");
+        verify(userRepository).saveAndFlush(user);
     }
 
     @Tag("patchPasswordById")
@@ -838,7 +1004,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(InvalidIdException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.CommonInEntity.ID_INVALID)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).updatePasswordById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -852,7 +1018,7 @@ public class UserServiceImplTest {
         assertThatThrownBy(() -> userService.patchPasswordById(id, dto))
                 .isInstanceOf(AnyUserDTOIsNullException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.DTO.ANY_RELATED_DTO_WITH_USER_NULL);
-        verify(userRepository, never()).updatePasswordById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -865,16 +1031,16 @@ public class UserServiceImplTest {
 
         String cleanPassword = newPassword.trim();
 
-        when(userRepository.existsById(id)).thenReturn(true);
+        UserEntity user = stubForUpdate(id);
         when(passwordEncoder.encode(cleanPassword)).thenReturn("{bcrypt}$2a81...");
-        doNothing().when(userRepository).updatePasswordById("{bcrypt}$2a81...", id);
 
         // Act
         userService.patchPasswordById(id, dto);
 
         // Assert
         verify(passwordEncoder).encode(cleanPassword);
-        verify(userRepository).updatePasswordById("{bcrypt}$2a81...", id);
+        assertThat(user.getPassword()).isEqualTo("{bcrypt}$2a81...");
+        verify(userRepository).saveAndFlush(user);
     }
 
 
@@ -900,7 +1066,7 @@ public class UserServiceImplTest {
                 .isInstanceOf(PlainPasswordLengthException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Validations.PASSWORD_LENGTH_FAIL_MSG)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
-        verify(userRepository, never()).updatePasswordById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
 
@@ -911,23 +1077,25 @@ public class UserServiceImplTest {
         Long id = 1L;
         PatchPasswordUserDTO dto = new PatchPasswordUserDTO("12345678");
 
-        when(userRepository.existsById(id)).thenReturn(false);
+        when(userRepository.lockById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> userService.patchPasswordById(id, dto))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasFieldOrPropertyWithValue("reason", Cons.User.Fails.NOT_FOUND)
                 .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
-        verify(userRepository, never()).updatePasswordById(any(), any());
+        verify(userRepository, never()).saveAndFlush(any());
     }
 
 
     @Test
     @Tag("deleteAll")
     void deleteAll_Successful() {
-        doNothing().when(userRepository).deleteAll();
-        userService.deleteAll();
-        verify(userRepository).deleteAll();
+        PublicBulkDeletionJobDTO job = PublicBulkDeletionJobDTO.builder().id(3L).target(EBulkDeletionTarget.USERS).build();
+        when(bulkDeletionService.start(EBulkDeletionTarget.USERS)).thenReturn(job);
+
+        assertThat(userService.deleteAll()).isEqualTo(job);
+        verify(userRepository, never()).deleteAll(); // never loaded, deleted in background chunks
     }
 
 
@@ -0,0 +1,152 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.TitleMaxLengthFailException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.EmailIsInvalidException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.PlainPasswordLengthException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UsernameLengthException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.MAX_EMAIL_LENGTH;
+import static org.cris6h16.apirestspringboot.Constants.Cons.User.Validations.MIN_EMAIL_LENGTH;
+
+/**
+ * Test class for {@link AttributeNormalizer}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class AttributeNormalizerTest {
+
+    @Test
+    void normalizeUsername_trimmedAndLowered() {
+        assertThat(AttributeNormalizer.normalizeUsername("  Cris6H16 \t")).isEqualTo("cris6h16");
+        assertThat(AttributeNormalizer.normalizeUsername("ÁLVARO")).isEqualTo("álvaro");
+    }
+
+    @Test
+    void normalizeUsername_alreadyNormalized_thenSameInstance() {
+        String username = "cris6h16";
+        assertThat(AttributeNormalizer.normalizeUsername(username)).isSameAs(username);
+    }
+
+    @Test
+    void normalizeUsernameAndEmail_nonAscii_thenLoweredByTheRootLocale() {
+        // Arrange
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+
+        try {
+            // Act & Assert: Turkish rules would give a dotless 'ı' for 'I'
+            assertThat(AttributeNormalizer.normalizeUsername("ILHAN")).isEqualTo("ilhan");
+            assertThat(AttributeNormalizer.normalizeUsername("ÑANDÚ")).isEqualTo("ñandú");
+            assertThat(AttributeNormalizer.normalizeUsername("İPEK")).isEqualTo("i\u0307pek"); // dotted capital I keeps its dot as a combining mark
+            assertThat(AttributeNormalizer.normalizeEmail("ÍÑIGO@CORREO.ES")).isEqualTo("íñigo@correo.es");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "   abc   ", "abcdefghijklmnopqrstu"})
+    void normalizeUsername_lengthOutOfBounds_thenUsernameLengthException(String username) {
+        assertThatThrownBy(() -> AttributeNormalizer.normalizeUsername(username))
+                .isInstanceOf(UsernameLengthException.class);
+    }
+
+    @Test
+    void normalizeUsername_null_thenUsernameLengthException() {
+        assertThatThrownBy(() -> AttributeNormalizer.normalizeUsername(null))
+                .isInstanceOf(UsernameLengthException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"cris6h16@gmail.com", "  Cris6h16@GMail.Com  ", "a@b.c", "a@b@c.d", "a.b@c.d.e", "a@.b.c", "x\u0001@y.z", "a@b.c.", "@a@b.c", "a@@b.c"})
+    void normalizeEmail_sameAsTheRegex(String email) {
+        String expected = email.trim().toLowerCase(Locale.ROOT);
+        assertThat(expected.matches("^\\S+@\\S+\\.\\S+$")).isTrue();
+
+        assertThat(AttributeNormalizer.normalizeEmail(email)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "a@b.", "@bc.d", "ab@.c", "abc.d@e", "abcde", "a b@c.d", "a@b\u000B.c", "ab@cd"})
+    void normalizeEmail_invalid_thenEmailIsInvalidException(String email) {
+        assertThat(email.trim().length() < 5 || !email.trim().matches("^\\S+@\\S+\\.\\S+$")).isTrue();
+
+        assertThatThrownBy(() -> AttributeNormalizer.normalizeEmail(email))
+                .isInstanceOf(EmailIsInvalidException.class);
+    }
+
+    /**
+     * Every string of up to 7 characters of an alphabet with the characters of the rules, validated by
+     * the removed {@code UserValidationUtils#validateEmail} ( the regex ) and by {@link AttributeNormalizer}
+     */
+    @Test
+    void normalizeEmail_exhaustivelySameAsTheRegex() {
+        char[] alphabet = {'a', '@', '.', ' ', '\t', '\u0001'}; // \u0001 is trimmed but isn't \s
+        Pattern regex = Pattern.compile("^\\S+@\\S+\\.\\S+$");
+        StringBuilder sb = new StringBuilder();
+        for (int length = 0; length <= 7; length++) {
+            int combinations = (int) Math.pow(alphabet.length, length);
+            for (int n = 0; n < combinations; n++) {
+                sb.setLength(0);
+                for (int i = 0, k = n; i < length; i++, k /= alphabet.length) sb.append(alphabet[k % alphabet.length]);
+                String email = sb.toString();
+
+                String trimmed = email.trim();
+                boolean expected = trimmed.length() >= MIN_EMAIL_LENGTH && trimmed.length() <= MAX_EMAIL_LENGTH &&
+                        regex.matcher(trimmed).matches();
+                boolean actual;
+                try {
+                    AttributeNormalizer.normalizeEmail(email);
+                    actual = true;
+                } catch (EmailIsInvalidException e) {
+                    actual = false;
+                }
+
+                assertThat(actual).as("'%s'", email).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void normalizeEmail_tooLongOrNull_thenEmailIsInvalidException() {
+        assertThatThrownBy(() -> AttributeNormalizer.normalizeEmail("a@b." + "c".repeat(252)))
+                .isInstanceOf(EmailIsInvalidException.class);
+        assertThatThrownBy(() -> AttributeNormalizer.normalizeEmail(null))
+                .isInstanceOf(EmailIsInvalidException.class);
+    }
+
+    @Test
+    void normalizePassword_trimmedAndCaseKept() {
+        assertThat(AttributeNormalizer.normalizePassword(" 12345678Ab ")).isEqualTo("12345678Ab");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1234567", "  1234567  ", "123456789012345678901234567890123456789012345678901"})
+    void normalizePassword_lengthOutOfBounds_thenPlainPasswordLengthException(String password) {
+        assertThatThrownBy(() -> AttributeNormalizer.normalizePassword(password))
+                .isInstanceOf(PlainPasswordLengthException.class);
+    }
+
+    @Test
+    void normalizeTitleAndContent_nullBlanked_titleNotTrimmed() {
+        assertThat(AttributeNormalizer.normalizeTitle(null)).isEmpty();
+        assertThat(AttributeNormalizer.normalizeContent(null)).isEmpty();
+        assertThat(AttributeNormalizer.normalizeTitle("  title  ")).isEqualTo("  title  ");
+        assertThat(AttributeNormalizer.normalizeTitle(" " + "a".repeat(255) + " ")).hasSize(257);
+    }
+
+    @Test
+    void normalizeTitle_tooLong_thenTitleMaxLengthFailException() {
+        assertThatThrownBy(() -> AttributeNormalizer.normalizeTitle("a".repeat(256)))
+                .isInstanceOf(TitleMaxLengthFailException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link BloomFilter}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class BloomFilterTest {
+
+    @Test
+    void mightContain_everyPutValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i))).isTrue();
+    }
+
+    @Test
+    void mightContain_falsePositivesCloseToTheExpectedProbability() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@example.com"))
+                .count();
+
+        assertThat(falsePositives).isLessThan(2_000); // 1% expected, of 100.000
+    }
+
+    @Test
+    void mightContain_empty_thenFalse() {
+        assertThat(new BloomFilter(100, 0.01).mightContain("cris6h16")).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 1, -0.5})
+    void constructor_invalidProbability_thenIllegalArgumentException(double fpp) {
+        assertThatThrownBy(() -> new BloomFilter(100, fpp))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
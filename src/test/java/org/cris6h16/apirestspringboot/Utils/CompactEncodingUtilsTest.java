@@ -0,0 +1,68 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.cris6h16.apirestspringboot.Constants.Cons.Response.Encoding.SLIM_PAGE_JSON_VALUE;
+
+/**
+ * Test class for {@link CompactEncodingUtils}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class CompactEncodingUtilsTest {
+    private static final List<MediaType> ALL = CompactEncodingUtils.compactTypes(true, true);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "application/vnd.cris6h16.page+json",
+            "application/cbor",
+            "application/x-jackson-smile",
+            "application/cbor, application/json",
+            "application/json;q=0.5, application/cbor",
+            "application/x-jackson-smile, */*;q=0.1"
+    })
+    void isCompactPreferred_compactFirst_thenTrue(String accept) {
+        assertThat(CompactEncodingUtils.isCompactPreferred(accept, ALL)).isTrue();
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            "application/json",
+            "*/*",
+            "application/json, application/cbor",
+            "application/cbor;q=0.5, application/json",
+            "application/cbor;q=0",
+            "text/plain",
+            "not a media type"
+    })
+    void isCompactPreferred_jsonFirstOrUnknown_thenFalse(String accept) {
+        assertThat(CompactEncodingUtils.isCompactPreferred(accept, ALL)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "application/cbor, application/json",
+            "application/x-jackson-smile, */*;q=0.1"
+    })
+    void isCompactPreferred_binaryWithoutItsModule_thenItsFallback(String accept) {
+        assertThat(CompactEncodingUtils.isCompactPreferred(accept, CompactEncodingUtils.compactTypes(false, false))).isFalse();
+        assertThat(CompactEncodingUtils.isCompactPreferred("application/cbor, " + SLIM_PAGE_JSON_VALUE,
+                CompactEncodingUtils.compactTypes(false, false))).isTrue();
+    }
+
+    @Test
+    void isCompactPreferred_binaryOnlyIfOnTheClasspath() {
+        boolean cbor = ClassUtils.isPresent("com.fasterxml.jackson.dataformat.cbor.CBORFactory", null);
+        assertThat(CompactEncodingUtils.isCompactPreferred("application/cbor, application/json")).isEqualTo(cbor);
+    }
+}
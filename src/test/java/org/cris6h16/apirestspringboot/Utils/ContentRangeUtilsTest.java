@@ -0,0 +1,64 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.RangeNotSatisfiableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link ContentRangeUtils}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class ContentRangeUtilsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "chars=0-99, 0, 99",
+            "chars=10-, 10, 999",
+            "chars=-100, 900, 999",
+            "chars=-5000, 0, 999",       // suffix longer than the content
+            "chars=990-5000, 990, 999",  // end clamped
+            "CHARS=5-5, 5, 5"
+    })
+    void parse_satisfiable_clampedToTheContent(String range, long start, long end) {
+        ContentRangeUtils.CharRange r = ContentRangeUtils.parse(range, 1000);
+
+        assertThat(r).isEqualTo(new ContentRangeUtils.CharRange(start, end));
+        assertThat(r.length()).isEqualTo(end - start + 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=0-99", "chars=0-9,20-29", "chars=9-0", "chars=a-9", "chars=", "chars=-", "0-99"})
+    void parse_unsupportedOrMalformed_thenNullToServeTheWholeContent(String range) {
+        assertThat(ContentRangeUtils.parse(range, 1000)).isNull();
+        assertThat(ContentRangeUtils.parse(null, 1000)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"chars=1000-", "chars=1000-2000", "chars=-0"})
+    void parse_startsOutside_thenRangeNotSatisfiableException(String range) {
+        assertThatThrownBy(() -> ContentRangeUtils.parse(range, 1000))
+                .isInstanceOf(RangeNotSatisfiableException.class)
+                .hasFieldOrPropertyWithValue("length", 1000L);
+    }
+
+    @Test
+    void parse_emptyContent_anyRangeIsNotSatisfiable() {
+        assertThatThrownBy(() -> ContentRangeUtils.parse("chars=0-", 0))
+                .isInstanceOf(RangeNotSatisfiableException.class);
+        assertThatThrownBy(() -> ContentRangeUtils.parse("chars=-10", 0))
+                .isInstanceOf(RangeNotSatisfiableException.class);
+    }
+
+    @Test
+    void contentRangeHeaders() {
+        assertThat(ContentRangeUtils.toContentRange(new ContentRangeUtils.CharRange(0, 99), 1000)).isEqualTo("chars 0-99/1000");
+        assertThat(ContentRangeUtils.toUnsatisfiedContentRange(1000)).isEqualTo("chars */1000");
+    }
+}
@@ -0,0 +1,52 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.InvalidIfMatchException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.Common.WeakIfMatchException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link ETagUtils}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class ETagUtilsTest {
+
+    @Test
+    void toETag_quotedVersion() {
+        assertThat(ETagUtils.toETag(3L)).isEqualTo("\"3\"");
+        assertThat(ETagUtils.toETag(null)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"\"3\"", "3", "  \"3\"  "})
+    void parseVersion_acceptedFormats(String ifMatch) {
+        assertThat(ETagUtils.parseVersion(ifMatch)).isEqualTo(3L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"W/\"3\"", "  W/\"3\""})
+    void parseVersion_weak_thenWeakIfMatchException(String ifMatch) {
+        assertThatThrownBy(() -> ETagUtils.parseVersion(ifMatch))
+                .isInstanceOf(WeakIfMatchException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void parseVersion_null_thenNull() {
+        assertThat(ETagUtils.parseVersion(null)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"*", "", "\"a\"", "\"1\", \"2\"", "-1"})
+    void parseVersion_invalid_thenInvalidIfMatchException(String ifMatch) {
+        assertThatThrownBy(() -> ETagUtils.parseVersion(ifMatch))
+                .isInstanceOf(InvalidIfMatchException.class);
+    }
+}
@@ -0,0 +1,69 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link FixedWindowRateLimiter}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class FixedWindowRateLimiterTest {
+
+    @Test
+    void tryAcquire_upToThePermits_thenRejectedUntilTheWindowEnds() {
+        // Arrange
+        FixedWindowRateLimiter limiter = new FixedWindowRateLimiter(3, 1_000, 100);
+
+        // Act & Assert
+        assertThat(IntStream.range(0, 3).allMatch(i -> limiter.tryAcquire("10.0.0.1", 0))).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1", 999)).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.1", 1_000)).isTrue(); // a new window
+    }
+
+    @Test
+    void tryAcquire_eachKeyHasItsOwnWindow() {
+        // Arrange
+        FixedWindowRateLimiter limiter = new FixedWindowRateLimiter(1, 1_000, 100);
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire("10.0.0.1", 0)).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1", 0)).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.2", 0)).isTrue();
+    }
+
+    @Test
+    void tryAcquire_manyRejected_thenStillRejectedWithoutOverflow() {
+        // Arrange
+        FixedWindowRateLimiter limiter = new FixedWindowRateLimiter(1, 1_000, 100);
+        limiter.tryAcquire("10.0.0.1", 0);
+
+        // Act & Assert
+        assertThat(IntStream.range(0, 10_000).noneMatch(i -> limiter.tryAcquire("10.0.0.1", 1))).isTrue();
+    }
+
+    @Test
+    void tryAcquire_moreKeysThanTracked_thenTheExpiredAreDropped() {
+        // Arrange
+        FixedWindowRateLimiter limiter = new FixedWindowRateLimiter(1, 1_000, 10);
+        IntStream.range(0, 11).forEach(i -> limiter.tryAcquire("10.0.0." + i, 0));
+
+        // Act
+        limiter.tryAcquire("10.0.1.1", 1_000);
+
+        // Assert
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_notPositive_thenIllegalArgumentException() {
+        assertThatThrownBy(() -> new FixedWindowRateLimiter(0, 1_000, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FixedWindowRateLimiter(1, 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FixedWindowRateLimiter(1, 1_000, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.NoteService.InvalidDigestPathException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link NoteDigestUtils}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class NoteDigestUtilsTest {
+
+    @Test
+    void bucketOf_idModLeaves() {
+        assertThat(NoteDigestUtils.bucketOf(1L)).isEqualTo(1);
+        assertThat(NoteDigestUtils.bucketOf(4096L)).isZero();
+        assertThat(NoteDigestUtils.bucketOf(4096L + 0xa3)).isEqualTo(0xa3);
+    }
+
+    @Test
+    void noteHash_dependsOnIdAndVersion() {
+        long h = NoteDigestUtils.noteHash(1L, 0L);
+        assertThat(NoteDigestUtils.noteHash(1L, 0L)).isEqualTo(h);
+        assertThat(NoteDigestUtils.noteHash(1L, 1L)).isNotEqualTo(h);
+        assertThat(NoteDigestUtils.noteHash(2L, 0L)).isNotEqualTo(h);
+    }
+
+    @Test
+    void toHex_16Digits() {
+        assertThat(NoteDigestUtils.toHex(0L)).isEqualTo("0000000000000000");
+        assertThat(NoteDigestUtils.toHex(-1L)).isEqualTo("ffffffffffffffff");
+    }
+
+    @Test
+    void parsePath_hexDigitsFromTheRoot() {
+        assertThat(NoteDigestUtils.parsePath(null)).isZero();
+        assertThat(NoteDigestUtils.parsePath("")).isZero();
+        assertThat(NoteDigestUtils.parsePath("a")).isEqualTo(10);
+        assertThat(NoteDigestUtils.parsePath("0a3")).isEqualTo(0xa3);
+        assertThat(NoteDigestUtils.parsePath("FFF")).isEqualTo(4095);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0000", "g", "-1", " a"})
+    void parsePath_invalid_thenInvalidDigestPathException(String path) {
+        assertThatThrownBy(() -> NoteDigestUtils.parsePath(path))
+                .isInstanceOf(InvalidDigestPathException.class);
+    }
+}
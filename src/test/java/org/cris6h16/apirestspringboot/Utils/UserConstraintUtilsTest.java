@@ -0,0 +1,47 @@
+package org.cris6h16.apirestspringboot.Utils;
+
+import org.cris6h16.apirestspringboot.Constants.Cons;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.EmailAlreadyExistException;
+import org.cris6h16.apirestspringboot.Exceptions.WithStatus.service.UserService.UsernameAlreadyExistsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for {@link UserConstraintUtils}
+ *
+ * @author <a href="https://www.github.com/cris6h16" target="_blank">Cristian Herrera</a>
+ * @since 1.0
+ */
+class UserConstraintUtilsTest {
+
+    @Test
+    void conflictOf_username_thenUsernameAlreadyExists() {
+        DataIntegrityViolationException e = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"" + Cons.User.Constrains.USERNAME_UNIQUE_NAME + "\""));
+
+        assertThat(UserConstraintUtils.conflictOf(e))
+                .isInstanceOf(UsernameAlreadyExistsException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void conflictOf_emailInUpperCase_thenEmailAlreadyExist() { // H2 reports the names in upper case
+        DataIntegrityViolationException e = new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC." + Cons.User.Constrains.EMAIL_UNIQUE_NAME.toUpperCase() + "_INDEX_4\"");
+
+        assertThat(UserConstraintUtils.conflictOf(e)).isInstanceOf(EmailAlreadyExistException.class);
+    }
+
+    @Test
+    void conflictOf_anotherConstraint_thenRethrown() {
+        DataIntegrityViolationException e = new DataIntegrityViolationException("NULL not allowed for column \"PASSWORD\"");
+
+        assertThatThrownBy(() -> UserConstraintUtils.conflictOf(e)).isSameAs(e);
+    }
+}